@@ -0,0 +1,50 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkRunner.java
+ *
+ * Purpose: Runs the OpenBurn benchmarks with the GC profiler, which adds
+ * 		the allocation rate (gc.alloc.rate.norm, bytes per call) to every
+ * 		result next to its time. Results are also saved as JSON, so runs
+ * 		from different releases can be compared.
+ *
+ * 		Usage: java benchmarks.BenchmarkRunner [pattern] [results file]
+ * 		The pattern picks benchmarks by name, for example "PhaseBenchmark"
+ * 		or "SimulationBenchmark.simulateToStore". All run by default.
+ *
+ * 		The classpath needs the OpenBurn classes, jmh-core, and the
+ * 		classes jmh-generator-annprocess generates while compiling this
+ * 		directory.
+**/
+
+public class BenchmarkRunner
+{
+	// Defaults
+	private static final String DEFAULT_PATTERN      = "benchmarks\\..*Benchmark.*";
+	private static final String DEFAULT_RESULTS_FILE = "jmh-results.json";
+
+
+
+	public static void main (String[] args) throws RunnerException
+	{
+		String pattern = args.length > 0 ? args[0] : DEFAULT_PATTERN;
+		String resultsFile = args.length > 1 ? args[1] : DEFAULT_RESULTS_FILE;
+
+		Options options = new OptionsBuilder()
+				.include(pattern)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result(resultsFile)
+				.build();
+
+		new Runner(options).run();
+	} // main()
+
+} // class BenchmarkRunner
@@ -0,0 +1,113 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.RocketMath;
+import model.calculations.SimulationResultStore;
+import model.calculations.SimulationSummary;
+import tests.MotorFixtures;
+import view.CSVConverter;
+import view.RSEGenerator;
+
+/**
+ * ExportBenchmark.java
+ *
+ * Purpose: Measures the work done on a finished simulation: building the
+ * 		SimulationSummary, and writing the CSV and RSE files. The BATES
+ * 		motor is simulated once per trial, and the files are written to
+ * 		temporary files that are deleted afterwards.
+**/
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class ExportBenchmark
+{
+	// Constants
+	private static final String TEAM_NAME = "OpenBurn";
+
+
+
+	// Parameters
+	@Param({"0.01", "0.001"})
+	public double deltaTime;
+
+
+
+	// Fields
+	private SimulationResultStore results;
+	private SimulationSummary summary;
+	private Nozzle nozzle;
+	private Case motorCase;
+	private File csvFile;
+	private File rseFile;
+
+
+
+	@Setup
+	public void setUp () throws IOException
+	{
+		nozzle    = MotorFixtures.nozzle(5);
+		motorCase = MotorFixtures.motorCase();
+		results   = RocketMath.simulateToStore(MotorFixtures.batesGrains(), deltaTime, nozzle, motorCase, MotorFixtures.propellant());
+		summary   = new SimulationSummary(results, motorCase);
+		csvFile   = File.createTempFile("openburn", ".csv");
+		rseFile   = File.createTempFile("openburn", ".rse");
+	} // setUp()
+
+
+
+	@TearDown
+	public void tearDown ()
+	{
+		csvFile.delete();
+		rseFile.delete();
+	} // tearDown()
+
+
+
+	@Benchmark
+	public SimulationSummary simulationSummary ()
+	{
+		return new SimulationSummary(results, motorCase);
+	} // simulationSummary()
+
+
+
+	@Benchmark
+	public File writeResultsArr ()
+	{
+		CSVConverter.writeResultsArr(results, csvFile);
+		return csvFile;
+	} // writeResultsArr()
+
+
+
+	@Benchmark
+	public File generateRSEToFile ()
+	{
+		new RSEGenerator(TEAM_NAME, results, motorCase, summary, nozzle).generateRSEToFile(rseFile);
+		return rseFile;
+	} // generateRSEToFile()
+
+} // class ExportBenchmark
@@ -0,0 +1,224 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.RocketMath;
+import model.calculations.SimulationResults;
+import model.calculations.SimulationStepper;
+import model.grains.Grain;
+import model.grains.GrainStack;
+import model.propellant.Propellant;
+import tests.MotorFixtures;
+
+/**
+ * PhaseBenchmark.java
+ *
+ * Purpose: Measures each phase of a simulation step in RocketMath on its
+ * 		own, on a motor that has been burning for about a second, so a
+ * 		regression can be traced to the phase that caused it.
+ *
+ * 		regressGrains takes a real step, so BurnedGrains puts the grains back
+ * 		before each call and every call regresses the same geometry. Only
+ * 		that benchmark pays the cost of timing each call on its own.
+**/
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class PhaseBenchmark
+{
+	// Constants
+	private static final double DELTA_TIME = 0.001;
+	private static final double BURN_TIME  = 1.0;   // seconds burned before measuring
+
+
+
+	// Parameters
+	@Param({"5", "100"})
+	public int grainCount;
+
+
+
+	// Fields
+	private GrainStack grains;
+	private Nozzle nozzle;
+	private Case motorCase;
+	private Propellant propellant;
+	private SimulationResults current;
+
+
+
+	// Buffers, as reused by SimulationStepper
+	private double massGenerated[];
+	private double massFlow[];
+	private double portToThroat[];
+	private double massFlowPerArea[];
+
+
+
+	@Setup
+	public void setUp ()
+	{
+		nozzle     = MotorFixtures.scaledNozzle(grainCount);
+		motorCase  = MotorFixtures.motorCase();
+		propellant = MotorFixtures.propellant();
+
+		// Burn the motor part way, so every phase sees a real mid-burn state
+		SimulationStepper stepper = new SimulationStepper(MotorFixtures.stackedGrains(grainCount), nozzle, motorCase, propellant);
+		current = stepper.initialize();
+		while (stepper.getTime() < BURN_TIME)
+			current = stepper.step(DELTA_TIME);
+		grains = stepper.getGrains();
+
+		massGenerated   = new double[grainCount];
+		massFlow        = new double[grainCount];
+		portToThroat    = new double[grainCount];
+		massFlowPerArea = new double[grainCount + 2];
+		RocketMath.generateMassFlow(grains, current, massFlow);
+	} // setUp()
+
+
+
+	@Benchmark
+	public double generateGeometry ()
+	{
+		RocketMath.generateGeometry(grains, current, nozzle, propellant);
+		return current.getBurnRate();
+	} // generateGeometry()
+
+
+
+	@Benchmark
+	public double regressGrains (BurnedGrains burned)
+	{
+		RocketMath.regressGrains(grains, current, DELTA_TIME, propellant, massGenerated);
+		return current.getMassGeneratedOverall();
+	} // regressGrains()
+
+
+
+	@Benchmark
+	public double[] generateMassFlow ()
+	{
+		return RocketMath.generateMassFlow(grains, current, massFlow);
+	} // generateMassFlow()
+
+
+
+	@Benchmark
+	public double[] portToThroatRatio ()
+	{
+		RocketMath.portToThroatRatio(grains, current, nozzle, portToThroat);
+		return portToThroat;
+	} // portToThroatRatio()
+
+
+
+	@Benchmark
+	public double[] calculateMassFlowPerArea ()
+	{
+		RocketMath.calculateMassFlowPerArea(grains, current, massFlow, nozzle, massFlowPerArea);
+		return massFlowPerArea;
+	} // calculateMassFlowPerArea()
+
+
+
+	@Benchmark
+	public double calculateLStar ()
+	{
+		RocketMath.calculateLStar(grains, current, nozzle);
+		return current.getLStar();
+	} // calculateLStar()
+
+
+
+	@Benchmark
+	public double massAndCenterOfGravity ()
+	{
+		RocketMath.massAndCenterOfGravity(grains, current, motorCase, propellant);
+		return current.getSystemCenterOfGravity();
+	} // massAndCenterOfGravity()
+
+
+
+	@Benchmark
+	public GrainStack calculateBurnout ()
+	{
+		RocketMath.calculateBurnout(grains, BURN_TIME);
+		return grains;
+	} // calculateBurnout()
+
+
+
+	@Benchmark
+	public double timeToBurnout ()
+	{
+		return RocketMath.timeToBurnout(grains, current.getBurnRate());
+	} // timeToBurnout()
+
+
+
+	@Benchmark
+	public double calculateThrust ()
+	{
+		RocketMath.calculateThrust(current, nozzle);
+		return current.getThrust();
+	} // calculateThrust()
+
+
+
+	/**
+	 * BurnedGrains
+	 *
+	 * Purpose: Keeps a copy of the grains once the motor has burned for
+	 * 		BURN_TIME, and copies it back into the benchmark grains before
+	 * 		every call that uses it.
+	**/
+
+	@State(Scope.Thread)
+	public static class BurnedGrains
+	{
+		// Fields
+		private Grain saved[];
+
+
+
+		@Setup
+		public void save (PhaseBenchmark phases)
+		{
+			saved = new Grain[phases.grains.size()];
+			for (int i = 0; i < saved.length; i++)
+				saved[i] = phases.grains.get(i).clone();
+		} // save()
+
+
+
+		@Setup(Level.Invocation)
+		public void restore (PhaseBenchmark phases)
+		{
+			for (int i = 0; i < saved.length; i++)
+				phases.grains.get(i).copyStateFrom(saved[i]);
+			phases.grains.refresh();
+		} // restore()
+
+	} // class BurnedGrains
+
+} // class PhaseBenchmark
@@ -0,0 +1,86 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.RocketMath;
+import model.calculations.SimulationResultStore;
+import model.calculations.SimulationResults;
+import model.grains.Grain;
+import model.propellant.Propellant;
+import tests.MotorFixtures;
+
+/**
+ * SimulationBenchmark.java
+ *
+ * Purpose: Measures a whole burn simulation across motor sizes and changes
+ * 		in time, through both the list and the store entry points of
+ * 		RocketMath. Grains are regressed by a simulation, so every call
+ * 		simulates fresh copies of the fixture grains.
+**/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class SimulationBenchmark
+{
+	// Parameters
+	@Param({"1", "5", "20", "100"})
+	public int grainCount;
+
+	@Param({"0.01", "0.001"})
+	public double deltaTime;
+
+
+
+	// Fields
+	private List<Grain> grains;
+	private Nozzle nozzle;
+	private Case motorCase;
+	private Propellant propellant;
+
+
+
+	@Setup
+	public void setUp ()
+	{
+		grains     = grainCount == 5 ? MotorFixtures.batesGrains() : MotorFixtures.stackedGrains(grainCount);
+		nozzle     = MotorFixtures.scaledNozzle(grainCount);
+		motorCase  = MotorFixtures.motorCase();
+		propellant = MotorFixtures.propellant();
+	} // setUp()
+
+
+
+	@Benchmark
+	public List<SimulationResults> simulate ()
+	{
+		return RocketMath.simulate(MotorFixtures.copy(grains), deltaTime, nozzle, motorCase, propellant);
+	} // simulate()
+
+
+
+	@Benchmark
+	public SimulationResultStore simulateToStore ()
+	{
+		return RocketMath.simulateToStore(MotorFixtures.copy(grains), deltaTime, nozzle, motorCase, propellant);
+	} // simulateToStore()
+
+} // class SimulationBenchmark
@@ -0,0 +1,107 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.unitConversion.DensityUnits;
+import model.unitConversion.ForceUnits;
+import model.unitConversion.LengthUnits;
+import model.unitConversion.MassFlowRateUnits;
+import model.unitConversion.MassUnits;
+import model.unitConversion.PressureUnits;
+import model.unitConversion.UnitConverter;
+
+/**
+ * UnitConverterBenchmark.java
+ *
+ * Purpose: Measures the UnitConverter conversions used when results are
+ * 		shown or exported. Each conversion runs once per value shown, so
+ * 		they are measured one call at a time. The input is a field, so the
+ * 		compiler can not fold the conversion into a constant.
+**/
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class UnitConverterBenchmark
+{
+	// Fields
+	public double value = 3.387;
+
+
+
+	@Benchmark
+	public double lengthInchesToMillimeters ()
+	{
+		return UnitConverter.unitLengthConverter(value, LengthUnits.INCHES, LengthUnits.MILLIMETERS);
+	} // lengthInchesToMillimeters()
+
+
+
+	@Benchmark
+	public double lengthFeetToCentimeters ()
+	{
+		return UnitConverter.unitLengthConverter(value, LengthUnits.FEET, LengthUnits.CENTIMETERS);
+	} // lengthFeetToCentimeters()
+
+
+
+	@Benchmark
+	public double massPoundsToKilograms ()
+	{
+		return UnitConverter.unitMassConverter(value, MassUnits.POUNDS_MASS, MassUnits.KILOGRAMS);
+	} // massPoundsToKilograms()
+
+
+
+	@Benchmark
+	public double densityToGramsPerCubicCentimeter ()
+	{
+		return UnitConverter.unitDensityConverter(value, DensityUnits.POUNDS_MASS_PER_CUBIC_INCH, DensityUnits.GRAMS_PER_CUBIC_CENTIMETER);
+	} // densityToGramsPerCubicCentimeter()
+
+
+
+	@Benchmark
+	public double massFromInternal ()
+	{
+		return UnitConverter.convertMassFromInternal(value, MassUnits.GRAMS);
+	} // massFromInternal()
+
+
+
+	@Benchmark
+	public double forceFromInternal ()
+	{
+		return UnitConverter.convertForceFromInternal(value, ForceUnits.NEWTONS);
+	} // forceFromInternal()
+
+
+
+	@Benchmark
+	public double flowRateFromInternal ()
+	{
+		return UnitConverter.convertFlowRateFromInternal(value, MassFlowRateUnits.KILOGRAMS_PER_SECOND);
+	} // flowRateFromInternal()
+
+
+
+	@Benchmark
+	public double pressureFromInternal ()
+	{
+		return UnitConverter.convertPressureFromInternal(value, PressureUnits.PASCALS);
+	} // pressureFromInternal()
+
+} // class UnitConverterBenchmark
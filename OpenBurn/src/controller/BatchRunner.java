@@ -0,0 +1,635 @@
+package controller;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.RocketMath;
+import model.calculations.SimulationCache;
+import model.calculations.SimulationResultStore;
+import model.calculations.SimulationSummary;
+import model.grains.Grain;
+import model.propellant.Propellant;
+import view.CSVWriter;
+import view.NumberFormatter;
+import view.RSEGenerator;
+
+/**
+ * BatchRunner.java
+ *
+ * Purpose: Simulates many motor definition files without prompting, for
+ * 		regression runs and design sweeps on build servers.
+ *
+ * 		Every file is read first, then the motors are simulated on a fixed
+ * 		number of worker threads, so at most that many results are held at
+ * 		once. Each motor writes <name>.csv, <name>.rse and <name>.summary.txt
+ * 		to the output directory, and summary.csv there holds one row per
+ * 		motor, including the ones that failed. Motors sharing a name, or
+ * 		named summary, get a numbered name such as summary-2. A motor that
+ * 		fails does not stop the others; getExitCode() tells whether any
+ * 		failed.
+**/
+
+public class BatchRunner
+{
+	// Error messages
+	private static final String THREADS_ERR_MSG   = "ERROR: Thread count must be positive!\n";
+	private static final String DIRECTORY_ERR_MSG = "ERROR: Output directory can not be created!\n";
+	private static final String NOT_FOUND_ERR_MSG = "ERROR: Motor definition file does not exist!\n";
+
+
+
+	// Exit codes
+	public static final int SUCCESS       = 0;
+	public static final int USAGE_ERROR   = 1;
+	public static final int MOTORS_FAILED = 2;
+
+
+
+	// Constants
+	public static final String CSV_EXTENSION     = ".csv";
+	public static final String SUMMARY_NAME      = "summary";
+	public static final String SUMMARY_FILE      = SUMMARY_NAME + CSV_EXTENSION;
+	public static final String RSE_EXTENSION     = ".rse";
+	public static final String SUMMARY_EXTENSION = ".summary.txt";
+	private static final String DEFAULT_TEAM     = "OpenBurn";
+	private static final String MOTOR_EXTENSIONS[] = { ".txt", ".motor" };
+	private static final int DECIMALS            = 2;
+	private static final String OK_STATUS        = "ok";
+	private static final String FAILED_STATUS    = "FAILED";
+	private static final String SUMMARY_LABELS[] = { "Classification", "ISP (seconds)", "Impulse (lbf * seconds)",
+													 "Average Thrust (lbf)", "Max Thrust (lbf)", "Max Pressure (psi)",
+													 "Burn Time (seconds)" };
+	private static final String TABLE_FORMAT     = "%-24s %-6s %-8s %10s %10s %10s %10s %10s %8s%n";
+	private static final String PROGRESS_FORMAT  = "[%d/%d] %d failed, %s";
+	private static final String DONE_FORMAT      = "%d motors in %.1f seconds, %d failed%n";
+
+
+
+	// Fields
+	private final File outputDirectory;
+	private final int threads;
+	private boolean writeCSV = true;
+	private boolean writeRSE = true;
+	private boolean writeSummary = true;
+	private String teamName = DEFAULT_TEAM;
+	private SimulationCache cache;
+	private PrintStream progress;
+	private boolean overwriteProgress;
+	private int motorsDone;
+	private int motorsFailed;
+
+
+
+	/**
+	 * BatchRunner Constructor
+	 *
+	 * Purpose: Creates a runner that writes to the given directory and
+	 * 		simulates on the given number of threads.
+	**/
+
+	public BatchRunner (File outputDirectory, int threads)
+	{
+		if (threads < 1)
+			throw new IllegalArgumentException(THREADS_ERR_MSG);
+
+		this.outputDirectory = outputDirectory;
+		this.threads         = threads;
+	} // BatchRunner Constructor
+
+
+
+	/**
+	 * setOutputs()
+	 *
+	 * Purpose: Picks which files are written for each motor. summary.csv is
+	 * 		always written.
+	 *
+	 * Parameters:
+	 * 		boolean csv -- Write <name>.csv with every step.
+	 * 		boolean rse -- Write <name>.rse for RockSim.
+	 * 		boolean summary -- Write <name>.summary.txt.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setOutputs (boolean csv, boolean rse, boolean summary)
+	{
+		this.writeCSV     = csv;
+		this.writeRSE     = rse;
+		this.writeSummary = summary;
+	} // setOutputs()
+
+
+
+	/**
+	 * setTeamName()
+	 *
+	 * Purpose: Sets the manufacturer written to the RSE files.
+	 *
+	 * Parameters:
+	 * 		String teamName -- Team name.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setTeamName (String teamName)
+	{
+		this.teamName = teamName;
+	} // setTeamName()
+
+
+
+	/**
+	 * setCache()
+	 *
+	 * Purpose: Simulates motors through the given cache, or directly if it
+	 * 		is null.
+	 *
+	 * Parameters:
+	 * 		SimulationCache cache -- Cache to use, or null.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setCache (SimulationCache cache)
+	{
+		this.cache = cache;
+	} // setCache()
+
+
+
+	/**
+	 * setProgress()
+	 *
+	 * Purpose: Prints a progress line to the given stream as each motor
+	 * 		finishes, or nothing if it is null. When overwriting, each line
+	 * 		replaces the last on a terminal instead of starting a new one.
+	 *
+	 * Parameters:
+	 * 		PrintStream progress -- Where progress goes, or null.
+	 * 		boolean overwrite -- Replace the line instead of adding lines.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setProgress (PrintStream progress, boolean overwrite)
+	{
+		this.progress          = progress;
+		this.overwriteProgress = overwrite;
+	} // setProgress()
+
+
+
+	/**
+	 * run()
+	 *
+	 * Purpose: Reads, simulates and writes every motor, then writes
+	 * 		summary.csv. Waits for all of them to finish.
+	 *
+	 * Parameters:
+	 * 		List<File> files -- Motor definition files.
+	 *
+	 * Returns: List<MotorResult>. One result per file, in the same order.
+	 *
+	 * Throws: IOException if the output directory or summary.csv can not be
+	 * 		written. Errors of single motors are kept in their results.
+	**/
+
+	public List<MotorResult> run (List<File> files) throws IOException
+	{
+		if (outputDirectory.isDirectory() == false && outputDirectory.mkdirs() == false)
+			throw new IOException(DIRECTORY_ERR_MSG);
+
+		long start = System.nanoTime();
+		motorsDone = motorsFailed = 0;
+		MotorResult results[] = new MotorResult[files.size()];
+
+		// Read every definition first, so output names are settled in file order
+		MotorDefinition motors[] = new MotorDefinition[files.size()];
+		String names[] = new String[files.size()];
+		Set<String> usedNames = new HashSet<String>();
+		usedNames.add(SUMMARY_NAME);   // A motor named summary would write over summary.csv
+		for (int i = 0; i < files.size(); i++)
+		{
+			try
+			{
+				if (files.get(i).isFile() == false)
+					throw new IOException(NOT_FOUND_ERR_MSG);
+				motors[i] = MotorDefinition.parse(files.get(i));
+				names[i] = uniqueName(motors[i].getName(), usedNames);
+			}
+			catch (IOException | RuntimeException e)
+			{
+				results[i] = new MotorResult(files.get(i), files.get(i).getName(), null, describe(e), 0);
+				reportProgress(results[i], files.size());
+			}
+		}
+
+		// Simulate the rest on the workers, reporting each as it finishes
+		ExecutorService workers = Executors.newFixedThreadPool(threads);
+		try
+		{
+			CompletionService<MotorResult> finished = new ExecutorCompletionService<MotorResult>(workers);
+			List<Future<MotorResult>> pending = new ArrayList<Future<MotorResult>>();
+			int submitted[] = new int[files.size()];
+			for (int i = 0; i < files.size(); i++)
+			{
+				if (motors[i] == null)
+					continue;
+
+				final File file = files.get(i);
+				final MotorDefinition motor = motors[i];
+				final String name = names[i];
+				submitted[pending.size()] = i;
+				pending.add(finished.submit(new Callable<MotorResult>()
+				{
+					@Override
+					public MotorResult call ()
+					{
+						return simulateMotor(file, motor, name);
+					}
+				}));
+			}
+
+			for (int i = 0; i < pending.size(); i++)
+			{
+				MotorResult result = take(finished);
+				reportProgress(result, files.size());
+			}
+			for (int i = 0; i < pending.size(); i++)
+				results[submitted[i]] = take(pending.get(i));
+		}
+		finally
+		{
+			workers.shutdown();
+		}
+
+		List<MotorResult> resultList = Arrays.asList(results);
+		writeSummaryTable(resultList, new File(outputDirectory, SUMMARY_FILE));
+
+		if (progress != null)
+		{
+			if (overwriteProgress)
+				progress.println();
+			progress.printf(DONE_FORMAT, results.length, (System.nanoTime() - start) / 1e9, motorsFailed);
+		}
+
+		return resultList;
+	} // run()
+
+
+
+	/**
+	 * simulateMotor()
+	 *
+	 * Purpose: Simulates one motor and writes its chosen outputs. Any error
+	 * 		is kept in the result instead of being thrown.
+	 *
+	 * Parameters:
+	 * 		File file -- Definition file of the motor.
+	 * 		MotorDefinition motor -- The motor.
+	 * 		String name -- Name its output files start with.
+	 *
+	 * Returns: MotorResult. The outcome of the motor.
+	**/
+
+	private MotorResult simulateMotor (File file, MotorDefinition motor, String name)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			List<Grain> grains = motor.createGrains();
+			Nozzle nozzle = motor.createNozzle();
+			Case theCase = motor.createCase();
+			Propellant propellant = motor.createPropellant();
+
+			SimulationResultStore results = (cache == null)
+					? RocketMath.simulateToStore(grains, motor.getDeltaTime(), nozzle, theCase, propellant)
+					: cache.simulate(grains, motor.getDeltaTime(), nozzle, theCase, propellant);
+			SimulationSummary summary = new SimulationSummary(results, theCase);
+
+			if (writeCSV)
+			{
+				CSVWriter writer = new CSVWriter(new File(outputDirectory, name + CSV_EXTENSION), grains.size());
+				try
+				{
+					writer.append(results);
+				}
+				finally
+				{
+					writer.close();
+				}
+			}
+			if (writeRSE)
+				new RSEGenerator(teamName, results, theCase, summary, nozzle)
+						.writeRSE(new File(outputDirectory, name + RSE_EXTENSION));
+			if (writeSummary)
+				writeMotorSummary(summary, new File(outputDirectory, name + SUMMARY_EXTENSION));
+
+			return new MotorResult(file, name, summary, null, elapsedMillis(start));
+		}
+		catch (IOException | RuntimeException e)
+		{
+			return new MotorResult(file, name, null, describe(e), elapsedMillis(start));
+		}
+	} // simulateMotor()
+
+
+
+	/**
+	 * writeSummaryTable()
+	 *
+	 * Purpose: Writes one CSV row per motor with its status and summary
+	 * 		values, or its error.
+	 *
+	 * Parameters:
+	 * 		List<MotorResult> results -- Results of a run.
+	 * 		File file -- File to write to.
+	 *
+	 * Returns: void.
+	**/
+
+	public static void writeSummaryTable (List<MotorResult> results, File file) throws IOException
+	{
+		NumberFormatter formatter = new NumberFormatter();
+		StringBuilder row = new StringBuilder();
+		Writer out = new BufferedWriter(new FileWriter(file));
+		try
+		{
+			out.write("Motor,Status," + String.join(",", SUMMARY_LABELS) + ",Error\n");
+			for (MotorResult result : results)
+			{
+				row.setLength(0);
+				row.append(quote(result.getName())).append(',');
+				row.append(result.succeeded() ? OK_STATUS : FAILED_STATUS);
+				String values[] = summaryValues(result.getSummary(), formatter);
+				for (String value : values)
+					row.append(',').append(value);
+				row.append(',').append(result.succeeded() ? "" : quote(result.getError())).append('\n');
+				out.write(row.toString());
+			}
+		}
+		finally
+		{
+			out.close();
+		}
+	} // writeSummaryTable()
+
+
+
+	/**
+	 * printSummaryTable()
+	 *
+	 * Purpose: Prints an aligned table of the results, with the error of
+	 * 		each failed motor below the table.
+	 *
+	 * Parameters:
+	 * 		List<MotorResult> results -- Results of a run.
+	 * 		PrintStream out -- Where the table goes.
+	 *
+	 * Returns: void.
+	**/
+
+	public static void printSummaryTable (List<MotorResult> results, PrintStream out)
+	{
+		NumberFormatter formatter = new NumberFormatter();
+		out.printf(TABLE_FORMAT, "Motor", "Status", "Class", "ISP (s)", "Impulse", "Avg F", "Max F", "Max P", "Burn (s)");
+		for (MotorResult result : results)
+		{
+			String values[] = summaryValues(result.getSummary(), formatter);
+			out.printf(TABLE_FORMAT, result.getName(), result.succeeded() ? OK_STATUS : FAILED_STATUS,
+					   values[0], values[1], values[2], values[3], values[4], values[5], values[6]);
+		}
+
+		for (MotorResult result : results)
+			if (result.succeeded() == false)
+				out.println(result.getName() + ": " + result.getError());
+	} // printSummaryTable()
+
+
+
+	/**
+	 * getExitCode()
+	 *
+	 * Purpose: Returns the exit code for a run: SUCCESS if every motor
+	 * 		succeeded, MOTORS_FAILED otherwise.
+	 *
+	 * Parameters:
+	 * 		List<MotorResult> results -- Results of a run.
+	 *
+	 * Returns: int. The exit code.
+	**/
+
+	public static int getExitCode (List<MotorResult> results)
+	{
+		for (MotorResult result : results)
+			if (result.succeeded() == false)
+				return MOTORS_FAILED;
+
+		return SUCCESS;
+	} // getExitCode()
+
+
+
+	/**
+	 * findMotorFiles()
+	 *
+	 * Purpose: Turns paths given on the command line into motor definition
+	 * 		files. Directories are replaced by their .txt and .motor files in
+	 * 		name order; files are kept as given, even if they do not exist, so
+	 * 		the run reports them.
+	 *
+	 * Parameters:
+	 * 		List<String> paths -- Files and directories.
+	 *
+	 * Returns: List<File>. The motor definition files.
+	**/
+
+	public static List<File> findMotorFiles (List<String> paths)
+	{
+		List<File> files = new ArrayList<File>();
+		for (String path : paths)
+		{
+			File file = new File(path);
+			File children[] = file.listFiles();
+			if (file.isDirectory() == false || children == null)
+			{
+				files.add(file);
+				continue;
+			}
+
+			Arrays.sort(children);
+			for (File child : children)
+				if (child.isFile() && isMotorFile(child.getName()))
+					files.add(child);
+		}
+
+		return files;
+	} // findMotorFiles()
+
+
+
+	// Writes the summary of one motor as "label: value" lines
+	private static void writeMotorSummary (SimulationSummary summary, File file) throws IOException
+	{
+		String values[] = summaryValues(summary, new NumberFormatter());
+		Writer out = new BufferedWriter(new FileWriter(file));
+		try
+		{
+			for (int i = 0; i < values.length; i++)
+				out.write(SUMMARY_LABELS[i] + ": " + values[i] + "\n");
+		}
+		finally
+		{
+			out.close();
+		}
+	} // writeMotorSummary()
+
+
+
+	// Formats the values of a summary in the order of SUMMARY_LABELS, or blanks for none
+	private static String[] summaryValues (SimulationSummary summary, NumberFormatter formatter)
+	{
+		String values[] = new String[SUMMARY_LABELS.length];
+		if (summary == null)
+		{
+			Arrays.fill(values, "");
+			return values;
+		}
+
+		values[0] = summary.getClassification();
+		values[1] = formatter.formatFixed(summary.ISP(), DECIMALS).toString();
+		values[2] = formatter.formatFixed(summary.getImpulse(), DECIMALS).toString();
+		values[3] = formatter.formatFixed(summary.getaverageThrust(), DECIMALS).toString();
+		values[4] = formatter.formatFixed(summary.getMaxThrust(), DECIMALS).toString();
+		values[5] = formatter.formatFixed(summary.getmaxPressure(), DECIMALS).toString();
+		values[6] = formatter.formatFixed(summary.getBurnTime(), DECIMALS).toString();
+		return values;
+	} // summaryValues()
+
+
+
+	// Prints the progress line for a finished motor
+	private synchronized void reportProgress (MotorResult result, int total)
+	{
+		motorsDone++;
+		if (result.succeeded() == false)
+			motorsFailed++;
+		if (progress == null)
+			return;
+
+		String line = String.format(PROGRESS_FORMAT, motorsDone, total, motorsFailed, result.getName());
+		if (overwriteProgress)
+			progress.print("\r" + line + "\033[K");
+		else
+			progress.println(line);
+		progress.flush();
+	} // reportProgress()
+
+
+
+	// Returns a name safe for file names that no earlier motor of the run has,
+	// ignoring case as some file systems do
+	private static String uniqueName (String name, Set<String> usedNames)
+	{
+		String safe = name.replaceAll("[^A-Za-z0-9._-]", "_");
+		String unique = safe;
+		for (int copy = 2; usedNames.add(unique.toLowerCase(Locale.ROOT)) == false; copy++)
+			unique = safe + "-" + copy;
+
+		return unique;
+	} // uniqueName()
+
+
+
+	// Returns true if a file name ends with a motor definition extension
+	private static boolean isMotorFile (String fileName)
+	{
+		for (String extension : MOTOR_EXTENSIONS)
+			if (fileName.endsWith(extension))
+				return true;
+
+		return false;
+	} // isMotorFile()
+
+
+
+	// Waits for a result; simulateMotor() keeps its own errors, so others are bugs
+	private static MotorResult take (CompletionService<MotorResult> finished)
+	{
+		try
+		{
+			return take(finished.take());
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	} // take()
+
+	private static MotorResult take (Future<MotorResult> result)
+	{
+		try
+		{
+			return result.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+		catch (ExecutionException e)
+		{
+			throw new IllegalStateException(e.getCause());
+		}
+	} // take()
+
+
+
+	// Describes an error in one line
+	private static String describe (Exception e)
+	{
+		String message = e.getMessage();
+		return (message == null) ? e.getClass().getSimpleName() : message.trim();
+	} // describe()
+
+
+
+	// Quotes a CSV field that holds a comma or quote
+	private static String quote (String field)
+	{
+		if (field.contains(",") == false && field.contains("\"") == false)
+			return field;
+
+		return "\"" + field.replace("\"", "\"\"") + "\"";
+	} // quote()
+
+
+
+	// Milliseconds since the given System.nanoTime()
+	private static long elapsedMillis (long start)
+	{
+		return (System.nanoTime() - start) / 1000000;
+	} // elapsedMillis()
+
+} // class BatchRunner
@@ -1,6 +1,7 @@
 package controller;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
 import model.*;
 import model.calculations.*;
@@ -58,9 +59,29 @@ public class CMDLineInterface {
 	private static final String NULL_SCANNER_MSG = "\nERROR: Null scanner for input!\n";
 	private static final String INPUT_ERROR_MSG = "\nERROR: Invalid input!\n";
 
+	// Batch mode
+	private static final String BATCH_OPTION = "--batch";
+	private static final String OUT_OPTION = "--out";
+	private static final String THREADS_OPTION = "--threads";
+	private static final String OUTPUTS_OPTION = "--outputs";
+	private static final String TEAM_OPTION = "--team";
+	private static final String NO_CACHE_OPTION = "--no-cache";
+	private static final String CSV_OUTPUT = "csv";
+	private static final String RSE_OUTPUT = "rse";
+	private static final String SUMMARY_OUTPUT = "summary";
+	private static final String USAGE_MSG = "Usage: CMDLineInterface [--no-cache]\n"
+			+ "\tor CMDLineInterface --batch [options] <motor file or directory>...";
+	private static final String BATCH_USAGE_MSG = "Usage: CMDLineInterface --batch [--out <directory>] [--threads <count>]\n"
+			+ "\t[--outputs csv,rse,summary] [--team <name>] [--no-cache] <motor file or directory>...\n"
+			+ "Directories are searched for .txt and .motor motor definition files.\n"
+			+ "Exit codes: 0 when every motor succeeded, 1 for bad arguments, 2 when any motor failed.";
+
 	// Error status
 	private static final int ERROR_OCCURRED = 1;
 
+	// Memory for cached simulation results
+	private static final long CACHE_BYTES = 64L * 1024 * 1024;
+
 	/**
 	 * main()
 	 * 
@@ -70,12 +91,34 @@ public class CMDLineInterface {
 	 * 
 	 * Finally, simulated results are calculated and displayed to the user.
 	 * 
-	 * Parameters: String[] args -- Command-line arguments. Not needed here.
+	 * With --batch as the first argument, motor definition files are
+	 * simulated without prompting instead; see runBatch(). Otherwise the
+	 * only argument is --no-cache, which simulates the motor without reading
+	 * or writing the disk cache.
+	 * 
+	 * Parameters: String[] args -- Command-line arguments.
 	 * 
 	 * Returns: void.
 	 **/
 
 	public static void main(String[] args) {
+		if (args.length > 0 && args[0].equals(BATCH_OPTION)) {
+			int exitCode = runBatch(args);
+			printProfile();
+			System.exit(exitCode);
+		}
+
+		boolean useCache = true;
+		for (String arg : args) {
+			if (arg.equals(NO_CACHE_OPTION)) {
+				useCache = false;
+			} else {
+				System.err.println(INPUT_ERROR_MSG);
+				System.err.println(USAGE_MSG);
+				System.exit(ERROR_OCCURRED);
+			}
+		}
+
 		System.out.println(START_MSG);
 
 		// Scanner for keyboard input
@@ -93,8 +136,8 @@ public class CMDLineInterface {
 		Propellant p_model = new EmpericalPropellant(p_slope, p_intercept, br_slope, br_intercept, density);
 
 		// Continuously prompt the user for input and create a list of Grains
-		// Current implementation of the list is: LinkedList
-		List<Grain> listOfGrains = new LinkedList<Grain>();
+		// Current implementation of the list is: ArrayList
+		List<Grain> listOfGrains = new ArrayList<Grain>();
 		for (int grainNum = 0; grainNum < numberOfGrains; grainNum++) {
 			System.out.println(GRAIN_NUM + grainNum);
 			listOfGrains.add(createGrain(input));
@@ -117,8 +160,11 @@ public class CMDLineInterface {
 
 		Case theCase = new Case(caseMass, caseDiameter, caseLength);
 
-		// Simulate the rocket motor using the given data
-		List<SimulationResults> theResults = RocketMath.simulate(listOfGrains, deltaTime, nozzle, theCase, p_model);
+		// Simulate the rocket motor using the given data, or read the results
+		// of an earlier run of the same motor from the disk cache
+		SimulationResultStore theResults = useCache
+				? simulateCached(listOfGrains, deltaTime, nozzle, theCase, p_model)
+				: RocketMath.simulateToStore(listOfGrains, deltaTime, nozzle, theCase, p_model);
 
 		// Prompt for CSV file name to send data
 		System.out.println(FILE_PROMPT);
@@ -134,8 +180,131 @@ public class CMDLineInterface {
 
 		
 		System.out.println(SIM_OVER);
+		printProfile();
 	} // main()
 
+	/**
+	 * printProfile()
+	 * 
+	 * Purpose: Prints the time taken by each phase of every simulation to
+	 * standard error, when the JVM was started with -Dopenburn.profile=true.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: void.
+	 **/
+
+	private static void printProfile() {
+		if (SimulationProfiler.ENABLED) {
+			System.err.println();
+			System.err.print(SimulationProfiler.getGlobal().getReport());
+		}
+	} // printProfile()
+
+	/**
+	 * runBatch()
+	 * 
+	 * Purpose: Runs batch mode. Every motor definition file given, or found
+	 * in a given directory, is simulated on a pool of worker threads, and its
+	 * outputs are written to the output directory along with summary.csv. A
+	 * progress line is printed as motors finish, then a summary table.
+	 * 
+	 * Parameters: String[] args -- Command-line arguments, starting with
+	 * --batch.
+	 * 
+	 * Returns: int. The exit code: BatchRunner.SUCCESS, USAGE_ERROR, or
+	 * MOTORS_FAILED.
+	 **/
+
+	private static int runBatch(String[] args) {
+		File outputDirectory = new File(".");
+		int threads = Runtime.getRuntime().availableProcessors();
+		String outputs = CSV_OUTPUT + "," + RSE_OUTPUT + "," + SUMMARY_OUTPUT;
+		String teamName = null;
+		boolean useCache = true;
+		List<String> paths = new ArrayList<String>();
+
+		try {
+			for (int i = 1; i < args.length; i++) {
+				if (args[i].equals(OUT_OPTION)) {
+					outputDirectory = new File(optionValue(args, ++i));
+				} else if (args[i].equals(THREADS_OPTION)) {
+					threads = Integer.parseInt(optionValue(args, ++i));
+				} else if (args[i].equals(OUTPUTS_OPTION)) {
+					outputs = optionValue(args, ++i);
+				} else if (args[i].equals(TEAM_OPTION)) {
+					teamName = optionValue(args, ++i);
+				} else if (args[i].equals(NO_CACHE_OPTION)) {
+					useCache = false;
+				} else if (args[i].startsWith("--")) {
+					throw new IllegalArgumentException(args[i]);
+				} else {
+					paths.add(args[i]);
+				}
+			}
+
+			List<String> chosen = Arrays.asList(outputs.split(","));
+			for (String output : chosen) {
+				if (output.equals(CSV_OUTPUT) == false && output.equals(RSE_OUTPUT) == false
+						&& output.equals(SUMMARY_OUTPUT) == false) {
+					throw new IllegalArgumentException(output);
+				}
+			}
+
+			List<File> files = BatchRunner.findMotorFiles(paths);
+			if (files.isEmpty()) {
+				throw new IllegalArgumentException(INPUT_ERROR_MSG);
+			}
+
+			BatchRunner runner = new BatchRunner(outputDirectory, threads);
+			runner.setOutputs(chosen.contains(CSV_OUTPUT), chosen.contains(RSE_OUTPUT),
+					chosen.contains(SUMMARY_OUTPUT));
+			runner.setProgress(System.err, System.console() != null);
+			if (teamName != null) {
+				runner.setTeamName(teamName);
+			}
+
+			DiskSimulationCache disk = useCache ? openDiskCache() : null;
+			if (useCache) {
+				runner.setCache(new SimulationCache(CACHE_BYTES, disk));
+			}
+			try {
+				List<MotorResult> results = runner.run(files);
+				BatchRunner.printSummaryTable(results, System.out);
+				return BatchRunner.getExitCode(results);
+			} finally {
+				if (disk != null) {
+					disk.close();
+				}
+			}
+		} catch (IllegalArgumentException e) {
+			System.err.println(INPUT_ERROR_MSG);
+			System.err.println(BATCH_USAGE_MSG);
+			return BatchRunner.USAGE_ERROR;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return BatchRunner.USAGE_ERROR;
+		}
+	} // runBatch()
+
+	/**
+	 * optionValue()
+	 * 
+	 * Purpose: Returns the value after a batch mode option.
+	 * 
+	 * Parameters: String[] args -- Command-line arguments. int index -- Index
+	 * of the value.
+	 * 
+	 * Returns: String. The value.
+	 **/
+
+	private static String optionValue(String[] args, int index) {
+		if (index >= args.length) {
+			throw new IllegalArgumentException(args[index - 1]);
+		}
+		return args[index];
+	} // optionValue()
+
 	/**
 	 * promptInt()
 	 * 
@@ -298,4 +467,55 @@ public class CMDLineInterface {
 		return (new Nozzle(throatDiameter, entranceDiameter, exitDiameter, cf, numberOfGrains));
 	} // createNozzle()
 
+	/**
+	 * simulateCached()
+	 * 
+	 * Purpose: Simulates the given motor through a SimulationCache backed by
+	 * the default disk cache. If the disk cache can not be opened, the motor
+	 * is simulated without it.
+	 * 
+	 * Parameters: List<Grain> listOfGrains -- Grains of the motor, not changed.
+	 * double deltaTime -- Change in time for each step. Nozzle nozzle -- Nozzle
+	 * of the motor. Case theCase -- Case of the motor. Propellant p_model --
+	 * Propellant of the motor.
+	 * 
+	 * Returns: SimulationResultStore. The results of the simulation.
+	 **/
+
+	private static SimulationResultStore simulateCached(List<Grain> listOfGrains, double deltaTime, Nozzle nozzle,
+			Case theCase, Propellant p_model) {
+		DiskSimulationCache disk = openDiskCache();
+		SimulationResultStore results = new SimulationCache(CACHE_BYTES, disk).simulate(listOfGrains, deltaTime,
+				nozzle, theCase, p_model);
+
+		if (disk != null) {
+			try {
+				disk.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		return results;
+	} // simulateCached()
+
+	/**
+	 * openDiskCache()
+	 * 
+	 * Purpose: Opens the default disk cache, or returns null if it can not be
+	 * opened, so simulations run without it.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: DiskSimulationCache. The disk cache, or null.
+	 **/
+
+	private static DiskSimulationCache openDiskCache() {
+		try {
+			return new DiskSimulationCache(DiskSimulationCache.getDefaultDirectory());
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	} // openDiskCache()
+
 } // class CMDLineInterface
@@ -0,0 +1,500 @@
+package controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import model.Case;
+import model.Nozzle;
+import model.grains.Grain;
+import model.grains.GrainFactory;
+import model.grains.GrainType;
+import model.propellant.EmpericalPropellant;
+import model.propellant.Propellant;
+
+/**
+ * MotorDefinition.java
+ *
+ * Purpose: Holds everything needed to simulate one motor, read from a motor
+ * 		definition file for batch runs of the command line interface.
+ *
+ * 		Two formats are read. The first is the input.txt style: the answers to
+ * 		the interactive prompts in order, separated by whitespace, which are
+ * 		the number of grains, the propellant density, pressure slope and
+ * 		intercept, and burn rate slope and intercept, then the outer
+ * 		diameter, inner diameter, length and burning ends of each grain, the
+ * 		nozzle throat, entrance and exit diameters and CF, the change in
+ * 		time, and the case mass, diameter and length. An optional last word
+ * 		names the motor.
+ *
+ * 		The second has one "key = values" line per item, with '#' comments:
+ *
+ * 			name                = bates-5
+ * 			density             = 0.061546
+ * 			pressure-slope      = 2.725060
+ * 			pressure-intercept  = -236.099212
+ * 			burn-rate-slope     = 0.000366
+ * 			burn-rate-intercept = 0.083967
+ * 			grain               = 3.387 1.5 12 2     # One line per grain
+ * 			star-grain          = 3.387 1 12 2 6 0.5 0.4
+ * 			nozzle              = 0.95 2.5 2.35 1.5
+ * 			time-step           = 0.001
+ * 			case                = 11.41 39.3701 1
+ *
+ * 		A star-grain line adds the number of points, point length and point
+ * 		width to the grain values, see StarGrain.java. Star grains can only
+ * 		be given in the second format.
+ *
+ * 		A file is read in the second format when its first line holds '='.
+ * 		Motors without a name are named after their file.
+**/
+
+public class MotorDefinition
+{
+	// Error messages
+	private static final String MISSING_VALUE_ERR_MSG = "ERROR: Motor definition ends before all values are given!\n";
+	private static final String EXTRA_VALUE_ERR_MSG   = "ERROR: Motor definition has values after the case length and name!\n";
+	private static final String NUMBER_ERR_MSG        = "ERROR: Motor definition value is not a number!\n";
+	private static final String POSITIVE_ERR_MSG      = "ERROR: Motor dimensions, density, CF and change in time must be positive!\n";
+	private static final String GRAIN_COUNT_ERR_MSG   = "ERROR: Motor must have at least one grain!\n";
+	private static final String CORE_ERR_MSG          = "ERROR: Grain inner diameter must be less than its outer diameter!\n";
+	private static final String BURNING_ENDS_ERR_MSG  = "ERROR: Grain burning ends must be 0, 1, or 2!\n";
+	private static final String KEY_ERR_MSG           = "ERROR: Motor definition has an unknown key!\n";
+	private static final String LINE_ERR_MSG          = "ERROR: Motor definition line is not \"key = values\"!\n";
+	private static final String COUNT_ERR_MSG         = "ERROR: Motor definition line has the wrong number of values!\n";
+	private static final String REPEATED_ERR_MSG      = "ERROR: Motor definition gives a value twice!\n";
+
+
+
+	// Constants
+	private static final int GRAIN_VALUES      = 4;   // Outer diameter, inner diameter, length, burning ends
+	private static final int STAR_GRAIN_VALUES = 7;   // Grain values, then points, point length, point width
+	private static final int NOZZLE_VALUES     = 4;   // Throat, entrance, exit diameters, CF
+	private static final int CASE_VALUES       = 3;   // Mass, diameter, length
+	private static final int PROPELLANT_VALUES = 5;   // Density, pressure slope and intercept, burn rate slope and intercept
+	private static final String COMMENT        = "#";
+	private static final String ASSIGNMENT     = "=";
+
+	// Keys of the "key = values" format
+	private static final String NAME_KEY                = "name";
+	private static final String DENSITY_KEY             = "density";
+	private static final String PRESSURE_SLOPE_KEY      = "pressure-slope";
+	private static final String PRESSURE_INTERCEPT_KEY  = "pressure-intercept";
+	private static final String BURN_RATE_SLOPE_KEY     = "burn-rate-slope";
+	private static final String BURN_RATE_INTERCEPT_KEY = "burn-rate-intercept";
+	private static final String GRAIN_KEY               = "grain";
+	private static final String STAR_GRAIN_KEY          = "star-grain";
+	private static final String NOZZLE_KEY              = "nozzle";
+	private static final String TIME_STEP_KEY           = "time-step";
+	private static final String CASE_KEY                = "case";
+	private static final String PROPELLANT_KEYS[]       = { DENSITY_KEY, PRESSURE_SLOPE_KEY, PRESSURE_INTERCEPT_KEY,
+															BURN_RATE_SLOPE_KEY, BURN_RATE_INTERCEPT_KEY };
+
+
+
+	// Fields
+	private String name;
+	private final List<double[]> grains = new ArrayList<double[]>();
+	private double propellantValues[];
+	private double nozzleValues[];
+	private double caseValues[];
+	private double deltaTime;
+
+
+
+	// Definitions are only built by parse()
+	private MotorDefinition ()
+	{
+	} // MotorDefinition Constructor
+
+
+
+	/**
+	 * parse()
+	 *
+	 * Purpose: Reads a motor definition from a file in either format.
+	 *
+	 * Parameters:
+	 * 		File file -- Motor definition file.
+	 *
+	 * Returns: MotorDefinition. The motor of the file.
+	 *
+	 * Throws: IOException if the file can not be read, and
+	 * 		IllegalArgumentException if it does not define a valid motor.
+	**/
+
+	public static MotorDefinition parse (File file) throws IOException
+	{
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+
+		MotorDefinition motor = new MotorDefinition();
+		if (isKeyed(lines))
+			motor.parseKeyed(lines);
+		else
+			motor.parsePrompted(lines);
+
+		if (motor.name == null)
+		{
+			String fileName = file.getName();
+			int extension = fileName.lastIndexOf('.');
+			motor.name = (extension > 0) ? fileName.substring(0, extension) : fileName;
+		}
+		motor.validate();
+
+		return motor;
+	} // parse()
+
+
+
+	/**
+	 * getName()
+	 *
+	 * Purpose: Returns the name of the motor, used to name its output files.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: String. The name of the motor.
+	**/
+
+	public String getName ()
+	{
+		return name;
+	} // getName()
+
+
+
+	/**
+	 * createGrains()
+	 *
+	 * Purpose: Creates new grains for the motor. Each simulation needs its
+	 * 		own, since a simulation regresses them.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: List<Grain>. New grains, in order.
+	**/
+
+	public List<Grain> createGrains ()
+	{
+		List<Grain> grainList = new ArrayList<Grain>();
+		for (double grain[] : grains)
+			grainList.add(createGrain(grain));
+
+		return grainList;
+	} // createGrains()
+
+
+
+	// Creates a grain from its values, a star grain when the shape is given
+	private static Grain createGrain (double grain[])
+	{
+		GrainType type = grain.length == STAR_GRAIN_VALUES ? GrainType.Star : GrainType.Cylindrical;
+		return GrainFactory.createGrain(type, grain[2], grain[0], grain[1], (int) grain[3],
+										Arrays.copyOfRange(grain, GRAIN_VALUES, grain.length));
+	} // createGrain()
+
+
+
+	/**
+	 * createNozzle()
+	 *
+	 * Purpose: Creates a new nozzle for the motor.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: Nozzle. A new nozzle.
+	**/
+
+	public Nozzle createNozzle ()
+	{
+		return new Nozzle(nozzleValues[0], nozzleValues[1], nozzleValues[2], nozzleValues[3], grains.size());
+	} // createNozzle()
+
+
+
+	/**
+	 * createCase()
+	 *
+	 * Purpose: Creates a new case for the motor.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: Case. A new case.
+	**/
+
+	public Case createCase ()
+	{
+		return new Case(caseValues[0], caseValues[1], caseValues[2]);
+	} // createCase()
+
+
+
+	/**
+	 * createPropellant()
+	 *
+	 * Purpose: Creates the propellant of the motor.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: Propellant. A new propellant.
+	**/
+
+	public Propellant createPropellant ()
+	{
+		return new EmpericalPropellant(propellantValues[1], propellantValues[2], propellantValues[3],
+									   propellantValues[4], propellantValues[0]);
+	} // createPropellant()
+
+
+
+	/**
+	 * getDeltaTime()
+	 *
+	 * Purpose: Returns the change in time of each step of the simulation.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The change in time.
+	**/
+
+	public double getDeltaTime ()
+	{
+		return deltaTime;
+	} // getDeltaTime()
+
+
+
+	// Reads the input.txt style: the prompt answers in order
+	private void parsePrompted (List<String> lines)
+	{
+		List<String> tokens = new ArrayList<String>();
+		for (String line : lines)
+			for (String token : line.trim().split("\\s+"))
+				if (token.isEmpty() == false)
+					tokens.add(token);
+
+		int next = 0;
+		double grainCount = number(token(tokens, next++));
+		if (grainCount < 1 || grainCount != Math.floor(grainCount))
+			throw new IllegalArgumentException(GRAIN_COUNT_ERR_MSG);
+
+		propellantValues = numbers(tokens, next, PROPELLANT_VALUES);
+		next += PROPELLANT_VALUES;
+		for (int i = 0; i < grainCount; i++, next += GRAIN_VALUES)
+			grains.add(numbers(tokens, next, GRAIN_VALUES));
+		nozzleValues = numbers(tokens, next, NOZZLE_VALUES);
+		next += NOZZLE_VALUES;
+		deltaTime = number(token(tokens, next++));
+		caseValues = numbers(tokens, next, CASE_VALUES);
+		next += CASE_VALUES;
+
+		if (next < tokens.size())
+			name = tokens.get(next++);
+		if (next < tokens.size())
+			throw new IllegalArgumentException(EXTRA_VALUE_ERR_MSG);
+	} // parsePrompted()
+
+
+
+	// Reads the "key = values" format
+	private void parseKeyed (List<String> lines)
+	{
+		propellantValues = new double[PROPELLANT_VALUES];
+		boolean propellantGiven[] = new boolean[PROPELLANT_VALUES];
+		boolean timeStepGiven = false;
+
+		for (String line : lines)
+		{
+			line = stripComment(line);
+			if (line.isEmpty())
+				continue;
+
+			int assignment = line.indexOf(ASSIGNMENT);
+			if (assignment < 0)
+				throw new IllegalArgumentException(LINE_ERR_MSG);
+			String key = line.substring(0, assignment).trim();
+			String value = line.substring(assignment + 1).trim();
+
+			if (key.equals(NAME_KEY))
+			{
+				checkNotGiven(name);
+				if (value.isEmpty())
+					throw new IllegalArgumentException(COUNT_ERR_MSG);
+				name = value;
+			}
+			else if (key.equals(GRAIN_KEY))
+				grains.add(values(value, GRAIN_VALUES));
+			else if (key.equals(STAR_GRAIN_KEY))
+				grains.add(values(value, STAR_GRAIN_VALUES));
+			else if (key.equals(NOZZLE_KEY))
+			{
+				checkNotGiven(nozzleValues);
+				nozzleValues = values(value, NOZZLE_VALUES);
+			}
+			else if (key.equals(CASE_KEY))
+			{
+				checkNotGiven(caseValues);
+				caseValues = values(value, CASE_VALUES);
+			}
+			else if (key.equals(TIME_STEP_KEY))
+			{
+				checkNotGiven(timeStepGiven ? key : null);
+				deltaTime = values(value, 1)[0];
+				timeStepGiven = true;
+			}
+			else
+			{
+				int index = propellantIndex(key);
+				checkNotGiven(propellantGiven[index] ? key : null);
+				propellantValues[index] = values(value, 1)[0];
+				propellantGiven[index] = true;
+			}
+		}
+
+		for (boolean given : propellantGiven)
+			if (given == false)
+				throw new IllegalArgumentException(MISSING_VALUE_ERR_MSG);
+		if (grains.isEmpty())
+			throw new IllegalArgumentException(GRAIN_COUNT_ERR_MSG);
+		if (nozzleValues == null || caseValues == null || timeStepGiven == false)
+			throw new IllegalArgumentException(MISSING_VALUE_ERR_MSG);
+	} // parseKeyed()
+
+
+
+	// Checks the values a simulation needs to be positive or in range
+	private void validate ()
+	{
+		List<Double> positive = new ArrayList<Double>();
+		positive.add(propellantValues[0]);
+		positive.add(deltaTime);
+		for (double value : nozzleValues)
+			positive.add(value);
+		for (double value : caseValues)
+			positive.add(value);
+
+		for (double grain[] : grains)
+		{
+			Collections.addAll(positive, grain[0], grain[1], grain[2]);
+			if (grain[1] >= grain[0])
+				throw new IllegalArgumentException(CORE_ERR_MSG);
+			if (grain[3] != 0 && grain[3] != 1 && grain[3] != 2)
+				throw new IllegalArgumentException(BURNING_ENDS_ERR_MSG);
+		}
+
+		// Grains check their own shape, star points must fit inside the grain
+		for (double grain[] : grains)
+			createGrain(grain);
+
+		for (double value : positive)
+			if ((value > 0) == false)
+				throw new IllegalArgumentException(POSITIVE_ERR_MSG);
+	} // validate()
+
+
+
+	// Returns true if the first line that is not blank or a comment is "key = values"
+	private static boolean isKeyed (List<String> lines)
+	{
+		for (String line : lines)
+		{
+			line = stripComment(line);
+			if (line.isEmpty() == false)
+				return line.contains(ASSIGNMENT);
+		}
+
+		return false;
+	} // isKeyed()
+
+
+
+	// Removes a comment and surrounding whitespace from a line
+	private static String stripComment (String line)
+	{
+		int comment = line.indexOf(COMMENT);
+		return ((comment < 0) ? line : line.substring(0, comment)).trim();
+	} // stripComment()
+
+
+
+	// Returns the index of a propellant key in the propellant values
+	private static int propellantIndex (String key)
+	{
+		for (int i = 0; i < PROPELLANT_KEYS.length; i++)
+			if (PROPELLANT_KEYS[i].equals(key))
+				return i;
+
+		throw new IllegalArgumentException(KEY_ERR_MSG);
+	} // propellantIndex()
+
+
+
+	// Throws if a value that can only be given once was already given
+	private static void checkNotGiven (Object given)
+	{
+		if (given != null)
+			throw new IllegalArgumentException(REPEATED_ERR_MSG);
+	} // checkNotGiven()
+
+
+
+	// Parses exactly the given number of whitespace separated numbers
+	private static double[] values (String text, int count)
+	{
+		String tokens[] = text.split("\\s+");
+		if (text.isEmpty() || tokens.length != count)
+			throw new IllegalArgumentException(COUNT_ERR_MSG);
+
+		double values[] = new double[count];
+		for (int i = 0; i < count; i++)
+			values[i] = number(tokens[i]);
+		return values;
+	} // values()
+
+
+
+	// Parses the given number of tokens from a position
+	private static double[] numbers (List<String> tokens, int start, int count)
+	{
+		double values[] = new double[count];
+		for (int i = 0; i < count; i++)
+			values[i] = number(token(tokens, start + i));
+		return values;
+	} // numbers()
+
+
+
+	// Returns a token, or throws if the definition ends before it
+	private static String token (List<String> tokens, int index)
+	{
+		if (index >= tokens.size())
+			throw new IllegalArgumentException(MISSING_VALUE_ERR_MSG);
+		return tokens.get(index);
+	} // token()
+
+
+
+	// Parses one finite number
+	private static double number (String token)
+	{
+		double value;
+		try
+		{
+			value = Double.parseDouble(token);
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IllegalArgumentException(NUMBER_ERR_MSG);
+		}
+
+		if (Double.isNaN(value) || Double.isInfinite(value))
+			throw new IllegalArgumentException(NUMBER_ERR_MSG);
+		return value;
+	} // number()
+
+} // class MotorDefinition
@@ -0,0 +1,146 @@
+package controller;
+
+import java.io.File;
+
+import model.calculations.SimulationSummary;
+
+/**
+ * MotorResult.java
+ *
+ * Purpose: Holds the outcome of one motor of a BatchRunner: its summary if
+ * 		it was simulated and its outputs written, or the error that stopped
+ * 		it otherwise.
+**/
+
+public class MotorResult
+{
+	// Fields
+	private final File file;
+	private final String name;
+	private final SimulationSummary summary;
+	private final String error;
+	private final long elapsedMillis;
+
+
+
+	/**
+	 * MotorResult Constructor
+	 *
+	 * Purpose: Creates the result of the motor read from the given file.
+	 * 		Exactly one of the summary and the error is null.
+	**/
+
+	public MotorResult (File file, String name, SimulationSummary summary, String error, long elapsedMillis)
+	{
+		this.file          = file;
+		this.name          = name;
+		this.summary       = summary;
+		this.error         = error;
+		this.elapsedMillis = elapsedMillis;
+	} // MotorResult Constructor
+
+
+
+	/**
+	 * getFile()
+	 *
+	 * Purpose: Returns the motor definition file.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: File. The definition file.
+	**/
+
+	public File getFile ()
+	{
+		return file;
+	} // getFile()
+
+
+
+	/**
+	 * getName()
+	 *
+	 * Purpose: Returns the name of the motor, which its output files start
+	 * 		with.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: String. The name of the motor.
+	**/
+
+	public String getName ()
+	{
+		return name;
+	} // getName()
+
+
+
+	/**
+	 * succeeded()
+	 *
+	 * Purpose: Returns true if the motor was simulated and its outputs were
+	 * 		written.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: boolean. True on success.
+	**/
+
+	public boolean succeeded ()
+	{
+		return error == null;
+	} // succeeded()
+
+
+
+	/**
+	 * getSummary()
+	 *
+	 * Purpose: Returns the summary of the simulation, or null if it failed.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: SimulationSummary. The summary, or null.
+	**/
+
+	public SimulationSummary getSummary ()
+	{
+		return summary;
+	} // getSummary()
+
+
+
+	/**
+	 * getError()
+	 *
+	 * Purpose: Returns why the motor failed, or null if it succeeded.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: String. The error message, or null.
+	**/
+
+	public String getError ()
+	{
+		return error;
+	} // getError()
+
+
+
+	/**
+	 * getElapsedMillis()
+	 *
+	 * Purpose: Returns how long the motor took to read, simulate and write.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: long. Time taken in milliseconds.
+	**/
+
+	public long getElapsedMillis ()
+	{
+		return elapsedMillis;
+	} // getElapsedMillis()
+
+} // class MotorResult
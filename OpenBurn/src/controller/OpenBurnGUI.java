@@ -1,16 +1,27 @@
 package controller;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.BooleanBinding;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.concurrent.WorkerStateEvent;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 import javafx.scene.image.Image;
@@ -18,21 +29,26 @@ import javafx.scene.layout.Pane;
 import javafx.stage.FileChooser;
 import javafx.stage.FileChooser.ExtensionFilter;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import model.Case;
 import model.Nozzle;
-import model.calculations.RocketMath;
-import model.calculations.SimulationResults;
+import model.calculations.SimulationResultStore;
+import model.calculations.DiskSimulationCache;
+import model.calculations.SimulationCache;
 import model.calculations.SimulationSummary;
 import model.grains.Grain;
 import model.grains.GrainFactory;
 import model.propellant.EmpericalPropellant;
 import model.propellant.Propellant;
 import model.propellant.SteadyStatePropellant;
+import view.BinaryResultsFormat;
+import view.BinaryResultsWriter;
 import view.CSVConverter;
 import view.CaseInputView;
 import view.GeneralInputView;
 import view.GraphView;
 import view.NozzleInputView;
+import view.PlotCanvas;
 import view.PropellantInputView;
 import view.RSEGenerator;
 import view.SimulationSummaryView;
@@ -53,6 +69,10 @@ public class OpenBurnGUI extends Application
 	private static final String CASE_TITLE       = "Case";
 	private static final String PROPELLANT_TITLE = "Propellant";
 	private static final String SIMULATE         = "Simulate";
+	private static final String CANCEL           = "Cancel";
+	private static final String LIVE             = "Live";
+	private static final String RUNNING_LEGEND   = "Simulating...";
+	private static final String SIMULATION_THREAD = "Simulation";
 	private static final String EXPORT_CSV       = "Export to CSV";
 	private static final String EXPORT_RSE       = "Export to RSE";
 	private static final String ICON_FILE_PATH   = "/images/OpenBurnLogo_1.png";
@@ -78,6 +98,9 @@ public class OpenBurnGUI extends Application
 	private static final int SUMMARY_HEIGHT  = 350;
 	private static final int SUMMARY_X       = 800;
 	private static final int SUMMARY_Y       = 375;
+	private static final long CACHE_BYTES    = 64L * 1024 * 1024;   // Memory for recent simulation results
+	private static final int LIVE_DELAY_MILLIS = 300;   // Quiet time after an edit before a live run
+	private static final int COARSE_FACTOR     = 10;    // Time step of the coarse live pass, in input time steps
 	
 	
 	// Components
@@ -89,10 +112,18 @@ public class OpenBurnGUI extends Application
 	private Button rseButton;
 	private Button clearGraphButton;
 	private Button resetButton;
+	private Button cancelButton;
+	private CheckBox liveCheck;
+	private ProgressIndicator simProgress;
 	private SimulationSummaryView summaryOutput;
 	private RSEGenerator rsegenerator;
+	private SimulationCache simulationCache;
+	private ExecutorService simulationExecutor;
+	private SimulationTask simulationTask;
+	private PauseTransition liveDelay;
 	
 	private boolean cleared;
+	private boolean liveResultShown;   // Last run on the chart is a live run, replaced by the next
 	
 	/**
 	 * main()
@@ -137,11 +168,29 @@ public class OpenBurnGUI extends Application
 		Pane frame = new Pane();
 		scene.setRoot(frame);
 		
+		// Keep results in memory and on disk, so unchanged motors are not
+		// simulated again, even in a later session
+		simulationCache = new SimulationCache(CACHE_BYTES, openDiskCache());
+		
+		// Simulations run one at a time off the application thread. A daemon
+		// thread, so a running simulation does not keep the GUI from exiting
+		simulationExecutor = Executors.newSingleThreadExecutor(new ThreadFactory()
+		{
+			@Override
+			public Thread newThread (Runnable task)
+			{
+				Thread thread = new Thread(task, SIMULATION_THREAD);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		
 		// Initialize and set components
 		addInputTabs(frame);
 		addGrainTable(frame);
 		addGraph(frame);            // Initially Thrust vs. Time
 		addSimulateButton(frame);
+		addLiveCheck(frame);
 		addExportButtons(frame);    // CSV and RSE
 		addClearGraphButton(frame);
 		addResetButton(frame);
@@ -151,6 +200,60 @@ public class OpenBurnGUI extends Application
 		stage.show();
 	} // start()
 	
+	
+	
+	/**
+	 * stop()
+	 * 
+	 * Purpose: Stops a running simulation and closes the disk cache when
+	 * 		the GUI exits.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: void.
+	**/
+	
+	@Override
+	public void stop ()
+	{
+		if (simulationTask != null)
+			simulationTask.cancel();
+		if (simulationExecutor != null)
+			simulationExecutor.shutdownNow();
+		
+		if (simulationCache == null || simulationCache.getDisk() == null)
+			return;
+		
+		try {
+			simulationCache.getDisk().close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	} // stop()
+	
+	
+	
+	/**
+	 * openDiskCache()
+	 * 
+	 * Purpose: Opens the disk cache in its default directory.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: DiskSimulationCache. The disk cache, or null if it could
+	 * 		not be opened, in which case results are only kept in memory.
+	**/
+	
+	private DiskSimulationCache openDiskCache ()
+	{
+		try {
+			return new DiskSimulationCache(DiskSimulationCache.getDefaultDirectory());
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	} // openDiskCache()
+	
 
 
 
@@ -285,7 +388,7 @@ public class OpenBurnGUI extends Application
 		    @Override public void handle (ActionEvent e)
 		    {
 		    	outputGraph.setImageVisible(false);
-		    	runSimulation();
+		    	runSimulation(false);
 		    	//simulationRan = true;
 
 		    }
@@ -293,22 +396,191 @@ public class OpenBurnGUI extends Application
 		
 		// Disable the button if a simulation has been run
 		//simButton.disableProperty().bind(Bindings.createBooleanBinding(() -> simulationRan == true).and());
+		
+		// Shows the progress of a running simulation
+		simProgress = new ProgressIndicator();
+		simProgress.setTranslateX(140);
+		simProgress.setTranslateY(780);
+		simProgress.setPrefHeight(35);
+		simProgress.setPrefWidth(35);
+		simProgress.setVisible(false);
+		frame.getChildren().add(simProgress);
+		
+		// Cancel button, only shown while a simulation runs
+		cancelButton = new Button(CANCEL);
+		cancelButton.setTranslateX(480);
+		cancelButton.setTranslateY(780);
+		cancelButton.setPrefHeight(35);
+		cancelButton.setPrefWidth(100);
+		cancelButton.setVisible(false);
+		frame.getChildren().add(cancelButton);
+		
+		cancelButton.setOnAction(new EventHandler<ActionEvent> ()
+		{
+		    @Override public void handle (ActionEvent e)
+		    {
+		    	if (simulationTask != null)
+		    		simulationTask.cancel();
+		    }
+		});
 	} // addSimulateButton()
 	
 	
 	
+	/**
+	 * addLiveCheck()
+	 * 
+	 * Purpose: Adds the Live check box to the given Pane. While it is
+	 * 		checked, the motor is simulated again whenever the time step,
+	 * 		nozzle, case, propellant, or grains are edited, once the inputs
+	 * 		have been still for LIVE_DELAY_MILLIS, so typing a number starts
+	 * 		one run instead of one per key.
+	 * 
+	 * Parameters:
+	 * 		Pane frame -- The Pane to add to.
+	 * 
+	 * Returns: void.
+	**/
+	
+	private void addLiveCheck (Pane frame)
+	{
+		liveCheck = new CheckBox(LIVE);
+		liveCheck.setTranslateX(600);
+		liveCheck.setTranslateY(788);
+		liveCheck.setSelected(false);
+		frame.getChildren().add(liveCheck);
+		
+		// Run once the inputs have been still long enough
+		liveDelay = new PauseTransition(Duration.millis(LIVE_DELAY_MILLIS));
+		liveDelay.setOnFinished(new EventHandler<ActionEvent> ()
+		{
+		    @Override public void handle (ActionEvent e)
+		    {
+		    	runLiveSimulation();
+		    }
+		});
+		
+		// Every edit, and checking the box, starts the wait again
+		ChangeListener<Object> edited = new ChangeListener<Object> ()
+		{
+			@Override public void changed (ObservableValue<? extends Object> value, Object oldValue, Object newValue)
+			{
+				inputsEdited();
+			}
+		};
+		liveCheck.selectedProperty().addListener(edited);
+		
+		GeneralInputView generalInputs = (GeneralInputView)(inputs.getTabs().get(0).getContent());
+		generalInputs.getTimeDeltaTextField().textProperty().addListener(edited);
+		
+		NozzleInputView nozzleInputs = (NozzleInputView)(inputs.getTabs().get(1).getContent());
+		nozzleInputs.getThroatDiameterTextField().textProperty().addListener(edited);
+		nozzleInputs.getEntranceDiameterTextField().textProperty().addListener(edited);
+		nozzleInputs.getExitDiameterTextField().textProperty().addListener(edited);
+		nozzleInputs.getcfTextField().textProperty().addListener(edited);
+		
+		CaseInputView caseInputs = (CaseInputView)(inputs.getTabs().get(2).getContent());
+		caseInputs.getMassInputTextField().textProperty().addListener(edited);
+		caseInputs.getDiameterTextField().textProperty().addListener(edited);
+		caseInputs.getLengthTextField().textProperty().addListener(edited);
+		
+		PropellantInputView propellantInputs = (PropellantInputView)(inputs.getTabs().get(3).getContent());
+		propellantInputs.steadyStateSelectedProperty().addListener(edited);
+		propellantInputs.getPropDensityTextField().textProperty().addListener(edited);
+		propellantInputs.getBurnRateCoefficientTextField().textProperty().addListener(edited);
+		propellantInputs.getBurnRateExponentTextField().textProperty().addListener(edited);
+		propellantInputs.getCStarTextField().textProperty().addListener(edited);
+		propellantInputs.getPrTextField().textProperty().addListener(edited);
+		propellantInputs.getBrTextField().textProperty().addListener(edited);
+		propellantInputs.getKnTextFieldpr().textProperty().addListener(edited);
+		propellantInputs.getKnTextFieldbr().textProperty().addListener(edited);
+		
+		// Grains added, removed, edited, or sorted
+		grainInputs.getTable().getItems().addListener(new ListChangeListener<Grain> ()
+		{
+			@Override public void onChanged (ListChangeListener.Change<? extends Grain> change)
+			{
+				inputsEdited();
+			}
+		});
+	} // addLiveCheck()
+	
+	
+	
+	/**
+	 * inputsEdited()
+	 * 
+	 * Purpose: Starts the wait before a live run again, if live mode is on.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: void.
+	**/
+	
+	private void inputsEdited ()
+	{
+		if (liveCheck.isSelected())
+			liveDelay.playFromStart();
+	} // inputsEdited()
+	
+	
+	
+	/**
+	 * runLiveSimulation()
+	 * 
+	 * Purpose: Runs a live simulation once the inputs have been still, if
+	 * 		live mode is still on and every input is filled.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: void.
+	**/
+	
+	private void runLiveSimulation ()
+	{
+		if (liveCheck.isSelected() == false || simButton.isDisabled())
+			return;
+		
+		try
+		{
+			runSimulation(true);
+			outputGraph.setImageVisible(false);
+		}
+		catch (IllegalArgumentException e)
+		{
+			// A number still being typed, such as a lone ".", can not be
+			// read yet. The next edit tries again.
+		}
+	} // runLiveSimulation()
+	
+	
+	
 	/**
 	 * runSimulation()
 	 * 
 	 * Purpose: Runs simulation once all fields are filled and
-	 * 		the simulation button is pressed.
+	 * 		the simulation button is pressed, or the inputs are
+	 * 		edited in live mode.
 	 * 
-	 * Parameters: None.
+	 * 		The simulation runs as a SimulationTask in the background, so
+	 * 		the GUI stays responsive. Its steps are drawn on the chart in
+	 * 		batches as they are computed. A simulation that is still running
+	 * 		is cancelled, since the newer inputs replace it.
+	 * 
+	 * 		A live run whose results are not cached runs a coarse pass first,
+	 * 		with a time step COARSE_FACTOR times larger, so the chart follows
+	 * 		the edits quickly. The full run then replaces the coarse line.
+	 * 		Inputs edited back to an earlier motor are read from the cache
+	 * 		without either pass.
+	 * 
+	 * Parameters:
+	 * 		boolean live -- True for a live run, which takes the place of
+	 * 			the live run before it on the chart.
 	 * 
 	 * Returns: void.
 	**/
 	
-	private void runSimulation ()
+	private void runSimulation (final boolean live)
 	{
 		// Gather propellant density and change in time
 		GeneralInputView generalInputs = (GeneralInputView)(inputs.getTabs().get(0).getContent());
@@ -357,24 +629,151 @@ public class OpenBurnGUI extends Application
     												propellantInputs.getPropellantDensityInput());
     	}
     	
-    	// Run simulation, gather list of results
-    	List<SimulationResults> simResults = RocketMath.simulate(simGrainList, deltaTime, theNozzle, theCase, thePropellant);
-    	SimulationSummary summary = new SimulationSummary(simResults,theCase);
+    	// Cancel a simulation that is still running
+    	if (simulationTask != null)
+    		simulationTask.cancel();
+    	
+    	// Run simulation in the background. Unchanged inputs return the
+    	// cached results of the earlier run.
+    	boolean coarsePass = live && simulationCache.contains(
+    			SimulationCache.createKey(simGrainList, deltaTime, theNozzle, theCase, thePropellant)) == false;
+    	final SimulationTask task = new SimulationTask(simulationCache, simGrainList, deltaTime, theNozzle, theCase, thePropellant);
+    	final PlotCanvas.DataSet liveData = outputGraph.startLiveData(RUNNING_LEGEND);
+    	SimulationTask.BatchListener drawBatch = new SimulationTask.BatchListener()
+    	{
+    		@Override public void batchReady (double time[], double thrust[], double pressure[])
+    		{
+    			outputGraph.appendLiveData(liveData, time, thrust, pressure);
+    		}
+    	};
+    	task.setOnSucceeded(new EventHandler<WorkerStateEvent> ()
+    	{
+    		@Override public void handle (WorkerStateEvent e)
+    		{
+    			showResults(task.getValue(), task.getSummary(), liveData, theCase, theNozzle, live);
+    		}
+    	});
+    	
+    	// Remove the partial results of a cancelled or failed simulation
+    	EventHandler<WorkerStateEvent> stopped = new EventHandler<WorkerStateEvent> ()
+    	{
+    		@Override public void handle (WorkerStateEvent e)
+    		{
+    			outputGraph.removeLiveData(liveData);
+    			if (task.getException() != null)
+    				task.getException().printStackTrace();
+    		}
+    	};
+    	task.setOnCancelled(stopped);
+    	task.setOnFailed(stopped);
+    	
+    	if (coarsePass == false)
+    	{
+    		task.setOnBatch(drawBatch);
+    		startTask(task);
+    		return;
+    	}
+    	
+    	// The coarse line is drawn as it comes. The steps of the full run
+    	// are not, since the coarse line stands in for them until it is done.
+    	// Only the full run is cached, so coarse results do not push out
+    	// the results worth keeping.
+    	final SimulationTask coarse = new SimulationTask(null, simGrainList, deltaTime * COARSE_FACTOR, theNozzle,
+    													 theCase, thePropellant);
+    	coarse.setOnBatch(drawBatch);
+    	coarse.setOnSucceeded(new EventHandler<WorkerStateEvent> ()
+    	{
+    		@Override public void handle (WorkerStateEvent e)
+    		{
+    			// A newer run started while this event was waiting
+    			if (simulationTask != coarse)
+    			{
+    				outputGraph.removeLiveData(liveData);
+    				return;
+    			}
+    			
+    			outputGraph.previewLiveData(liveData, coarse.getValue());
+    			startTask(task);
+    		}
+    	});
+    	coarse.setOnCancelled(stopped);
+    	coarse.setOnFailed(stopped);
+    	startTask(coarse);
+	} // runSimulation()
+	
+	
+	
+	/**
+	 * startTask()
+	 * 
+	 * Purpose: Shows the progress of the given simulation and runs it in
+	 * 		the background. It becomes the simulation that is cancelled by
+	 * 		the Cancel button or by a newer run.
+	 * 
+	 * Parameters:
+	 * 		SimulationTask task -- The simulation to run.
+	 * 
+	 * Returns: void.
+	**/
+	
+	private void startTask (SimulationTask task)
+	{
+    	simProgress.progressProperty().bind(task.progressProperty());
+    	simProgress.visibleProperty().bind(task.runningProperty());
+    	cancelButton.visibleProperty().bind(task.runningProperty());
+    	
+    	simulationTask = task;
+    	simulationExecutor.execute(task);
+	} // startTask()
+	
+	
+	
+	/**
+	 * showResults()
+	 * 
+	 * Purpose: Shows the summary and chart of a finished simulation, and
+	 * 		prepares its RSE export.
+	 * 
+	 * Parameters:
+	 * 		SimulationResultStore simResults -- Results of the simulation.
+	 * 		SimulationSummary summary -- Summary of the results.
+	 * 		PlotCanvas.DataSet liveData -- Chart data set of the run.
+	 * 		Case theCase -- Case of the simulated motor.
+	 * 		Nozzle theNozzle -- Nozzle of the simulated motor.
+	 * 		boolean live -- True for a live run.
+	 * 
+	 * Returns: void.
+	**/
+	
+	private void showResults (SimulationResultStore simResults, SimulationSummary summary, PlotCanvas.DataSet liveData,
+							  Case theCase, Nozzle theNozzle, boolean live)
+	{
     	TEMP_LEGEND_NAME = summary.getClassification();
     	summaryOutput.setSummary(summary);
     	
+    	// A live run takes the place of the live run before it, so editing
+    	// does not pile up lines. Runs from the Simulate button are kept.
+    	if (live && liveResultShown)
+    		outputGraph.removeLastData();
+    	
     	// Add thrust vs. time data to the chart
-    	List<SimulationResults> alreadyExists = outputGraph.getData();
+    	SimulationResultStore alreadyExists = outputGraph.getData();
     	if(simResults.equals(alreadyExists) == false || cleared) // prevents adding duplicate results to the graph
     	{
-    		outputGraph.addData(TEMP_LEGEND_NAME, simResults);
+    		outputGraph.finishLiveData(liveData, TEMP_LEGEND_NAME, simResults);
     		cleared = false;
+    		liveResultShown = live;
+    	}
+    	else
+    	{
+    		outputGraph.removeLiveData(liveData);
+    		liveResultShown = false;
     	}
     	
     	String teamName = "UAWR";
     	
     	this.rsegenerator = new RSEGenerator(teamName,simResults,theCase, summary, theNozzle);
-	} // runSimulation()
+	} // showResults()
 	
 	
 	
@@ -411,16 +810,26 @@ public class OpenBurnGUI extends Application
 		    	 fileChooser.setTitle("Save Simulation Data");
 		    	 fileChooser.setInitialFileName(TEMP_LEGEND_NAME);
 		    	 fileChooser.getExtensionFilters().addAll(
-		    	         new ExtensionFilter("CSV Files (.csv)", "*.csv"));
+		    	         new ExtensionFilter("CSV Files (.csv)", "*.csv"),
+		    	         new ExtensionFilter("OpenBurn Binary Files (.obr)", "*" + BinaryResultsFormat.EXTENSION));
 		    	 File selectedFile = fileChooser.showSaveDialog(frame.getScene().getWindow());
 		    	 
-		    	 if (selectedFile != null)
+		    	 // Binary files are much smaller and faster to read back than CSV
+		    	 if (selectedFile != null && selectedFile.getName().endsWith(BinaryResultsFormat.EXTENSION))
+		    	 {
+		    		 try {
+		    			 BinaryResultsWriter.write(outputGraph.getData(), selectedFile);
+		    		 } catch (IOException e1) {
+		    			 e1.printStackTrace();
+		    		 }
+		    	 }
+		    	 else if (selectedFile != null)
 		    		 CSVConverter.writeResultsArr(outputGraph.getData(), selectedFile);
 		    }
 		});
 		
 		// Diable button if there is no simulation data
-		csvButton.disableProperty().bind(Bindings.size(outputGraph.getChart().getData()).isEqualTo(EMPTY));
+		csvButton.disableProperty().bind(outputGraph.getChart().dataSetCountProperty().isEqualTo(EMPTY));
 		
 		// Export to RSE button
 		rseButton = new Button(EXPORT_RSE);
@@ -449,7 +858,7 @@ public class OpenBurnGUI extends Application
 		});
 		
 		// Disable button if there is no simulation data
-		rseButton.disableProperty().bind(Bindings.size(outputGraph.getChart().getData()).isEqualTo(EMPTY));
+		rseButton.disableProperty().bind(outputGraph.getChart().dataSetCountProperty().isEqualTo(EMPTY));
 	} // addExportButtons()
 	
 	
@@ -474,9 +883,10 @@ public class OpenBurnGUI extends Application
 		{
 		    @Override public void handle (ActionEvent e)
 		    {
-		    	outputGraph.getChart().getData().clear();
+		    	outputGraph.clearData();
 		    	outputGraph.setImageVisible(true);
 		    	cleared = true;
+		    	liveResultShown = false;
 		    }
 		});
 	} // addClearButton()
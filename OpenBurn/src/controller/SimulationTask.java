@@ -0,0 +1,252 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import model.Case;
+import model.Nozzle;
+import model.calculations.RocketMath;
+import model.calculations.SimulationCache;
+import model.calculations.SimulationListener;
+import model.calculations.SimulationListenerGroup;
+import model.calculations.SimulationResultStore;
+import model.calculations.SimulationResults;
+import model.calculations.SimulationSummary;
+import model.grains.Grain;
+import model.propellant.Propellant;
+
+/**
+ * SimulationTask.java
+ *
+ * Purpose: Runs one simulation of the GUI off the JavaFX application
+ * 		thread, through the simulation cache or directly, and builds its
+ * 		summary.
+ *
+ * 		While the motor is simulated, the time, thrust, and pressure of the
+ * 		steps are collected and handed to the BatchListener on the JavaFX
+ * 		thread in batches, at most every BATCH_NANOS or BATCH_SIZE steps, so
+ * 		the chart fills in as the burn goes without flooding the thread.
+ * 		Progress is the share of the propellant mass burned so far.
+ *
+ * 		The task checks for cancellation at every step, and a cancelled
+ * 		simulation stops at once and is not cached. Batches still waiting
+ * 		when the task is cancelled are dropped.
+**/
+
+public class SimulationTask extends Task<SimulationResultStore>
+{
+	// Constants
+	private static final int BATCH_SIZE   = 4096;        // Most steps in one batch
+	private static final long BATCH_NANOS = 50000000L;   // Longest wait between batches, 50 ms
+
+
+
+	// Fields
+	private final SimulationCache cache;
+	private final List<Grain> grainList;
+	private final double deltaTime;
+	private final Nozzle theNozzle;
+	private final Case theCase;
+	private final Propellant propellant;
+	private volatile BatchListener batchListener;
+	private volatile SimulationSummary summary;
+
+
+
+	/**
+	 * BatchListener
+	 *
+	 * Purpose: Receives the steps of a running simulation on the JavaFX
+	 * 		application thread. The arrays belong to the listener.
+	**/
+
+	public interface BatchListener
+	{
+		void batchReady (double time[], double thrust[], double pressure[]);
+	} // interface BatchListener
+
+
+
+	/**
+	 * SimulationTask Constructor
+	 *
+	 * Purpose: Creates a task that simulates the given motor with the given
+	 * 		cache, or without one if it is null, for runs such as the coarse
+	 * 		pass of a live run that are not worth keeping. The grains are not
+	 * 		changed, since copies of them are simulated.
+	**/
+
+	public SimulationTask (SimulationCache cache, List<Grain> grainList, double deltaTime, Nozzle theNozzle, Case theCase,
+						   Propellant propellant)
+	{
+		this.cache      = cache;
+		this.grainList  = grainList;
+		this.deltaTime  = deltaTime;
+		this.theNozzle  = theNozzle;
+		this.theCase    = theCase;
+		this.propellant = propellant;
+	} // SimulationTask Constructor
+
+
+
+	/**
+	 * setOnBatch()
+	 *
+	 * Purpose: Sets the listener that is handed the steps of the simulation
+	 * 		as it runs. No batches are made when the results are cached.
+	 *
+	 * Parameters:
+	 * 		BatchListener batchListener -- Listener for the steps, or null.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setOnBatch (BatchListener batchListener)
+	{
+		this.batchListener = batchListener;
+	} // setOnBatch()
+
+
+
+	/**
+	 * getSummary()
+	 *
+	 * Purpose: Returns the summary of the simulation once the task has
+	 * 		succeeded.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: SimulationSummary. The summary, or null if the task has not
+	 * 		succeeded.
+	**/
+
+	public SimulationSummary getSummary ()
+	{
+		return summary;
+	} // getSummary()
+
+
+
+	/**
+	 * call()
+	 *
+	 * Purpose: Simulates the motor, or reads it from the cache if there is
+	 * 		one, on the background thread and builds its summary.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: SimulationResultStore. The results of the simulation.
+	**/
+
+	@Override
+	protected SimulationResultStore call ()
+	{
+		StepBatcher batcher = new StepBatcher();
+		SimulationResultStore results;
+		if (cache != null)
+			results = cache.simulate(grainList, deltaTime, theNozzle, theCase, propellant, batcher);
+		else
+		{
+			List<Grain> copies = new ArrayList<Grain>(grainList.size());
+			for (Grain grain : grainList)
+				copies.add(grain.clone());
+			results = new SimulationResultStore(copies.size());
+			RocketMath.simulate(copies, deltaTime, theNozzle, theCase, propellant,
+								new SimulationListenerGroup(results, batcher));
+			results.trimToSize();
+		}
+		batcher.sendBatch();
+
+		summary = new SimulationSummary(results, theCase);
+		updateProgress(1, 1);
+		return results;
+	} // call()
+
+
+
+	/**
+	 * StepBatcher
+	 *
+	 * Purpose: Collects the steps of the simulation and sends them to the
+	 * 		JavaFX thread in batches, updating the progress with each batch.
+	 * 		Throws a CancellationException at the first step after the task
+	 * 		is cancelled, which stops the simulation.
+	**/
+
+	private class StepBatcher implements SimulationListener
+	{
+		// Fields
+		private double time[]     = new double[BATCH_SIZE];
+		private double thrust[]   = new double[BATCH_SIZE];
+		private double pressure[] = new double[BATCH_SIZE];
+		private int count;
+		private long lastBatch = System.nanoTime();
+		private double propellantMass;
+		private double burnedMass;
+
+
+
+		public void stepCompleted (SimulationResults results)
+		{
+			if (isCancelled())
+				throw new CancellationException();
+
+			// The first data point holds all of the propellant
+			double remaining = results.getSystemMass() - theCase.getCaseMass();
+			if (results.getTime() == 0)
+				propellantMass = remaining;
+			burnedMass = propellantMass - remaining;
+
+			if (batchListener != null)
+			{
+				time[count]     = results.getTime();
+				thrust[count]   = results.getThrust();
+				pressure[count] = results.getChamberPressure();
+				count++;
+			}
+
+			if (count == BATCH_SIZE || System.nanoTime() - lastBatch >= BATCH_NANOS)
+				sendBatch();
+		} // stepCompleted()
+
+
+
+		public void simulationFinished ()
+		{
+		} // simulationFinished()
+
+
+
+		// Hands the collected steps to the JavaFX thread and updates the progress
+		private void sendBatch ()
+		{
+			if (propellantMass > 0)
+				updateProgress(burnedMass, propellantMass);
+			lastBatch = System.nanoTime();
+
+			final BatchListener listener = batchListener;
+			if (count == 0 || listener == null)
+				return;
+
+			final double batchTime[]     = Arrays.copyOf(time, count);
+			final double batchThrust[]   = Arrays.copyOf(thrust, count);
+			final double batchPressure[] = Arrays.copyOf(pressure, count);
+			count = 0;
+
+			Platform.runLater(new Runnable()
+			{
+				public void run ()
+				{
+					if (isCancelled() == false)
+						listener.batchReady(batchTime, batchThrust, batchPressure);
+				} // run()
+			});
+		} // sendBatch()
+
+	} // class StepBatcher
+
+} // class SimulationTask
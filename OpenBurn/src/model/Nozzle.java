@@ -12,6 +12,7 @@ public class Nozzle
 	// Private fields for the Nozzle
 	private double throatDiameter;
 	private double throatArea;
+	private double entranceDiameter;
 	private double entranceArea;
 	private double exitDiameter;
 	private double cf;
@@ -32,6 +33,7 @@ public class Nozzle
 	{
 		this.throatDiameter = throatDiameter;
 		this.throatArea = Math.PI * (throatDiameter / 2) * (throatDiameter / 2);
+		this.entranceDiameter = entranceDiameter;
 		this.entranceArea = Math.PI * (entranceDiameter / 2) * (entranceDiameter / 2);
 		this.cf = cf;
 		this.exitDiameter = exitDiameter;
@@ -58,6 +60,23 @@ public class Nozzle
 	
 	
 	
+	/**
+	 * getEntranceDiameter()
+	 * 
+	 * Purpose: Returns the entrance diameter of the nozzle.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double. The entrance diameter of the nozzle.
+	**/
+	
+	public double getEntranceDiameter ()
+	{
+		return entranceDiameter;
+	} // getEntranceDiameter()
+	
+	
+	
 	/**
 	 * getExitDiameter()
 	 * 
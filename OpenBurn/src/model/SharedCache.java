@@ -0,0 +1,141 @@
+package model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * SharedCache.java
+ *
+ * Purpose: Keeps the most recently used values that are slow to build,
+ * 		such as burnback tables and fields, for any number of threads.
+ *
+ * 		Each key maps to a FutureTask. The lock is only held to find or add
+ * 		the task, and the value is built outside it by the first caller, so
+ * 		values for different keys are built at the same time. Callers asking
+ * 		for a key that is still being built wait for that build instead of
+ * 		starting their own. A build that throws is removed, so the next call
+ * 		tries again.
+**/
+
+public class SharedCache<K, V>
+{
+	// Error messages
+	private static final String CAPACITY_ERR_MSG = "ERROR: Cache must keep at least one value!\n";
+
+
+
+	// Fields
+	private final Map<K, FutureTask<V>> tasks;
+
+
+
+	/**
+	 * SharedCache Constructor
+	 *
+	 * Purpose: Creates an empty cache keeping at most the given number of
+	 * 		values, removing the least recently used first.
+	**/
+
+	public SharedCache (final int capacity)
+	{
+		if (capacity <= 0)
+			throw new IllegalArgumentException(CAPACITY_ERR_MSG);
+
+		tasks = new LinkedHashMap<K, FutureTask<V>>(capacity, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry (Map.Entry<K, FutureTask<V>> eldest)
+			{
+				return size() > capacity;
+			} // removeEldestEntry()
+		};
+	} // SharedCache Constructor
+
+
+
+	/**
+	 * get()
+	 *
+	 * Purpose: Returns the value for the given key, building it with the
+	 * 		given builder if no value for the key is kept or being built.
+	 *
+	 * 		NOTE: An exception thrown by the builder is thrown here, as is.
+	 * 			A thread interrupted while waiting for another thread's build
+	 * 			throws a CancellationException.
+	 *
+	 * Parameters:
+	 * 		K key -- Key of the value, equal for equal values.
+	 * 		Callable<V> builder -- Builds the value, called at most once.
+	 *
+	 * Returns: V. The value for the key.
+	**/
+
+	public V get (K key, Callable<V> builder)
+	{
+		FutureTask<V> task;
+		synchronized (tasks)
+		{
+			task = tasks.get(key);
+			if (task == null)
+			{
+				task = new FutureTask<V>(builder);
+				tasks.put(key, task);
+			}
+		}
+
+		// Builds the value, unless another thread has built or is building it
+		task.run();
+
+		try
+		{
+			return task.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new CancellationException();
+		}
+		catch (ExecutionException e)
+		{
+			synchronized (tasks)
+			{
+				if (tasks.get(key) == task)
+					tasks.remove(key);
+			}
+
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IllegalStateException(cause);
+		}
+	} // get()
+
+
+
+	/**
+	 * size()
+	 *
+	 * Purpose: Returns the number of values kept or being built.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: int. The number of values.
+	**/
+
+	public int size ()
+	{
+		synchronized (tasks)
+		{
+			return tasks.size();
+		}
+	} // size()
+
+} // class SharedCache
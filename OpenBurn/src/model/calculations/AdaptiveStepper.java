@@ -0,0 +1,252 @@
+package model.calculations;
+
+import java.util.List;
+
+import model.Case;
+import model.Nozzle;
+import model.grains.Grain;
+import model.propellant.Propellant;
+
+/**
+ * AdaptiveStepper.java
+ *
+ * Purpose: Runs a burn simulation with a change in time that is picked at
+ * 		every step from an error estimate, instead of one fixed value.
+ *
+ * 		The estimate is that of step doubling with local extrapolation. A
+ * 		full Euler step reports the pressure at its start, while the second
+ * 		of two half steps reports the pressure half way, so their difference
+ * 		is the error of the pressure and thrust an Euler step reports. Twice
+ * 		the two half steps less the full step is the midpoint step, so that
+ * 		is the step kept, taken directly with SimulationStepper.stepMidpoint()
+ * 		for about half the work of the three steps. The midpoint step is
+ * 		second order in the change in time, so its error is well inside the
+ * 		estimate.
+ *
+ * 		If the error is above the tolerance the step is undone and retried
+ * 		with a smaller change in time, otherwise it is kept and the next step
+ * 		is grown or shrunk to match the error.
+ *
+ * 		Every step ends exactly at the next grain burnout if one falls
+ * 		inside it, so long steps do not hide burnout and the step size need
+ * 		not shrink to find it.
+ *
+ * 		A step is passed to the listener only once it is accepted, so a
+ * 		listener only ever sees accepted steps, in order of time.
+**/
+
+public class AdaptiveStepper
+{
+	// Error messages
+	private static final String TOLERANCE_ERR_MSG   = "ERROR: Tolerance must be positive!\n";
+	private static final String DELTA_TIME_ERR_MSG  = "ERROR: Change in time limits must be positive, with the minimum below the maximum!\n";
+
+
+
+	// Constants
+	private static final double SAFETY         = 0.9;   // Keeps the next step a little under the estimate
+	private static final double MAX_GROWTH     = 4.0;   // Largest factor a step may grow by
+	private static final double MAX_SHRINK     = 0.2;   // Smallest factor a step may shrink by
+	private static final double PRESSURE_FLOOR = 1.0;   // psi, keeps relative pressure error finite near zero
+
+
+
+	// Fields
+	private final SimulationStepper stepper;
+	private final Nozzle theNozzle;
+	private final Propellant propellant;
+	private final double tolerance;
+	private final double minDeltaTime;
+	private final double maxDeltaTime;
+	private int acceptedSteps;
+	private int rejectedSteps;
+
+
+
+	/**
+	 * AdaptiveStepper Constructor
+	 *
+	 * Purpose: Creates an adaptive stepper for the given motor. The change in
+	 * 		time always stays between the given minimum and maximum.
+	**/
+
+	public AdaptiveStepper (List<Grain> grainList, Nozzle theNozzle, Case theCase, Propellant propellant,
+							double tolerance, double minDeltaTime, double maxDeltaTime)
+	{
+		if (tolerance <= 0)
+			throw new IllegalArgumentException(TOLERANCE_ERR_MSG);
+		if (minDeltaTime <= 0 || maxDeltaTime < minDeltaTime)
+			throw new IllegalArgumentException(DELTA_TIME_ERR_MSG);
+
+		this.stepper      = new SimulationStepper(grainList, theNozzle, theCase, propellant);
+		this.theNozzle    = theNozzle;
+		this.propellant   = propellant;
+		this.tolerance    = tolerance;
+		this.minDeltaTime = minDeltaTime;
+		this.maxDeltaTime = maxDeltaTime;
+	} // AdaptiveStepper Constructor
+
+
+
+	/**
+	 * run()
+	 *
+	 * Purpose: Runs the whole simulation, passing the first data point and
+	 * 		every accepted step to the given listener. Pass a
+	 * 		SimulationResultStore to keep every step.
+	 *
+	 * Parameters:
+	 * 		double initialDeltaTime -- Change in time to try for the first step.
+	 * 		SimulationListener listener -- Listener to pass the results to.
+	 *
+	 * Returns: void.
+	**/
+
+	public void run (double initialDeltaTime, SimulationListener listener)
+	{
+		acceptedSteps = 0;
+		rejectedSteps = 0;
+		listener.stepCompleted(stepper.initialize());
+
+		double deltaTime = clamp(initialDeltaTime);
+		do
+		{
+			double startTime = stepper.getTime();
+			stepper.saveState();
+
+			// The pressure an Euler step would report
+			double startPressure = propellant.getChamberPressure(stepper.getGrains().getBurnArea() / theNozzle.getThroatArea());
+
+			// It may stop early or a little late, to end at a burnout
+			SimulationResults step = stepper.stepMidpoint(deltaTime);
+			double stepTime = stepper.getTime() - startTime;
+
+			// Reject when the error is too large
+			double error = estimateError(startPressure, step.getChamberPressure());
+			if (stepTime > minDeltaTime && error > 1.0)
+			{
+				stepper.restoreState();
+				rejectedSteps++;
+				deltaTime = clamp(stepTime * shrinkFactor(error));
+				continue;
+			}
+
+			listener.stepCompleted(step);
+			acceptedSteps++;
+
+			// A step shortened by a burnout says nothing about the next step size
+			deltaTime = clamp(Math.max(deltaTime, stepTime) * growthFactor(error));
+		} while (stepper.isRunning());
+
+		listener.simulationFinished();
+	} // run()
+
+
+
+	/**
+	 * estimateError()
+	 *
+	 * Purpose: Compares the pressure an Euler step would report, found at the
+	 * 		start of the step, with the pressure the midpoint step found half
+	 * 		way. The relative difference is returned, scaled by the
+	 * 		tolerance, so values above 1 mean the step is not accurate enough.
+	 *
+	 * 		This also keeps steps short wherever the pressure curve changes
+	 * 		quickly, so the curve is drawn with enough points.
+	 *
+	 * Parameters:
+	 * 		double startPressure -- Chamber pressure at the start of the step.
+	 * 		double midpointPressure -- Chamber pressure half way through the step.
+	 *
+	 * Returns: double. The scaled error of the step.
+	**/
+
+	private double estimateError (double startPressure, double midpointPressure)
+	{
+		double pressureScale = Math.max(Math.abs(midpointPressure), PRESSURE_FLOOR);
+		return Math.abs(midpointPressure - startPressure) / pressureScale / tolerance;
+	} // estimateError()
+
+
+
+	/**
+	 * growthFactor() / shrinkFactor()
+	 *
+	 * Purpose: Return the factor to scale the change in time by, given the
+	 * 		scaled error of the last step. The estimated error grows with the
+	 * 		change in time, so the factor is the inverse of the error.
+	 *
+	 * Parameters:
+	 * 		double error -- Scaled error of the last step.
+	 *
+	 * Returns: double. The factor to scale the change in time by.
+	**/
+
+	private static double growthFactor (double error)
+	{
+		if (error == 0)
+			return MAX_GROWTH;
+
+		return Math.min(MAX_GROWTH, SAFETY / error);
+	} // growthFactor()
+
+	private static double shrinkFactor (double error)
+	{
+		return Math.max(MAX_SHRINK, SAFETY / error);
+	} // shrinkFactor()
+
+
+
+	/**
+	 * clamp()
+	 *
+	 * Purpose: Keeps a change in time between the minimum and maximum.
+	 *
+	 * Parameters:
+	 * 		double deltaTime -- Change in time to clamp.
+	 *
+	 * Returns: double. The clamped change in time.
+	**/
+
+	private double clamp (double deltaTime)
+	{
+		return Math.max(minDeltaTime, Math.min(maxDeltaTime, deltaTime));
+	} // clamp()
+
+
+
+	/**
+	 * getAcceptedSteps()
+	 *
+	 * Purpose: Returns the number of steps kept by the last run. Each
+	 * 		accepted step adds one row to the results.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: int. The number of accepted steps.
+	**/
+
+	public int getAcceptedSteps ()
+	{
+		return acceptedSteps;
+	} // getAcceptedSteps()
+
+
+
+	/**
+	 * getRejectedSteps()
+	 *
+	 * Purpose: Returns the number of steps that were undone and retried
+	 * 		with a smaller change in time during the last run.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: int. The number of rejected steps.
+	**/
+
+	public int getRejectedSteps ()
+	{
+		return rejectedSteps;
+	} // getRejectedSteps()
+
+} // class AdaptiveStepper
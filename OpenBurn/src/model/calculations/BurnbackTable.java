@@ -0,0 +1,313 @@
+package model.calculations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import model.Case;
+import model.Nozzle;
+import model.SharedCache;
+import model.grains.Grain;
+import model.propellant.Propellant;
+
+/**
+ * BurnbackTable.java
+ *
+ * Purpose: Holds the geometry of a grain stack as a function of the web
+ * 		distance burned, instead of time. Every grain regresses at the same
+ * 		burn rate, so the geometry at a given web distance does not depend on
+ * 		the propellant or the nozzle. The table is built once per grain stack
+ * 		and can then be simulated with any nozzle and propellant.
+ *
+ * 		Simulating only integrates dt = dx / r(x) over the table, where the
+ * 		burn rate r comes from the burn area at each node. The nodes include
+ * 		the web of every grain, so every burnout falls exactly on a node.
+ * 		Each step follows the same model as SimulationStepper: the burn rate
+ * 		from the start of the step regresses the grains to the next node.
+ *
+ * 		Tables are kept in a small shared cache by forGrains(), keyed by the
+ * 		grain dimensions, so simulating one motor with many propellants or
+ * 		nozzles builds its table only once.
+**/
+
+public class BurnbackTable
+{
+	// Error messages
+	private static final String SEGMENTS_ERR_MSG  = "ERROR: Number of segments must be positive!\n";
+	private static final String BURN_RATE_ERR_MSG = "ERROR: Burn rate must be positive to regress the grains!\n";
+
+
+
+	// Constants
+	public static final int DEFAULT_SEGMENTS = 1000;   // Nodes across the largest web
+	private static final int CACHE_SIZE      = 16;     // Tables kept by forGrains()
+
+
+
+	// Shared cache of tables, built outside its lock
+	private static final SharedCache<List<Double>, BurnbackTable> cache =
+		new SharedCache<List<Double>, BurnbackTable>(CACHE_SIZE);
+
+
+
+	// Fields
+	private final double web[];           // Web distance of each node
+	private final double burnArea[];      // Total burn area at each node
+	private final double volume[][];      // Volume of each grain at each node
+	private final Grain snapshots[][];    // State of each grain at each node
+
+
+
+	/**
+	 * BurnbackTable Constructor
+	 *
+	 * Purpose: Builds the table for the given grains, which are not changed.
+	 * 		The web of the thickest grain is split into the given number of
+	 * 		segments, and the web of every other grain is added as a node.
+	**/
+
+	public BurnbackTable (List<Grain> grainList, int segments)
+	{
+		if (segments <= 0)
+			throw new IllegalArgumentException(SEGMENTS_ERR_MSG);
+
+		web = createNodes(grainList, segments);
+		int grainCount = grainList.size();
+		burnArea  = new double[web.length];
+		volume    = new double[web.length][grainCount];
+		snapshots = new Grain[web.length][grainCount];
+
+		// Regress one copy of the grains from node to node, saving each state
+		List<Grain> grains = new ArrayList<Grain>(grainCount);
+		for (int i = 0; i < grainCount; i++)
+			grains.add(grainList.get(i).clone());
+
+		for (int node = 0; node < web.length; node++)
+		{
+			for (int i = 0; i < grainCount; i++)
+			{
+				// Burned out grains keep regressing, as in SimulationStepper
+				Grain grain = grains.get(i);
+				if (node > 0)
+					grain.updateGeometry(web[node] - web[node - 1], 1.0);
+
+				// A burned out grain can not be cloned directly, so copy its state into a fresh clone
+				snapshots[node][i] = grainList.get(i).clone();
+				snapshots[node][i].copyStateFrom(grain);
+				volume[node][i] = grain.getVolume();
+				burnArea[node] += grain.getBurnArea();
+			}
+		}
+	} // BurnbackTable Constructor
+
+
+
+	/**
+	 * forGrains()
+	 *
+	 * Purpose: Returns the table for the given grains with DEFAULT_SEGMENTS,
+	 * 		from the shared cache if a table for grains of the same dimensions
+	 * 		was built before. Safe to call from many threads: tables for
+	 * 		different grains are built at the same time, and threads asking
+	 * 		for a table being built wait for it.
+	 *
+	 * Parameters:
+	 * 		List<Grain> grainList -- Grains of the motor, which are not changed.
+	 *
+	 * Returns: BurnbackTable. The table for the grains.
+	**/
+
+	public static BurnbackTable forGrains (final List<Grain> grainList)
+	{
+		return cache.get(createKey(grainList), new Callable<BurnbackTable>()
+		{
+			public BurnbackTable call ()
+			{
+				return new BurnbackTable(grainList, DEFAULT_SEGMENTS);
+			} // call()
+		});
+	} // forGrains()
+
+
+
+	/**
+	 * simulate()
+	 *
+	 * Purpose: Simulates the burn of the table's grains with the given
+	 * 		nozzle and propellant, passing the first data point and one row
+	 * 		per node to the given listener. Does not change the table, so many
+	 * 		threads can simulate the same table at once.
+	 *
+	 * Parameters:
+	 * 		Nozzle theNozzle -- Nozzle of the rocket motor.
+	 * 		Case theCase -- Case of the rocket motor.
+	 * 		Propellant propellant -- Propellant burned during the simulation.
+	 * 		SimulationListener listener -- Listener to pass the results to.
+	 *
+	 * Returns: void.
+	**/
+
+	public void simulate (Nozzle theNozzle, Case theCase, Propellant propellant, SimulationListener listener)
+	{
+		int grainCount = snapshots[0].length;
+		List<Grain> grains = new ArrayList<Grain>(grainCount);
+		for (int i = 0; i < grainCount; i++)
+			grains.add(snapshots[0][i].clone());
+
+		double massGenerated[]   = new double[grainCount];
+		double massFlow[]        = new double[grainCount];
+		double portToThroat[]    = new double[grainCount];
+		double massFlowPerArea[] = new double[grainCount + 2];
+		double density = propellant.getPropellantDensity();
+
+		// First data point, the same as a stepped simulation
+		SimulationResults current = new SimulationStepper(grains, theNozzle, theCase, propellant).initialize();
+		listener.stepCompleted(current);
+
+		double time = 0;
+		for (int node = 1; node < web.length; node++)
+		{
+			// Burn rate from the start of the step, as in SimulationStepper
+			double kn = burnArea[node - 1] / theNozzle.getThroatArea();
+			double pressure = propellant.getChamberPressure(kn);
+			double burnRate = propellant.getBurnRate(kn, pressure);
+			if (burnRate <= 0)
+				throw new ArithmeticException(BURN_RATE_ERR_MSG);
+
+			time += (web[node] - web[node - 1]) / burnRate;
+			current.setTime(time);
+			current.setKn(kn);
+			current.setBurnArea(burnArea[node - 1]);
+			current.setChamberPressure(pressure);
+			current.setBurnRate(burnRate);
+
+			// Move the grains to the node and find the mass they generated
+			double overallGenerated = 0;
+			for (int i = 0; i < grainCount; i++)
+			{
+				grains.get(i).copyStateFrom(snapshots[node][i]);
+				massGenerated[i] = (volume[node - 1][i] - volume[node][i]) * density;
+				overallGenerated += massGenerated[i];
+			}
+			current.setMassGeneratedOverall(overallGenerated);
+			current.setMassGeneratedPerGrain(massGenerated);
+
+			// Parts 3 through 8 in matlab file, on the regressed grains
+			RocketMath.generateMassFlow(grains, current, massFlow);
+			RocketMath.portToThroatRatio(grains, current, theNozzle, portToThroat);
+			RocketMath.calculateMassFlowPerArea(grains, current, massFlow, theNozzle, massFlowPerArea);
+			RocketMath.calculateLStar(grains, current, theNozzle);
+			RocketMath.massAndCenterOfGravity(grains, current, theCase, propellant);
+			RocketMath.calculateThrust(current, theNozzle);
+
+			listener.stepCompleted(current);
+		}
+
+		listener.simulationFinished();
+	} // simulate()
+
+
+
+	/**
+	 * getNodeCount() / getWeb() / getBurnArea()
+	 *
+	 * Purpose: Return the number of nodes in the table, and the web distance
+	 * 		and total burn area at a node.
+	 *
+	 * Parameters:
+	 * 		int node -- Index of the node.
+	 *
+	 * Returns: The number of nodes, web distance, or burn area.
+	**/
+
+	public int getNodeCount ()
+	{
+		return web.length;
+	} // getNodeCount()
+
+	public double getWeb (int node)
+	{
+		return web[node];
+	} // getWeb()
+
+	public double getBurnArea (int node)
+	{
+		return burnArea[node];
+	} // getBurnArea()
+
+
+
+	/**
+	 * createNodes()
+	 *
+	 * Purpose: Returns the web distances of the table nodes: evenly spaced
+	 * 		across the largest web, plus the web of every grain, sorted and
+	 * 		without duplicates.
+	 *
+	 * Parameters:
+	 * 		List<Grain> grainList -- Grains of the motor.
+	 * 		int segments -- Number of even segments across the largest web.
+	 *
+	 * Returns: double[]. The web distance of each node.
+	**/
+
+	private static double[] createNodes (List<Grain> grainList, int segments)
+	{
+		double maxWeb = 0;
+		for (int i = 0; i < grainList.size(); i++)
+			maxWeb = Math.max(maxWeb, grainList.get(i).getRemainingWeb());
+
+		double nodes[] = new double[segments + 1 + grainList.size()];
+		for (int i = 0; i <= segments; i++)
+			nodes[i] = maxWeb * i / segments;
+		for (int i = 0; i < grainList.size(); i++)
+			nodes[segments + 1 + i] = grainList.get(i).getRemainingWeb();
+		Arrays.sort(nodes);
+
+		// Remove duplicates, so no step has zero length
+		int count = 1;
+		for (int i = 1; i < nodes.length; i++)
+			if (nodes[i] > nodes[count - 1])
+				nodes[count++] = nodes[i];
+
+		return Arrays.copyOf(nodes, count);
+	} // createNodes()
+
+
+
+	/**
+	 * createKey()
+	 *
+	 * Purpose: Returns the cache key of a grain stack: the type,
+	 * 		dimensions, and shape parameters of every grain, in order.
+	 *
+	 * Parameters:
+	 * 		List<Grain> grainList -- Grains of the motor.
+	 *
+	 * Returns: List<Double>. The key of the grain stack.
+	**/
+
+	private static List<Double> createKey (List<Grain> grainList)
+	{
+		List<Double> key = new ArrayList<Double>(grainList.size() * 5);
+		for (int i = 0; i < grainList.size(); i++)
+		{
+			Grain grain = grainList.get(i);
+			key.add((double) grain.getType().ordinal());
+			key.add(grain.getLength());
+			key.add(grain.getOuterDiameter());
+			key.add(grain.getInnerDiameter());
+			key.add((double) grain.getNumBurningEnds());
+
+			// The parameters of other shapes, with their count so keys can not run together
+			double shape[] = grain.getShapeParameters();
+			key.add((double) shape.length);
+			for (double parameter : shape)
+				key.add(parameter);
+		}
+
+		return key;
+	} // createKey()
+
+} // class BurnbackTable
@@ -0,0 +1,676 @@
+package model.calculations;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DiskSimulationCache.java
+ *
+ * Purpose: Keeps the results of simulations in a directory on disk, so a
+ * 		new session or a repeated sweep can skip motors that were already
+ * 		simulated. Results are found by the keys of SimulationCache.
+ *
+ * 		The directory holds two files that are appended to:
+ * 			results.bin -- One record per simulation: the grain count, the
+ * 				row count, then every column of the store in the order of
+ * 				SimulationResultStore.getColumns(), as little endian doubles.
+ * 			index.bin -- A header with the generation of the index, then one
+ * 				entry per record: the 32 byte key, then the offset and length
+ * 				of the record in results.bin.
+ *
+ * 		Opening a cache reads only the index. Records are read when asked
+ * 		for, through a memory mapped view of just that record, and written
+ * 		the same way. A record is written and forced to disk before its
+ * 		index entry, so a record cut short by a crash is never found.
+ *
+ * 		The results are kept within a byte budget. Once an append takes
+ * 		results.bin past it, the cache is compacted: the newest records that
+ * 		fit in half the budget are moved to the front of results.bin, the
+ * 		rest are dropped, and the index is written again under the next
+ * 		generation.
+ *
+ * 		Several processes may share a directory: appends and compaction hold
+ * 		a lock on the index file, and reads hold a shared lock. Every read
+ * 		picks up the keys another process added, and starts over from the
+ * 		index if another process compacted the cache. Within one process,
+ * 		use one cache per directory.
+**/
+
+public class DiskSimulationCache implements Closeable
+{
+	// Error messages
+	private static final String DIR_ERR_MSG     = "ERROR: Cache directory could not be created!\n";
+	private static final String FORMAT_ERR_MSG  = "ERROR: Cache file has an unknown format!\n";
+	private static final String RECORD_ERR_MSG  = "ERROR: Cache record is damaged!\n";
+	private static final String KEY_ERR_MSG     = "ERROR: Cache key must be 64 lower case hex digits!\n";
+	private static final String BUDGET_ERR_MSG  = "ERROR: Cache budget must be positive!\n";
+
+
+
+	// Constants
+	private static final String INDEX_FILE     = "index.bin";
+	private static final String DATA_FILE      = "results.bin";
+	private static final String DEFAULT_DIR    = ".openburn" + File.separator + "cache";
+	private static final int INDEX_MAGIC       = 0x4F424958;   // "OBIX"
+	private static final int DATA_MAGIC        = 0x4F424452;   // "OBDR"
+	private static final int FORMAT_VERSION    = 2;
+	private static final int HEADER_BYTES      = 2 * Integer.BYTES;
+	private static final int INDEX_HEADER      = HEADER_BYTES + Long.BYTES;   // Header and generation
+	private static final int KEY_BYTES         = 32;
+	private static final int ENTRY_BYTES       = KEY_BYTES + 2 * Long.BYTES;
+	private static final int RECORD_HEADER     = 2 * Integer.BYTES;
+	private static final int COPY_BYTES        = 1024 * 1024;   // Buffer for moving records
+	private static final ByteOrder BYTE_ORDER  = ByteOrder.LITTLE_ENDIAN;
+
+	public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;   // Budget for results.bin
+
+
+
+	// Fields
+	private final File directory;
+	private final FileChannel indexChannel;
+	private final FileChannel dataChannel;
+	private final long maxBytes;
+	private final Map<String, long[]> index = new LinkedHashMap<String, long[]>();   // Key to {offset, length}, oldest first
+	private long generation = -1;   // Generation of the index as last read
+	private long indexRead;         // Bytes of the index file already read
+	private long dataEnd;           // End of the last record in the index
+	private long hits;
+	private long misses;
+
+
+
+	/**
+	 * DiskSimulationCache Constructor
+	 *
+	 * Purpose: Opens the cache in the given directory with the default budget
+	 * 		of DEFAULT_MAX_BYTES.
+	 *
+	 * Throws: IOException if the files can not be created or read, or were
+	 * 		written in an unknown format.
+	**/
+
+	public DiskSimulationCache (File directory) throws IOException
+	{
+		this(directory, DEFAULT_MAX_BYTES);
+	} // DiskSimulationCache Constructor
+
+
+
+	/**
+	 * DiskSimulationCache Constructor
+	 *
+	 * Purpose: Opens the cache in the given directory, creating the directory
+	 * 		and its files if needed, and reads the index. Files written by an
+	 * 		older version of the cache are cleared.
+	 *
+	 * 		NOTE: The budget applies to results.bin, and is checked when
+	 * 			results are added.
+	 *
+	 * Throws: IOException if the files can not be created or read, or were
+	 * 		written in an unknown format.
+	**/
+
+	public DiskSimulationCache (File directory, long maxBytes) throws IOException
+	{
+		if (maxBytes <= 0)
+			throw new IllegalArgumentException(BUDGET_ERR_MSG);
+		if (directory.isDirectory() == false && directory.mkdirs() == false)
+			throw new IOException(DIR_ERR_MSG);
+
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+		indexChannel = FileChannel.open(new File(directory, INDEX_FILE).toPath(),
+				StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+		dataChannel = FileChannel.open(new File(directory, DATA_FILE).toPath(),
+				StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+
+		try
+		{
+			FileLock lock = indexChannel.lock();
+			try
+			{
+				boolean indexCurrent = checkHeader(indexChannel, INDEX_MAGIC, INDEX_HEADER);
+				boolean dataCurrent = checkHeader(dataChannel, DATA_MAGIC, HEADER_BYTES);
+				if (indexCurrent && dataCurrent)
+					readIndex();
+				else
+				{
+					// New or older files: empty the index first, so no other
+					// cache reads the results while they are cleared
+					startGeneration(indexCurrent ? readGeneration() + 1 : 0);
+					dataChannel.truncate(0);
+					ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(BYTE_ORDER);
+					header.putInt(DATA_MAGIC).putInt(FORMAT_VERSION).flip();
+					writeFully(dataChannel, header, 0);
+					dataChannel.force(false);
+				}
+			}
+			finally
+			{
+				lock.release();
+			}
+		}
+		catch (IOException e)
+		{
+			close();
+			throw e;
+		}
+	} // DiskSimulationCache Constructor
+
+
+
+	/**
+	 * getDefaultDirectory()
+	 *
+	 * Purpose: Returns the directory the GUI and command line use for their
+	 * 		cache, under the home directory of the user.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: File. The default cache directory.
+	**/
+
+	public static File getDefaultDirectory ()
+	{
+		return new File(System.getProperty("user.home"), DEFAULT_DIR);
+	} // getDefaultDirectory()
+
+
+
+	/**
+	 * get()
+	 *
+	 * Purpose: Reads the results kept for the given key.
+	 *
+	 * Parameters:
+	 * 		String key -- Key from SimulationCache.createKey().
+	 *
+	 * Returns: SimulationResultStore. A new store holding the results, or
+	 * 		null if none are kept.
+	 *
+	 * Throws: IOException if the record can not be read or is damaged.
+	**/
+
+	public synchronized SimulationResultStore get (String key) throws IOException
+	{
+		checkKey(key);
+
+		// The shared lock keeps other processes from compacting while reading
+		FileLock lock = indexChannel.lock(0, Long.MAX_VALUE, true);
+		try
+		{
+			// Another process may have added or moved it since the index was read
+			readIndex();
+			long entry[] = index.get(key);
+			if (entry == null)
+			{
+				misses++;
+				return null;
+			}
+
+			MappedByteBuffer record = dataChannel.map(FileChannel.MapMode.READ_ONLY, entry[0], entry[1]);
+			record.order(BYTE_ORDER);
+			int grainCount = record.getInt();
+			int rows = record.getInt();
+			if (grainCount < 1 || rows < 0 || recordLength(grainCount, rows) != entry[1])
+				throw new IOException(RECORD_ERR_MSG);
+
+			DoubleBuffer values = record.asDoubleBuffer();
+			double columns[][] = new double[SimulationResultStore.COLUMN_COUNT][];
+			for (int i = 0; i < columns.length; i++)
+			{
+				int width = SimulationResultStore.getColumnWidth(i, grainCount);
+				columns[i] = new double[Math.max(rows, 1) * width];
+				values.get(columns[i], 0, rows * width);
+			}
+
+			hits++;
+			return SimulationResultStore.fromColumns(grainCount, rows, columns);
+		}
+		finally
+		{
+			lock.release();
+		}
+	} // get()
+
+
+
+	/**
+	 * put()
+	 *
+	 * Purpose: Appends the given results to the cache under the given key,
+	 * 		unless results are already kept for it, then compacts the cache if
+	 * 		it is over its budget.
+	 *
+	 * Parameters:
+	 * 		String key -- Key from SimulationCache.createKey().
+	 * 		SimulationResultStore results -- Results to keep.
+	 *
+	 * Returns: void.
+	 *
+	 * Throws: IOException if the results can not be written.
+	**/
+
+	public synchronized void put (String key, SimulationResultStore results) throws IOException
+	{
+		checkKey(key);
+		if (index.containsKey(key))
+			return;
+
+		FileLock lock = indexChannel.lock();
+		try
+		{
+			readIndex();
+			if (index.containsKey(key))
+				return;
+
+			// Write and force the record first, so the entry never points at
+			// a partial record
+			int grainCount = results.getGrainCount();
+			int rows = results.size();
+			long offset = dataEnd;
+			long length = recordLength(grainCount, rows);
+
+			MappedByteBuffer record = dataChannel.map(FileChannel.MapMode.READ_WRITE, offset, length);
+			record.order(BYTE_ORDER);
+			record.putInt(grainCount);
+			record.putInt(rows);
+			DoubleBuffer values = record.asDoubleBuffer();
+			double columns[][] = results.getColumns();
+			for (int i = 0; i < columns.length; i++)
+				values.put(columns[i], 0, rows * SimulationResultStore.getColumnWidth(i, grainCount));
+			record.force();
+
+			ByteBuffer entry = ByteBuffer.allocate(ENTRY_BYTES).order(BYTE_ORDER);
+			entry.put(toBytes(key));
+			entry.putLong(offset);
+			entry.putLong(length);
+			entry.flip();
+			writeFully(indexChannel, entry, indexRead);
+			indexChannel.force(false);
+
+			index.put(key, new long[] { offset, length });
+			indexRead += ENTRY_BYTES;
+			dataEnd = offset + length;
+
+			if (dataEnd > maxBytes)
+				compact();
+		}
+		finally
+		{
+			lock.release();
+		}
+	} // put()
+
+
+
+	/**
+	 * contains()
+	 *
+	 * Purpose: Checks if results are kept for the given key, without
+	 * 		reading them.
+	 *
+	 * Parameters:
+	 * 		String key -- Key from SimulationCache.createKey().
+	 *
+	 * Returns: boolean. True if results are kept for the key.
+	 *
+	 * Throws: IOException if the index can not be read.
+	**/
+
+	public synchronized boolean contains (String key) throws IOException
+	{
+		checkKey(key);
+		FileLock lock = indexChannel.lock(0, Long.MAX_VALUE, true);
+		try
+		{
+			readIndex();
+			return index.containsKey(key);
+		}
+		finally
+		{
+			lock.release();
+		}
+	} // contains()
+
+
+
+	/**
+	 * size() / getHitCount() / getMissCount() / getDirectory()
+	 *
+	 * Purpose: Return the number of results in the index as last read, how
+	 * 		many lookups found results and how many did not, and the directory
+	 * 		of the cache.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: The count, or the directory.
+	**/
+
+	public synchronized int size ()
+	{
+		return index.size();
+	} // size()
+
+	public synchronized long getHitCount ()
+	{
+		return hits;
+	} // getHitCount()
+
+	public synchronized long getMissCount ()
+	{
+		return misses;
+	} // getMissCount()
+
+	public File getDirectory ()
+	{
+		return directory;
+	} // getDirectory()
+
+
+
+	/**
+	 * close()
+	 *
+	 * Purpose: Closes the files of the cache.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	@Override
+	public synchronized void close () throws IOException
+	{
+		try
+		{
+			indexChannel.close();
+		}
+		finally
+		{
+			dataChannel.close();
+		}
+	} // close()
+
+
+
+	/**
+	 * readIndex()
+	 *
+	 * Purpose: Reads the index entries added since the last read, or the
+	 * 		whole index again if it was compacted since. A partial entry at the
+	 * 		end, from a write cut short, is left to be written over, and entries
+	 * 		pointing past the end of the results are skipped.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	private void readIndex () throws IOException
+	{
+		long current = readGeneration();
+		if (current != generation)
+		{
+			index.clear();
+			generation = current;
+			indexRead = INDEX_HEADER;
+			dataEnd = HEADER_BYTES;
+		}
+
+		long available = (indexChannel.size() - indexRead) / ENTRY_BYTES * ENTRY_BYTES;
+		if (available <= 0)
+			return;
+
+		ByteBuffer entries = ByteBuffer.allocate((int) available).order(BYTE_ORDER);
+		readFully(indexChannel, entries, indexRead);
+		entries.flip();
+
+		long dataSize = dataChannel.size();
+		byte key[] = new byte[KEY_BYTES];
+		while (entries.hasRemaining())
+		{
+			entries.get(key);
+			long offset = entries.getLong();
+			long length = entries.getLong();
+			if (offset >= HEADER_BYTES && length >= RECORD_HEADER && offset + length <= dataSize)
+			{
+				index.put(SimulationCache.toHex(key), new long[] { offset, length });
+				dataEnd = Math.max(dataEnd, offset + length);
+			}
+		}
+
+		indexRead += available;
+	} // readIndex()
+
+
+
+	/**
+	 * compact()
+	 *
+	 * Purpose: Keeps the newest records that fit in half the budget, moved
+	 * 		to the front of results.bin in the same order, and drops the rest.
+	 * 		The index is emptied under the next generation before any record
+	 * 		is moved, so a crash part way loses the cache but never returns
+	 * 		the wrong results. Must be called holding the lock on the index.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	private void compact () throws IOException
+	{
+		// Records are in the index oldest first, so take them from the end
+		String keys[] = index.keySet().toArray(new String[index.size()]);
+		long records[][] = index.values().toArray(new long[index.size()][]);
+		int first = keys.length;
+		long kept = 0;
+		while (first > 0 && kept + records[first - 1][1] <= maxBytes / 2)
+		{
+			first--;
+			kept += records[first][1];
+		}
+
+		startGeneration(generation + 1);
+
+		// Records only move toward the front, so none is written over before it is moved
+		ByteBuffer entries = ByteBuffer.allocate((keys.length - first) * ENTRY_BYTES).order(BYTE_ORDER);
+		long position = HEADER_BYTES;
+		for (int i = first; i < keys.length; i++)
+		{
+			moveRecord(records[i][0], position, records[i][1]);
+			records[i][0] = position;
+			entries.put(toBytes(keys[i]));
+			entries.putLong(position);
+			entries.putLong(records[i][1]);
+			position += records[i][1];
+		}
+		dataChannel.force(false);
+
+		entries.flip();
+		writeFully(indexChannel, entries, INDEX_HEADER);
+		indexChannel.force(false);
+
+		for (int i = first; i < keys.length; i++)
+			index.put(keys[i], records[i]);
+		indexRead += (keys.length - first) * ENTRY_BYTES;
+		dataEnd = position;
+
+		try
+		{
+			dataChannel.truncate(position);
+		}
+		catch (IOException e)
+		{
+			// Some systems can not shorten a file that is still mapped. The
+			// bytes past the end are written over by the next records.
+		}
+	} // compact()
+
+
+
+	/**
+	 * startGeneration()
+	 *
+	 * Purpose: Empties the index, on disk and in memory, under the given
+	 * 		generation, so other caches sharing the directory drop the entries
+	 * 		they read. Must be called holding the lock on the index.
+	 *
+	 * Parameters:
+	 * 		long next -- Generation of the emptied index.
+	 *
+	 * Returns: void.
+	**/
+
+	private void startGeneration (long next) throws IOException
+	{
+		ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER).order(BYTE_ORDER);
+		header.putInt(INDEX_MAGIC).putInt(FORMAT_VERSION).putLong(next).flip();
+		indexChannel.truncate(INDEX_HEADER);
+		writeFully(indexChannel, header, 0);
+		indexChannel.force(false);
+
+		index.clear();
+		generation = next;
+		indexRead = INDEX_HEADER;
+		dataEnd = HEADER_BYTES;
+	} // startGeneration()
+
+
+
+	// Reads the generation from the header of the index
+	private long readGeneration () throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).order(BYTE_ORDER);
+		readFully(indexChannel, buffer, HEADER_BYTES);
+		buffer.flip();
+		return buffer.getLong();
+	} // readGeneration()
+
+
+
+	// Copies part of results.bin to an earlier position
+	private void moveRecord (long from, long to, long length) throws IOException
+	{
+		if (from == to)
+			return;
+
+		ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, COPY_BYTES));
+		for (long done = 0; done < length; done += buffer.limit())
+		{
+			buffer.clear();
+			buffer.limit((int) Math.min(length - done, buffer.capacity()));
+			readFully(dataChannel, buffer, from + done);
+			buffer.flip();
+			writeFully(dataChannel, buffer, to + done);
+		}
+	} // moveRecord()
+
+
+
+	/**
+	 * checkHeader()
+	 *
+	 * Purpose: Checks the header of a file of the cache.
+	 *
+	 * Parameters:
+	 * 		FileChannel channel -- File to check.
+	 * 		int magic -- Number that marks the kind of file.
+	 * 		int headerBytes -- Size of the whole header of the file.
+	 *
+	 * Returns: boolean. True if the file has a header of this version, false
+	 * 		if it is empty or was written by an older version.
+	 *
+	 * Throws: IOException if the file is not a cache file, or was written
+	 * 		by a newer version.
+	**/
+
+	private static boolean checkHeader (FileChannel channel, int magic, int headerBytes) throws IOException
+	{
+		if (channel.size() == 0)
+			return false;
+		if (channel.size() < HEADER_BYTES)
+			throw new IOException(FORMAT_ERR_MSG);
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(BYTE_ORDER);
+		readFully(channel, header, 0);
+		header.flip();
+		int version = (header.getInt() == magic) ? header.getInt() : -1;
+		if (version < 1 || version > FORMAT_VERSION)
+			throw new IOException(FORMAT_ERR_MSG);
+
+		return version == FORMAT_VERSION && channel.size() >= headerBytes;
+	} // checkHeader()
+
+
+
+	// Size in bytes of a record with the given grains and rows
+	private static long recordLength (int grainCount, int rows)
+	{
+		long values = 0;
+		for (int i = 0; i < SimulationResultStore.COLUMN_COUNT; i++)
+			values += (long) rows * SimulationResultStore.getColumnWidth(i, grainCount);
+
+		return RECORD_HEADER + values * Double.BYTES;
+	} // recordLength()
+
+
+
+	// Reads until the buffer is full, starting at the given position
+	private static void readFully (FileChannel channel, ByteBuffer buffer, long position) throws IOException
+	{
+		while (buffer.hasRemaining())
+		{
+			int read = channel.read(buffer, position);
+			if (read < 0)
+				throw new IOException(RECORD_ERR_MSG);
+			position += read;
+		}
+	} // readFully()
+
+
+
+	// Writes the whole buffer, starting at the given position
+	private static void writeFully (FileChannel channel, ByteBuffer buffer, long position) throws IOException
+	{
+		while (buffer.hasRemaining())
+			position += channel.write(buffer, position);
+	} // writeFully()
+
+
+
+	// Throws if the key is not a SimulationCache key
+	private static void checkKey (String key)
+	{
+		if (key == null || key.length() != 2 * KEY_BYTES)
+			throw new IllegalArgumentException(KEY_ERR_MSG);
+		for (int i = 0; i < key.length(); i++)
+			if (Character.digit(key.charAt(i), 16) < 0 || Character.isUpperCase(key.charAt(i)))
+				throw new IllegalArgumentException(KEY_ERR_MSG);
+	} // checkKey()
+
+
+
+	// Turns a key into the bytes it was formatted from
+	private static byte[] toBytes (String key)
+	{
+		byte bytes[] = new byte[KEY_BYTES];
+		for (int i = 0; i < KEY_BYTES; i++)
+			bytes[i] = (byte) ((Character.digit(key.charAt(2 * i), 16) << 4) | Character.digit(key.charAt(2 * i + 1), 16));
+
+		return bytes;
+	} // toBytes()
+
+} // class DiskSimulationCache
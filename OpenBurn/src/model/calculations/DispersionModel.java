@@ -0,0 +1,267 @@
+package model.calculations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.Nozzle;
+import model.grains.Grain;
+import model.grains.GrainFactory;
+import model.propellant.Propellant;
+
+/**
+ * DispersionModel.java
+ *
+ * Purpose: Holds the manufacturing tolerances of a motor and draws random
+ * 		motors from them for a Monte Carlo run.
+ *
+ * 		Every tolerance is one standard deviation of a normal distribution
+ * 		around the nominal value, cut off at MAX_SIGMAS. All of them are a
+ * 		fraction of the nominal value (0.01 is 1%), except the burn rate
+ * 		exponent tolerance, which is added to the exponent as is. Each grain
+ * 		is drawn on its own, as each one is cast separately. Tolerances that
+ * 		are not set are zero.
+**/
+
+public class DispersionModel
+{
+	// Error messages
+	private static final String TOLERANCE_ERR_MSG = "ERROR: Tolerances can not be negative!\n";
+
+
+
+	// Constants
+	private static final double MAX_SIGMAS       = 3.0;    // Normal draws are cut off here
+	private static final double MIN_WEB_FRACTION = 0.01;   // Of the outer diameter, keeps the core inside the grain
+
+
+
+	// Fields
+	private double grainLength;
+	private double grainOuterDiameter;
+	private double grainCoreDiameter;
+	private double throatDiameter;
+	private double cf;
+	private double burnRateCoefficient;
+	private double burnRateExponent;
+	private double density;
+
+
+
+	/**
+	 * setGrainTolerances()
+	 *
+	 * Purpose: Sets the relative tolerances of every grain's dimensions.
+	 *
+	 * Parameters:
+	 * 		double length -- Relative tolerance of the grain length.
+	 * 		double outerDiameter -- Relative tolerance of the outer diameter.
+	 * 		double coreDiameter -- Relative tolerance of the core diameter.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setGrainTolerances (double length, double outerDiameter, double coreDiameter)
+	{
+		checkTolerance(length);
+		checkTolerance(outerDiameter);
+		checkTolerance(coreDiameter);
+
+		this.grainLength        = length;
+		this.grainOuterDiameter = outerDiameter;
+		this.grainCoreDiameter  = coreDiameter;
+	} // setGrainTolerances()
+
+
+
+	/**
+	 * setNozzleTolerances()
+	 *
+	 * Purpose: Sets the relative tolerances of the nozzle.
+	 *
+	 * Parameters:
+	 * 		double throatDiameter -- Relative tolerance of the throat diameter.
+	 * 		double cf -- Relative tolerance of the thrust coefficient.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setNozzleTolerances (double throatDiameter, double cf)
+	{
+		checkTolerance(throatDiameter);
+		checkTolerance(cf);
+
+		this.throatDiameter = throatDiameter;
+		this.cf             = cf;
+	} // setNozzleTolerances()
+
+
+
+	/**
+	 * setPropellantTolerances()
+	 *
+	 * Purpose: Sets the tolerances of the propellant.
+	 *
+	 * Parameters:
+	 * 		double burnRateCoefficient -- Relative tolerance of the burn rate.
+	 * 		double burnRateExponent -- Absolute tolerance of the burn rate exponent.
+	 * 		double density -- Relative tolerance of the density.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setPropellantTolerances (double burnRateCoefficient, double burnRateExponent, double density)
+	{
+		checkTolerance(burnRateCoefficient);
+		checkTolerance(burnRateExponent);
+		checkTolerance(density);
+
+		this.burnRateCoefficient = burnRateCoefficient;
+		this.burnRateExponent    = burnRateExponent;
+		this.density             = density;
+	} // setPropellantTolerances()
+
+
+
+	/**
+	 * sampleGrains()
+	 *
+	 * Purpose: Creates new grains with dimensions drawn around those of the
+	 * 		given grains. The core diameter is kept below the outer diameter.
+	 *
+	 * Parameters:
+	 * 		List<Grain> nominal -- The nominal grains, which are not changed.
+	 * 		Random random -- Source of random numbers.
+	 *
+	 * Returns: List<Grain>. The drawn grains.
+	**/
+
+	public List<Grain> sampleGrains (List<Grain> nominal, Random random)
+	{
+		List<Grain> grains = new ArrayList<Grain>(nominal.size());
+		for (int i = 0; i < nominal.size(); i++)
+		{
+			Grain grain = nominal.get(i);
+			double outerDiameter = scale(grain.getOuterDiameter(), grainOuterDiameter, random);
+			double coreDiameter  = scale(grain.getInnerDiameter(), grainCoreDiameter, random);
+			double length        = scale(grain.getLength(), grainLength, random);
+
+			// Loose tolerances on a thin web could otherwise draw a core wider than the grain
+			coreDiameter = Math.min(coreDiameter, outerDiameter * (1 - MIN_WEB_FRACTION));
+
+			Grain sample = GrainFactory.createGrain(grain.getType(), length, outerDiameter, coreDiameter,
+													grain.getNumBurningEnds(), grain.getShapeParameters());
+			sample.setGrainID(grain.getGrainID());
+			grains.add(sample);
+		}
+
+		return grains;
+	} // sampleGrains()
+
+
+
+	/**
+	 * sampleNozzle()
+	 *
+	 * Purpose: Creates a new nozzle with its throat diameter and thrust
+	 * 		coefficient drawn around those of the given nozzle.
+	 *
+	 * Parameters:
+	 * 		Nozzle nominal -- The nominal nozzle.
+	 * 		int numberOfGrains -- Number of grains in the motor.
+	 * 		Random random -- Source of random numbers.
+	 *
+	 * Returns: Nozzle. The drawn nozzle.
+	**/
+
+	public Nozzle sampleNozzle (Nozzle nominal, int numberOfGrains, Random random)
+	{
+		return new Nozzle(scale(nominal.getThroatDiameter(), throatDiameter, random), nominal.getEntranceDiameter(),
+						  nominal.getExitDiameter(), scale(nominal.getCf(), cf, random), numberOfGrains);
+	} // sampleNozzle()
+
+
+
+	/**
+	 * samplePropellant()
+	 *
+	 * Purpose: Creates a new propellant with its burn rate, exponent, and
+	 * 		density drawn around those of the given propellant.
+	 *
+	 * Parameters:
+	 * 		Propellant nominal -- The nominal propellant.
+	 * 		Random random -- Source of random numbers.
+	 *
+	 * Returns: Propellant. The drawn propellant.
+	**/
+
+	public Propellant samplePropellant (Propellant nominal, Random random)
+	{
+		return nominal.createVariant(scale(1, burnRateCoefficient, random), offset(burnRateExponent, random),
+									 scale(1, density, random));
+	} // samplePropellant()
+
+
+
+	/**
+	 * scale()
+	 *
+	 * Purpose: Draws a value around the given nominal value, with a standard
+	 * 		deviation of the given fraction of it.
+	 *
+	 * Parameters:
+	 * 		double nominal -- The nominal value.
+	 * 		double tolerance -- Relative standard deviation.
+	 * 		Random random -- Source of random numbers.
+	 *
+	 * Returns: double. The drawn value.
+	**/
+
+	private static double scale (double nominal, double tolerance, Random random)
+	{
+		return nominal * (1 + offset(tolerance, random));
+	} // scale()
+
+
+
+	/**
+	 * offset()
+	 *
+	 * Purpose: Draws an offset from zero with the given standard deviation.
+	 *
+	 * Parameters:
+	 * 		double tolerance -- Standard deviation of the offset.
+	 * 		Random random -- Source of random numbers.
+	 *
+	 * Returns: double. The drawn offset.
+	**/
+
+	private static double offset (double tolerance, Random random)
+	{
+		if (tolerance == 0)
+			return 0;
+
+		double sigmas = Math.max(-MAX_SIGMAS, Math.min(MAX_SIGMAS, random.nextGaussian()));
+		return tolerance * sigmas;
+	} // offset()
+
+
+
+	/**
+	 * checkTolerance()
+	 *
+	 * Purpose: Throws if the given tolerance is negative.
+	 *
+	 * Parameters:
+	 * 		double tolerance -- The tolerance to check.
+	 *
+	 * Returns: void.
+	**/
+
+	private static void checkTolerance (double tolerance)
+	{
+		if (tolerance < 0)
+			throw new IllegalArgumentException(TOLERANCE_ERR_MSG);
+	} // checkTolerance()
+
+} // class DispersionModel
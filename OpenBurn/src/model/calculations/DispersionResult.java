@@ -0,0 +1,291 @@
+package model.calculations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DispersionResult.java
+ *
+ * Purpose: Collects the results of the runs of a Monte Carlo dispersion
+ * 		analysis without keeping the runs themselves.
+ *
+ * 		Pressure and thrust are resampled onto a fixed time grid, and each
+ * 		grid point keeps a QuantileSketch of the values every run had at that
+ * 		time. After a run burns out, its pressure and thrust count as zero.
+ * 		Each summary field keeps one sketch as well. Memory therefore depends
+ * 		on the length of the burn and the spread of the values, not on the
+ * 		number of runs.
+ *
+ * 		Results collected by different threads are combined with merge().
+**/
+
+public class DispersionResult
+{
+	// Fields
+	private final double relativeAccuracy;
+	private final double gridDeltaTime;
+	private final List<QuantileSketch> pressure = new ArrayList<QuantileSketch>();
+	private final List<QuantileSketch> thrust = new ArrayList<QuantileSketch>();
+	private final QuantileSketch impulse;
+	private final QuantileSketch averageThrust;
+	private final QuantileSketch maxThrust;
+	private final QuantileSketch maxPressure;
+	private final QuantileSketch burnTime;
+	private final QuantileSketch isp;
+	private long runs;
+
+
+
+	/**
+	 * DispersionResult Constructor
+	 *
+	 * Purpose: Creates an empty result with the given time grid and
+	 * 		relative accuracy of its sketches.
+	**/
+
+	public DispersionResult (double gridDeltaTime, double relativeAccuracy)
+	{
+		this.gridDeltaTime    = gridDeltaTime;
+		this.relativeAccuracy = relativeAccuracy;
+		this.impulse          = new QuantileSketch(relativeAccuracy);
+		this.averageThrust    = new QuantileSketch(relativeAccuracy);
+		this.maxThrust        = new QuantileSketch(relativeAccuracy);
+		this.maxPressure      = new QuantileSketch(relativeAccuracy);
+		this.burnTime         = new QuantileSketch(relativeAccuracy);
+		this.isp              = new QuantileSketch(relativeAccuracy);
+	} // DispersionResult Constructor
+
+
+
+	/**
+	 * addRun()
+	 *
+	 * Purpose: Adds the results of one run. Each row of a simulation holds
+	 * 		the values of the step ending at its time, so a grid point takes
+	 * 		the values of the first row at or after it. Grid points after the
+	 * 		last row take zero.
+	 *
+	 * Parameters:
+	 * 		SimulationResultStore results -- Results of the run.
+	 * 		SimulationSummary summary -- Summary of the run.
+	 *
+	 * Returns: void.
+	**/
+
+	public void addRun (SimulationResultStore results, SimulationSummary summary)
+	{
+		double time[] = results.getTimeColumn();
+		double runPressure[] = results.getChamberPressureColumn();
+		double runThrust[] = results.getThrustColumn();
+		int last = results.size() - 1;
+
+		int points = (int) Math.ceil(time[last] / gridDeltaTime) + 1;
+		ensureGridSize(points);
+
+		int row = 0;
+		for (int i = 0; i < pressure.size(); i++)
+		{
+			// Past the last row the motor has burned out
+			double gridTime = i * gridDeltaTime;
+			if (i >= points || gridTime > time[last])
+			{
+				pressure.get(i).add(0);
+				thrust.get(i).add(0);
+				continue;
+			}
+
+			while (row < last && time[row] < gridTime)
+				row++;
+
+			pressure.get(i).add(runPressure[row]);
+			thrust.get(i).add(runThrust[row]);
+		}
+
+		impulse.add(summary.getImpulse());
+		averageThrust.add(summary.getaverageThrust());
+		maxThrust.add(summary.getMaxThrust());
+		maxPressure.add(summary.getmaxPressure());
+		burnTime.add(summary.getBurnTime());
+		isp.add(summary.ISP());
+		runs++;
+	} // addRun()
+
+
+
+	/**
+	 * merge()
+	 *
+	 * Purpose: Adds every run collected by another result to this one.
+	 *
+	 * Parameters:
+	 * 		DispersionResult other -- Result with the same grid and accuracy.
+	 *
+	 * Returns: void.
+	**/
+
+	public void merge (DispersionResult other)
+	{
+		// Runs shorter than the other grid are zero past their own end
+		ensureGridSize(other.pressure.size());
+		other.ensureGridSize(pressure.size());
+
+		for (int i = 0; i < pressure.size(); i++)
+		{
+			pressure.get(i).merge(other.pressure.get(i));
+			thrust.get(i).merge(other.thrust.get(i));
+		}
+
+		impulse.merge(other.impulse);
+		averageThrust.merge(other.averageThrust);
+		maxThrust.merge(other.maxThrust);
+		maxPressure.merge(other.maxPressure);
+		burnTime.merge(other.burnTime);
+		isp.merge(other.isp);
+		runs += other.runs;
+	} // merge()
+
+
+
+	/**
+	 * ensureGridSize()
+	 *
+	 * Purpose: Extends the time grid to the given number of points. Every
+	 * 		run added so far had burned out by then, so new points start
+	 * 		with a zero for each of them.
+	 *
+	 * Parameters:
+	 * 		int points -- Number of grid points needed.
+	 *
+	 * Returns: void.
+	**/
+
+	private void ensureGridSize (int points)
+	{
+		while (pressure.size() < points)
+		{
+			QuantileSketch newPressure = new QuantileSketch(relativeAccuracy);
+			QuantileSketch newThrust = new QuantileSketch(relativeAccuracy);
+			newPressure.add(0, runs);
+			newThrust.add(0, runs);
+			pressure.add(newPressure);
+			thrust.add(newThrust);
+		}
+	} // ensureGridSize()
+
+
+
+	/**
+	 * getTimes()
+	 *
+	 * Purpose: Returns the times of the grid points of the envelopes.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double[]. The time of each grid point, in seconds.
+	**/
+
+	public double[] getTimes ()
+	{
+		double times[] = new double[pressure.size()];
+		for (int i = 0; i < times.length; i++)
+			times[i] = i * gridDeltaTime;
+
+		return times;
+	} // getTimes()
+
+
+
+	/**
+	 * getPressureEnvelope() / getThrustEnvelope()
+	 *
+	 * Purpose: Return the given quantile of the chamber pressure or thrust
+	 * 		of all runs at every grid point, for example 0.05 and 0.95 for
+	 * 		a 90% band.
+	 *
+	 * Parameters:
+	 * 		double quantile -- The quantile, between 0 and 1.
+	 *
+	 * Returns: double[]. The value at each grid point.
+	**/
+
+	public double[] getPressureEnvelope (double quantile)
+	{
+		return envelope(pressure, quantile);
+	} // getPressureEnvelope()
+
+	public double[] getThrustEnvelope (double quantile)
+	{
+		return envelope(thrust, quantile);
+	} // getThrustEnvelope()
+
+	private static double[] envelope (List<QuantileSketch> sketches, double quantile)
+	{
+		double values[] = new double[sketches.size()];
+		for (int i = 0; i < values.length; i++)
+			values[i] = sketches.get(i).getQuantile(quantile);
+
+		return values;
+	} // envelope()
+
+
+
+	/**
+	 * getImpulse() / getAverageThrust() / getMaxThrust() / getMaxPressure() /
+	 * getBurnTime() / getISP()
+	 *
+	 * Purpose: Return the distribution of a SimulationSummary field over
+	 * 		all runs.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: QuantileSketch. The distribution of the field.
+	**/
+
+	public QuantileSketch getImpulse ()
+	{
+		return impulse;
+	} // getImpulse()
+
+	public QuantileSketch getAverageThrust ()
+	{
+		return averageThrust;
+	} // getAverageThrust()
+
+	public QuantileSketch getMaxThrust ()
+	{
+		return maxThrust;
+	} // getMaxThrust()
+
+	public QuantileSketch getMaxPressure ()
+	{
+		return maxPressure;
+	} // getMaxPressure()
+
+	public QuantileSketch getBurnTime ()
+	{
+		return burnTime;
+	} // getBurnTime()
+
+	public QuantileSketch getISP ()
+	{
+		return isp;
+	} // getISP()
+
+
+
+	/**
+	 * getRunCount()
+	 *
+	 * Purpose: Returns the number of runs collected.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: long. The number of runs.
+	**/
+
+	public long getRunCount ()
+	{
+		return runs;
+	} // getRunCount()
+
+} // class DispersionResult
@@ -0,0 +1,266 @@
+package model.calculations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import model.Case;
+import model.Nozzle;
+import model.grains.Grain;
+import model.propellant.Propellant;
+
+/**
+ * MonteCarloRunner.java
+ *
+ * Purpose: Runs a Monte Carlo dispersion analysis of a motor. Every run
+ * 		draws a motor from the tolerances of a DispersionModel, simulates it,
+ * 		and adds it to a DispersionResult, which keeps percentile envelopes
+ * 		of pressure and thrust and distributions of the summary fields.
+ *
+ * 		Runs are split over a ForkJoinPool. Each worker collects its own
+ * 		DispersionResult, and the results are merged as the tasks join, so
+ * 		threads share nothing while running. Run i always draws from a
+ * 		random number generator seeded from the seed and i, so the same seed
+ * 		gives the same result no matter how the runs are split.
+**/
+
+public class MonteCarloRunner
+{
+	// Error messages
+	private static final String RUNS_ERR_MSG       = "ERROR: Number of runs must be positive!\n";
+	private static final String DELTA_TIME_ERR_MSG = "ERROR: Change in time must be positive!\n";
+	private static final String ACCURACY_ERR_MSG   = "ERROR: Relative accuracy must be between 0 and 1!\n";
+
+
+
+	// Constants
+	private static final double DEFAULT_GRID_DELTA_TIME = 0.01;    // seconds between envelope points
+	private static final double DEFAULT_ACCURACY        = 0.005;   // relative accuracy of the percentiles
+	private static final int TASKS_PER_THREAD           = 8;       // Leaves per worker, for load balancing
+
+
+
+	// Fields
+	private final List<Grain> nominalGrains;
+	private final Nozzle nominalNozzle;
+	private final Case theCase;
+	private final Propellant nominalPropellant;
+	private final DispersionModel dispersion;
+	private final ForkJoinPool pool;
+	private double gridDeltaTime = DEFAULT_GRID_DELTA_TIME;
+	private double relativeAccuracy = DEFAULT_ACCURACY;
+
+
+
+	/**
+	 * MonteCarloRunner Constructor
+	 *
+	 * Purpose: Creates a runner for the given nominal motor and tolerances,
+	 * 		running on the common ForkJoinPool. The nominal motor is only
+	 * 		read, never simulated.
+	**/
+
+	public MonteCarloRunner (List<Grain> grainList, Nozzle theNozzle, Case theCase, Propellant propellant,
+							 DispersionModel dispersion)
+	{
+		this(grainList, theNozzle, theCase, propellant, dispersion, ForkJoinPool.commonPool());
+	} // MonteCarloRunner Constructor
+
+
+
+	/**
+	 * MonteCarloRunner Constructor
+	 *
+	 * Purpose: Creates a runner for the given nominal motor and tolerances,
+	 * 		running on the given ForkJoinPool.
+	**/
+
+	public MonteCarloRunner (List<Grain> grainList, Nozzle theNozzle, Case theCase, Propellant propellant,
+							 DispersionModel dispersion, ForkJoinPool pool)
+	{
+		this.nominalGrains     = new ArrayList<Grain>(grainList);
+		this.nominalNozzle     = theNozzle;
+		this.theCase           = theCase;
+		this.nominalPropellant = propellant;
+		this.dispersion        = dispersion;
+		this.pool              = pool;
+	} // MonteCarloRunner Constructor
+
+
+
+	/**
+	 * setGridDeltaTime()
+	 *
+	 * Purpose: Sets the time between points of the pressure and thrust
+	 * 		envelopes. Defaults to DEFAULT_GRID_DELTA_TIME.
+	 *
+	 * Parameters:
+	 * 		double gridDeltaTime -- Seconds between envelope points.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setGridDeltaTime (double gridDeltaTime)
+	{
+		if (gridDeltaTime <= 0)
+			throw new IllegalArgumentException(DELTA_TIME_ERR_MSG);
+
+		this.gridDeltaTime = gridDeltaTime;
+	} // setGridDeltaTime()
+
+
+
+	/**
+	 * setRelativeAccuracy()
+	 *
+	 * Purpose: Sets the relative accuracy of every reported percentile.
+	 * 		Defaults to DEFAULT_ACCURACY.
+	 *
+	 * Parameters:
+	 * 		double relativeAccuracy -- Relative accuracy, 0.01 for 1%.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setRelativeAccuracy (double relativeAccuracy)
+	{
+		if (relativeAccuracy <= 0 || relativeAccuracy >= 1)
+			throw new IllegalArgumentException(ACCURACY_ERR_MSG);
+
+		this.relativeAccuracy = relativeAccuracy;
+	} // setRelativeAccuracy()
+
+
+
+	/**
+	 * run()
+	 *
+	 * Purpose: Runs the given number of simulations and waits for all of
+	 * 		them to finish. If any run throws, the exception is rethrown.
+	 *
+	 * Parameters:
+	 * 		int runs -- Number of simulations.
+	 * 		long seed -- Seed for the random draws.
+	 * 		double deltaTime -- Change in time of every simulation.
+	 *
+	 * Returns: DispersionResult. The combined result of every run.
+	**/
+
+	public DispersionResult run (int runs, long seed, double deltaTime)
+	{
+		if (runs <= 0)
+			throw new IllegalArgumentException(RUNS_ERR_MSG);
+		if (deltaTime <= 0)
+			throw new IllegalArgumentException(DELTA_TIME_ERR_MSG);
+
+		int leafSize = Math.max(1, runs / (pool.getParallelism() * TASKS_PER_THREAD));
+		return pool.invoke(new RunTask(0, runs, leafSize, seed, deltaTime));
+	} // run()
+
+
+
+	/**
+	 * simulateRun()
+	 *
+	 * Purpose: Draws and simulates one motor into the given store, which is
+	 * 		cleared first, and adds it to the given result.
+	 *
+	 * Parameters:
+	 * 		int index -- Index of the run.
+	 * 		long seed -- Seed of the whole analysis.
+	 * 		double deltaTime -- Change in time of the simulation.
+	 * 		SimulationResultStore store -- Store to reuse for the results.
+	 * 		DispersionResult result -- Result to add the run to.
+	 *
+	 * Returns: void.
+	**/
+
+	private void simulateRun (int index, long seed, double deltaTime, SimulationResultStore store, DispersionResult result)
+	{
+		Random random = new Random(mixSeed(seed, index));
+		List<Grain> grains = dispersion.sampleGrains(nominalGrains, random);
+		Nozzle nozzle = dispersion.sampleNozzle(nominalNozzle, grains.size(), random);
+		Propellant propellant = dispersion.samplePropellant(nominalPropellant, random);
+
+		store.truncate(0);
+		new SimulationStepper(grains, nozzle, theCase, propellant).run(deltaTime, store);
+		result.addRun(store, new SimulationSummary(store, theCase));
+	} // simulateRun()
+
+
+
+	/**
+	 * mixSeed()
+	 *
+	 * Purpose: Turns the seed and run index into the seed of the run, with
+	 * 		the bits spread out so neighbouring runs get unrelated draws.
+	 * 		Uses the SplitMix64 finalizer.
+	 *
+	 * Parameters:
+	 * 		long seed -- Seed of the whole analysis.
+	 * 		int index -- Index of the run.
+	 *
+	 * Returns: long. The seed of the run.
+	**/
+
+	private static long mixSeed (long seed, int index)
+	{
+		long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	} // mixSeed()
+
+
+
+	/**
+	 * RunTask
+	 *
+	 * Purpose: Runs a range of runs, splitting it in half until it is no
+	 * 		larger than the leaf size, and merges the halves' results.
+	**/
+
+	private class RunTask extends RecursiveTask<DispersionResult>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int start;
+		private final int end;
+		private final int leafSize;
+		private final long seed;
+		private final double deltaTime;
+
+		RunTask (int start, int end, int leafSize, long seed, double deltaTime)
+		{
+			this.start     = start;
+			this.end       = end;
+			this.leafSize  = leafSize;
+			this.seed      = seed;
+			this.deltaTime = deltaTime;
+		} // RunTask Constructor
+
+		@Override
+		protected DispersionResult compute ()
+		{
+			if (end - start > leafSize)
+			{
+				int middle = (start + end) >>> 1;
+				RunTask left = new RunTask(start, middle, leafSize, seed, deltaTime);
+				left.fork();
+				DispersionResult result = new RunTask(middle, end, leafSize, seed, deltaTime).compute();
+				result.merge(left.join());
+				return result;
+			}
+
+			DispersionResult result = new DispersionResult(gridDeltaTime, relativeAccuracy);
+			SimulationResultStore store = new SimulationResultStore(nominalGrains.size());
+			for (int i = start; i < end; i++)
+				simulateRun(i, seed, deltaTime, store, result);
+
+			return result;
+		} // compute()
+	} // class RunTask
+
+} // class MonteCarloRunner
@@ -0,0 +1,329 @@
+package model.calculations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Case;
+import model.Nozzle;
+import model.grains.Grain;
+import model.grains.GrainFactory;
+import model.propellant.Propellant;
+
+/**
+ * ParameterSpace.java
+ *
+ * Purpose: Describes the motors of a design study. A base motor is built from
+ * 		a template grain, a nozzle, a case, and a propellant, and every
+ * 		combination of the swept values below is one case of the study:
+ *
+ * 		- Throat diameter of the nozzle.
+ * 		- Number of grains, each a clone of the template grain.
+ * 		- Core (inner) diameter of every grain.
+ * 		- Propellant, one for each set of burn rate coefficients.
+ *
+ * 		Values that are not set keep the value of the base motor. Cases are
+ * 		numbered from 0 to size() - 1, with the propellant changing fastest.
+ *
+ * 		NOTE: The template grain and nozzle are never simulated themselves.
+ * 			Every case gets its own copies, created by createGrains() and
+ * 			createNozzle(). Propellants are shared by every case using them,
+ * 			as simulations only read them.
+**/
+
+public class ParameterSpace
+{
+	// Error messages
+	private static final String EMPTY_ERR_MSG       = "ERROR: Every swept parameter needs at least one value!\n";
+	private static final String THROAT_ERR_MSG      = "ERROR: Throat diameters must be positive!\n";
+	private static final String GRAIN_COUNT_ERR_MSG = "ERROR: Grain counts must be positive!\n";
+	private static final String CORE_ERR_MSG        = "ERROR: Core diameters must be positive and less than the outer diameter!\n";
+	private static final String CASE_ERR_MSG        = "ERROR: Case index is out of range!\n";
+
+
+
+	// Fields
+	private final Grain templateGrain;
+	private final Nozzle baseNozzle;
+	private final Case theCase;
+	private double throatDiameters[];
+	private int grainCounts[];
+	private double coreDiameters[];
+	private Propellant propellants[];
+
+
+
+	/**
+	 * ParameterSpace Constructor
+	 *
+	 * Purpose: Creates a parameter space with a single case, the base motor
+	 * 		of the given number of template grains.
+	**/
+
+	public ParameterSpace (Grain templateGrain, int grainCount, Nozzle baseNozzle, Case theCase, Propellant basePropellant)
+	{
+		this.templateGrain = GrainFactory.createClone(templateGrain);
+		this.baseNozzle    = baseNozzle;
+		this.theCase       = theCase;
+
+		setThroatDiameters(baseNozzle.getThroatDiameter());
+		setGrainCounts(grainCount);
+		setCoreDiameters(templateGrain.getInnerDiameter());
+		setPropellants(basePropellant);
+	} // ParameterSpace Constructor
+
+
+
+	/**
+	 * setThroatDiameters()
+	 *
+	 * Purpose: Sets the nozzle throat diameters to sweep over.
+	 *
+	 * Parameters:
+	 * 		double... values -- Throat diameters, all positive.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setThroatDiameters (double... values)
+	{
+		if (values.length == 0)
+			throw new IllegalArgumentException(EMPTY_ERR_MSG);
+		for (double value : values)
+			if (value <= 0)
+				throw new IllegalArgumentException(THROAT_ERR_MSG);
+
+		throatDiameters = values.clone();
+	} // setThroatDiameters()
+
+
+
+	/**
+	 * setGrainCounts()
+	 *
+	 * Purpose: Sets the numbers of grains to sweep over.
+	 *
+	 * Parameters:
+	 * 		int... values -- Grain counts, all positive.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setGrainCounts (int... values)
+	{
+		if (values.length == 0)
+			throw new IllegalArgumentException(EMPTY_ERR_MSG);
+		for (int value : values)
+			if (value <= 0)
+				throw new IllegalArgumentException(GRAIN_COUNT_ERR_MSG);
+
+		grainCounts = values.clone();
+	} // setGrainCounts()
+
+
+
+	/**
+	 * setCoreDiameters()
+	 *
+	 * Purpose: Sets the grain core diameters to sweep over.
+	 *
+	 * Parameters:
+	 * 		double... values -- Core diameters, all positive and less than
+	 * 			the outer diameter of the template grain.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setCoreDiameters (double... values)
+	{
+		if (values.length == 0)
+			throw new IllegalArgumentException(EMPTY_ERR_MSG);
+		for (double value : values)
+			if (value <= 0 || value >= templateGrain.getOuterDiameter())
+				throw new IllegalArgumentException(CORE_ERR_MSG);
+
+		coreDiameters = values.clone();
+	} // setCoreDiameters()
+
+
+
+	/**
+	 * setPropellants()
+	 *
+	 * Purpose: Sets the propellants to sweep over, usually the same
+	 * 		propellant type with different burn rate coefficients.
+	 *
+	 * Parameters:
+	 * 		Propellant... values -- Propellants to sweep over.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setPropellants (Propellant... values)
+	{
+		if (values.length == 0)
+			throw new IllegalArgumentException(EMPTY_ERR_MSG);
+
+		propellants = values.clone();
+	} // setPropellants()
+
+
+
+	/**
+	 * size()
+	 *
+	 * Purpose: Returns the number of cases in the parameter space.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: int. The number of combinations of swept values.
+	**/
+
+	public int size ()
+	{
+		return throatDiameters.length * grainCounts.length * coreDiameters.length * propellants.length;
+	} // size()
+
+
+
+	/**
+	 * getThroatDiameter() / getGrainCount() / getCoreDiameter() / getPropellantIndex()
+	 *
+	 * Purpose: Return the swept values of one case.
+	 *
+	 * Parameters:
+	 * 		int index -- Index of the case.
+	 *
+	 * Returns: The value of the parameter for the case.
+	**/
+
+	public double getThroatDiameter (int index)
+	{
+		checkIndex(index);
+		return throatDiameters[index / (propellants.length * coreDiameters.length * grainCounts.length)];
+	} // getThroatDiameter()
+
+	public int getGrainCount (int index)
+	{
+		checkIndex(index);
+		return grainCounts[(index / (propellants.length * coreDiameters.length)) % grainCounts.length];
+	} // getGrainCount()
+
+	public double getCoreDiameter (int index)
+	{
+		checkIndex(index);
+		return coreDiameters[(index / propellants.length) % coreDiameters.length];
+	} // getCoreDiameter()
+
+	public int getPropellantIndex (int index)
+	{
+		checkIndex(index);
+		return index % propellants.length;
+	} // getPropellantIndex()
+
+
+
+	/**
+	 * createGrains()
+	 *
+	 * Purpose: Creates new grains for one case, cloned from the template
+	 * 		grain with the core diameter of the case.
+	 *
+	 * Parameters:
+	 * 		int index -- Index of the case.
+	 *
+	 * Returns: List<Grain>. Grains only used by this case.
+	**/
+
+	public List<Grain> createGrains (int index)
+	{
+		int grainCount = getGrainCount(index);
+		double coreDiameter = getCoreDiameter(index);
+
+		List<Grain> grains = new ArrayList<Grain>(grainCount);
+		for (int i = 0; i < grainCount; i++)
+		{
+			Grain grain = GrainFactory.createClone(templateGrain);
+			grain.setInnerDiameter(coreDiameter);
+			grain.setGrainID(i + 1);
+			grains.add(grain);
+		}
+
+		return grains;
+	} // createGrains()
+
+
+
+	/**
+	 * createNozzle()
+	 *
+	 * Purpose: Creates the nozzle for one case, the base nozzle with the
+	 * 		throat diameter and number of grains of the case.
+	 *
+	 * Parameters:
+	 * 		int index -- Index of the case.
+	 *
+	 * Returns: Nozzle. The nozzle of the case.
+	**/
+
+	public Nozzle createNozzle (int index)
+	{
+		return new Nozzle(getThroatDiameter(index), baseNozzle.getEntranceDiameter(), baseNozzle.getExitDiameter(),
+						  baseNozzle.getCf(), getGrainCount(index));
+	} // createNozzle()
+
+
+
+	/**
+	 * getPropellant()
+	 *
+	 * Purpose: Returns the propellant of one case.
+	 *
+	 * Parameters:
+	 * 		int index -- Index of the case.
+	 *
+	 * Returns: Propellant. The propellant of the case, shared with other cases.
+	**/
+
+	public Propellant getPropellant (int index)
+	{
+		return propellants[getPropellantIndex(index)];
+	} // getPropellant()
+
+
+
+	/**
+	 * getCase()
+	 *
+	 * Purpose: Returns the motor case, which is the same for every case
+	 * 		and is never changed by a simulation.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: Case. The motor case.
+	**/
+
+	public Case getCase ()
+	{
+		return theCase;
+	} // getCase()
+
+
+
+	/**
+	 * checkIndex()
+	 *
+	 * Purpose: Throws if the given case index is out of range.
+	 *
+	 * Parameters:
+	 * 		int index -- Index of the case.
+	 *
+	 * Returns: void.
+	**/
+
+	private void checkIndex (int index)
+	{
+		if (index < 0 || index >= size())
+			throw new IndexOutOfBoundsException(CASE_ERR_MSG);
+	} // checkIndex()
+
+} // class ParameterSpace
@@ -0,0 +1,240 @@
+package model.calculations;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import model.Nozzle;
+import model.grains.Grain;
+import model.propellant.Propellant;
+
+/**
+ * ParameterSweep.java
+ *
+ * Purpose: Simulates every case of a ParameterSpace in parallel on a
+ * 		ForkJoinPool and returns the summary of each case.
+ *
+ * 		Cases share nothing that a simulation changes: every case gets its
+ * 		own grains and nozzle from the parameter space, propellants are only
+ * 		read, and each case writes its result into its own slot of the output
+ * 		array. Each case is summarized as its steps are produced and the
+ * 		steps are not kept, so the only per case allocation is the motor
+ * 		itself and its summary. With no locks or shared state the sweep
+ * 		scales with the number of cores.
+ *
+ * 		A sweep may be given a DiskSimulationCache. Cases found in it are
+ * 		summarized from the kept results instead of being simulated, and
+ * 		new cases are kept, so a repeated sweep only simulates the cases
+ * 		that changed. Cached cases do keep their steps while they are
+ * 		summarized.
+**/
+
+public class ParameterSweep
+{
+	// Error messages
+	private static final String DELTA_TIME_ERR_MSG = "ERROR: Change in time must be positive!\n";
+
+
+
+	// Constants
+	private static final int TASKS_PER_THREAD = 8;   // Leaves per worker, for load balancing
+
+
+
+	// Fields
+	private final ForkJoinPool pool;
+	private final double deltaTime;
+	private final DiskSimulationCache cache;
+
+
+
+	/**
+	 * ParameterSweep Constructor
+	 *
+	 * Purpose: Creates a sweep that runs on the common ForkJoinPool, which
+	 * 		has one worker for each core.
+	**/
+
+	public ParameterSweep (double deltaTime)
+	{
+		this(deltaTime, ForkJoinPool.commonPool());
+	} // ParameterSweep Constructor
+
+
+
+	/**
+	 * ParameterSweep Constructor
+	 *
+	 * Purpose: Creates a sweep that runs on the given ForkJoinPool, with
+	 * 		the given change in time for every simulation.
+	**/
+
+	public ParameterSweep (double deltaTime, ForkJoinPool pool)
+	{
+		this(deltaTime, pool, null);
+	} // ParameterSweep Constructor
+
+
+
+	/**
+	 * ParameterSweep Constructor
+	 *
+	 * Purpose: Creates a sweep that runs on the given ForkJoinPool and
+	 * 		keeps the results of every case in the given disk cache, or in
+	 * 		none if it is null.
+	**/
+
+	public ParameterSweep (double deltaTime, ForkJoinPool pool, DiskSimulationCache cache)
+	{
+		if (deltaTime <= 0)
+			throw new IllegalArgumentException(DELTA_TIME_ERR_MSG);
+
+		this.deltaTime = deltaTime;
+		this.pool      = pool;
+		this.cache     = cache;
+	} // ParameterSweep Constructor
+
+
+
+	/**
+	 * run()
+	 *
+	 * Purpose: Simulates every case of the parameter space and waits for all
+	 * 		of them to finish. If any case throws, the exception is rethrown.
+	 * 		Errors reading or writing the disk cache are thrown as
+	 * 		UncheckedIOException.
+	 *
+	 * Parameters:
+	 * 		ParameterSpace space -- The cases to simulate.
+	 *
+	 * Returns: List<SweepResult>. One result per case, in case index order.
+	**/
+
+	public List<SweepResult> run (ParameterSpace space)
+	{
+		SweepResult results[] = new SweepResult[space.size()];
+		int leafSize = Math.max(1, results.length / (pool.getParallelism() * TASKS_PER_THREAD));
+
+		pool.invoke(new SweepTask(space, results, 0, results.length, leafSize));
+
+		return Arrays.asList(results);
+	} // run()
+
+
+
+	/**
+	 * simulateCase()
+	 *
+	 * Purpose: Simulates one case of the parameter space and summarizes it
+	 * 		as the steps are produced, without keeping the steps. With a disk
+	 * 		cache, the case is read from or written to it instead.
+	 *
+	 * Parameters:
+	 * 		ParameterSpace space -- The parameter space.
+	 * 		int index -- Index of the case.
+	 *
+	 * Returns: SweepResult. The result of the case.
+	**/
+
+	private SweepResult simulateCase (ParameterSpace space, int index)
+	{
+		SimulationSummaryAccumulator steps = new SimulationSummaryAccumulator();
+		List<Grain> grains = space.createGrains(index);
+		Nozzle nozzle = space.createNozzle(index);
+		Propellant propellant = space.getPropellant(index);
+
+		if (cache == null)
+			new SimulationStepper(grains, nozzle, space.getCase(), propellant).run(deltaTime, steps);
+		else
+			steps.add(simulateCached(grains, nozzle, space, propellant));
+
+		return new SweepResult(space, index, steps.toSummary(space.getCase()));
+	} // simulateCase()
+
+
+
+	/**
+	 * simulateCached()
+	 *
+	 * Purpose: Reads the results of one case from the disk cache, or
+	 * 		simulates the case and writes its results to the cache.
+	 *
+	 * Parameters:
+	 * 		List<Grain> grains -- Grains of the case, regressed if simulated.
+	 * 		Nozzle nozzle -- Nozzle of the case.
+	 * 		ParameterSpace space -- The parameter space, for the case.
+	 * 		Propellant propellant -- Propellant of the case.
+	 *
+	 * Returns: SimulationResultStore. The results of the case.
+	**/
+
+	private SimulationResultStore simulateCached (List<Grain> grains, Nozzle nozzle, ParameterSpace space, Propellant propellant)
+	{
+		// Key the grains before the simulation regresses them
+		String key = SimulationCache.createKey(grains, deltaTime, nozzle, space.getCase(), propellant);
+		try
+		{
+			SimulationResultStore results = cache.get(key);
+			if (results == null)
+			{
+				results = new SimulationResultStore(grains.size());
+				new SimulationStepper(grains, nozzle, space.getCase(), propellant).run(deltaTime, results);
+				cache.put(key, results);
+			}
+
+			return results;
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	} // simulateCached()
+
+
+
+	/**
+	 * SweepTask
+	 *
+	 * Purpose: Simulates a range of cases, splitting it in half until it is
+	 * 		no larger than the leaf size.
+	**/
+
+	private class SweepTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final ParameterSpace space;
+		private final SweepResult results[];
+		private final int start;
+		private final int end;
+		private final int leafSize;
+
+		SweepTask (ParameterSpace space, SweepResult results[], int start, int end, int leafSize)
+		{
+			this.space    = space;
+			this.results  = results;
+			this.start    = start;
+			this.end      = end;
+			this.leafSize = leafSize;
+		} // SweepTask Constructor
+
+		@Override
+		protected void compute ()
+		{
+			if (end - start > leafSize)
+			{
+				int middle = (start + end) >>> 1;
+				invokeAll(new SweepTask(space, results, start, middle, leafSize),
+						  new SweepTask(space, results, middle, end, leafSize));
+				return;
+			}
+
+			for (int i = start; i < end; i++)
+				results[i] = simulateCase(space, i);
+		} // compute()
+	} // class SweepTask
+
+} // class ParameterSweep
@@ -0,0 +1,329 @@
+package model.calculations;
+
+/**
+ * QuantileSketch.java
+ *
+ * Purpose: Estimates quantiles (percentiles) of a stream of values without
+ * 		keeping the values. Every value is counted in a bucket whose bounds
+ * 		grow geometrically, so any quantile is returned within the given
+ * 		relative accuracy no matter how many values were added. Memory only
+ * 		depends on the range of the values, not on how many there are.
+ *
+ * 		Two sketches with the same accuracy can be merged, which gives the
+ * 		same result as adding every value to one sketch. This lets every
+ * 		thread of a parallel run keep its own sketch.
+ *
+ * 		Negative values are counted in a mirrored set of buckets, and values
+ * 		closer to zero than MIN_VALUE are counted as zero.
+**/
+
+public class QuantileSketch
+{
+	// Error messages
+	private static final String ACCURACY_ERR_MSG = "ERROR: Relative accuracy must be between 0 and 1!\n";
+	private static final String QUANTILE_ERR_MSG = "ERROR: Quantile must be between 0 and 1!\n";
+	private static final String EMPTY_ERR_MSG    = "ERROR: Sketch is empty!\n";
+	private static final String MERGE_ERR_MSG    = "ERROR: Only sketches with the same accuracy can be merged!\n";
+
+
+
+	// Constants
+	private static final double MIN_VALUE = 1e-9;   // Smallest magnitude that is not counted as zero
+	private static final int INITIAL_BUCKETS = 16;
+
+
+
+	// Fields
+	private final double relativeAccuracy;
+	private final double logGamma;
+	private final Buckets positive = new Buckets();
+	private final Buckets negative = new Buckets();
+	private long zeroCount;
+	private long count;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+
+
+	/**
+	 * QuantileSketch Constructor
+	 *
+	 * Purpose: Creates an empty sketch. Quantiles are returned within the
+	 * 		given relative accuracy of a value actually added, so 0.01
+	 * 		means within 1%.
+	**/
+
+	public QuantileSketch (double relativeAccuracy)
+	{
+		if (relativeAccuracy <= 0 || relativeAccuracy >= 1)
+			throw new IllegalArgumentException(ACCURACY_ERR_MSG);
+
+		this.relativeAccuracy = relativeAccuracy;
+		this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+	} // QuantileSketch Constructor
+
+
+
+	/**
+	 * add()
+	 *
+	 * Purpose: Adds a value to the sketch.
+	 *
+	 * Parameters:
+	 * 		double value -- The value to add.
+	 *
+	 * Returns: void.
+	**/
+
+	public void add (double value)
+	{
+		add(value, 1);
+	} // add()
+
+
+
+	/**
+	 * add()
+	 *
+	 * Purpose: Adds a value to the sketch the given number of times.
+	 *
+	 * Parameters:
+	 * 		double value -- The value to add.
+	 * 		long times -- How many times to add it.
+	 *
+	 * Returns: void.
+	**/
+
+	public void add (double value, long times)
+	{
+		if (times <= 0)
+			return;
+
+		if (value > MIN_VALUE)
+			positive.add(index(value), times);
+		else if (value < -MIN_VALUE)
+			negative.add(index(-value), times);
+		else
+			zeroCount += times;
+
+		count += times;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	} // add()
+
+
+
+	/**
+	 * merge()
+	 *
+	 * Purpose: Adds every value counted by another sketch to this one.
+	 *
+	 * Parameters:
+	 * 		QuantileSketch other -- Sketch with the same accuracy to merge in.
+	 *
+	 * Returns: void.
+	**/
+
+	public void merge (QuantileSketch other)
+	{
+		if (other.relativeAccuracy != relativeAccuracy)
+			throw new IllegalArgumentException(MERGE_ERR_MSG);
+		if (other.count == 0)
+			return;
+
+		positive.merge(other.positive);
+		negative.merge(other.negative);
+		zeroCount += other.zeroCount;
+		count += other.count;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	} // merge()
+
+
+
+	/**
+	 * getQuantile()
+	 *
+	 * Purpose: Returns an estimate of the given quantile of every value
+	 * 		added, for example 0.5 for the median or 0.99 for the 99th
+	 * 		percentile. The estimate is never outside the smallest and
+	 * 		largest values added.
+	 *
+	 * Parameters:
+	 * 		double quantile -- The quantile, between 0 and 1.
+	 *
+	 * Returns: double. The estimated value at the quantile.
+	**/
+
+	public double getQuantile (double quantile)
+	{
+		if (quantile < 0 || quantile > 1)
+			throw new IllegalArgumentException(QUANTILE_ERR_MSG);
+		if (count == 0)
+			throw new IllegalStateException(EMPTY_ERR_MSG);
+
+		long rank = (long) (quantile * (count - 1));
+		double value;
+
+		// Negative values come first, from the largest magnitude down
+		if (rank < negative.total)
+			value = -bucketValue(negative.indexFromTop(rank));
+		else if (rank < negative.total + zeroCount)
+			value = 0;
+		else
+			value = bucketValue(positive.indexFromBottom(rank - negative.total - zeroCount));
+
+		return Math.max(min, Math.min(max, value));
+	} // getQuantile()
+
+
+
+	/**
+	 * getCount() / getMin() / getMax()
+	 *
+	 * Purpose: Return how many values were added and the exact smallest
+	 * 		and largest of them.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: The count, smallest, or largest value.
+	**/
+
+	public long getCount ()
+	{
+		return count;
+	} // getCount()
+
+	public double getMin ()
+	{
+		return min;
+	} // getMin()
+
+	public double getMax ()
+	{
+		return max;
+	} // getMax()
+
+
+
+	/**
+	 * getRelativeAccuracy()
+	 *
+	 * Purpose: Returns the relative accuracy the sketch was created with.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The relative accuracy.
+	**/
+
+	public double getRelativeAccuracy ()
+	{
+		return relativeAccuracy;
+	} // getRelativeAccuracy()
+
+
+
+	/**
+	 * index() / bucketValue()
+	 *
+	 * Purpose: Convert a positive value to the index of its bucket, and a
+	 * 		bucket index back to the value in the middle of the bucket.
+	 * 		Bucket i holds values in (gamma^(i-1), gamma^i].
+	 *
+	 * Parameters:
+	 * 		double value / int index -- The value or bucket index.
+	 *
+	 * Returns: The bucket index or value.
+	**/
+
+	private int index (double value)
+	{
+		return (int) Math.ceil(Math.log(value) / logGamma);
+	} // index()
+
+	private double bucketValue (int index)
+	{
+		return 2 * Math.exp(index * logGamma) / (1 + Math.exp(logGamma));
+	} // bucketValue()
+
+
+
+	/**
+	 * Buckets
+	 *
+	 * Purpose: Counts per bucket index, kept in an array that covers the
+	 * 		range of indexes seen so far and grows at either end.
+	**/
+
+	private static class Buckets
+	{
+		private long counts[];
+		private int offset;   // Bucket index of counts[0]
+		private long total;
+
+		void add (int index, long times)
+		{
+			ensureRange(index);
+			counts[index - offset] += times;
+			total += times;
+		} // add()
+
+		void merge (Buckets other)
+		{
+			if (other.total == 0)
+				return;
+
+			for (int i = 0; i < other.counts.length; i++)
+				if (other.counts[i] != 0)
+					add(other.offset + i, other.counts[i]);
+		} // merge()
+
+		int indexFromBottom (long rank)
+		{
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++)
+			{
+				seen += counts[i];
+				if (seen > rank)
+					return offset + i;
+			}
+			return offset + counts.length - 1;
+		} // indexFromBottom()
+
+		int indexFromTop (long rank)
+		{
+			long seen = 0;
+			for (int i = counts.length - 1; i >= 0; i--)
+			{
+				seen += counts[i];
+				if (seen > rank)
+					return offset + i;
+			}
+			return offset;
+		} // indexFromTop()
+
+		private void ensureRange (int index)
+		{
+			if (counts == null)
+			{
+				counts = new long[INITIAL_BUCKETS];
+				offset = index - INITIAL_BUCKETS / 2;
+				return;
+			}
+
+			int low = Math.min(offset, index);
+			int high = Math.max(offset + counts.length - 1, index);
+			if (low == offset && high == offset + counts.length - 1)
+				return;
+
+			// Grow by at least double, so repeated growth stays cheap
+			int length = Math.max(high - low + 1, counts.length * 2);
+			int newOffset = (index < offset) ? high - length + 1 : low;
+			long grown[] = new long[length];
+			System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+			counts = grown;
+			offset = newOffset;
+		} // ensureRange()
+	} // class Buckets
+
+} // class QuantileSketch
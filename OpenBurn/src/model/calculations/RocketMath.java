@@ -15,6 +15,12 @@ import model.propellant.Propellant;
 
 public class RocketMath
 {
+	// Limits on the change in time for adaptive simulations, relative to the given change in time
+	private static final double MIN_STEP_DIVISOR    = 1000.0;
+	private static final double MAX_STEP_MULTIPLIER = 100.0;
+	
+	
+	
 	/**
 	 * simulate()
 	 * 
@@ -22,79 +28,172 @@ public class RocketMath
 	 * 		a set of simulation results. The results differ by the change in time given
 	 * 		at every step.
 	 * 
+	 * 		NOTE: This is kept for callers of the list based API. The returned list
+	 * 			is a view over the SimulationResultStore built by simulateToStore().
+	 * 
 	 * Parameters:
 	 * 		List<Grain> grainList -- List of grains in the rocket motor for the simulation.
 	 * 		double deltaTime -- How much time will change at every step in the simulation.
 	 * 		Nozzle theNozzle -- Nozzle of the rocket motor for the simulation.
+	 * 		Case theCase -- Case of the rocket motor for the simulation.
+	 * 		Propellant propellant -- Propellant burned during the simulation.
 	 * 
 	 * Returns: List<SimulationResults>. A list of results from the burn simulation.
-	 * @param propellant TODO
 	**/
 	
 	public static List<SimulationResults> simulate (List<Grain> grainList, double deltaTime, Nozzle theNozzle, Case theCase, Propellant propellant)
 	{
-		// Initialize a list for results, and the time at zero
-		List<SimulationResults> output = new LinkedList<SimulationResults>();
-		double currentTime = 0;
-		
+		return simulateToStore(grainList, deltaTime, theNozzle, theCase, propellant).asList();
+	} // simulate()
+	
+	
+	
+	/**
+	 * simulate()
+	 * 
+	 * Purpose: Takes a collection of grains and a nozzle for a rocket motor, and streams
+	 * 		the simulation results to the given listener one step at a time, as each
+	 * 		step is computed. Nothing is kept by the simulation itself, so memory does
+	 * 		not grow with the length of the burn or the number of steps.
+	 * 
+	 * Parameters:
+	 * 		List<Grain> grainList -- List of grains in the rocket motor for the simulation.
+	 * 		double deltaTime -- How much time will change at every step in the simulation.
+	 * 		Nozzle theNozzle -- Nozzle of the rocket motor for the simulation.
+	 * 		Case theCase -- Case of the rocket motor for the simulation.
+	 * 		Propellant propellant -- Propellant burned during the simulation.
+	 * 		SimulationListener listener -- Listener to pass every step to.
+	 * 
+	 * Returns: void.
+	**/
+	
+	public static void simulate (List<Grain> grainList, double deltaTime, Nozzle theNozzle, Case theCase, Propellant propellant,
+								 SimulationListener listener)
+	{
+		simulate(grainList, deltaTime, theNozzle, theCase, propellant, listener, null);
+	} // simulate()
+	
+	
+	
+	/**
+	 * simulate()
+	 * 
+	 * Purpose: Same as the simulate() above, except every phase of every step is timed
+	 * 		by the given profiler. Read its totals and percentiles with getReport() once
+	 * 		the simulation is done.
+	 * 
+	 * Parameters:
+	 * 		List<Grain> grainList -- List of grains in the rocket motor for the simulation.
+	 * 		double deltaTime -- How much time will change at every step in the simulation.
+	 * 		Nozzle theNozzle -- Nozzle of the rocket motor for the simulation.
+	 * 		Case theCase -- Case of the rocket motor for the simulation.
+	 * 		Propellant propellant -- Propellant burned during the simulation.
+	 * 		SimulationListener listener -- Listener to pass every step to.
+	 * 		SimulationProfiler profiler -- Profiler to time the phases with, or null.
+	 * 
+	 * Returns: void.
+	**/
+	
+	public static void simulate (List<Grain> grainList, double deltaTime, Nozzle theNozzle, Case theCase, Propellant propellant,
+								 SimulationListener listener, SimulationProfiler profiler)
+	{
+		SimulationStepper stepper = new SimulationStepper(grainList, theNozzle, theCase, propellant);
+		stepper.setProfiler(profiler);
+		stepper.run(deltaTime, listener);
+	} // simulate()
+	
+	
+	
+	/**
+	 * simulateToStore()
+	 * 
+	 * Purpose: Takes a collection of grains and a nozzle for a rocket motor, and produces
+	 * 		a set of simulation results in column form. The steps are run by a
+	 * 		SimulationStepper, which reuses the same buffers for every step, and
+	 * 		the values are copied into the store once each step is complete.
+	 * 
+	 * Parameters:
+	 * 		List<Grain> grainList -- List of grains in the rocket motor for the simulation.
+	 * 		double deltaTime -- How much time will change at every step in the simulation.
+	 * 		Nozzle theNozzle -- Nozzle of the rocket motor for the simulation.
+	 * 		Case theCase -- Case of the rocket motor for the simulation.
+	 * 		Propellant propellant -- Propellant burned during the simulation.
+	 * 
+	 * Returns: SimulationResultStore. The results from the burn simulation, one row per step.
+	**/
+	
+	public static SimulationResultStore simulateToStore (List<Grain> grainList, double deltaTime, Nozzle theNozzle, Case theCase, Propellant propellant)
+	{
+		// Initialize a store for results, and stream every step into it
+		SimulationResultStore output = new SimulationResultStore(grainList.size());
+		simulate(grainList, deltaTime, theNozzle, theCase, propellant, output);
 		
-		//First data point, adds a zero thrust and force value, with the actual motor force
-		SimulationResults currentTimeStep = new SimulationResults();
-		currentTimeStep.setTime(0);
-		currentTimeStep.setMassGeneratedOverall(0);
-		currentTimeStep.setBurnRate(0);
-		currentTimeStep.setChamberPressure(0);
-		currentTimeStep.setThrust(0);
-		currentTimeStep.setMassFlowPerAreaGrain(new double[grainList.size()]);
-		currentTimeStep.setMassGeneratedPerGrain(new double[grainList.size()]);
-		double motorAvailableArea = 0;
-		for(Grain oneGrain: grainList)
-		{
-			motorAvailableArea += oneGrain.getBurnArea();
-		}
-		// Calculate geometry based field values
-		double currentKn = motorAvailableArea / theNozzle.getThroatArea();
-		currentTimeStep.setBurnArea(motorAvailableArea);
-		currentTimeStep.setKn(currentKn);
-		calculateLStar(grainList, currentTimeStep, theNozzle);
-		massAndCenterOfGravity(grainList, currentTimeStep, theCase, propellant);
-		portToThroatRatio(grainList, currentTimeStep, theNozzle);
-		output.add(currentTimeStep);
+		return output;
+	} // simulateToStore()
+	
+	
+	
+	/**
+	 * simulateAdaptive()
+	 * 
+	 * Purpose: Takes a collection of grains and a nozzle for a rocket motor, and produces
+	 * 		a set of simulation results where the change in time of each step is picked
+	 * 		from an error estimate. Steps grow while the burn is steady and shrink
+	 * 		where pressure changes quickly and around grain burnout.
+	 * 
+	 * 		The change in time is kept between deltaTime / MIN_STEP_DIVISOR and
+	 * 		deltaTime * MAX_STEP_MULTIPLIER.
+	 * 
+	 * Parameters:
+	 * 		List<Grain> grainList -- List of grains in the rocket motor for the simulation.
+	 * 		double deltaTime -- Change in time to try for the first step.
+	 * 		double tolerance -- Largest relative error in the pressure an Euler step
+	 * 			would report, allowed in one step.
+	 * 		Nozzle theNozzle -- Nozzle of the rocket motor for the simulation.
+	 * 		Case theCase -- Case of the rocket motor for the simulation.
+	 * 		Propellant propellant -- Propellant burned during the simulation.
+	 * 
+	 * Returns: SimulationResultStore. The results from the burn simulation, one row per step.
+	**/
+	
+	public static SimulationResultStore simulateAdaptive (List<Grain> grainList, double deltaTime, double tolerance, Nozzle theNozzle, Case theCase, Propellant propellant)
+	{
+		SimulationResultStore output = new SimulationResultStore(grainList.size());
+		AdaptiveStepper stepper = new AdaptiveStepper(grainList, theNozzle, theCase, propellant, tolerance,
+													  deltaTime / MIN_STEP_DIVISOR, deltaTime * MAX_STEP_MULTIPLIER);
+		stepper.run(deltaTime, output);
 		
-		// Begin simulation loop
-		boolean simRunning = true;
-		while (simRunning)
-		{
-			// Update time
-			currentTime += deltaTime;
-			
-			// Set up a set of results and enter in the updated time.
-			currentTimeStep = new SimulationResults();
-			currentTimeStep.setTime(currentTime);
-			
-			// Parts 1 through 8 in matlab file
-			generateGeometry(grainList, currentTimeStep, theNozzle, propellant);
-			regressGrains(grainList, currentTimeStep, deltaTime, propellant);
-			double[] massFlow = generateMassFlow(grainList, currentTimeStep);
-			portToThroatRatio(grainList, currentTimeStep, theNozzle);
-			calculateMassFlowPerArea(grainList, currentTimeStep, massFlow, theNozzle);
-			calculateLStar(grainList, currentTimeStep, theNozzle);
-			massAndCenterOfGravity(grainList, currentTimeStep, theCase, propellant);
-			calculateBurnout(grainList, currentTime);
-			calculateThrust(currentTimeStep,theNozzle);
-
-			// Add final results to the result set
-			output.add(currentTimeStep);
-
-			simRunning = false;
-			for (int i = 0; i < grainList.size(); i++)
-			{
-				simRunning |= grainList.get(i).isBurning();
-			}
-		} // End simulation loop
+		return output;
+	} // simulateAdaptive()
+	
+	
+	
+	/**
+	 * simulateBurnback()
+	 * 
+	 * Purpose: Takes a collection of grains and a nozzle for a rocket motor, and produces
+	 * 		a set of simulation results by integrating over web distance instead of time.
+	 * 		The grain geometry comes from a BurnbackTable shared by every simulation of
+	 * 		grains with the same dimensions, so trying another propellant or nozzle on the
+	 * 		same grains does not recompute it. The grains passed in are not changed.
+	 * 
+	 * Parameters:
+	 * 		List<Grain> grainList -- List of grains in the rocket motor for the simulation.
+	 * 		Nozzle theNozzle -- Nozzle of the rocket motor for the simulation.
+	 * 		Case theCase -- Case of the rocket motor for the simulation.
+	 * 		Propellant propellant -- Propellant burned during the simulation.
+	 * 
+	 * Returns: SimulationResultStore. The results from the burn simulation, one row per table node.
+	**/
+	
+	public static SimulationResultStore simulateBurnback (List<Grain> grainList, Nozzle theNozzle, Case theCase, Propellant propellant)
+	{
+		BurnbackTable table = BurnbackTable.forGrains(grainList);
+		SimulationResultStore output = new SimulationResultStore(grainList.size(), table.getNodeCount() + 1);
+		table.simulate(theNozzle, theCase, propellant, output);
 		
 		return output;
-	} // simulate()
+	} // simulateBurnback()
 	
 	
 	
@@ -118,14 +217,57 @@ public class RocketMath
 	{
 		// Gather the total burn area
 		double motorAvailableArea = 0;
-		for(Grain oneGrain: theGrains)
-			motorAvailableArea += oneGrain.getBurnArea();
+		for (int i = 0; i < theGrains.size(); i++)
+			motorAvailableArea += theGrains.get(i).getBurnArea();
 		
+		setGeometry(motorAvailableArea, currentResult, theNozzle, propellant);
+	} // generateGeometry()
+	
+	
+	
+	/**
+	 * generateGeometry()
+	 * 
+	 * Purpose: Same as generateGeometry() above, but takes the total burn
+	 * 		area from the sums kept by the grain stack.
+	 * 
+	 * Parameters:
+	 * 		GrainStack theGrains -- Grains for the motor.
+	 * 		SimulationResults currentResult -- Result from a simulation.
+	 * 		Nozzle theNozzle -- Nozzle of the rocket from the simulation.
+	 * 		Propellant propellant -- Propellant burned during the simulation.
+	 * 
+	 * Returns: void.
+	**/
+	
+	public static void generateGeometry (GrainStack theGrains, SimulationResults currentResult, Nozzle theNozzle, Propellant propellant)
+	{
+		setGeometry(theGrains.getBurnArea(), currentResult, theNozzle, propellant);
+	} // generateGeometry()
+	
+	
+	
+	/**
+	 * setGeometry()
+	 * 
+	 * Purpose: Sets the Kn, burn area, chamber pressure, and burn rate of a
+	 * 		result from the total burn area of the motor.
+	 * 
+	 * Parameters:
+	 * 		double motorAvailableArea -- Total burn area of the grains.
+	 * 		SimulationResults currentResult -- Result from a simulation.
+	 * 		Nozzle theNozzle -- Nozzle of the rocket from the simulation.
+	 * 		Propellant propellant -- Propellant burned during the simulation.
+	 * 
+	 * Returns: void.
+	**/
+	
+	private static void setGeometry (double motorAvailableArea, SimulationResults currentResult, Nozzle theNozzle, Propellant propellant)
+	{
 		// Calculate geometry based field values
 		double currentKn = motorAvailableArea / theNozzle.getThroatArea();
-		propellant.setKn(currentKn);
-		double currentPressure = propellant.getChamberPressure();
-		double currentBurnRate = propellant.getBurnRate();
+		double currentPressure = propellant.getChamberPressure(currentKn);
+		double currentBurnRate = propellant.getBurnRate(currentKn, currentPressure);
 //		double currentPressure = pressureFromKn(currentKn);
 //		double currentBurnRate = burnRateFromKn(currentKn);
 		
@@ -134,7 +276,7 @@ public class RocketMath
 		currentResult.setBurnArea(motorAvailableArea);
 		currentResult.setChamberPressure(currentPressure);
 		currentResult.setBurnRate(currentBurnRate);
-	} // generateGeometry()
+	} // setGeometry()
 	
 	
 	
@@ -156,7 +298,29 @@ public class RocketMath
 	
 	public static void regressGrains (List<Grain> theGrains, SimulationResults current, double deltaTime, Propellant propellant)
 	{
-		double massGenerated[] = new double[theGrains.size()];
+		regressGrains(theGrains, current, deltaTime, propellant, new double[theGrains.size()]);
+	} // regressGrains()
+	
+	
+	
+	/**
+	 * regressGrains()
+	 * 
+	 * Purpose: Same as regressGrains() above, but writes the mass generated
+	 * 		per grain into the given buffer instead of allocating a new one.
+	 * 
+	 * Parameters:
+	 * 		List<Grain> theGrains -- List of grains during a simulation.
+	 * 		SimulationResults current -- Current results during a simulation.
+	 * 		double deltaTime -- Change in time increment during a simulation.
+	 * 		Propellant propellant -- Propellant burned during the simulation.
+	 * 		double[] massGenerated -- Buffer with one entry per grain.
+	 * 
+	 * Returns: void.
+	**/
+	
+	public static void regressGrains (List<Grain> theGrains, SimulationResults current, double deltaTime, Propellant propellant, double[] massGenerated)
+	{
 		double overallGenerated = 0;
 		
 		// Go through each grain
@@ -175,6 +339,38 @@ public class RocketMath
 	
 	
 	
+	/**
+	 * regressGrains()
+	 * 
+	 * Purpose: Same as regressGrains() above, but regresses the grain stack,
+	 * 		which updates its sums in the same pass over the grains.
+	 * 
+	 * Parameters:
+	 * 		GrainStack theGrains -- Grains during a simulation.
+	 * 		SimulationResults current -- Current results during a simulation.
+	 * 		double deltaTime -- Change in time increment during a simulation.
+	 * 		Propellant propellant -- Propellant burned during the simulation.
+	 * 		double[] massGenerated -- Buffer with one entry per grain.
+	 * 
+	 * Returns: void.
+	**/
+	
+	public static void regressGrains (GrainStack theGrains, SimulationResults current, double deltaTime, Propellant propellant, double[] massGenerated)
+	{
+		double density = propellant.getPropellantDensity();
+		
+		// The buffer holds the volume change of each grain until it is scaled to mass
+		double overallChange = theGrains.regress(current.getBurnRate(), deltaTime, massGenerated);
+		for (int i = 0; i < theGrains.size(); i++)
+			massGenerated[i] *= density;
+		
+		// Set mass generated overall and per grain
+		current.setMassGeneratedOverall(overallChange * density);
+		current.setMassGeneratedPerGrain(massGenerated);
+	} // regressGrains()
+	
+	
+	
 	/**
 	 * generateMassFlow()
 	 * 
@@ -191,16 +387,36 @@ public class RocketMath
 	
 	public static double[] generateMassFlow (List<Grain> theGrains, SimulationResults current)
 	{
-		// Initialize empty array
-		double massFlow[] = new double[theGrains.size()];
+		return generateMassFlow(theGrains, current, new double[theGrains.size()]);
+	} // generateMassFlow()
+	
+	
+	
+	/**
+	 * generateMassFlow()
+	 * 
+	 * Purpose: Same as generateMassFlow() above, but writes the mass flow
+	 * 		into the given buffer instead of allocating a new one.
+	 * 
+	 * Parameters:
+	 * 		List<Grain> theGrains -- List of grains in a simulation.
+	 * 		SimulationResults current -- Current result in the simulation.
+	 * 		double[] massFlow -- Buffer with one entry per grain.
+	 * 
+	 * Returns: double[]. The given buffer, holding the mass flow for each grain.
+	**/
+	
+	public static double[] generateMassFlow (List<Grain> theGrains, SimulationResults current, double[] massFlow)
+	{
+		double[] massGenerated = current.getMassGeneratedPerGrain();
 		
 		// Go through every grain in the simulation
 		for (int i = 0; i < theGrains.size(); i++)
 		{
 			if (i == 0)
-				massFlow[i] = current.getMassGeneratedPerGrain()[i];
+				massFlow[i] = massGenerated[i];
 			else
-				massFlow[i] = massFlow[i-1] + current.getMassGeneratedPerGrain()[i];
+				massFlow[i] = massFlow[i-1] + massGenerated[i];
 		}
 		
 		return massFlow;
@@ -223,13 +439,33 @@ public class RocketMath
 	**/
 	
 	public static void portToThroatRatio (List<Grain> theGrains, SimulationResults current, Nozzle theNozzle)
+	{
+		portToThroatRatio(theGrains, current, theNozzle, new double[theGrains.size()]);
+	} // portToThroatRatio()
+	
+	
+	
+	/**
+	 * portToThroatRatio()
+	 * 
+	 * Purpose: Same as portToThroatRatio() above, but writes the ratios
+	 * 		into the given buffer instead of allocating a new one.
+	 * 
+	 * Parameters:
+	 * 		List<Grain> theGrains -- List of grains during a simulation.
+	 * 		SimulationResults current -- Current results for a simulation.
+	 * 		Nozzle theNozzle -- Nozzle for a rocket during a simulation.
+	 * 		double[] portToThroat -- Buffer with one entry per grain.
+	 * 
+	 * Returns: void. 
+	**/
+	
+	public static void portToThroatRatio (List<Grain> theGrains, SimulationResults current, Nozzle theNozzle, double[] portToThroat)
 	{
 		/*
 		 * TODO: 
 		 * Remove cylindrical grain geometry
 		 */
-		double portToThroat[] = new double[theGrains.size()];
-		
 		for (int i =  0; i < theGrains.size(); i++)
 		{
 			if (i < theGrains.size() - 1)
@@ -261,18 +497,42 @@ public class RocketMath
 	
 	public static void calculateMassFlowPerArea (List<Grain> theGrains, SimulationResults current, double[] massFlow, Nozzle theNozzle)
 	{
-		double massFlowPerArea[] = new double[theGrains.size() + 2];
+		calculateMassFlowPerArea(theGrains, current, massFlow, theNozzle, new double[theGrains.size() + 2]);
+	} // calculateMassFlowPerArea()
+	
+	
+	
+	/**
+	 * calculateMassFlowPerArea()
+	 * 
+	 * Purpose: Same as calculateMassFlowPerArea() above, but writes the
+	 * 		results into the given buffer instead of allocating a new one.
+	 * 
+	 * Parameters:
+	 * 		List<Grain> theGrains -- List of grains during a simulation.
+	 * 		SimulationResults current -- Current results for a simulation.
+	 * 		double[] massFlow -- Mass flow for each grain.
+	 * 		Nozzle theNozzle -- Nozzle for a rocket during a simulation.
+	 * 		double[] massFlowPerArea -- Buffer with one entry per grain, plus
+	 * 			two for the nozzle entrance and throat.
+	 * 
+	 * Returns: void.
+	**/
+	
+	public static void calculateMassFlowPerArea (List<Grain> theGrains, SimulationResults current, double[] massFlow, Nozzle theNozzle, double[] massFlowPerArea)
+	{
+		int grainCount = theGrains.size();
 		
 		// Go through each grain
-		for (int i = 0; i < theGrains.size(); i++)
+		for (int i = 0; i < grainCount; i++)
 			massFlowPerArea[i] = massFlow[i]/theGrains.get(i).getCurrentInnerFlowArea();
 		
-		massFlowPerArea[massFlowPerArea.length - 2] = massFlow[massFlow.length-1] / theNozzle.getEntranceArea();
-		massFlowPerArea[massFlowPerArea.length - 1] = massFlow[massFlow.length-1] / theNozzle.getThroatArea();
+		massFlowPerArea[grainCount] = massFlow[grainCount-1] / theNozzle.getEntranceArea();
+		massFlowPerArea[grainCount + 1] = massFlow[grainCount-1] / theNozzle.getThroatArea();
 		
 		// Set the mass flow per area grain
 		current.setMassFlowPerAreaGrain(massFlowPerArea);
-	} // calculateMoreMassFlow()
+	} // calculateMassFlowPerArea()
 	
 	
 	
@@ -302,13 +562,58 @@ public class RocketMath
 			currentFreeLength += theGrains.get(i).getLengthDifference();
 		}
 		
+		setLStar(currentFreeVolume, currentFreeLength, theGrains, current, theNozzle);
+	} // calculateLStar()
+	
+	
+	
+	/**
+	 * calculateLStar()
+	 * 
+	 * Purpose: Same as calculateLStar() above, but takes the free volume
+	 * 		and length from the sums kept by the grain stack.
+	 * 
+	 * Parameters:
+	 * 		GrainStack theGrains -- Grains during a simulation.
+	 * 		SimulationResults current -- Current results for a simulation.
+	 * 		Nozzle theNozzle -- Nozzle for a rocket during a simulation.
+	 * 
+	 * Returns: void.
+	**/
+	
+	public static void calculateLStar (GrainStack theGrains, SimulationResults current, Nozzle theNozzle)
+	{
+		setLStar(theGrains.getInnerFlowVolume(), theGrains.getLengthDifference(), theGrains, current, theNozzle);
+	} // calculateLStar()
+	
+	
+	
+	/**
+	 * setLStar()
+	 * 
+	 * Purpose: Sets the L* of a result from the free volume inside the
+	 * 		grains and the length burned off their ends.
+	 * 
+	 * Parameters:
+	 * 		double currentFreeVolume -- Inner flow volume of all grains.
+	 * 		double currentFreeLength -- Length burned off all grains.
+	 * 		List<Grain> theGrains -- Grains during a simulation.
+	 * 		SimulationResults current -- Current results for a simulation.
+	 * 		Nozzle theNozzle -- Nozzle for a rocket during a simulation.
+	 * 
+	 * Returns: void.
+	**/
+	
+	private static void setLStar (double currentFreeVolume, double currentFreeLength, List<Grain> theGrains,
+								  SimulationResults current, Nozzle theNozzle)
+	{
 		// Calculate L*
 		currentFreeVolume += Math.PI * Math.pow(theGrains.get(0).getOuterDiameter()/2, 2) * currentFreeLength;
 		double lstar = currentFreeVolume / theNozzle.getThroatArea();
 		
 		// Set L*
 		current.setLStar(lstar);
-	} // calculateLStar()
+	} // setLStar()
 	
 	
 	
@@ -370,6 +675,64 @@ public class RocketMath
 		}
 	} // calculateBurnout()
 	
+	
+	
+	/**
+	 * timeToBurnout()
+	 * 
+	 * Purpose: Finds the time until the next grain burns out, if the burn rate
+	 * 		stays constant. Every step regresses the grains at the burn rate from
+	 * 		the start of the step, so a step of this length ends exactly when the
+	 * 		grain with the least remaining web burns out.
+	 * 
+	 * Parameters:
+	 * 		List<Grain> theGrains -- List of grains in the simulation.
+	 * 		double burnRate -- Current burn rate of the propellant.
+	 * 
+	 * Returns: double. The time until the next burnout, or positive infinity
+	 * 		if no grain will burn out at this burn rate.
+	**/
+	
+	public static double timeToBurnout (List<Grain> theGrains, double burnRate)
+	{
+		double time = Double.POSITIVE_INFINITY;
+		if (burnRate <= 0)
+			return time;
+		
+		for (int i = 0; i < theGrains.size(); i++)
+		{
+			if (theGrains.get(i).isBurning())
+				time = Math.min(time, theGrains.get(i).getRemainingWeb() / burnRate);
+		}
+		
+		return time;
+	} // timeToBurnout()
+	
+	
+	
+	/**
+	 * timeToBurnout()
+	 * 
+	 * Purpose: Same as timeToBurnout() above, but takes the least remaining
+	 * 		web from the sums kept by the grain stack.
+	 * 
+	 * Parameters:
+	 * 		GrainStack theGrains -- Grains in the simulation.
+	 * 		double burnRate -- Current burn rate of the propellant.
+	 * 
+	 * Returns: double. The time until the next burnout, or positive infinity
+	 * 		if no grain will burn out at this burn rate.
+	**/
+	
+	public static double timeToBurnout (GrainStack theGrains, double burnRate)
+	{
+		if (burnRate <= 0)
+			return Double.POSITIVE_INFINITY;
+		
+		return theGrains.getMinimumRemainingWeb() / burnRate;
+	} // timeToBurnout()
+
+	
 	/**
 	 * calculateThrust()
 	 * 
@@ -0,0 +1,543 @@
+package model.calculations;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import model.Case;
+import model.Nozzle;
+import model.grains.Grain;
+import model.propellant.Propellant;
+
+/**
+ * SimulationCache.java
+ *
+ * Purpose: Keeps the results of recent simulations, so simulating the same
+ * 		motor again returns the stored results instead of running again.
+ *
+ * 		Results are keyed by a SHA-256 hash of every input that changes a
+ * 		simulation: the type, dimensions, and shape parameters of each grain
+ * 		in order, the nozzle, the case, the class and parameters of the
+ * 		propellant, and the change in time. Equal inputs always give the same
+ * 		key, no matter which objects hold them.
+ *
+ * 		The least recently used results are removed once the stores kept
+ * 		take more than the memory budget. Hits, misses, and evictions are
+ * 		counted. All methods are safe to call from many threads.
+ *
+ * 		A cache may be backed by a DiskSimulationCache. Results missing from
+ * 		memory are then looked for on disk, and new results are written to
+ * 		disk, so they outlive the session. If the disk can not be read or
+ * 		written the error is printed and the motor is simulated as usual.
+ *
+ * 		NOTE: Results returned by the cache are shared by every caller that
+ * 			asks for the same motor, and must not be changed.
+**/
+
+public class SimulationCache
+{
+	// Error messages
+	private static final String BUDGET_ERR_MSG = "ERROR: Memory budget must be positive!\n";
+	private static final String HASH_ERR_MSG   = "ERROR: SHA-256 is not available!\n";
+
+
+
+	// Constants
+	private static final String HASH_ALGORITHM = "SHA-256";
+	private static final int KEY_VERSION       = 2;   // Change when the key layout changes
+
+
+
+	// Fields
+	private final long maxBytes;
+	private final DiskSimulationCache disk;
+	private final LinkedHashMap<String, SimulationResultStore> entries =
+		new LinkedHashMap<String, SimulationResultStore>(16, 0.75f, true);
+	private long usedBytes;
+	private long hits;
+	private long misses;
+	private long evictions;
+
+
+
+	/**
+	 * SimulationCache Constructor
+	 *
+	 * Purpose: Creates an empty cache that keeps at most about the given
+	 * 		number of bytes of results.
+	**/
+
+	public SimulationCache (long maxBytes)
+	{
+		this(maxBytes, null);
+	} // SimulationCache Constructor
+
+
+
+	/**
+	 * SimulationCache Constructor
+	 *
+	 * Purpose: Creates an empty cache that keeps at most about the given
+	 * 		number of bytes of results in memory, backed by the given disk
+	 * 		cache, or by none if it is null.
+	**/
+
+	public SimulationCache (long maxBytes, DiskSimulationCache disk)
+	{
+		if (maxBytes <= 0)
+			throw new IllegalArgumentException(BUDGET_ERR_MSG);
+
+		this.maxBytes = maxBytes;
+		this.disk     = disk;
+	} // SimulationCache Constructor
+
+
+
+	/**
+	 * simulate()
+	 *
+	 * Purpose: Returns the results of simulating the given motor, from the
+	 * 		cache if the same motor was simulated before, in memory or on disk.
+	 * 		Otherwise the motor is simulated with RocketMath.simulateToStore()
+	 * 		and the results are kept. The given grains are never changed, since the simulation
+	 * 		runs on copies of them.
+	 *
+	 * Parameters:
+	 * 		List<Grain> grainList -- List of grains in the rocket motor.
+	 * 		double deltaTime -- How much time will change at every step.
+	 * 		Nozzle theNozzle -- Nozzle of the rocket motor.
+	 * 		Case theCase -- Case of the rocket motor.
+	 * 		Propellant propellant -- Propellant burned during the simulation.
+	 *
+	 * Returns: SimulationResultStore. The results, shared with other callers.
+	**/
+
+	public SimulationResultStore simulate (List<Grain> grainList, double deltaTime, Nozzle theNozzle, Case theCase, Propellant propellant)
+	{
+		return simulate(grainList, deltaTime, theNozzle, theCase, propellant, null);
+	} // simulate()
+
+
+
+	/**
+	 * simulate()
+	 *
+	 * Purpose: Same as the simulate() above, except that if the motor has to
+	 * 		be simulated, every step is also passed to the given listener as
+	 * 		it is computed. The listener hears nothing when the results come
+	 * 		from the cache.
+	 *
+	 * 		A listener may stop the simulation by throwing an unchecked
+	 * 		exception, such as a CancellationException, which is passed on
+	 * 		to the caller. Nothing is cached for a stopped simulation.
+	 *
+	 * Parameters:
+	 * 		List<Grain> grainList -- List of grains in the rocket motor.
+	 * 		double deltaTime -- How much time will change at every step.
+	 * 		Nozzle theNozzle -- Nozzle of the rocket motor.
+	 * 		Case theCase -- Case of the rocket motor.
+	 * 		Propellant propellant -- Propellant burned during the simulation.
+	 * 		SimulationListener listener -- Listener to pass every step to,
+	 * 			or null.
+	 *
+	 * Returns: SimulationResultStore. The results, shared with other callers.
+	**/
+
+	public SimulationResultStore simulate (List<Grain> grainList, double deltaTime, Nozzle theNozzle, Case theCase, Propellant propellant,
+										   final SimulationListener listener)
+	{
+		String key = createKey(grainList, deltaTime, theNozzle, theCase, propellant);
+		SimulationResultStore results = get(key);
+		if (results != null)
+			return results;
+
+		results = readDisk(key);
+		if (results != null)
+			return put(key, results);
+
+		// Simulate outside the lock, so other motors are not held up
+		List<Grain> copies = new ArrayList<Grain>(grainList.size());
+		for (Grain grain : grainList)
+			copies.add(grain.clone());
+		if (listener == null)
+			results = RocketMath.simulateToStore(copies, deltaTime, theNozzle, theCase, propellant);
+		else
+		{
+			final SimulationResultStore store = new SimulationResultStore(copies.size());
+			RocketMath.simulate(copies, deltaTime, theNozzle, theCase, propellant, new SimulationListener()
+			{
+				public void stepCompleted (SimulationResults step)
+				{
+					store.stepCompleted(step);
+					listener.stepCompleted(step);
+				} // stepCompleted()
+
+				public void simulationFinished ()
+				{
+					store.simulationFinished();
+					listener.simulationFinished();
+				} // simulationFinished()
+			});
+			results = store;
+		}
+		results.trimToSize();
+		writeDisk(key, results);
+
+		return put(key, results);
+	} // simulate()
+
+
+
+	// Reads results from the disk cache, or returns null if there are none
+	private SimulationResultStore readDisk (String key)
+	{
+		if (disk == null)
+			return null;
+
+		try
+		{
+			return disk.get(key);
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+			return null;
+		}
+	} // readDisk()
+
+
+
+	// Writes results to the disk cache, if there is one
+	private void writeDisk (String key, SimulationResultStore results)
+	{
+		if (disk == null)
+			return;
+
+		try
+		{
+			disk.put(key, results);
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+	} // writeDisk()
+
+
+
+	/**
+	 * get()
+	 *
+	 * Purpose: Returns the results kept for the given key, and counts a hit
+	 * 		or a miss.
+	 *
+	 * Parameters:
+	 * 		String key -- Key from createKey().
+	 *
+	 * Returns: SimulationResultStore. The results, or null if none are kept.
+	**/
+
+	public synchronized SimulationResultStore get (String key)
+	{
+		SimulationResultStore results = entries.get(key);
+		if (results == null)
+			misses++;
+		else
+			hits++;
+
+		return results;
+	} // get()
+
+
+
+	/**
+	 * put()
+	 *
+	 * Purpose: Keeps the given results under the given key, then removes the
+	 * 		least recently used results until the cache is within its budget.
+	 * 		Results larger than the whole budget are not kept. If another
+	 * 		thread kept results for the key first, those are kept instead.
+	 *
+	 * Parameters:
+	 * 		String key -- Key from createKey().
+	 * 		SimulationResultStore results -- Results to keep.
+	 *
+	 * Returns: SimulationResultStore. The results now kept for the key, or
+	 * 		the given results if they were too large to keep.
+	**/
+
+	public synchronized SimulationResultStore put (String key, SimulationResultStore results)
+	{
+		SimulationResultStore existing = entries.get(key);
+		if (existing != null)
+			return existing;
+
+		long bytes = results.estimateMemoryUsage();
+		if (bytes > maxBytes)
+			return results;
+
+		entries.put(key, results);
+		usedBytes += bytes;
+
+		Iterator<SimulationResultStore> eldest = entries.values().iterator();
+		while (usedBytes > maxBytes)
+		{
+			usedBytes -= eldest.next().estimateMemoryUsage();
+			eldest.remove();
+			evictions++;
+		}
+
+		return results;
+	} // put()
+
+
+
+	/**
+	 * contains()
+	 *
+	 * Purpose: Returns whether results are kept for the given key, in memory
+	 * 		or on disk, without counting a hit or a miss or reading them.
+	 *
+	 * Parameters:
+	 * 		String key -- Key from createKey().
+	 *
+	 * Returns: boolean. True if simulate() would not have to simulate.
+	**/
+
+	public boolean contains (String key)
+	{
+		synchronized (this)
+		{
+			if (entries.containsKey(key))
+				return true;
+		}
+
+		if (disk == null)
+			return false;
+
+		try
+		{
+			return disk.contains(key);
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+			return false;
+		}
+	} // contains()
+
+
+
+	/**
+	 * clear()
+	 *
+	 * Purpose: Removes every result from the cache. The counters are kept.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	public synchronized void clear ()
+	{
+		entries.clear();
+		usedBytes = 0;
+	} // clear()
+
+
+
+	/**
+	 * getHitCount() / getMissCount() / getEvictionCount()
+	 *
+	 * Purpose: Return how many lookups found results, how many did not, and
+	 * 		how many results were removed to stay within the budget.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: long. The count since the cache was created.
+	**/
+
+	public synchronized long getHitCount ()
+	{
+		return hits;
+	} // getHitCount()
+
+	public synchronized long getMissCount ()
+	{
+		return misses;
+	} // getMissCount()
+
+	public synchronized long getEvictionCount ()
+	{
+		return evictions;
+	} // getEvictionCount()
+
+
+
+	/**
+	 * getDisk()
+	 *
+	 * Purpose: Returns the disk cache backing this cache.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: DiskSimulationCache. The disk cache, or null if there is none.
+	**/
+
+	public DiskSimulationCache getDisk ()
+	{
+		return disk;
+	} // getDisk()
+
+
+
+	/**
+	 * size() / getMemoryUsage() / getMaxBytes()
+	 *
+	 * Purpose: Return the number of results kept, about how many bytes they
+	 * 		take, and the memory budget.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: The number of results, or a number of bytes.
+	**/
+
+	public synchronized int size ()
+	{
+		return entries.size();
+	} // size()
+
+	public synchronized long getMemoryUsage ()
+	{
+		return usedBytes;
+	} // getMemoryUsage()
+
+	public long getMaxBytes ()
+	{
+		return maxBytes;
+	} // getMaxBytes()
+
+
+
+	/**
+	 * createKey()
+	 *
+	 * Purpose: Returns the key of a simulation: the SHA-256 hash, in hex, of
+	 * 		every input in a fixed order. Negative zero is hashed as zero, so
+	 * 		inputs that simulate the same always give the same key.
+	 *
+	 * Parameters:
+	 * 		List<Grain> grainList -- List of grains in the rocket motor.
+	 * 		double deltaTime -- How much time will change at every step.
+	 * 		Nozzle theNozzle -- Nozzle of the rocket motor.
+	 * 		Case theCase -- Case of the rocket motor.
+	 * 		Propellant propellant -- Propellant burned during the simulation.
+	 *
+	 * Returns: String. The key, 64 hex digits.
+	**/
+
+	public static String createKey (List<Grain> grainList, double deltaTime, Nozzle theNozzle, Case theCase, Propellant propellant)
+	{
+		MessageDigest digest = createDigest();
+		ByteBuffer buffer = ByteBuffer.allocate(Double.BYTES);
+
+		update(digest, buffer, KEY_VERSION);
+		update(digest, buffer, deltaTime);
+
+		update(digest, buffer, grainList.size());
+		for (Grain grain : grainList)
+		{
+			update(digest, grain.getType().name());
+			update(digest, buffer, grain.getLength());
+			update(digest, buffer, grain.getOuterDiameter());
+			update(digest, buffer, grain.getInnerDiameter());
+			update(digest, buffer, grain.getNumBurningEnds());
+
+			double shape[] = grain.getShapeParameters();
+			update(digest, buffer, shape.length);
+			for (double parameter : shape)
+				update(digest, buffer, parameter);
+		}
+
+		update(digest, buffer, theNozzle.getThroatDiameter());
+		update(digest, buffer, theNozzle.getEntranceDiameter());
+		update(digest, buffer, theNozzle.getExitDiameter());
+		update(digest, buffer, theNozzle.getCf());
+
+		update(digest, buffer, theCase.getCaseMass());
+		update(digest, buffer, theCase.getDiameter());
+		update(digest, buffer, theCase.getLength());
+
+		update(digest, propellant.getClass().getName());
+		double parameters[] = propellant.getModelParameters();
+		update(digest, buffer, parameters.length);
+		for (double parameter : parameters)
+			update(digest, buffer, parameter);
+
+		return toHex(digest.digest());
+	} // createKey()
+
+
+
+	/**
+	 * update()
+	 *
+	 * Purpose: Add a number or a string to a digest. Strings are preceded
+	 * 		by their length, so no two strings hash alike.
+	 *
+	 * Parameters:
+	 * 		MessageDigest digest -- Digest to add to.
+	 * 		ByteBuffer buffer -- Eight byte buffer to reuse.
+	 * 		double value / String value -- Value to add.
+	 *
+	 * Returns: void.
+	**/
+
+	private static void update (MessageDigest digest, ByteBuffer buffer, double value)
+	{
+		buffer.clear();
+		buffer.putDouble(value + 0.0);   // Turns -0.0 into 0.0
+		digest.update(buffer.array());
+	} // update()
+
+	private static void update (MessageDigest digest, String value)
+	{
+		byte bytes[] = value.getBytes(StandardCharsets.UTF_8);
+		digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+		digest.update(bytes);
+	} // update()
+
+
+
+	// Creates a SHA-256 digest, which every Java platform must provide
+	private static MessageDigest createDigest ()
+	{
+		try
+		{
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(HASH_ERR_MSG, e);
+		}
+	} // createDigest()
+
+
+
+	// Formats bytes as lower case hex digits
+	static String toHex (byte bytes[])
+	{
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes)
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+
+		return hex.toString();
+	} // toHex()
+
+} // class SimulationCache
@@ -0,0 +1,49 @@
+package model.calculations;
+
+/**
+ * SimulationListener.java
+ *
+ * Purpose: Receives the results of a simulation one step at a time, as
+ * 		each step is computed, instead of all at once after the burn. A
+ * 		listener that only keeps what it needs (a running summary, a file
+ * 		being written) uses the same memory for any burn length or change
+ * 		in time.
+ *
+ * 		NOTE: The SimulationResults passed to stepCompleted() is reused by
+ * 			the next step. A listener that keeps results must copy them,
+ * 			for example with SimulationResultStore.append().
+**/
+
+public interface SimulationListener
+{
+	/**
+	 * stepCompleted()
+	 *
+	 * Purpose: Called with the first data point of the simulation, and then
+	 * 		once for every step, in order of time.
+	 *
+	 * Parameters:
+	 * 		SimulationResults results -- Results of the step, only valid
+	 * 			until this method returns.
+	 *
+	 * Returns: void.
+	**/
+
+	void stepCompleted (SimulationResults results);
+
+
+
+	/**
+	 * simulationFinished()
+	 *
+	 * Purpose: Called once after the last step, when every grain has
+	 * 		burned out.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	void simulationFinished ();
+
+} // interface SimulationListener
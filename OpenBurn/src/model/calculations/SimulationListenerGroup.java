@@ -0,0 +1,78 @@
+package model.calculations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SimulationListenerGroup.java
+ *
+ * Purpose: Passes every step of a simulation on to several listeners, in
+ * 		the order they were added, so one run can for example fill a store,
+ * 		write a file, and keep a summary at the same time.
+**/
+
+public class SimulationListenerGroup implements SimulationListener
+{
+	// Error messages
+	private static final String NULL_ERR_MSG = "ERROR: Listener can not be null!\n";
+
+
+
+	// Fields
+	private final List<SimulationListener> listeners = new ArrayList<SimulationListener>();
+
+
+
+	/**
+	 * SimulationListenerGroup Constructor
+	 *
+	 * Purpose: Creates a group holding the given listeners.
+	**/
+
+	public SimulationListenerGroup (SimulationListener... listeners)
+	{
+		for (SimulationListener listener : Arrays.asList(listeners))
+			add(listener);
+	} // SimulationListenerGroup Constructor
+
+
+
+	/**
+	 * add()
+	 *
+	 * Purpose: Adds a listener after the ones already in the group.
+	 *
+	 * Parameters:
+	 * 		SimulationListener listener -- Listener to add.
+	 *
+	 * Returns: void.
+	**/
+
+	public void add (SimulationListener listener)
+	{
+		if (listener == null)
+			throw new IllegalArgumentException(NULL_ERR_MSG);
+
+		listeners.add(listener);
+	} // add()
+
+
+
+	@Override
+	public void stepCompleted (SimulationResults results)
+	{
+		for (int i = 0; i < listeners.size(); i++)
+			listeners.get(i).stepCompleted(results);
+	} // stepCompleted()
+
+
+
+	@Override
+	public void simulationFinished ()
+	{
+		for (int i = 0; i < listeners.size(); i++)
+			listeners.get(i).simulationFinished();
+	} // simulationFinished()
+
+} // class SimulationListenerGroup
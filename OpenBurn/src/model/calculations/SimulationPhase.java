@@ -0,0 +1,59 @@
+package model.calculations;
+
+/**
+ * SimulationPhase.java
+ *
+ * Purpose: Labels the phases of RocketMath that every step of a simulation
+ * 		runs, in the order SimulationStepper runs them. Used by
+ * 		SimulationProfiler to keep a timer and counter for each phase.
+**/
+
+public enum SimulationPhase
+{
+	// Phases, in step order
+	GENERATE_GEOMETRY           ("generateGeometry"),
+	REGRESS_GRAINS              ("regressGrains"),
+	GENERATE_MASS_FLOW          ("generateMassFlow"),
+	PORT_TO_THROAT_RATIO        ("portToThroatRatio"),
+	CALCULATE_MASS_FLOW_PER_AREA("calculateMassFlowPerArea"),
+	CALCULATE_L_STAR            ("calculateLStar"),
+	MASS_AND_CENTER_OF_GRAVITY  ("massAndCenterOfGravity"),
+	CALCULATE_BURNOUT           ("calculateBurnout"),
+	CALCULATE_THRUST            ("calculateThrust");
+
+
+
+	// Fields
+	private final String methodName;
+
+
+
+	/**
+	 * SimulationPhase Constructor
+	 *
+	 * Purpose: Creates a phase for the given RocketMath method.
+	**/
+
+	private SimulationPhase (String methodName)
+	{
+		this.methodName = methodName;
+	} // SimulationPhase Constructor
+
+
+
+	/**
+	 * toString()
+	 *
+	 * Purpose: Returns the name of the RocketMath method the phase runs.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: String. The method name.
+	**/
+
+	public String toString ()
+	{
+		return methodName;
+	} // toString()
+
+} // enum SimulationPhase
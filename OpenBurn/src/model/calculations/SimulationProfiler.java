@@ -0,0 +1,303 @@
+package model.calculations;
+
+import java.util.ArrayList;
+import java.util.Formatter;
+import java.util.List;
+
+/**
+ * SimulationProfiler.java
+ *
+ * Purpose: Times every phase of RocketMath run by a SimulationStepper, and
+ * 		reports the total time, share, mean, and percentiles of each phase.
+ * 		Each phase keeps a running total, a call count, and a QuantileSketch
+ * 		of its times in nanoseconds, so memory does not grow with the number
+ * 		of steps.
+ *
+ * 		Profiling is off unless a stepper is given a profiler, or the JVM is
+ * 		started with -Dopenburn.profile=true. In that case every stepper that
+ * 		has no profiler of its own records to the profiler of the thread it
+ * 		runs on, and getGlobal() merges all of them into one profiler whose
+ * 		getReport() covers every thread. ENABLED is a constant, so when it is
+ * 		false the JIT removes the check entirely and an unprofiled step costs
+ * 		one null check.
+ *
+ * 		NOTE: A profiler is not thread safe. Each thread of a parallel run
+ * 			needs its own, which can be merged once the run is over.
+**/
+
+public class SimulationProfiler
+{
+	// Constants
+	public static final String PROPERTY = "openburn.profile";
+	public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+	private static final double ACCURACY = 0.01;
+	private static final double NANOS_PER_MILLI = 1e6;
+	private static final String TITLE_FORMAT  = "%d steps, %.3f ms in RocketMath%n";
+	private static final String HEADER_FORMAT = "%-26s %10s %11s %7s %9s %9s %9s %9s%n";
+	private static final String ROW_FORMAT    = "%-26s %10d %11.3f %6.1f%% %9.0f %9.0f %9.0f %9.0f%n";
+	private static final String HEADER[]      = { "Phase", "Calls", "Total ms", "Share", "Mean ns", "p50 ns",
+												  "p90 ns", "p99 ns" };
+
+
+
+	// Profilers of every thread that has recorded with ENABLED
+	private static final List<SimulationProfiler> threadProfilers = new ArrayList<SimulationProfiler>();
+	private static final ThreadLocal<SimulationProfiler> threadProfiler = new ThreadLocal<SimulationProfiler>()
+	{
+		protected SimulationProfiler initialValue ()
+		{
+			SimulationProfiler profiler = new SimulationProfiler();
+			synchronized (threadProfilers)
+			{
+				threadProfilers.add(profiler);
+			}
+			return profiler;
+		} // initialValue()
+	};
+
+
+
+	// Fields, indexed by SimulationPhase ordinal
+	private final long totalNanos[];
+	private final long calls[];
+	private final QuantileSketch sketches[];
+
+
+
+	/**
+	 * SimulationProfiler Constructor
+	 *
+	 * Purpose: Creates a profiler with no recorded phases.
+	**/
+
+	public SimulationProfiler ()
+	{
+		int phases = SimulationPhase.values().length;
+		totalNanos = new long[phases];
+		calls      = new long[phases];
+		sketches   = new QuantileSketch[phases];
+
+		for (int i = 0; i < phases; i++)
+			sketches[i] = new QuantileSketch(ACCURACY);
+	} // SimulationProfiler Constructor
+
+
+
+	/**
+	 * forCurrentThread()
+	 *
+	 * Purpose: Returns the profiler of the calling thread, creating it on the
+	 * 		first call. Steppers use it when ENABLED is set.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: SimulationProfiler. The profiler of the calling thread.
+	**/
+
+	public static SimulationProfiler forCurrentThread ()
+	{
+		return threadProfiler.get();
+	} // forCurrentThread()
+
+
+
+	/**
+	 * getGlobal()
+	 *
+	 * Purpose: Returns a new profiler holding everything recorded by the
+	 * 		profilers of every thread. Call it once the simulations are done.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: SimulationProfiler. The merged profiler.
+	**/
+
+	public static SimulationProfiler getGlobal ()
+	{
+		SimulationProfiler global = new SimulationProfiler();
+		synchronized (threadProfilers)
+		{
+			for (SimulationProfiler profiler : threadProfilers)
+				global.merge(profiler);
+		}
+		return global;
+	} // getGlobal()
+
+
+
+	/**
+	 * record()
+	 *
+	 * Purpose: Records that a phase ran from the given start time until now.
+	 * 		The current time is returned so it can start the next phase,
+	 * 		which reads the clock once per phase.
+	 *
+	 * Parameters:
+	 * 		SimulationPhase phase -- The phase that finished.
+	 * 		long start -- System.nanoTime() when the phase started.
+	 *
+	 * Returns: long. System.nanoTime() when the phase finished.
+	**/
+
+	public long record (SimulationPhase phase, long start)
+	{
+		long now = System.nanoTime();
+		int i = phase.ordinal();
+		totalNanos[i] += now - start;
+		calls[i]++;
+		sketches[i].add(now - start);
+		return now;
+	} // record()
+
+
+
+	/**
+	 * merge()
+	 *
+	 * Purpose: Adds everything recorded by another profiler to this one.
+	 *
+	 * Parameters:
+	 * 		SimulationProfiler other -- Profiler to merge in.
+	 *
+	 * Returns: void.
+	**/
+
+	public void merge (SimulationProfiler other)
+	{
+		for (int i = 0; i < calls.length; i++)
+		{
+			totalNanos[i] += other.totalNanos[i];
+			calls[i]      += other.calls[i];
+			sketches[i].merge(other.sketches[i]);
+		}
+	} // merge()
+
+
+
+	/**
+	 * reset()
+	 *
+	 * Purpose: Forgets everything recorded so far.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	public void reset ()
+	{
+		for (int i = 0; i < calls.length; i++)
+		{
+			totalNanos[i] = 0;
+			calls[i]      = 0;
+			sketches[i]   = new QuantileSketch(ACCURACY);
+		}
+	} // reset()
+
+
+
+	/**
+	 * getCalls() / getTotalNanos() / getQuantileNanos()
+	 *
+	 * Purpose: Return how many times a phase ran, the total time it took,
+	 * 		and the given quantile of its times, which is within 1% of a
+	 * 		recorded time.
+	 *
+	 * Parameters:
+	 * 		SimulationPhase phase -- The phase to look up.
+	 * 		double quantile -- Quantile from 0 to 1, so 0.99 is the 99th
+	 * 			percentile.
+	 *
+	 * Returns: The count, or the time in nanoseconds. The quantile is 0 if
+	 * 		the phase has not run.
+	**/
+
+	public long getCalls (SimulationPhase phase)
+	{
+		return calls[phase.ordinal()];
+	} // getCalls()
+
+	public long getTotalNanos (SimulationPhase phase)
+	{
+		return totalNanos[phase.ordinal()];
+	} // getTotalNanos()
+
+	public double getQuantileNanos (SimulationPhase phase, double quantile)
+	{
+		QuantileSketch sketch = sketches[phase.ordinal()];
+		return sketch.getCount() == 0 ? 0 : sketch.getQuantile(quantile);
+	} // getQuantileNanos()
+
+
+
+	/**
+	 * getStepCount()
+	 *
+	 * Purpose: Returns how many steps were profiled, which is how many times
+	 * 		the first phase ran.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: long. The number of steps.
+	**/
+
+	public long getStepCount ()
+	{
+		return calls[SimulationPhase.GENERATE_GEOMETRY.ordinal()];
+	} // getStepCount()
+
+
+
+	/**
+	 * getTotalNanos()
+	 *
+	 * Purpose: Returns the time taken by every phase together.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: long. The total time in nanoseconds.
+	**/
+
+	public long getTotalNanos ()
+	{
+		long total = 0;
+		for (long nanos : totalNanos)
+			total += nanos;
+		return total;
+	} // getTotalNanos()
+
+
+
+	/**
+	 * getReport()
+	 *
+	 * Purpose: Builds a table of every phase, with its calls, total time,
+	 * 		share of the total, and its mean, median, 90th, and 99th
+	 * 		percentile times.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: String. The report, one line per phase.
+	**/
+
+	public String getReport ()
+	{
+		long total = getTotalNanos();
+		Formatter report = new Formatter(new StringBuilder());
+
+		report.format(TITLE_FORMAT, getStepCount(), total / NANOS_PER_MILLI);
+		report.format(HEADER_FORMAT, (Object[]) HEADER);
+		for (SimulationPhase phase : SimulationPhase.values())
+		{
+			int i = phase.ordinal();
+			report.format(ROW_FORMAT, phase, calls[i], totalNanos[i] / NANOS_PER_MILLI,
+						  total == 0 ? 0.0 : 100.0 * totalNanos[i] / total,
+						  calls[i] == 0 ? 0.0 : (double) totalNanos[i] / calls[i],
+						  getQuantileNanos(phase, 0.5), getQuantileNanos(phase, 0.9),
+						  getQuantileNanos(phase, 0.99));
+		}
+
+		return report.toString();
+	} // getReport()
+
+} // class SimulationProfiler
@@ -0,0 +1,1026 @@
+package model.calculations;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * SimulationResultStore.java
+ *
+ * Purpose: Column oriented container for the results of a simulation.
+ * 		Every channel of SimulationResults is kept in its own primitive
+ * 		double column, and per-grain channels are kept as flattened
+ * 		row-major columns. Columns grow by doubling, so appending a step
+ * 		does not allocate any per-step objects.
+ *
+ * 		A store is also a SimulationListener, so a streamed simulation can
+ * 		be collected by passing the store as its listener.
+ *
+ * 		NOTE: The column getters return the backing arrays. Only the
+ * 			first size() entries (or size() * width for per-grain
+ * 			columns) hold valid data.
+**/
+
+public class SimulationResultStore implements SimulationListener
+{
+	// Error messages
+	private static final String GRAIN_COUNT_ERR_MSG = "ERROR: Grain count must be positive!\n";
+	private static final String ROW_ERR_MSG         = "ERROR: Row is out of bounds!\n";
+	private static final String COLUMNS_ERR_MSG     = "ERROR: Columns do not match the store layout!\n";
+
+
+
+	// Constants
+	private static final int DEFAULT_CAPACITY   = 256;
+	private static final int EXTRA_FLOW_AREAS   = 2;    // Nozzle entrance and throat
+	private static final int SCALAR_COLUMNS     = 11;   // Columns with one value per row
+	private static final int ARRAY_HEADER_BYTES = 16;   // Object header and length of an array
+	public static final int COLUMN_COUNT        = SCALAR_COLUMNS + 3;
+
+
+
+	// Fields
+	private final int grainCount;
+	private final int massFlowPerAreaWidth;
+	private int size;
+	private int capacity;
+
+
+
+	// Scalar columns
+	private double time[];
+	private double chamberPressure[];
+	private double thrust[];
+	private double kn[];
+	private double burnArea[];
+	private double burnRate[];
+	private double massGeneratedOverall[];
+	private double lStar[];
+	private double systemMass[];
+	private double systemCenterOfGravity[];
+	private double cg[];
+
+
+
+	// Per-grain columns, indexed by (row * width + grain)
+	private double massGeneratedPerGrain[];
+	private double portToThroat[];
+	private double massFlowPerAreaGrain[];
+
+
+
+	/**
+	 * SimulationResultStore Constructor (int)
+	 *
+	 * Purpose: Creates an empty store for a motor with the given
+	 * 		number of grains, using the default initial capacity.
+	**/
+
+	public SimulationResultStore (int grainCount)
+	{
+		this(grainCount, DEFAULT_CAPACITY);
+	} // SimulationResultStore Constructor (int)
+
+
+
+	/**
+	 * SimulationResultStore Constructor (int, int)
+	 *
+	 * Purpose: Creates an empty store for a motor with the given
+	 * 		number of grains, sized to hold the given number of rows
+	 * 		before it has to grow.
+	**/
+
+	public SimulationResultStore (int grainCount, int initialCapacity)
+	{
+		if (grainCount < 1)
+			throw new IllegalArgumentException(GRAIN_COUNT_ERR_MSG);
+
+		this.grainCount           = grainCount;
+		this.massFlowPerAreaWidth = grainCount + EXTRA_FLOW_AREAS;
+		this.size                 = 0;
+		this.capacity             = Math.max(initialCapacity, 1);
+
+		time                  = new double[capacity];
+		chamberPressure       = new double[capacity];
+		thrust                = new double[capacity];
+		kn                    = new double[capacity];
+		burnArea              = new double[capacity];
+		burnRate              = new double[capacity];
+		massGeneratedOverall  = new double[capacity];
+		lStar                 = new double[capacity];
+		systemMass            = new double[capacity];
+		systemCenterOfGravity = new double[capacity];
+		cg                    = new double[capacity];
+		massGeneratedPerGrain = new double[capacity * grainCount];
+		portToThroat          = new double[capacity * grainCount];
+		massFlowPerAreaGrain  = new double[capacity * massFlowPerAreaWidth];
+	} // SimulationResultStore Constructor (int, int)
+
+
+
+	/**
+	 * fromList()
+	 *
+	 * Purpose: Creates a store holding a copy of the given list of results.
+	 * 		Used to bring results from callers that still work with
+	 * 		List<SimulationResults> into the column layout.
+	 *
+	 * Parameters:
+	 * 		List<SimulationResults> results -- Results to copy, must not be empty.
+	 *
+	 * Returns: SimulationResultStore. A new store with one row per result.
+	**/
+
+	public static SimulationResultStore fromList (List<SimulationResults> results)
+	{
+		int grains = results.get(0).getMassGeneratedPerGrain().length;
+		SimulationResultStore store = new SimulationResultStore(grains, results.size());
+		for (SimulationResults current: results)
+			store.append(current);
+
+		return store;
+	} // fromList()
+
+
+
+	/**
+	 * append()
+	 *
+	 * Purpose: Copies the values of the given results into a new row at the
+	 * 		end of the store. The given object is not kept, so callers may
+	 * 		reuse it for the next step.
+	 *
+	 * 		Per-grain arrays that are shorter than the column width (or null)
+	 * 		are padded with zeros.
+	 *
+	 * Parameters:
+	 * 		SimulationResults current -- Results for one step of a simulation.
+	 *
+	 * Returns: void.
+	**/
+
+	public void append (SimulationResults current)
+	{
+		ensureCapacity(size + 1);
+
+		int row = size;
+		time[row]                  = current.getTime();
+		chamberPressure[row]       = current.getChamberPressure();
+		thrust[row]                = current.getThrust();
+		kn[row]                    = current.getKn();
+		burnArea[row]              = current.getBurnArea();
+		burnRate[row]              = current.getBurnRate();
+		massGeneratedOverall[row]  = current.getMassGeneratedOverall();
+		lStar[row]                 = current.getLStar();
+		systemMass[row]            = current.getSystemMass();
+		systemCenterOfGravity[row] = current.getSystemCenterOfGravity();
+		cg[row]                    = current.getCg();
+
+		copyRow(current.getMassGeneratedPerGrain(), massGeneratedPerGrain, row, grainCount);
+		copyRow(current.getPortToThroat(), portToThroat, row, grainCount);
+		copyRow(current.getMassFlowPerAreaGrain(), massFlowPerAreaGrain, row, massFlowPerAreaWidth);
+
+		size++;
+	} // append()
+
+
+
+	/**
+	 * stepCompleted() / simulationFinished()
+	 *
+	 * Purpose: Appends every streamed step to the store. Nothing else is
+	 * 		needed when the simulation finishes.
+	 *
+	 * Parameters:
+	 * 		SimulationResults results -- Results for one step of a simulation.
+	 *
+	 * Returns: void.
+	**/
+
+	@Override
+	public void stepCompleted (SimulationResults results)
+	{
+		append(results);
+	} // stepCompleted()
+
+	@Override
+	public void simulationFinished ()
+	{
+	} // simulationFinished()
+
+
+
+	/**
+	 * truncate()
+	 *
+	 * Purpose: Removes rows from the end of the store so that it holds
+	 * 		the given number of rows. Capacity is kept for reuse.
+	 *
+	 * Parameters:
+	 * 		int rows -- Number of rows to keep.
+	 *
+	 * Returns: void.
+	**/
+
+	public void truncate (int rows)
+	{
+		if (rows < 0 || rows > size)
+			throw new IndexOutOfBoundsException(ROW_ERR_MSG);
+
+		size = rows;
+	} // truncate()
+
+
+
+	/**
+	 * copyRow()
+	 *
+	 * Purpose: Copies a per-grain array into one row of a flattened column,
+	 * 		padding with zeros if the array is missing or too short.
+	 *
+	 * Parameters:
+	 * 		double[] source -- Per-grain values, may be null.
+	 * 		double[] column -- Flattened column to write to.
+	 * 		int row -- Row to write.
+	 * 		int width -- Number of values per row in the column.
+	 *
+	 * Returns: void.
+	**/
+
+	private static void copyRow (double[] source, double[] column, int row, int width)
+	{
+		int start = row * width;
+		int copied = (source == null) ? 0 : Math.min(source.length, width);
+		if (copied > 0)
+			System.arraycopy(source, 0, column, start, copied);
+		if (copied < width)
+			Arrays.fill(column, start + copied, start + width, 0.0);
+	} // copyRow()
+
+
+
+	/**
+	 * ensureCapacity()
+	 *
+	 * Purpose: Grows every column by doubling until the store can hold
+	 * 		the given number of rows.
+	 *
+	 * Parameters:
+	 * 		int rows -- Number of rows the store must be able to hold.
+	 *
+	 * Returns: void.
+	**/
+
+	public void ensureCapacity (int rows)
+	{
+		if (rows <= capacity)
+			return;
+
+		int newCapacity = capacity;
+		while (newCapacity < rows)
+			newCapacity *= 2;
+
+		time                  = Arrays.copyOf(time, newCapacity);
+		chamberPressure       = Arrays.copyOf(chamberPressure, newCapacity);
+		thrust                = Arrays.copyOf(thrust, newCapacity);
+		kn                    = Arrays.copyOf(kn, newCapacity);
+		burnArea              = Arrays.copyOf(burnArea, newCapacity);
+		burnRate              = Arrays.copyOf(burnRate, newCapacity);
+		massGeneratedOverall  = Arrays.copyOf(massGeneratedOverall, newCapacity);
+		lStar                 = Arrays.copyOf(lStar, newCapacity);
+		systemMass            = Arrays.copyOf(systemMass, newCapacity);
+		systemCenterOfGravity = Arrays.copyOf(systemCenterOfGravity, newCapacity);
+		cg                    = Arrays.copyOf(cg, newCapacity);
+		massGeneratedPerGrain = Arrays.copyOf(massGeneratedPerGrain, newCapacity * grainCount);
+		portToThroat          = Arrays.copyOf(portToThroat, newCapacity * grainCount);
+		massFlowPerAreaGrain  = Arrays.copyOf(massFlowPerAreaGrain, newCapacity * massFlowPerAreaWidth);
+
+		capacity = newCapacity;
+	} // ensureCapacity()
+
+
+
+	/**
+	 * fromColumns()
+	 *
+	 * Purpose: Creates a store that uses the given columns as its own, in
+	 * 		the order returned by getColumns(). The arrays are not copied, so
+	 * 		results read from a file can be filled straight into them.
+	 *
+	 * Parameters:
+	 * 		int grainCount -- Number of grains in the motor.
+	 * 		int rows -- Number of rows held by the columns.
+	 * 		double[][] columns -- Columns holding at least the given rows.
+	 *
+	 * Returns: SimulationResultStore. A store holding the given rows.
+	**/
+
+	public static SimulationResultStore fromColumns (int grainCount, int rows, double[][] columns)
+	{
+		SimulationResultStore store = new SimulationResultStore(grainCount, 1);
+		if (rows < 0 || columns.length != COLUMN_COUNT)
+			throw new IllegalArgumentException(COLUMNS_ERR_MSG);
+		for (int i = 0; i < COLUMN_COUNT; i++)
+			if (columns[i] == null || columns[i].length < Math.max(rows, 1) * getColumnWidth(i, grainCount))
+				throw new IllegalArgumentException(COLUMNS_ERR_MSG);
+
+		store.time                  = columns[0];
+		store.chamberPressure       = columns[1];
+		store.thrust                = columns[2];
+		store.kn                    = columns[3];
+		store.burnArea              = columns[4];
+		store.burnRate              = columns[5];
+		store.massGeneratedOverall  = columns[6];
+		store.lStar                 = columns[7];
+		store.systemMass            = columns[8];
+		store.systemCenterOfGravity = columns[9];
+		store.cg                    = columns[10];
+		store.massGeneratedPerGrain = columns[11];
+		store.portToThroat          = columns[12];
+		store.massFlowPerAreaGrain  = columns[13];
+		store.size                  = rows;
+
+		// Capacity is the number of rows the shortest column can hold
+		store.capacity = Integer.MAX_VALUE;
+		for (int i = 0; i < COLUMN_COUNT; i++)
+			store.capacity = Math.min(store.capacity, columns[i].length / getColumnWidth(i, grainCount));
+
+		return store;
+	} // fromColumns()
+
+
+
+	/**
+	 * getColumns()
+	 *
+	 * Purpose: Returns the backing arrays of every column, in a fixed order:
+	 * 		the eleven scalar columns in the order of SimulationResults, then
+	 * 		mass generated per grain, port to throat, and mass flow per area.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double[][]. The COLUMN_COUNT backing arrays.
+	**/
+
+	public double[][] getColumns ()
+	{
+		return new double[][] { time, chamberPressure, thrust, kn, burnArea, burnRate, massGeneratedOverall,
+								lStar, systemMass, systemCenterOfGravity, cg,
+								massGeneratedPerGrain, portToThroat, massFlowPerAreaGrain };
+	} // getColumns()
+
+
+
+	/**
+	 * getColumnWidth()
+	 *
+	 * Purpose: Returns how many values one row takes in the given column of
+	 * 		a store for the given number of grains.
+	 *
+	 * Parameters:
+	 * 		int column -- Index of the column, in the order of getColumns().
+	 * 		int grainCount -- Number of grains in the motor.
+	 *
+	 * Returns: int. 1 for scalar columns, or the width of a per-grain column.
+	**/
+
+	public static int getColumnWidth (int column, int grainCount)
+	{
+		if (column < SCALAR_COLUMNS)
+			return 1;
+
+		return (column == COLUMN_COUNT - 1) ? grainCount + EXTRA_FLOW_AREAS : grainCount;
+	} // getColumnWidth()
+
+
+
+	/**
+	 * trimToSize()
+	 *
+	 * Purpose: Shrinks every column to the rows in use, so a store that will
+	 * 		not grow again, for example one kept in a cache, holds no spare
+	 * 		capacity.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	public void trimToSize ()
+	{
+		if (capacity == Math.max(size, 1))
+			return;
+
+		capacity = Math.max(size, 1);
+		time                  = Arrays.copyOf(time, capacity);
+		chamberPressure       = Arrays.copyOf(chamberPressure, capacity);
+		thrust                = Arrays.copyOf(thrust, capacity);
+		kn                    = Arrays.copyOf(kn, capacity);
+		burnArea              = Arrays.copyOf(burnArea, capacity);
+		burnRate              = Arrays.copyOf(burnRate, capacity);
+		massGeneratedOverall  = Arrays.copyOf(massGeneratedOverall, capacity);
+		lStar                 = Arrays.copyOf(lStar, capacity);
+		systemMass            = Arrays.copyOf(systemMass, capacity);
+		systemCenterOfGravity = Arrays.copyOf(systemCenterOfGravity, capacity);
+		cg                    = Arrays.copyOf(cg, capacity);
+		massGeneratedPerGrain = Arrays.copyOf(massGeneratedPerGrain, capacity * grainCount);
+		portToThroat          = Arrays.copyOf(portToThroat, capacity * grainCount);
+		massFlowPerAreaGrain  = Arrays.copyOf(massFlowPerAreaGrain, capacity * massFlowPerAreaWidth);
+	} // trimToSize()
+
+
+
+	/**
+	 * estimateMemoryUsage()
+	 *
+	 * Purpose: Returns about how many bytes the columns of the store take,
+	 * 		counting their full capacity.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: long. The size of the columns in bytes.
+	**/
+
+	public long estimateMemoryUsage ()
+	{
+		long values = (long) capacity * (SCALAR_COLUMNS + 2 * grainCount + massFlowPerAreaWidth);
+		return values * Double.BYTES + (SCALAR_COLUMNS + 3) * ARRAY_HEADER_BYTES;
+	} // estimateMemoryUsage()
+
+
+
+	/**
+	 * getResults()
+	 *
+	 * Purpose: Builds a SimulationResults object holding a copy of one row.
+	 *
+	 * Parameters:
+	 * 		int row -- Row to copy.
+	 *
+	 * Returns: SimulationResults. A new object with the values of the row.
+	**/
+
+	public SimulationResults getResults (int row)
+	{
+		return getResults(row, new SimulationResults());
+	} // getResults()
+
+
+
+	/**
+	 * getResults()
+	 *
+	 * Purpose: Same as getResults() above, but copies the row into the given
+	 * 		object. Its per-grain arrays are reused when they have the right
+	 * 		length, so copying rows one after another does not allocate.
+	 *
+	 * Parameters:
+	 * 		int row -- Row to copy.
+	 * 		SimulationResults results -- Object to copy the row into.
+	 *
+	 * Returns: SimulationResults. The given object.
+	**/
+
+	public SimulationResults getResults (int row, SimulationResults results)
+	{
+		checkRow(row);
+
+		results.setTime(time[row]);
+		results.setChamberPressure(chamberPressure[row]);
+		results.setThrust(thrust[row]);
+		results.setKn(kn[row]);
+		results.setBurnArea(burnArea[row]);
+		results.setBurnRate(burnRate[row]);
+		results.setMassGeneratedOverall(massGeneratedOverall[row]);
+		results.setLStar(lStar[row]);
+		results.setSystemMass(systemMass[row]);
+		results.setSystemCenterOfGravity(systemCenterOfGravity[row]);
+		results.setCg(cg[row]);
+		results.setMassGeneratedPerGrain(readRow(massGeneratedPerGrain, row, grainCount, results.getMassGeneratedPerGrain()));
+		results.setPortToThroat(readRow(portToThroat, row, grainCount, results.getPortToThroat()));
+		results.setMassFlowPerAreaGrain(readRow(massFlowPerAreaGrain, row, massFlowPerAreaWidth, results.getMassFlowPerAreaGrain()));
+
+		return results;
+	} // getResults()
+
+
+
+	/**
+	 * readRow()
+	 *
+	 * Purpose: Copies one row of a flattened column into the given array,
+	 * 		or into a new one if the given array is missing or the wrong length.
+	 *
+	 * Parameters:
+	 * 		double[] column -- Flattened column to read.
+	 * 		int row -- Row to read.
+	 * 		int width -- Number of values per row in the column.
+	 * 		double[] target -- Array to reuse, may be null.
+	 *
+	 * Returns: double[]. The values of the row.
+	**/
+
+	private static double[] readRow (double[] column, int row, int width, double[] target)
+	{
+		if (target == null || target.length != width)
+			target = new double[width];
+		System.arraycopy(column, row * width, target, 0, width);
+
+		return target;
+	} // readRow()
+
+
+
+	/**
+	 * asList()
+	 *
+	 * Purpose: Returns a read-only List<SimulationResults> view of the
+	 * 		store for callers written against the list based API. Every
+	 * 		call to get() builds a new SimulationResults from the columns.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: List<SimulationResults>. A view of the rows in this store.
+	**/
+
+	public List<SimulationResults> asList ()
+	{
+		return new ResultListView();
+	} // asList()
+
+
+
+	/**
+	 * checkRow()
+	 *
+	 * Purpose: Throws an IndexOutOfBoundsException if the given row
+	 * 		is not in the store.
+	 *
+	 * Parameters:
+	 * 		int row -- Row to check.
+	 *
+	 * Returns: void.
+	**/
+
+	private void checkRow (int row)
+	{
+		if (row < 0 || row >= size)
+			throw new IndexOutOfBoundsException(ROW_ERR_MSG);
+	} // checkRow()
+
+
+
+	/**
+	 * size()
+	 *
+	 * Purpose: Returns the number of rows in the store.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: int. The number of rows in the store.
+	**/
+
+	public int size ()
+	{
+		return size;
+	} // size()
+
+
+
+	/**
+	 * isEmpty()
+	 *
+	 * Purpose: Returns whether the store has no rows.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: boolean. True if the store has no rows.
+	**/
+
+	public boolean isEmpty ()
+	{
+		return size == 0;
+	} // isEmpty()
+
+
+
+	/**
+	 * getGrainCount()
+	 *
+	 * Purpose: Returns the number of grains the per-grain columns hold.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: int. The number of grains in the simulated motor.
+	**/
+
+	public int getGrainCount ()
+	{
+		return grainCount;
+	} // getGrainCount()
+
+
+
+	/**
+	 * getMassFlowPerAreaWidth()
+	 *
+	 * Purpose: Returns the number of mass flow per area values stored for
+	 * 		each row. This is one per grain, plus the nozzle entrance and
+	 * 		the nozzle throat.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: int. The width of the mass flow per area column.
+	**/
+
+	public int getMassFlowPerAreaWidth ()
+	{
+		return massFlowPerAreaWidth;
+	} // getMassFlowPerAreaWidth()
+
+
+
+	/**
+	 * getMassGeneratedPerGrain()
+	 * 
+	 * Purpose: Returns the mass generated by one grain in the given row.
+	 * 
+	 * Parameters:
+	 * 		int row -- Row to read.
+	 * 		int index -- Grain (or flow area location) to read.
+	 * 
+	 * Returns: double. The value stored for the index in the row.
+	**/
+	
+	public double getMassGeneratedPerGrain (int row, int index)
+	{
+		checkRow(row);
+		return massGeneratedPerGrain[row * grainCount + index];
+	} // getMassGeneratedPerGrain()
+	
+	
+	
+	/**
+	 * getPortToThroat()
+	 * 
+	 * Purpose: Returns the port to throat of one grain in the given row.
+	 * 
+	 * Parameters:
+	 * 		int row -- Row to read.
+	 * 		int index -- Grain (or flow area location) to read.
+	 * 
+	 * Returns: double. The value stored for the index in the row.
+	**/
+	
+	public double getPortToThroat (int row, int index)
+	{
+		checkRow(row);
+		return portToThroat[row * grainCount + index];
+	} // getPortToThroat()
+	
+	
+	
+	/**
+	 * getMassFlowPerAreaGrain()
+	 * 
+	 * Purpose: Returns the mass flow per area at one location in the given row.
+	 * 
+	 * Parameters:
+	 * 		int row -- Row to read.
+	 * 		int index -- Grain (or flow area location) to read.
+	 * 
+	 * Returns: double. The value stored for the index in the row.
+	**/
+	
+	public double getMassFlowPerAreaGrain (int row, int index)
+	{
+		checkRow(row);
+		return massFlowPerAreaGrain[row * massFlowPerAreaWidth + index];
+	} // getMassFlowPerAreaGrain()
+	
+	
+	
+	/**
+	 * getTimeColumn()
+	 * 
+	 * Purpose: Returns the backing array holding the time of each step.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double[]. The backing array of the column.
+	**/
+	
+	public double[] getTimeColumn ()
+	{
+		return time;
+	} // getTimeColumn()
+	
+	
+	
+	/**
+	 * getChamberPressureColumn()
+	 * 
+	 * Purpose: Returns the backing array holding the chamber pressure of each step.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double[]. The backing array of the column.
+	**/
+	
+	public double[] getChamberPressureColumn ()
+	{
+		return chamberPressure;
+	} // getChamberPressureColumn()
+	
+	
+	
+	/**
+	 * getThrustColumn()
+	 * 
+	 * Purpose: Returns the backing array holding the thrust of each step.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double[]. The backing array of the column.
+	**/
+	
+	public double[] getThrustColumn ()
+	{
+		return thrust;
+	} // getThrustColumn()
+	
+	
+	
+	/**
+	 * getKnColumn()
+	 * 
+	 * Purpose: Returns the backing array holding the kn of each step.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double[]. The backing array of the column.
+	**/
+	
+	public double[] getKnColumn ()
+	{
+		return kn;
+	} // getKnColumn()
+	
+	
+	
+	/**
+	 * getBurnAreaColumn()
+	 * 
+	 * Purpose: Returns the backing array holding the burn area of each step.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double[]. The backing array of the column.
+	**/
+	
+	public double[] getBurnAreaColumn ()
+	{
+		return burnArea;
+	} // getBurnAreaColumn()
+	
+	
+	
+	/**
+	 * getBurnRateColumn()
+	 * 
+	 * Purpose: Returns the backing array holding the burn rate of each step.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double[]. The backing array of the column.
+	**/
+	
+	public double[] getBurnRateColumn ()
+	{
+		return burnRate;
+	} // getBurnRateColumn()
+	
+	
+	
+	/**
+	 * getMassGeneratedOverallColumn()
+	 * 
+	 * Purpose: Returns the backing array holding the mass generated overall during each step.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double[]. The backing array of the column.
+	**/
+	
+	public double[] getMassGeneratedOverallColumn ()
+	{
+		return massGeneratedOverall;
+	} // getMassGeneratedOverallColumn()
+	
+	
+	
+	/**
+	 * getLStarColumn()
+	 * 
+	 * Purpose: Returns the backing array holding the characteristic length (L*) of each step.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double[]. The backing array of the column.
+	**/
+	
+	public double[] getLStarColumn ()
+	{
+		return lStar;
+	} // getLStarColumn()
+	
+	
+	
+	/**
+	 * getSystemMassColumn()
+	 * 
+	 * Purpose: Returns the backing array holding the system mass of each step.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double[]. The backing array of the column.
+	**/
+	
+	public double[] getSystemMassColumn ()
+	{
+		return systemMass;
+	} // getSystemMassColumn()
+	
+	
+	
+	/**
+	 * getSystemCenterOfGravityColumn()
+	 * 
+	 * Purpose: Returns the backing array holding the system center of gravity of each step.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double[]. The backing array of the column.
+	**/
+	
+	public double[] getSystemCenterOfGravityColumn ()
+	{
+		return systemCenterOfGravity;
+	} // getSystemCenterOfGravityColumn()
+	
+	
+	
+	/**
+	 * getCgColumn()
+	 * 
+	 * Purpose: Returns the backing array holding the cg of each step.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double[]. The backing array of the column.
+	**/
+	
+	public double[] getCgColumn ()
+	{
+		return cg;
+	} // getCgColumn()
+	
+	
+	
+	/**
+	 * getMassGeneratedPerGrainColumn()
+	 * 
+	 * Purpose: Returns the backing array holding the mass generated by each grain, flattened by (row * getGrainCount() + grain).
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double[]. The backing array of the column.
+	**/
+	
+	public double[] getMassGeneratedPerGrainColumn ()
+	{
+		return massGeneratedPerGrain;
+	} // getMassGeneratedPerGrainColumn()
+	
+	
+	
+	/**
+	 * getPortToThroatColumn()
+	 * 
+	 * Purpose: Returns the backing array holding the port to throat of each grain, flattened by (row * getGrainCount() + grain).
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double[]. The backing array of the column.
+	**/
+	
+	public double[] getPortToThroatColumn ()
+	{
+		return portToThroat;
+	} // getPortToThroatColumn()
+	
+	
+	
+	/**
+	 * getMassFlowPerAreaGrainColumn()
+	 * 
+	 * Purpose: Returns the backing array holding the mass flow per area, flattened by (row * getMassFlowPerAreaWidth() + index).
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double[]. The backing array of the column.
+	**/
+	
+	public double[] getMassFlowPerAreaGrainColumn ()
+	{
+		return massFlowPerAreaGrain;
+	} // getMassFlowPerAreaGrainColumn()
+	
+	
+	
+	/**
+	 * equals()
+	 *
+	 * Purpose: Allows two stores to be compared, by the time, thrust, and
+	 * 		chamber pressure of every row. Values are compared as by
+	 * 		Double.equals(), so a NaN row equals itself and 0.0 differs from
+	 * 		-0.0, which keeps equals() consistent with hashCode().
+	 *
+	 * Parameters: Object -- The object to be compared to.
+	 *
+	 * Returns: boolean reflecting the equality of two stores.
+	**/
+
+	@Override
+	public boolean equals (Object other)
+	{
+		if (this == other)
+			return true;
+		if (other == null || other.getClass() != SimulationResultStore.class)
+			return false;
+
+		SimulationResultStore o = (SimulationResultStore) other;
+		if (this.size != o.size)
+			return false;
+
+		for (int i = 0; i < size; i++)
+			if (Double.compare(time[i], o.time[i]) != 0 || Double.compare(thrust[i], o.thrust[i]) != 0
+				|| Double.compare(chamberPressure[i], o.chamberPressure[i]) != 0)
+				return false;
+
+		return true;
+	} // equals()
+
+
+
+	/**
+	 * hashCode()
+	 *
+	 * Purpose: Returns a hash code consistent with equals().
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: int. The hash code of the store.
+	**/
+
+	@Override
+	public int hashCode ()
+	{
+		int hash = size;
+		for (int i = 0; i < size; i++)
+		{
+			hash = 31 * hash + Double.hashCode(time[i]);
+			hash = 31 * hash + Double.hashCode(thrust[i]);
+			hash = 31 * hash + Double.hashCode(chamberPressure[i]);
+		}
+
+		return hash;
+	} // hashCode()
+
+
+
+	/**
+	 * ResultListView
+	 *
+	 * Purpose: Read-only list view over the rows of the store.
+	**/
+
+	private class ResultListView extends AbstractList<SimulationResults> implements RandomAccess
+	{
+		@Override
+		public SimulationResults get (int index)
+		{
+			return getResults(index);
+		} // get()
+
+		@Override
+		public int size ()
+		{
+			return size;
+		} // size()
+
+	} // class ResultListView
+
+} // class SimulationResultStore
@@ -76,30 +76,65 @@ public class SimulationResults
 	public String getLabels()
 	{
 		StringBuilder output = new StringBuilder();
+		String labels[] = buildLabels(massGeneratedPerGrain.length, portToThroat.length, massFlowPerAreaGrain.length);
 		
-		output.append(TIME + COMMA);
-		output.append(PRESSURE + COMMA);
-		output.append(MASS_OVERALL + COMMA);
-		
-		for(int i = 0; i < massGeneratedPerGrain.length; i++)
-			output.append(MASS_PER_GRAIN + i + COMMA);
-		for(int i = 0; i < portToThroat.length; i++)
-			output.append(PORT_TO_THROAT + i + COMMA);
-		for(int i = 0; i < massFlowPerAreaGrain.length; i++)
-			output.append(MASS_FLOW_PER_GRAIN + i + COMMA);
-		
-		output.append(BURN_AREA + COMMA);
-		output.append(BURN_RATE + COMMA);
-		output.append(KN + COMMA);
-		output.append(L_STAR + COMMA);
-		output.append(SYSTEM_MASS + COMMA);
-		output.append(SYSTEM_CENTER_GRAVITY + "\n");   // no comma because it's the end of the line
+		for (int i = 0; i < labels.length - 1; i++)
+			output.append(labels[i] + COMMA);
+		output.append(labels[labels.length - 1] + "\n");   // no comma because it's the end of the line
 		
 		return output.toString();
 	} // getLabels()
 	
 	
 	
+	/**
+	 * getLabelArray()
+	 * 
+	 * Purpose: Returns the labels of getLabels() one by one, for a motor
+	 * 		with the given number of grains.
+	 * 
+	 * Parameters:
+	 * 		int grainCount -- Number of grains in the motor.
+	 * 
+	 * Returns: String[]. Every label, in the order of a CSV row.
+	**/
+	
+	public static String[] getLabelArray (int grainCount)
+	{
+		return buildLabels(grainCount, grainCount, grainCount + 2);   // Nozzle entrance and throat flow areas
+	} // getLabelArray()
+	
+	
+	
+	// Builds the labels for the given number of per-grain values
+	private static String[] buildLabels (int grains, int ports, int flows)
+	{
+		String labels[] = new String[9 + grains + ports + flows];
+		int label = 0;
+		
+		labels[label++] = TIME;
+		labels[label++] = PRESSURE;
+		labels[label++] = MASS_OVERALL;
+		
+		for (int i = 0; i < grains; i++)
+			labels[label++] = MASS_PER_GRAIN + i;
+		for (int i = 0; i < ports; i++)
+			labels[label++] = PORT_TO_THROAT + i;
+		for (int i = 0; i < flows; i++)
+			labels[label++] = MASS_FLOW_PER_GRAIN + i;
+		
+		labels[label++] = BURN_AREA;
+		labels[label++] = BURN_RATE;
+		labels[label++] = KN;
+		labels[label++] = L_STAR;
+		labels[label++] = SYSTEM_MASS;
+		labels[label++] = SYSTEM_CENTER_GRAVITY;
+		
+		return labels;
+	} // buildLabels()
+	
+	
+	
 	/**
 	 * toString()
 	 * 
@@ -0,0 +1,459 @@
+package model.calculations;
+
+import java.util.Arrays;
+import java.util.List;
+
+import model.Case;
+import model.Nozzle;
+import model.grains.Grain;
+import model.grains.GrainStack;
+import model.propellant.Propellant;
+
+/**
+ * SimulationStepper.java
+ *
+ * Purpose: Runs the steps of a burn simulation one at a time. All of the
+ * 		buffers the RocketMath phases need (mass generated, mass flow, port
+ * 		to throat, and mass flow per area) are sized once for the motor and
+ * 		reused for every step, along with a single SimulationResults. Once
+ * 		it has been constructed, stepping the simulation allocates nothing.
+ *
+ * 		run() streams every step to a SimulationListener as it is computed.
+ *
+ * 		step() takes an Euler step, burning at the rate found from the
+ * 		geometry at its start. stepMidpoint() burns at the rate found half
+ * 		way through the step instead, which is second order in the change
+ * 		in time for about the cost of one more geometry update.
+ *
+ * 		Each phase of a step is timed when a SimulationProfiler is set, or
+ * 		when SimulationProfiler.ENABLED is set. Otherwise it is not timed.
+ *
+ * 		NOTE: The SimulationResults returned by initialize() and either step is
+ * 			overwritten by the next step. Callers that keep results must copy
+ * 			them, for example with SimulationResultStore.append().
+**/
+
+public class SimulationStepper
+{
+	// Fields
+	private final GrainStack theGrains;
+	private final Nozzle theNozzle;
+	private final Case theCase;
+	private final Propellant propellant;
+	private final SimulationResults current;
+	private double currentTime;
+	private boolean running;
+	private SimulationProfiler profiler;
+
+
+
+	// Saved state, used to retry a step
+	private Grain snapshot[];
+	private double savedTime;
+	private boolean savedRunning;
+
+
+
+	// Grains at the start of a midpoint step
+	private Grain midpointStart[];
+
+
+
+	// Buffers reused by every step
+	private final double massGenerated[];
+	private final double massFlow[];
+	private final double portToThroat[];
+	private final double massFlowPerArea[];
+
+
+
+	/**
+	 * SimulationStepper Constructor
+	 *
+	 * Purpose: Creates a stepper for the given motor and sizes all of the
+	 * 		per-step buffers for its grains. The grains themselves are not
+	 * 		copied, and are regressed by every step.
+	**/
+
+	public SimulationStepper (List<Grain> grainList, Nozzle theNozzle, Case theCase, Propellant propellant)
+	{
+		// Keep the grains in a stack for constant time access and per-step sums
+		this.theGrains  = new GrainStack(grainList);
+		this.theNozzle  = theNozzle;
+		this.theCase    = theCase;
+		this.propellant = propellant;
+		this.current    = new SimulationResults();
+		this.running    = true;
+
+		int grainCount = theGrains.size();
+		massGenerated   = new double[grainCount];
+		massFlow        = new double[grainCount];
+		portToThroat    = new double[grainCount];
+		massFlowPerArea = new double[grainCount + 2];
+	} // SimulationStepper Constructor
+
+
+
+	/**
+	 * initialize()
+	 *
+	 * Purpose: Builds the first data point of the simulation, at time zero,
+	 * 		with zero thrust, pressure, and burn rate and the actual motor
+	 * 		geometry and mass.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: SimulationResults. The results at time zero.
+	**/
+
+	public SimulationResults initialize ()
+	{
+		currentTime = 0;
+		running = true;
+
+		// First data point, adds a zero thrust and force value, with the actual motor force
+		Arrays.fill(massGenerated, 0);
+		Arrays.fill(massFlowPerArea, 0);
+		current.setTime(0);
+		current.setMassGeneratedOverall(0);
+		current.setBurnRate(0);
+		current.setChamberPressure(0);
+		current.setThrust(0);
+		current.setMassFlowPerAreaGrain(massFlowPerArea);
+		current.setMassGeneratedPerGrain(massGenerated);
+
+		// Calculate geometry based field values
+		theGrains.refresh();
+		current.setBurnArea(theGrains.getBurnArea());
+		current.setKn(theGrains.getBurnArea() / theNozzle.getThroatArea());
+		RocketMath.calculateLStar(theGrains, current, theNozzle);
+		RocketMath.massAndCenterOfGravity(theGrains, current, theCase, propellant);
+		RocketMath.portToThroatRatio(theGrains, current, theNozzle, portToThroat);
+
+		return current;
+	} // initialize()
+
+
+
+	/**
+	 * step()
+	 *
+	 * Purpose: Advances the simulation by the given change in time, running
+	 * 		every phase of RocketMath on the reused buffers. Based on Parts
+	 * 		1 through 8 of the matlab file motor_internal_balistics.m.
+	 *
+	 * 		If a grain would burn out during the step, the step is shortened
+	 * 		to end exactly at its burnout, so burnout times do not depend on
+	 * 		the change in time. Use getTime() to see where the step ended.
+	 *
+	 * Parameters:
+	 * 		double deltaTime -- Most time that may pass during the step.
+	 *
+	 * Returns: SimulationResults. The results of the step.
+	**/
+
+	public SimulationResults step (double deltaTime)
+	{
+		// Time the phases when profiling, the constant check costs nothing when it is off
+		SimulationProfiler profiler = activeProfiler();
+		long start = profiler == null ? 0 : System.nanoTime();
+
+		// Part 1 in matlab file, the burn rate it finds decides the next burnout
+		RocketMath.generateGeometry(theGrains, current, theNozzle, propellant);
+		deltaTime = Math.min(deltaTime, RocketMath.timeToBurnout(theGrains, current.getBurnRate()));
+		if (profiler != null)
+			start = profiler.record(SimulationPhase.GENERATE_GEOMETRY, start);
+
+		return advance(deltaTime, profiler, start);
+	} // step()
+
+
+
+	/**
+	 * stepMidpoint()
+	 *
+	 * Purpose: Advances the simulation like step(), but with the explicit
+	 * 		midpoint method. The grains are regressed half the step to find
+	 * 		the burn rate and pressure half way, then put back and regressed
+	 * 		the whole step at that rate. The results report the pressure and
+	 * 		thrust found half way, so their impulse is also second order.
+	 *
+	 * 		This is the result step doubling reaches with local
+	 * 		extrapolation, twice the two half steps less the full step, but
+	 * 		without taking either of them.
+	 *
+	 * 		If a grain would burn out during the step, the step ends exactly
+	 * 		at its burnout at the rate found half way, even if that is a
+	 * 		little past the given change in time (up to twice it).
+	 *
+	 * Parameters:
+	 * 		double deltaTime -- Change in time of the step, unless a burnout
+	 * 			ends it sooner or later.
+	 *
+	 * Returns: SimulationResults. The results of the step.
+	**/
+
+	public SimulationResults stepMidpoint (double deltaTime)
+	{
+		SimulationProfiler profiler = activeProfiler();
+		long start = profiler == null ? 0 : System.nanoTime();
+
+		// The rate at the start keeps the half step short of any burnout
+		RocketMath.generateGeometry(theGrains, current, theNozzle, propellant);
+		double timeToBurnout = RocketMath.timeToBurnout(theGrains, current.getBurnRate());
+		boolean burnsOut = timeToBurnout <= deltaTime;
+		deltaTime = Math.min(deltaTime, timeToBurnout);
+		if (profiler != null)
+			start = profiler.record(SimulationPhase.GENERATE_GEOMETRY, start);
+
+		if (midpointStart == null)
+		{
+			midpointStart = new Grain[theGrains.size()];
+			for (int i = 0; i < midpointStart.length; i++)
+				midpointStart[i] = theGrains.get(i).clone();
+		}
+		for (int i = 0; i < midpointStart.length; i++)
+			midpointStart[i].copyStateFrom(theGrains.get(i));
+
+		// Half step, only far enough to find the geometry half way
+		theGrains.regress(current.getBurnRate(), deltaTime / 2, massGenerated);
+		if (profiler != null)
+			start = profiler.record(SimulationPhase.REGRESS_GRAINS, start);
+		RocketMath.generateGeometry(theGrains, current, theNozzle, propellant);
+		if (profiler != null)
+			start = profiler.record(SimulationPhase.GENERATE_GEOMETRY, start);
+
+		// Whole step from the start, at the rate found half way
+		for (int i = 0; i < midpointStart.length; i++)
+			theGrains.get(i).copyStateFrom(midpointStart[i]);
+		theGrains.refresh();
+		timeToBurnout = RocketMath.timeToBurnout(theGrains, current.getBurnRate());
+		deltaTime = Math.min(burnsOut ? 2 * deltaTime : deltaTime, timeToBurnout);
+
+		return advance(deltaTime, profiler, start);
+	} // stepMidpoint()
+
+
+
+	// Parts 2 through 8 of a step, once the burn rate and pressure are set
+	private SimulationResults advance (double deltaTime, SimulationProfiler profiler, long start)
+	{
+		// Update time
+		currentTime += deltaTime;
+		current.setTime(currentTime);
+
+		// Parts 2 through 8 in matlab file
+		RocketMath.regressGrains(theGrains, current, deltaTime, propellant, massGenerated);
+		if (profiler != null)
+			start = profiler.record(SimulationPhase.REGRESS_GRAINS, start);
+		RocketMath.generateMassFlow(theGrains, current, massFlow);
+		if (profiler != null)
+			start = profiler.record(SimulationPhase.GENERATE_MASS_FLOW, start);
+		RocketMath.portToThroatRatio(theGrains, current, theNozzle, portToThroat);
+		if (profiler != null)
+			start = profiler.record(SimulationPhase.PORT_TO_THROAT_RATIO, start);
+		RocketMath.calculateMassFlowPerArea(theGrains, current, massFlow, theNozzle, massFlowPerArea);
+		if (profiler != null)
+			start = profiler.record(SimulationPhase.CALCULATE_MASS_FLOW_PER_AREA, start);
+		RocketMath.calculateLStar(theGrains, current, theNozzle);
+		if (profiler != null)
+			start = profiler.record(SimulationPhase.CALCULATE_L_STAR, start);
+		RocketMath.massAndCenterOfGravity(theGrains, current, theCase, propellant);
+		if (profiler != null)
+			start = profiler.record(SimulationPhase.MASS_AND_CENTER_OF_GRAVITY, start);
+		RocketMath.calculateBurnout(theGrains, currentTime);
+		if (profiler != null)
+			start = profiler.record(SimulationPhase.CALCULATE_BURNOUT, start);
+		RocketMath.calculateThrust(current, theNozzle);
+		if (profiler != null)
+			profiler.record(SimulationPhase.CALCULATE_THRUST, start);
+
+		// The simulation runs until every grain has burned out
+		running = theGrains.isBurning();
+
+		return current;
+	} // advance()
+
+
+
+	// Profiler to time the phases with, or null when not profiling
+	private SimulationProfiler activeProfiler ()
+	{
+		if (profiler == null && SimulationProfiler.ENABLED)
+			return SimulationProfiler.forCurrentThread();
+
+		return profiler;
+	} // activeProfiler()
+
+
+
+	/**
+	 * run()
+	 *
+	 * Purpose: Runs the whole simulation with a fixed change in time,
+	 * 		passing the first data point and every step to the given
+	 * 		listener as soon as it is computed. Pass a SimulationResultStore
+	 * 		to keep every step.
+	 *
+	 * Parameters:
+	 * 		double deltaTime -- How much time will change at every step.
+	 * 		SimulationListener listener -- Listener to pass the results to.
+	 *
+	 * Returns: void.
+	**/
+
+	public void run (double deltaTime, SimulationListener listener)
+	{
+		listener.stepCompleted(initialize());
+
+		// Always take at least one step, then run until burnout
+		do
+		{
+			listener.stepCompleted(step(deltaTime));
+		} while (running);
+
+		listener.simulationFinished();
+	} // run()
+
+
+
+	/**
+	 * saveState()
+	 *
+	 * Purpose: Saves the state of every grain and the current time, so that
+	 * 		one or more steps can be taken and then undone with restoreState().
+	 * 		The snapshot grains are created on the first call and reused.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	public void saveState ()
+	{
+		if (snapshot == null)
+		{
+			snapshot = new Grain[theGrains.size()];
+			for (int i = 0; i < snapshot.length; i++)
+				snapshot[i] = theGrains.get(i).clone();
+		}
+
+		for (int i = 0; i < snapshot.length; i++)
+			snapshot[i].copyStateFrom(theGrains.get(i));
+		savedTime = currentTime;
+		savedRunning = running;
+	} // saveState()
+
+
+
+	/**
+	 * restoreState()
+	 *
+	 * Purpose: Returns every grain and the current time to the state saved
+	 * 		by the most recent call to saveState().
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	public void restoreState ()
+	{
+		for (int i = 0; i < snapshot.length; i++)
+			theGrains.get(i).copyStateFrom(snapshot[i]);
+		theGrains.refresh();
+		currentTime = savedTime;
+		running = savedRunning;
+	} // restoreState()
+
+
+
+	/**
+	 * setProfiler()
+	 *
+	 * Purpose: Sets the profiler that times the phases of every step, or
+	 * 		turns profiling off with null. With null, steps are still timed
+	 * 		by the profiler of the thread when SimulationProfiler.ENABLED is
+	 * 		set.
+	 *
+	 * Parameters:
+	 * 		SimulationProfiler profiler -- Profiler to record to, or null.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setProfiler (SimulationProfiler profiler)
+	{
+		this.profiler = profiler;
+	} // setProfiler()
+
+
+
+	/**
+	 * getProfiler()
+	 *
+	 * Purpose: Returns the profiler set with setProfiler().
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: SimulationProfiler. The profiler, or null.
+	**/
+
+	public SimulationProfiler getProfiler ()
+	{
+		return profiler;
+	} // getProfiler()
+
+
+
+	/**
+	 * getGrains()
+	 *
+	 * Purpose: Returns the grains regressed by this stepper.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: GrainStack. The grains of the simulated motor.
+	**/
+
+	public GrainStack getGrains ()
+	{
+		return theGrains;
+	} // getGrains()
+
+
+
+	/**
+	 * isRunning()
+	 *
+	 * Purpose: Returns whether any grain is still burning after the
+	 * 		most recent step.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: boolean. True if the simulation has not finished.
+	**/
+
+	public boolean isRunning ()
+	{
+		return running;
+	} // isRunning()
+
+
+
+	/**
+	 * getTime()
+	 *
+	 * Purpose: Returns the time at the end of the most recent step.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The current simulation time in seconds.
+	**/
+
+	public double getTime ()
+	{
+		return currentTime;
+	} // getTime()
+
+} // class SimulationStepper
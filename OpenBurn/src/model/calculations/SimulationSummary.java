@@ -1,6 +1,5 @@
 package model.calculations;
 
-import java.util.Iterator;
 import java.util.List;
 
 import model.Case;
@@ -16,6 +15,11 @@ import model.unitConversion.UnitConverter;
 
 public class SimulationSummary
 {
+	// Error Messages
+	private static final String IMPULSE_ERR_MSG = "ERROR: Motor has no positive, finite impulse to classify!\n";
+
+
+
 	// Private fields
 	private String classification;
 	private double ISP;
@@ -28,47 +32,60 @@ public class SimulationSummary
 	
 	public SimulationSummary(List<SimulationResults> results, Case c)
 	{
-		Iterator<SimulationResults> iter = results.iterator();
-		double maxThrust = 0;
-		double maxPressure = 0;
-		double averageThrustHelper = 0;
-		double count = 1;
-		double a = 0;
-		double b = 0;
-		double trap_integral_helper = 0;
-		while(iter.hasNext())
-		{
-			count++;
-			SimulationResults curr = iter.next();
-			if(count == 1)// First element
-			{
-				a = curr.getTime(); // Probably 0, but should be done this way
-				trap_integral_helper += curr.getThrust();
-			}else if(!iter.hasNext())//Last element
-			{
-				b = curr.getTime();
-				trap_integral_helper += curr.getThrust();
-			}else//Middle elements
-			{
-
-				trap_integral_helper += (2*curr.getThrust());
-			}
-			averageThrustHelper += curr.getThrust();
-			maxThrust = Math.max(maxThrust, curr.getThrust());
-			maxPressure = Math.max(maxPressure, curr.getChamberPressure());
-		}
-		double delta_x = (b-a)/count;
-		this.impulse = trap_integral_helper * (delta_x/2);
-		this.ISP = impulse/(results.get(0).getSystemMass() - c.getCaseMass());
-		this.averageThrust = averageThrustHelper/count;
-		this.maxPressure = maxPressure;
-		this.maxThrust = maxThrust;
+		this(SimulationResultStore.fromList(results), c);
+	}
+	
+	
+	
+	public SimulationSummary(SimulationResultStore results, Case c)
+	{
+		this(accumulate(results), c);
+	}
+	
+	
+	
+	/**
+	 * SimulationSummary Constructor (SimulationSummaryAccumulator, Case)
+	 * 
+	 * Purpose: Builds the summary from the values gathered step by step by
+	 * 		an accumulator, so the results themselves need not be kept.
+	**/
+	
+	public SimulationSummary(SimulationSummaryAccumulator steps, Case c)
+	{
+		// Impulse uses the actual change in time of each step, so results
+		// with variable steps are integrated correctly
+		this.impulse = steps.getImpulse();
+		this.ISP = impulse/(steps.getInitialMass() - c.getCaseMass());
+		this.averageThrust = steps.getAverageThrust(); // Time weighted, as steps may differ in length
+		this.maxPressure = steps.getMaxPressure();
+		this.maxThrust = steps.getMaxThrust();
 		this.massFrac = 65; // TODO: fix this!
-		this.burnTime = b;
+		this.burnTime = steps.getEndTime();
 		
 		double metric_impulse = UnitConverter.convertForceFromInternal(impulse, ForceUnits.NEWTONS);
 		
+		// A motor that makes no thrust (such as a throat too large for the
+		// propellant to hold pressure) has no class, and would never end the
+		// search below
+		if (!(metric_impulse > 0) || Double.isInfinite(metric_impulse))
+			throw new IllegalArgumentException(IMPULSE_ERR_MSG);
+		
 		//Classification generation
+		double metric_average_thrust = UnitConverter.convertForceFromInternal(averageThrust, ForceUnits.NEWTONS);
+		if (metric_impulse < 1.25)
+		{
+			// Below the A class, as 1/2A, 1/4A, ...
+			long fraction = 2;
+			double lower_bound = 0.625;
+			while (metric_impulse < lower_bound)
+			{
+				fraction*=2;
+				lower_bound/=2;
+			}
+			this.classification = String.format("1/%dA%.0f", fraction, metric_average_thrust);
+			return;
+		}
 		int letter_code = 1;
 		double lower_bound = 1.25;
 		while (!((metric_impulse >= lower_bound) && (metric_impulse < (lower_bound * 2))))
@@ -77,12 +94,21 @@ public class SimulationSummary
 			lower_bound*=2;
 		}
 		char letter = (char) (64 + letter_code);
-		double metric_average_thrust = UnitConverter.convertForceFromInternal(averageThrust, ForceUnits.NEWTONS);
 		this.classification = String.format("%c%.0f", letter,metric_average_thrust);	
 	}
 	
 	
 	
+	// Gathers every row of a store into an accumulator
+	private static SimulationSummaryAccumulator accumulate (SimulationResultStore results)
+	{
+		SimulationSummaryAccumulator steps = new SimulationSummaryAccumulator();
+		steps.add(results);
+		return steps;
+	} // accumulate()
+	
+	
+	
 	/**
 	 * getClassification()
 	 * 
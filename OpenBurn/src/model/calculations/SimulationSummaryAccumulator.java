@@ -0,0 +1,217 @@
+package model.calculations;
+
+import model.Case;
+
+/**
+ * SimulationSummaryAccumulator.java
+ *
+ * Purpose: Builds the values of a SimulationSummary one step at a time, as
+ * 		the steps of a simulation are produced, so a summary can be had
+ * 		without keeping the results themselves.
+ *
+ * 		Each step holds the thrust it burned with, labelled with the time it
+ * 		ended at, so impulse adds thrust * dt with the actual change in time
+ * 		of every step. Variable steps are integrated correctly.
+ *
+ * 		Pass an accumulator as the SimulationListener of a simulation, then
+ * 		build the summary with toSummary().
+**/
+
+public class SimulationSummaryAccumulator implements SimulationListener
+{
+	// Error messages
+	private static final String EMPTY_ERR_MSG = "ERROR: No steps have been added to summarize!\n";
+
+
+
+	// Fields
+	private int steps;
+	private double startTime;
+	private double endTime;
+	private double impulse;
+	private double maxThrust;
+	private double maxPressure;
+	private double initialMass;
+
+
+
+	/**
+	 * add()
+	 *
+	 * Purpose: Adds one step. Steps must be added in order of time, starting
+	 * 		with the first data point of the simulation.
+	 *
+	 * Parameters:
+	 * 		double time -- Time at the end of the step.
+	 * 		double thrust -- Thrust during the step.
+	 * 		double pressure -- Chamber pressure during the step.
+	 * 		double systemMass -- Mass of the motor at the end of the step.
+	 *
+	 * Returns: void.
+	**/
+
+	public void add (double time, double thrust, double pressure, double systemMass)
+	{
+		if (steps == 0)
+		{
+			startTime   = time;
+			initialMass = systemMass;
+		}
+		else
+			impulse += (time - endTime) * thrust;
+
+		endTime     = time;
+		maxThrust   = Math.max(maxThrust, thrust);
+		maxPressure = Math.max(maxPressure, pressure);
+		steps++;
+	} // add()
+
+
+
+	/**
+	 * add()
+	 *
+	 * Purpose: Adds every row of the given store, in order.
+	 *
+	 * Parameters:
+	 * 		SimulationResultStore results -- Results to add.
+	 *
+	 * Returns: void.
+	**/
+
+	public void add (SimulationResultStore results)
+	{
+		double time[] = results.getTimeColumn();
+		double thrust[] = results.getThrustColumn();
+		double pressure[] = results.getChamberPressureColumn();
+		double systemMass[] = results.getSystemMassColumn();
+		for (int i = 0; i < results.size(); i++)
+			add(time[i], thrust[i], pressure[i], systemMass[i]);
+	} // add()
+
+
+
+	@Override
+	public void stepCompleted (SimulationResults results)
+	{
+		add(results.getTime(), results.getThrust(), results.getChamberPressure(), results.getSystemMass());
+	} // stepCompleted()
+
+
+
+	@Override
+	public void simulationFinished ()
+	{
+	} // simulationFinished()
+
+
+
+	/**
+	 * toSummary()
+	 *
+	 * Purpose: Builds the summary of the steps added so far.
+	 *
+	 * Parameters:
+	 * 		Case theCase -- Case of the simulated motor.
+	 *
+	 * Returns: SimulationSummary. The summary of the simulation.
+	**/
+
+	public SimulationSummary toSummary (Case theCase)
+	{
+		return new SimulationSummary(this, theCase);
+	} // toSummary()
+
+
+
+	/**
+	 * getStepCount() / getImpulse() / getMaxThrust() / getMaxPressure()
+	 *
+	 * Purpose: Return the number of steps added, and the impulse, largest
+	 * 		thrust, and largest chamber pressure so far.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: The value so far.
+	**/
+
+	public int getStepCount ()
+	{
+		return steps;
+	} // getStepCount()
+
+	public double getImpulse ()
+	{
+		return impulse;
+	} // getImpulse()
+
+	public double getMaxThrust ()
+	{
+		return maxThrust;
+	} // getMaxThrust()
+
+	public double getMaxPressure ()
+	{
+		return maxPressure;
+	} // getMaxPressure()
+
+
+
+	/**
+	 * getStartTime() / getEndTime() / getInitialMass()
+	 *
+	 * Purpose: Return the time of the first and last step, and the mass of
+	 * 		the motor at the first step.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: The time in seconds, or the mass.
+	**/
+
+	public double getStartTime ()
+	{
+		checkNotEmpty();
+		return startTime;
+	} // getStartTime()
+
+	public double getEndTime ()
+	{
+		checkNotEmpty();
+		return endTime;
+	} // getEndTime()
+
+	public double getInitialMass ()
+	{
+		checkNotEmpty();
+		return initialMass;
+	} // getInitialMass()
+
+
+
+	/**
+	 * getAverageThrust()
+	 *
+	 * Purpose: Returns the time weighted average thrust so far.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. Impulse over the time covered, or 0 before any
+	 * 		time has passed.
+	**/
+
+	public double getAverageThrust ()
+	{
+		checkNotEmpty();
+		return (endTime > startTime) ? impulse / (endTime - startTime) : 0;
+	} // getAverageThrust()
+
+
+
+	// Throws if there is nothing to summarize
+	private void checkNotEmpty ()
+	{
+		if (steps == 0)
+			throw new IllegalStateException(EMPTY_ERR_MSG);
+	} // checkNotEmpty()
+
+} // class SimulationSummaryAccumulator
@@ -0,0 +1,140 @@
+package model.calculations;
+
+/**
+ * SweepResult.java
+ *
+ * Purpose: Holds the swept values of one case of a ParameterSweep along
+ * 		with the summary of its simulation.
+**/
+
+public class SweepResult
+{
+	// Fields
+	private final int caseIndex;
+	private final double throatDiameter;
+	private final int grainCount;
+	private final double coreDiameter;
+	private final int propellantIndex;
+	private final SimulationSummary summary;
+
+
+
+	/**
+	 * SweepResult Constructor
+	 *
+	 * Purpose: Creates the result of the given case of a parameter space.
+	**/
+
+	public SweepResult (ParameterSpace space, int caseIndex, SimulationSummary summary)
+	{
+		this.caseIndex       = caseIndex;
+		this.throatDiameter  = space.getThroatDiameter(caseIndex);
+		this.grainCount      = space.getGrainCount(caseIndex);
+		this.coreDiameter    = space.getCoreDiameter(caseIndex);
+		this.propellantIndex = space.getPropellantIndex(caseIndex);
+		this.summary         = summary;
+	} // SweepResult Constructor
+
+
+
+	/**
+	 * getCaseIndex()
+	 *
+	 * Purpose: Returns the index of the case in its parameter space.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: int. The index of the case.
+	**/
+
+	public int getCaseIndex ()
+	{
+		return caseIndex;
+	} // getCaseIndex()
+
+
+
+	/**
+	 * getThroatDiameter()
+	 *
+	 * Purpose: Returns the nozzle throat diameter of the case.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The throat diameter.
+	**/
+
+	public double getThroatDiameter ()
+	{
+		return throatDiameter;
+	} // getThroatDiameter()
+
+
+
+	/**
+	 * getGrainCount()
+	 *
+	 * Purpose: Returns the number of grains of the case.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: int. The number of grains.
+	**/
+
+	public int getGrainCount ()
+	{
+		return grainCount;
+	} // getGrainCount()
+
+
+
+	/**
+	 * getCoreDiameter()
+	 *
+	 * Purpose: Returns the grain core diameter of the case.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The core diameter.
+	**/
+
+	public double getCoreDiameter ()
+	{
+		return coreDiameter;
+	} // getCoreDiameter()
+
+
+
+	/**
+	 * getPropellantIndex()
+	 *
+	 * Purpose: Returns which of the swept propellants the case used.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: int. The index of the propellant in the parameter space.
+	**/
+
+	public int getPropellantIndex ()
+	{
+		return propellantIndex;
+	} // getPropellantIndex()
+
+
+
+	/**
+	 * getSummary()
+	 *
+	 * Purpose: Returns the summary of the simulation of the case.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: SimulationSummary. The summary of the case.
+	**/
+
+	public SimulationSummary getSummary ()
+	{
+		return summary;
+	} // getSummary()
+
+} // class SweepResult
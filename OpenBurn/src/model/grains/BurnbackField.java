@@ -0,0 +1,1062 @@
+package model.grains;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * BurnbackField.java
+ *
+ * Purpose: Holds how far the burning surface of a grain's cross-section has
+ * 		to regress to reach every point, found once on a square grid, and
+ * 		answers the port area and burning perimeter of the cross-section
+ * 		for any web distance burned. Used by grains whose port is not a
+ * 		circle, such as the StarGrain.
+ *
+ * 		The field is the distance from each grid node to the initial port,
+ * 		since every point of the surface regresses at the same burn rate.
+ * 		It is found with a fast sweeping method: the nodes next to the edge
+ * 		of the port get their exact distance and the closest point on the
+ * 		edge, then the grid is swept row by row from each of its four
+ * 		corners, every node taking the closest edge point offered by the
+ * 		neighbours already swept. Passing closest points instead of
+ * 		distances keeps the distances Euclidean instead of following the
+ * 		grid. The four sweeps run at once on their own copies and are
+ * 		merged, and rounds repeat until no node changes. That is usually
+ * 		the second round, since the path from a node to its closest edge
+ * 		point is a straight line, which one of the sweeps follows whole.
+ * 		Everything else runs on the common ForkJoinPool as well, one task
+ * 		per block of rows.
+ *
+ * 		Measuring the port at a web distance only looks at the cells the
+ * 		burning edge crosses. The cells are bucketed by their largest
+ * 		distance, so the cells behind the edge are summed from a prefix
+ * 		table, and only the few buckets near the web distance are measured,
+ * 		by splitting each cell into two triangles and interpolating the
+ * 		distance linearly. Cells on the outer wall count only the share of
+ * 		their area inside it.
+ *
+ * 		That is still far too slow for every step of a simulation, so the
+ * 		port area and perimeter are measured once, at TABLE_STEPS evenly
+ * 		spaced web distances per grid spacing, when the field is built.
+ * 		Queries interpolate linearly between them, as BurnbackTable does
+ * 		for whole grain stacks.
+**/
+
+public class BurnbackField
+{
+	// Error messages
+	private static final String CELLS_ERR_MSG    = "ERROR: Burnback grid must have at least two cells across!\n";
+	private static final String DIAMETER_ERR_MSG = "ERROR: Outer diameter must be positive!\n";
+
+
+
+	// Constants
+	private static final int ROWS_PER_TASK  = 16;   // Grid rows handled by one parallel task
+	private static final int SUBSAMPLES     = 8;    // Samples across a cell on the outer wall, per side
+	private static final int BUCKET_OFFSET  = 2;    // Buckets below zero distance, for nodes in the port
+	private static final int TABLE_STEPS    = 4;    // Measured web distances per grid spacing
+	private static final int NO_SEED        = -1;   // Seed of a node no closest point has reached
+
+	// Node states
+	private static final byte FAR     = 0;   // Outside the port, not reached yet
+	private static final byte SEEDED  = 1;   // Next to the edge of the port, distance exact
+	private static final byte KNOWN   = 2;   // Distance found
+	private static final byte PORT    = 3;   // Inside the initial port
+	private static final byte OUTSIDE = 4;   // Beyond the outer wall, not needed
+
+
+
+	// Fields
+	private final int nodes;             // Nodes per side of the grid
+	private final double spacing;        // Distance between neighbouring nodes
+	private final double radius;         // Outer radius of the grain
+	private final double distance[];     // Distance of each node to the initial port, row by row
+	private final int cells[];           // Cells inside the wall, sorted by bucket of largest distance
+	private final float weights[];       // Share of each sorted cell inside the wall
+	private final int bucketStart[];     // First sorted cell of each bucket, plus the end
+	private final double fullWeight[];   // Total weight of the cells in the buckets before each bucket
+	private final double span;           // Largest difference of distance across one cell
+	private final double web;            // Largest distance inside the wall
+	private final double tableStep;      // Web distance between measurements
+	private final double portTable[];    // Port area at each measured web distance
+	private final double edgeTable[];    // Burning perimeter at each measured web distance
+
+
+
+	/**
+	 * PortShape
+	 *
+	 * Purpose: The cross-section of an unburned port, centered on the axis
+	 * 		of the grain.
+	**/
+
+	public interface PortShape
+	{
+		/**
+		 * contains()
+		 *
+		 * Purpose: Returns whether the given point is inside the port.
+		**/
+
+		boolean contains (double x, double y);
+
+		/**
+		 * distance()
+		 *
+		 * Purpose: Returns the distance from the given point to the edge of
+		 * 		the port. Outside the port, the distance must be exact and
+		 * 		the closest point of the edge is written to closest[0] and
+		 * 		closest[1]. Inside, the distance may be too small.
+		**/
+
+		double distance (double x, double y, double closest[]);
+	} // interface PortShape
+
+
+
+	/**
+	 * BurnbackField Constructor
+	 *
+	 * Purpose: Finds the distance field of the given port inside a grain of
+	 * 		the given outer diameter, on a grid of the given number of cells
+	 * 		across that diameter.
+	**/
+
+	public BurnbackField (PortShape port, double outerDiameter, int cellsAcross)
+	{
+		if (cellsAcross < 2)
+			throw new IllegalArgumentException(CELLS_ERR_MSG);
+		if (outerDiameter <= 0)
+			throw new IllegalArgumentException(DIAMETER_ERR_MSG);
+
+		nodes    = cellsAcross + 1;
+		spacing  = outerDiameter / cellsAcross;
+		radius   = outerDiameter / 2;
+		distance = new double[nodes * nodes];
+
+		// Classify every node, then seed the nodes next to the edge of the port
+		byte state[] = new byte[nodes * nodes];
+		double closestX[] = new double[nodes * nodes];
+		double closestY[] = new double[nodes * nodes];
+		ForkJoinPool.commonPool().invoke(new ClassifyTask(port, state, 0, nodes));
+		ForkJoinPool.commonPool().invoke(new SeedTask(port, state, closestX, closestY, 0, nodes));
+
+		sweep(state, closestX, closestY);
+
+		// Weigh the cells, then sort them into buckets of largest distance
+		double cellWeight[] = new double[cellsAcross * cellsAcross];
+		double cellSpan[] = new double[cellsAcross];
+		ForkJoinPool.commonPool().invoke(new WeighTask(cellWeight, cellSpan, 0, cellsAcross));
+
+		double largestSpan = 0;
+		double largest = 0;
+		for (int row = 0; row < cellsAcross; row++)
+			largestSpan = Math.max(largestSpan, cellSpan[row]);
+		for (int node = 0; node < distance.length; node++)
+			if (state[node] == KNOWN && isInside(node))
+				largest = Math.max(largest, distance[node]);
+		span = largestSpan;
+		web  = largest;
+
+		int bucketCount = bucket(largest + span) + 2;
+		bucketStart = new int[bucketCount + 1];
+		int cellBucket[] = new int[cellWeight.length];
+		for (int cell = 0; cell < cellWeight.length; cell++)
+		{
+			if (cellWeight[cell] > 0)
+			{
+				cellBucket[cell] = Math.min(bucket(cellMaximum(cell)), bucketCount - 1);
+				bucketStart[cellBucket[cell] + 1]++;
+			}
+		}
+		for (int b = 0; b < bucketCount; b++)
+			bucketStart[b + 1] += bucketStart[b];
+
+		int next[] = Arrays.copyOf(bucketStart, bucketCount);
+		cells   = new int[bucketStart[bucketCount]];
+		weights = new float[cells.length];
+		for (int cell = 0; cell < cellWeight.length; cell++)
+		{
+			if (cellWeight[cell] > 0)
+			{
+				int position = next[cellBucket[cell]]++;
+				cells[position]   = cell;
+				weights[position] = (float) cellWeight[cell];
+			}
+		}
+
+		fullWeight = new double[bucketCount + 1];
+		for (int b = 0; b < bucketCount; b++)
+		{
+			fullWeight[b + 1] = fullWeight[b];
+			for (int position = bucketStart[b]; position < bucketStart[b + 1]; position++)
+				fullWeight[b + 1] += weights[position];
+		}
+
+		// Measure the port across the web, from zero to burnout
+		int steps = Math.max((int) Math.ceil(web / spacing * TABLE_STEPS), 1);
+		tableStep = Math.max(web, spacing) / steps;
+		portTable = new double[steps + 1];
+		edgeTable = new double[steps + 1];
+		ForkJoinPool.commonPool().invoke(new TableTask(0, steps + 1));
+	} // BurnbackField Constructor
+
+
+
+	/**
+	 * getWeb()
+	 *
+	 * Purpose: Returns the web distance at which the whole cross-section has
+	 * 		burned, the largest distance from the port inside the wall.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The web of the cross-section.
+	**/
+
+	public double getWeb ()
+	{
+		return web;
+	} // getWeb()
+
+
+
+	/**
+	 * getTotalArea()
+	 *
+	 * Purpose: Returns the area inside the outer wall, as gridded.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The area of the whole cross-section.
+	**/
+
+	public double getTotalArea ()
+	{
+		return fullWeight[fullWeight.length - 1] * spacing * spacing;
+	} // getTotalArea()
+
+
+
+	/**
+	 * getPortArea() / getPerimeter()
+	 *
+	 * Purpose: Return the area of the port, or the length of the burning
+	 * 		edge, inside the outer wall after the given web distance has
+	 * 		burned, interpolated from the measurements.
+	 *
+	 * Parameters:
+	 * 		double burned -- Web distance burned.
+	 *
+	 * Returns: double. The area of the port, or the burning perimeter.
+	**/
+
+	public double getPortArea (double burned)
+	{
+		return interpolate(portTable, burned);
+	} // getPortArea()
+
+	public double getPerimeter (double burned)
+	{
+		return interpolate(edgeTable, burned);
+	} // getPerimeter()
+
+
+
+	/**
+	 * measure()
+	 *
+	 * Purpose: Measures the area of the port and the length of the burning
+	 * 		edge inside the outer wall after the given web distance has
+	 * 		burned, both from one pass over the cells the edge crosses.
+	 *
+	 * Parameters:
+	 * 		double burned -- Web distance burned.
+	 * 		double measured[] -- Receives the port area in measured[0] and
+	 * 			the burning perimeter in measured[1].
+	 *
+	 * Returns: void.
+	**/
+
+	private void measure (double burned, double measured[])
+	{
+		int first = Math.min(Math.max(bucket(burned), 0), fullWeight.length - 1);
+		int last = Math.min(bucket(burned + span), bucketStart.length - 2);
+		double cell[] = new double[2];
+		double area = fullWeight[first];
+		double length = 0;
+		for (int position = bucketStart[first]; first <= last && position < bucketStart[last + 1]; position++)
+		{
+			measureCell(cells[position], burned, cell);
+			area   += weights[position] * cell[0];
+			length += weights[position] * cell[1];
+		}
+
+		measured[0] = area * spacing * spacing;
+		measured[1] = length * spacing;
+	} // measure()
+
+
+
+	/**
+	 * getDistance()
+	 *
+	 * Purpose: Returns the distance from the given grid node to the initial
+	 * 		port. Nodes in the port are zero or negative, and nodes beyond
+	 * 		the wall are infinite.
+	 *
+	 * Parameters:
+	 * 		int column -- Column of the node, from 0 at -x.
+	 * 		int row -- Row of the node, from 0 at -y.
+	 *
+	 * Returns: double. The distance of the node.
+	**/
+
+	public double getDistance (int column, int row)
+	{
+		return distance[row * nodes + column];
+	} // getDistance()
+
+
+
+	/**
+	 * getNodeCount() / getSpacing()
+	 *
+	 * Purpose: Return the number of grid nodes per side, and the distance
+	 * 		between neighbouring nodes.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: The count or the distance.
+	**/
+
+	public int getNodeCount ()
+	{
+		return nodes;
+	} // getNodeCount()
+
+	public double getSpacing ()
+	{
+		return spacing;
+	} // getSpacing()
+
+
+
+	/**
+	 * sweep()
+	 *
+	 * Purpose: Finds the distance of every node outside the port that a path
+	 * 		of such nodes joins to a seeded node. Each node's seed is the
+	 * 		seeded node whose closest edge point is closest to it; rounds of
+	 * 		four sweeps improve the seeds until none changes.
+	 *
+	 * Parameters:
+	 * 		byte state[] -- State of each node, seeded nodes SEEDED.
+	 * 		double closestX[] -- X of the closest edge point of each seeded node.
+	 * 		double closestY[] -- Y of the closest edge point of each seeded node.
+	 *
+	 * Returns: void.
+	**/
+
+	private void sweep (byte state[], double closestX[], double closestY[])
+	{
+		int seed[] = new int[distance.length];
+		for (int node = 0; node < distance.length; node++)
+			seed[node] = state[node] == SEEDED ? node : NO_SEED;
+
+		int swept[][] = new int[4][distance.length];
+		boolean changed[] = new boolean[nodes];
+		boolean any;
+		do
+		{
+			ForkJoinTask.invokeAll(new SweepTask(state, closestX, closestY, seed, swept[0], 1, 1),
+								   new SweepTask(state, closestX, closestY, seed, swept[1], -1, 1),
+								   new SweepTask(state, closestX, closestY, seed, swept[2], 1, -1),
+								   new SweepTask(state, closestX, closestY, seed, swept[3], -1, -1));
+			ForkJoinPool.commonPool().invoke(new MergeTask(closestX, closestY, seed, swept, changed, 0, nodes));
+
+			any = false;
+			for (int row = 0; row < nodes; row++)
+				any |= changed[row];
+		} while (any);
+
+		ForkJoinPool.commonPool().invoke(new FinishTask(state, closestX, closestY, seed, 0, nodes));
+	} // sweep()
+
+
+
+	/**
+	 * measureCell()
+	 *
+	 * Purpose: Finds the share of a cell burned at the given web distance,
+	 * 		and the length of the burning edge across it in units of spacing.
+	 * 		The cell is split along its diagonal into two triangles, and the
+	 * 		distance is interpolated linearly in each.
+	 *
+	 * Parameters:
+	 * 		int cell -- Index of the cell, row by row.
+	 * 		double burned -- Web distance burned.
+	 * 		double measured[] -- Receives the share of the cell's area in
+	 * 			measured[0] and the edge length in measured[1].
+	 *
+	 * Returns: void.
+	**/
+
+	private void measureCell (int cell, double burned, double measured[])
+	{
+		int cellsAcross = nodes - 1;
+		int row = cell / cellsAcross;
+		int node = row * nodes + (cell - row * cellsAcross);
+		double d00 = distance[node];
+		double d10 = distance[node + 1];
+		double d01 = distance[node + nodes];
+		double d11 = distance[node + nodes + 1];
+
+		// Triangles (0,0) (1,0) (1,1) and (0,0) (1,1) (0,1), each half a cell
+		measured[0] = 0;
+		measured[1] = 0;
+		measureTriangle(d00, 0, 0, d10, 1, 0, d11, 1, 1, burned, measured);
+		measureTriangle(d00, 0, 0, d11, 1, 1, d01, 0, 1, burned, measured);
+	} // measureCell()
+
+
+
+	/**
+	 * measureTriangle()
+	 *
+	 * Purpose: Adds the area where the interpolated distance is at most the
+	 * 		web distance burned, as a share of a cell, and the length of the
+	 * 		edge where it is equal. The corners are sorted by distance, then
+	 * 		the burned part is a triangle at the nearest corner, or all but a
+	 * 		triangle at the farthest one.
+	 *
+	 * Parameters:
+	 * 		double da, ax, ay, db, bx, by, dc, cx, cy -- Distance and position
+	 * 			of each corner, in units of spacing.
+	 * 		double burned -- Web distance burned.
+	 * 		double measured[] -- Adds the share of the cell's area to
+	 * 			measured[0] and the edge length to measured[1].
+	 *
+	 * Returns: void.
+	**/
+
+	private static void measureTriangle (double da, double ax, double ay, double db, double bx, double by,
+										 double dc, double cx, double cy, double burned, double measured[])
+	{
+		// Sort the corners so da <= db <= dc
+		double t;
+		if (db < da)
+		{
+			t = da; da = db; db = t;
+			t = ax; ax = bx; bx = t;
+			t = ay; ay = by; by = t;
+		}
+		if (dc < db)
+		{
+			t = db; db = dc; dc = t;
+			t = bx; bx = cx; cx = t;
+			t = by; by = cy; cy = t;
+		}
+		if (db < da)
+		{
+			t = da; da = db; db = t;
+			t = ax; ax = bx; bx = t;
+			t = ay; ay = by; by = t;
+		}
+
+		if (burned <= da)
+			return;
+		if (burned >= dc)
+		{
+			measured[0] += 0.5;
+			return;
+		}
+
+		if (burned <= db)
+		{
+			// Burned triangle at the nearest corner
+			double toB = (burned - da) / (db - da);
+			double toC = (burned - da) / (dc - da);
+			double ex = (bx - ax) * toB - (cx - ax) * toC;
+			double ey = (by - ay) * toB - (cy - ay) * toC;
+			measured[0] += 0.5 * toB * toC;
+			measured[1] += Math.sqrt(ex * ex + ey * ey);
+			return;
+		}
+
+		// Unburned triangle at the farthest corner
+		double toB = (dc - burned) / (dc - db);
+		double toA = (dc - burned) / (dc - da);
+		double ex = (bx - cx) * toB - (ax - cx) * toA;
+		double ey = (by - cy) * toB - (ay - cy) * toA;
+		measured[0] += 0.5 * (1 - toB * toA);
+		measured[1] += Math.sqrt(ex * ex + ey * ey);
+	} // measureTriangle()
+
+
+
+	// Position of a node column or row
+	private double x (int column)
+	{
+		return -radius + column * spacing;
+	} // x()
+
+	private double y (int row)
+	{
+		return -radius + row * spacing;
+	} // y()
+
+
+
+	// Squared distance from a node to the closest edge point of a seed, infinite without one
+	private double reach (int column, int row, int seed, double closestX[], double closestY[])
+	{
+		if (seed == NO_SEED)
+			return Double.POSITIVE_INFINITY;
+
+		double offsetX = x(column) - closestX[seed];
+		double offsetY = y(row) - closestY[seed];
+		return offsetX * offsetX + offsetY * offsetY;
+	} // reach()
+
+
+
+	// Whether a node lies inside the outer wall
+	private boolean isInside (int node)
+	{
+		int row = node / nodes;
+		double x = x(node - row * nodes);
+		double y = y(row);
+		return x * x + y * y <= radius * radius;
+	} // isInside()
+
+
+
+	// Bucket of a distance, buckets one spacing wide
+	private int bucket (double value)
+	{
+		return (int) Math.floor(value / spacing) + BUCKET_OFFSET;
+	} // bucket()
+
+
+
+	// Value of a table at a web distance, between the nearest measurements
+	private double interpolate (double table[], double burned)
+	{
+		double position = burned / tableStep;
+		if (position <= 0)
+			return table[0];
+		if (position >= table.length - 1)
+			return table[table.length - 1];
+
+		int index = (int) position;
+		double fraction = position - index;
+		return table[index] + fraction * (table[index + 1] - table[index]);
+	} // interpolate()
+
+
+
+	// Largest distance at the corners of a cell
+	private double cellMaximum (int cell)
+	{
+		int cellsAcross = nodes - 1;
+		int row = cell / cellsAcross;
+		int node = row * nodes + (cell - row * cellsAcross);
+		return Math.max(Math.max(distance[node], distance[node + 1]), Math.max(distance[node + nodes], distance[node + nodes + 1]));
+	} // cellMaximum()
+
+
+
+	/**
+	 * RowTask
+	 *
+	 * Purpose: Runs one pass over a range of grid rows, splitting it in half
+	 * 		until it is no more than ROWS_PER_TASK rows.
+	**/
+
+	private abstract class RowTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		protected final int start;
+		protected final int end;
+
+		RowTask (int start, int end)
+		{
+			this.start = start;
+			this.end   = end;
+		} // RowTask Constructor
+
+		@Override
+		protected void compute ()
+		{
+			if (end - start > ROWS_PER_TASK)
+			{
+				int middle = (start + end) >>> 1;
+				invokeAll(split(start, middle), split(middle, end));
+				return;
+			}
+
+			for (int row = start; row < end; row++)
+				computeRow(row);
+		} // compute()
+
+		// A task for part of the range
+		protected abstract RowTask split (int start, int end);
+
+		// The pass for one row
+		protected abstract void computeRow (int row);
+	} // class RowTask
+
+
+
+	/**
+	 * ClassifyTask
+	 *
+	 * Purpose: Marks each node as in the port, beyond the wall, or not
+	 * 		reached yet. Nodes within a cell diagonal of the wall are kept,
+	 * 		since the cells on the wall use them.
+	**/
+
+	private class ClassifyTask extends RowTask
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final PortShape port;
+		private final byte state[];
+
+		ClassifyTask (PortShape port, byte state[], int start, int end)
+		{
+			super(start, end);
+			this.port  = port;
+			this.state = state;
+		} // ClassifyTask Constructor
+
+		@Override
+		protected RowTask split (int start, int end)
+		{
+			return new ClassifyTask(port, state, start, end);
+		} // split()
+
+		@Override
+		protected void computeRow (int row)
+		{
+			double limit = radius + 1.5 * spacing;
+			double y = y(row);
+			for (int column = 0; column < nodes; column++)
+			{
+				int node = row * nodes + column;
+				double x = x(column);
+				if (x * x + y * y > limit * limit)
+				{
+					state[node] = OUTSIDE;
+					distance[node] = Double.POSITIVE_INFINITY;
+				}
+				else if (port.contains(x, y))
+				{
+					state[node] = PORT;
+					distance[node] = -spacing;
+				}
+				else
+				{
+					state[node] = FAR;
+					distance[node] = Double.POSITIVE_INFINITY;
+				}
+			}
+		} // computeRow()
+	} // class ClassifyTask
+
+
+
+	/**
+	 * SeedTask
+	 *
+	 * Purpose: Gives the nodes next to the edge of the port their distance
+	 * 		from the port shape. Nodes outside become the seeds of the sweeps,
+	 * 		with their closest edge point. Nodes inside get their negative
+	 * 		depth, so the edge falls in the right place within the cells.
+	**/
+
+	private class SeedTask extends RowTask
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final PortShape port;
+		private final byte state[];
+		private final double closestX[];
+		private final double closestY[];
+
+		SeedTask (PortShape port, byte state[], double closestX[], double closestY[], int start, int end)
+		{
+			super(start, end);
+			this.port     = port;
+			this.state    = state;
+			this.closestX = closestX;
+			this.closestY = closestY;
+		} // SeedTask Constructor
+
+		@Override
+		protected RowTask split (int start, int end)
+		{
+			return new SeedTask(port, state, closestX, closestY, start, end);
+		} // split()
+
+		@Override
+		protected void computeRow (int row)
+		{
+			double closest[] = new double[2];
+			for (int column = 0; column < nodes; column++)
+			{
+				int node = row * nodes + column;
+				if (state[node] == OUTSIDE || isEdge(node, row, column) == false)
+					continue;
+
+				double edge = port.distance(x(column), y(row), closest);
+				if (state[node] == PORT)
+				{
+					distance[node] = -Math.min(edge, spacing);
+					continue;
+				}
+
+				distance[node] = edge;
+				closestX[node] = closest[0];
+				closestY[node] = closest[1];
+				state[node]    = SEEDED;
+			}
+		} // computeRow()
+
+		// Whether a node has a neighbour on the other side of the port's edge.
+		// Only the port is written before this pass, so reading neighbours is safe.
+		private boolean isEdge (int node, int row, int column)
+		{
+			boolean inPort = state[node] == PORT;
+			return (column > 0 && (state[node - 1] == PORT) != inPort)
+				|| (column < nodes - 1 && (state[node + 1] == PORT) != inPort)
+				|| (row > 0 && (state[node - nodes] == PORT) != inPort)
+				|| (row < nodes - 1 && (state[node + nodes] == PORT) != inPort);
+		} // isEdge()
+	} // class SeedTask
+
+
+
+	/**
+	 * WeighTask
+	 *
+	 * Purpose: Finds the share of each cell inside the outer wall, sampling
+	 * 		the cells the wall crosses, and the largest difference of
+	 * 		distance across the cells of each row.
+	**/
+
+	private class WeighTask extends RowTask
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final double cellWeight[];
+		private final double cellSpan[];
+
+		WeighTask (double cellWeight[], double cellSpan[], int start, int end)
+		{
+			super(start, end);
+			this.cellWeight = cellWeight;
+			this.cellSpan   = cellSpan;
+		} // WeighTask Constructor
+
+		@Override
+		protected RowTask split (int start, int end)
+		{
+			return new WeighTask(cellWeight, cellSpan, start, end);
+		} // split()
+
+		@Override
+		protected void computeRow (int row)
+		{
+			int cellsAcross = nodes - 1;
+			double largestSpan = 0;
+			for (int column = 0; column < cellsAcross; column++)
+			{
+				int cell = row * cellsAcross + column;
+				double weight = weigh(x(column), y(row));
+				cellWeight[cell] = weight;
+				if (weight == 0)
+					continue;
+
+				int node = row * nodes + column;
+				double low = Math.min(Math.min(distance[node], distance[node + 1]),
+									  Math.min(distance[node + nodes], distance[node + nodes + 1]));
+				largestSpan = Math.max(largestSpan, cellMaximum(cell) - low);
+			}
+			cellSpan[row] = largestSpan;
+		} // computeRow()
+
+		// Share of the cell with the given lowest corner inside the wall
+		private double weigh (double left, double bottom)
+		{
+			double right = left + spacing;
+			double top = bottom + spacing;
+			double nearX = Math.max(left, Math.min(0, right));
+			double nearY = Math.max(bottom, Math.min(0, top));
+			if (nearX * nearX + nearY * nearY >= radius * radius)
+				return 0;
+
+			double farX = Math.max(Math.abs(left), Math.abs(right));
+			double farY = Math.max(Math.abs(bottom), Math.abs(top));
+			if (farX * farX + farY * farY <= radius * radius)
+				return 1;
+
+			int inside = 0;
+			for (int i = 0; i < SUBSAMPLES; i++)
+			{
+				double sampleX = left + (i + 0.5) * spacing / SUBSAMPLES;
+				for (int j = 0; j < SUBSAMPLES; j++)
+				{
+					double sampleY = bottom + (j + 0.5) * spacing / SUBSAMPLES;
+					if (sampleX * sampleX + sampleY * sampleY <= radius * radius)
+						inside++;
+				}
+			}
+
+			return (double) inside / (SUBSAMPLES * SUBSAMPLES);
+		} // weigh()
+	} // class WeighTask
+
+
+
+	/**
+	 * TableTask
+	 *
+	 * Purpose: Measures the port area and perimeter at a range of the
+	 * 		tabulated web distances. Each row of this pass is one entry of
+	 * 		the tables, not a row of the grid.
+	**/
+
+	private class TableTask extends RowTask
+	{
+		private static final long serialVersionUID = 1L;
+
+		TableTask (int start, int end)
+		{
+			super(start, end);
+		} // TableTask Constructor
+
+		@Override
+		protected RowTask split (int start, int end)
+		{
+			return new TableTask(start, end);
+		} // split()
+
+		@Override
+		protected void computeRow (int row)
+		{
+			double measured[] = new double[2];
+			measure(row * tableStep, measured);
+			portTable[row] = measured[0];
+			edgeTable[row] = measured[1];
+		} // computeRow()
+	} // class TableTask
+
+
+
+	/**
+	 * SweepTask
+	 *
+	 * Purpose: Copies the seeds found so far, then sweeps the grid row by row
+	 * 		from one corner, giving each node outside the port the closest
+	 * 		seed among its own and those of the neighbours already swept: the
+	 * 		one behind it in its row, and three in the row behind. This pass
+	 * 		is ordered, so it is one task, run alongside the other corners.
+	**/
+
+	private class SweepTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final byte state[];
+		private final double closestX[];
+		private final double closestY[];
+		private final int seed[];
+		private final int swept[];
+		private final int stepX;
+		private final int stepY;
+
+		SweepTask (byte state[], double closestX[], double closestY[], int seed[], int swept[], int stepX, int stepY)
+		{
+			this.state    = state;
+			this.closestX = closestX;
+			this.closestY = closestY;
+			this.seed     = seed;
+			this.swept    = swept;
+			this.stepX    = stepX;
+			this.stepY    = stepY;
+		} // SweepTask Constructor
+
+		@Override
+		protected void compute ()
+		{
+			System.arraycopy(seed, 0, swept, 0, seed.length);
+
+			int first = stepY > 0 ? 0 : nodes - 1;
+			for (int i = 0; i < nodes; i++)
+			{
+				int row = first + i * stepY;
+				sweepRow(row, i > 0 ? row - stepY : -1);
+			}
+		} // compute()
+
+		// The sweep along one row, with the row swept before it or -1 for none
+		private void sweepRow (int row, int behind)
+		{
+			int column = stepX > 0 ? 0 : nodes - 1;
+			for (int j = 0; j < nodes; j++, column += stepX)
+			{
+				int node = row * nodes + column;
+				if (state[node] != FAR && state[node] != SEEDED)
+					continue;
+
+				int best = swept[node];
+				double bestReach = reach(column, row, best, closestX, closestY);
+				if (j > 0)
+				{
+					int offered = swept[node - stepX];
+					double offeredReach = reach(column, row, offered, closestX, closestY);
+					if (offeredReach < bestReach)
+					{
+						best = offered;
+						bestReach = offeredReach;
+					}
+				}
+				if (behind >= 0)
+				{
+					for (int dx = -1; dx <= 1; dx++)
+					{
+						if (column + dx < 0 || column + dx >= nodes)
+							continue;
+						int offered = swept[behind * nodes + column + dx];
+						double offeredReach = reach(column, row, offered, closestX, closestY);
+						if (offeredReach < bestReach)
+						{
+							best = offered;
+							bestReach = offeredReach;
+						}
+					}
+				}
+				swept[node] = best;
+			}
+		} // sweepRow()
+	} // class SweepTask
+
+
+
+	/**
+	 * MergeTask
+	 *
+	 * Purpose: Keeps the closest of the seeds the four sweeps found for each
+	 * 		node, and marks each row where any node's seed changed.
+	**/
+
+	private class MergeTask extends RowTask
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final double closestX[];
+		private final double closestY[];
+		private final int seed[];
+		private final int swept[][];
+		private final boolean changed[];
+
+		MergeTask (double closestX[], double closestY[], int seed[], int swept[][], boolean changed[], int start, int end)
+		{
+			super(start, end);
+			this.closestX = closestX;
+			this.closestY = closestY;
+			this.seed     = seed;
+			this.swept    = swept;
+			this.changed  = changed;
+		} // MergeTask Constructor
+
+		@Override
+		protected RowTask split (int start, int end)
+		{
+			return new MergeTask(closestX, closestY, seed, swept, changed, start, end);
+		} // split()
+
+		@Override
+		protected void computeRow (int row)
+		{
+			changed[row] = false;
+			for (int column = 0; column < nodes; column++)
+			{
+				int node = row * nodes + column;
+				int best = seed[node];
+				double bestReach = reach(column, row, best, closestX, closestY);
+				for (int sweep = 0; sweep < swept.length; sweep++)
+				{
+					double offeredReach = reach(column, row, swept[sweep][node], closestX, closestY);
+					if (offeredReach < bestReach)
+					{
+						best = swept[sweep][node];
+						bestReach = offeredReach;
+					}
+				}
+
+				if (best != seed[node])
+				{
+					seed[node] = best;
+					changed[row] = true;
+				}
+			}
+		} // computeRow()
+	} // class MergeTask
+
+
+
+	/**
+	 * FinishTask
+	 *
+	 * Purpose: Gives every node the sweeps reached the distance to its seed's
+	 * 		closest edge point. Seeded nodes keep the distance from the port
+	 * 		shape itself.
+	**/
+
+	private class FinishTask extends RowTask
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final byte state[];
+		private final double closestX[];
+		private final double closestY[];
+		private final int seed[];
+
+		FinishTask (byte state[], double closestX[], double closestY[], int seed[], int start, int end)
+		{
+			super(start, end);
+			this.state    = state;
+			this.closestX = closestX;
+			this.closestY = closestY;
+			this.seed     = seed;
+		} // FinishTask Constructor
+
+		@Override
+		protected RowTask split (int start, int end)
+		{
+			return new FinishTask(state, closestX, closestY, seed, start, end);
+		} // split()
+
+		@Override
+		protected void computeRow (int row)
+		{
+			for (int column = 0; column < nodes; column++)
+			{
+				int node = row * nodes + column;
+				if (seed[node] == NO_SEED || (state[node] != FAR && state[node] != SEEDED))
+					continue;
+
+				if (state[node] == FAR)
+					distance[node] = Math.sqrt(reach(column, row, seed[node], closestX, closestY));
+				state[node] = KNOWN;
+			}
+		} // computeRow()
+	} // class FinishTask
+
+} // class BurnbackField
@@ -107,6 +107,10 @@ public class CylindricalGrain extends Grain
 		innerDiameter = innerDiameter + 2 * burnRate * deltaTime;
 		innerDiameter = Math.min(innerDiameter, outerDiameter);
 		
+		// A step that ends on burnout can leave a rounding error sized sliver
+		if (outerDiameter - innerDiameter < 2 * WEB_TOLERANCE)
+			innerDiameter = outerDiameter;
+		
 		// Get new value for the volume after calculations are complete
 		double newVolume = getVolume();
 		
@@ -21,6 +21,11 @@ abstract public class Grain implements Cloneable
 	
 	
 	
+	// Constants
+	protected static final double WEB_TOLERANCE = 1e-9;   // inches of web treated as burned out
+	
+	
+	
 	// Fields
 	protected GrainType type;
 	protected int grainID;
@@ -500,6 +505,80 @@ abstract public class Grain implements Cloneable
 	
 	
 	
+	/**
+	 * getRemainingWeb()
+	 * 
+	 * Purpose: Returns how far the burning surface can still regress before
+	 * 		the grain burns out. Used to end a simulation step exactly at
+	 * 		burnout, instead of at the first step after it.
+	 * 
+	 * 		NOTE: The default is the radial web between the inner and outer
+	 * 			diameter. Grain types with another burnout condition must
+	 * 			override this.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double. The remaining web of the grain.
+	**/
+	
+	public double getRemainingWeb ()
+	{
+		return Math.max((outerDiameter - innerDiameter) / 2, 0);
+	} // getRemainingWeb()
+	
+	
+	
+	/**
+	 * getShapeParameters()
+	 * 
+	 * Purpose: Returns the parameters of the grain's shape beside its
+	 * 		length, diameters, and burning ends, such as the points of a
+	 * 		star. Used to tell grains of the same type apart, for example
+	 * 		in cache keys and when a grain is created again from its type.
+	 * 
+	 * 		NOTE: The default is no parameters. Grain types with more to
+	 * 			their shape must override this.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double[]. The parameters of the shape, in a fixed order.
+	**/
+	
+	public double[] getShapeParameters ()
+	{
+		return new double[0];
+	} // getShapeParameters()
+	
+	
+	
+	/**
+	 * copyStateFrom()
+	 * 
+	 * Purpose: Copies the current geometry and burn state of another grain
+	 * 		into this grain. Used to save and restore the state of a
+	 * 		simulation, so the other grain should be a clone of this one.
+	 * 
+	 * 		NOTE: Grain types with extra state must override this and copy
+	 * 			their own fields as well.
+	 * 
+	 * Parameters:
+	 * 		Grain other -- Grain to copy the state from.
+	 * 
+	 * Returns: void.
+	**/
+	
+	public void copyStateFrom (Grain other)
+	{
+		this.length         = other.length;
+		this.outerDiameter  = other.outerDiameter;
+		this.innerDiameter  = other.innerDiameter;
+		this.numBurningEnds = other.numBurningEnds;
+		this.burnoutTime    = other.burnoutTime;
+		this.isBurning      = other.isBurning;
+	} // copyStateFrom()
+	
+	
+	
 	/**
 	 * getLengthDifference()
 	 * 
@@ -3,27 +3,83 @@ package model.grains;
 /**
  * GrainFactory.java
  * 
- * Purpose: 
+ * Purpose: Creates grains of every type, and copies of grains.
 **/
 
 public class GrainFactory
 {
+	// Error messages
+	private static final String SHAPE_PARAMETERS_ERR_MSG = "ERROR: Wrong number of shape parameters for the grain type!\n";
+	
+	
+	
+	// Constants
+	private static final int STAR_POINTS = 5;   // Points of a star grain made without shape parameters
+	
+	
+	
 	/**
 	 * createGrain()
 	 * 
-	 * Purpose:
+	 * Purpose: Creates a new grain of the given type and dimensions. A star
+	 * 		grain gets STAR_POINTS points reaching halfway through the web,
+	 * 		each as wide at the base as the inner radius.
 	 * 
 	 * Parameters:
+	 * 		GrainType type -- Type of grain to create.
+	 * 		double length -- Length of the grain.
+	 * 		double outerDiameter -- Outer diameter of the grain.
+	 * 		double innerDiameter -- Inner (core) diameter of the grain.
+	 * 		int numBurningEnds -- Number of burning ends, 0, 1, or 2.
 	 * 
-	 * Returns: Grain. 
+	 * Returns: Grain. The new grain, or null for an unknown type.
 	**/
 	
 	public static Grain createGrain (GrainType type, double length, double outerDiameter, double innerDiameter, int numBurningEnds)
+	{
+		if (type == GrainType.Star)
+			return new StarGrain(length, outerDiameter, innerDiameter, numBurningEnds,
+								 STAR_POINTS, (outerDiameter - innerDiameter) / 4, innerDiameter / 2);
+		
+		return createGrain(type, length, outerDiameter, innerDiameter, numBurningEnds, new double[0]);
+	} // createGrain()
+	
+	
+	
+	/**
+	 * createGrain()
+	 * 
+	 * Purpose: Creates a new grain of the given type, dimensions, and shape
+	 * 		parameters, as returned by Grain.getShapeParameters().
+	 * 
+	 * Parameters:
+	 * 		GrainType type -- Type of grain to create.
+	 * 		double length -- Length of the grain.
+	 * 		double outerDiameter -- Outer diameter of the grain.
+	 * 		double innerDiameter -- Inner (core) diameter of the grain.
+	 * 		int numBurningEnds -- Number of burning ends, 0, 1, or 2.
+	 * 		double shapeParameters[] -- None for a cylindrical grain. The
+	 * 			number of points, point length, and point width for a star.
+	 * 
+	 * Returns: Grain. The new grain, or null for an unknown type.
+	**/
+	
+	public static Grain createGrain (GrainType type, double length, double outerDiameter, double innerDiameter, int numBurningEnds,
+									 double shapeParameters[])
 	{
 		if (type == GrainType.Cylindrical)
+		{
+			if (shapeParameters.length != 0)
+				throw new IllegalArgumentException(SHAPE_PARAMETERS_ERR_MSG);
 			return new CylindricalGrain(length, outerDiameter, innerDiameter, numBurningEnds);
+		}
 		if (type == GrainType.Star)
-			return null; // FIXME: Eventually return a star grain
+		{
+			if (shapeParameters.length != 3)
+				throw new IllegalArgumentException(SHAPE_PARAMETERS_ERR_MSG);
+			return new StarGrain(length, outerDiameter, innerDiameter, numBurningEnds,
+								 (int) shapeParameters[0], shapeParameters[1], shapeParameters[2]);
+		}
 		
 		return null;
 	} // createGrain()
@@ -0,0 +1,289 @@
+package model.grains;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * GrainStack.java
+ *
+ * Purpose: Holds the grains of a motor, in order from the head end to the
+ * 		nozzle, in an array so every grain can be reached in constant time
+ * 		no matter what kind of list the grains came from. A simulation
+ * 		touches every grain several times per step, so a linked list would
+ * 		make each step quadratic in the number of grains.
+ *
+ * 		The stack also keeps the sums over its grains that the simulation
+ * 		needs every step (burn area, volumes, burning grains, and the
+ * 		thinnest remaining web). They are found in one pass by regress()
+ * 		and refresh(), so reading them does not loop over the grains.
+ *
+ * 		NOTE: The stack can not see changes made to a grain directly. Call
+ * 			refresh() after changing a grain without regress().
+**/
+
+public class GrainStack extends AbstractList<Grain> implements RandomAccess
+{
+	// Error messages
+	private static final String EMPTY_ERR_MSG = "ERROR: A grain stack must have at least one grain!\n";
+	private static final String NULL_ERR_MSG  = "ERROR: A grain stack can not hold a null grain!\n";
+
+
+
+	// Fields
+	private final Grain grains[];
+
+
+
+	// Sums over the grains, as of the last regress() or refresh()
+	private double burnArea;
+	private double volume;
+	private double innerFlowVolume;
+	private double lengthDifference;
+	private double minimumWeb;
+	private int burningCount;
+
+
+
+	/**
+	 * GrainStack Constructor
+	 *
+	 * Purpose: Creates a stack of the given grains, in the same order.
+	 * 		The grains themselves are not copied.
+	 *
+	 * 		Requirements:
+	 * 		- There MUST be at least one grain.
+	 * 		- No grain may be null.
+	**/
+
+	public GrainStack (List<Grain> grainList)
+	{
+		if (grainList.isEmpty())
+			throw new IllegalArgumentException(EMPTY_ERR_MSG);
+
+		// toArray() walks a linked list once instead of indexing it
+		grains = grainList.toArray(new Grain[grainList.size()]);
+		for (int i = 0; i < grains.length; i++)
+			if (grains[i] == null)
+				throw new IllegalArgumentException(NULL_ERR_MSG);
+
+		refresh();
+	} // GrainStack Constructor
+
+
+
+	/**
+	 * get() / size()
+	 *
+	 * Purpose: Return the grain at the given position, and the number
+	 * 		of grains in the stack.
+	 *
+	 * Parameters:
+	 * 		int index -- Position of the grain, 0 at the head end.
+	 *
+	 * Returns: The grain, or the number of grains.
+	**/
+
+	@Override
+	public Grain get (int index)
+	{
+		return grains[index];
+	} // get()
+
+	@Override
+	public int size ()
+	{
+		return grains.length;
+	} // size()
+
+
+
+	/**
+	 * set()
+	 *
+	 * Purpose: Replaces the grain at the given position and updates the
+	 * 		sums. The size of the stack can not change.
+	 *
+	 * Parameters:
+	 * 		int index -- Position of the grain, 0 at the head end.
+	 * 		Grain grain -- The new grain.
+	 *
+	 * Returns: Grain. The grain that was replaced.
+	**/
+
+	@Override
+	public Grain set (int index, Grain grain)
+	{
+		if (grain == null)
+			throw new IllegalArgumentException(NULL_ERR_MSG);
+
+		Grain old = grains[index];
+		grains[index] = grain;
+		refresh();
+
+		return old;
+	} // set()
+
+
+
+	/**
+	 * regress()
+	 *
+	 * Purpose: Regresses every grain at the given burn rate for the given
+	 * 		time, and updates the sums in the same pass.
+	 *
+	 * Parameters:
+	 * 		double burnRate -- Burn rate affecting the grains.
+	 * 		double deltaTime -- Change in time.
+	 * 		double[] volumeChange -- Buffer with one entry per grain, filled
+	 * 			with the change in volume of each grain.
+	 *
+	 * Returns: double. The change in volume of the whole stack.
+	**/
+
+	public double regress (double burnRate, double deltaTime, double[] volumeChange)
+	{
+		clearSums();
+		double totalChange = 0;
+		for (int i = 0; i < grains.length; i++)
+		{
+			volumeChange[i] = grains[i].updateGeometry(burnRate, deltaTime);
+			totalChange += volumeChange[i];
+			addToSums(grains[i]);
+		}
+
+		return totalChange;
+	} // regress()
+
+
+
+	/**
+	 * refresh()
+	 *
+	 * Purpose: Finds the sums over the grains again. Needed after a grain
+	 * 		was changed without regress(), for example by copyStateFrom().
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	public void refresh ()
+	{
+		clearSums();
+		for (int i = 0; i < grains.length; i++)
+			addToSums(grains[i]);
+	} // refresh()
+
+
+
+	/**
+	 * getBurnArea() / getVolume() / getInnerFlowVolume() / getLengthDifference()
+	 *
+	 * Purpose: Return the total burn area, propellant volume, inner flow
+	 * 		volume, and length burned off the ends of all grains.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The sum over all grains.
+	**/
+
+	public double getBurnArea ()
+	{
+		return burnArea;
+	} // getBurnArea()
+
+	public double getVolume ()
+	{
+		return volume;
+	} // getVolume()
+
+	public double getInnerFlowVolume ()
+	{
+		return innerFlowVolume;
+	} // getInnerFlowVolume()
+
+	public double getLengthDifference ()
+	{
+		return lengthDifference;
+	} // getLengthDifference()
+
+
+
+	/**
+	 * getMinimumRemainingWeb()
+	 *
+	 * Purpose: Returns the least remaining web of the grains still burning,
+	 * 		which decides when the next grain burns out.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The least remaining web, or positive infinity if no
+	 * 		grain is burning.
+	**/
+
+	public double getMinimumRemainingWeb ()
+	{
+		return minimumWeb;
+	} // getMinimumRemainingWeb()
+
+
+
+	/**
+	 * getBurningCount() / isBurning()
+	 *
+	 * Purpose: Return the number of grains still burning, and whether any
+	 * 		grain is still burning.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: The number of burning grains, or true if any is burning.
+	**/
+
+	public int getBurningCount ()
+	{
+		return burningCount;
+	} // getBurningCount()
+
+	public boolean isBurning ()
+	{
+		return burningCount > 0;
+	} // isBurning()
+
+
+
+	/**
+	 * clearSums() / addToSums()
+	 *
+	 * Purpose: Reset the sums, and add one grain to them.
+	 *
+	 * Parameters:
+	 * 		Grain grain -- Grain to add.
+	 *
+	 * Returns: void.
+	**/
+
+	private void clearSums ()
+	{
+		burnArea         = 0;
+		volume           = 0;
+		innerFlowVolume  = 0;
+		lengthDifference = 0;
+		minimumWeb       = Double.POSITIVE_INFINITY;
+		burningCount     = 0;
+	} // clearSums()
+
+	private void addToSums (Grain grain)
+	{
+		burnArea         += grain.getBurnArea();
+		volume           += grain.getVolume();
+		innerFlowVolume  += grain.getCurrentInnerFlowVolume();
+		lengthDifference += grain.getLengthDifference();
+		if (grain.isBurning())
+		{
+			burningCount++;
+			minimumWeb = Math.min(minimumWeb, grain.getRemainingWeb());
+		}
+	} // addToSums()
+
+} // class GrainStack
@@ -0,0 +1,612 @@
+package model.grains;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import model.SharedCache;
+
+/**
+ * StarGrain.java
+ *
+ * Purpose: Represents a grain with a star shaped core. The core is a
+ * 		circle of the inner diameter with a number of evenly spaced points
+ * 		around it. Each point is a triangle whose base, of the point width,
+ * 		crosses the axis of the grain, and whose tip lies the point length
+ * 		beyond the circle. The first point lies along +x.
+ *
+ * 		Every point of the burning surface regresses at the burn rate, so
+ * 		after a web distance has burned the port is every point within that
+ * 		distance of the initial core. The distance is found once per star
+ * 		shape by a BurnbackField, which also tabulates the port area and
+ * 		burning perimeter against the web burned, so each step only
+ * 		interpolates. Fields are kept in a small shared cache, so clones and
+ * 		grains of the same shape share one.
+ *
+ * 		The inner diameter of a burning star grain is that of the circle at
+ * 		the center, grown by the web burned, as for a cylindrical grain.
+**/
+
+public class StarGrain extends Grain
+{
+	// Error messages
+	private static final String POINTS_ERR_MSG       = "ERROR: Star grain must have at least one point!\n";
+	private static final String POINT_LENGTH_ERR_MSG = "ERROR: Star point length must not be negative!\n";
+	private static final String POINT_WIDTH_ERR_MSG  = "ERROR: Star point width must be positive and less than the outer diameter!\n";
+	private static final String POINT_TIP_ERR_MSG    = "ERROR: Star points must end inside the outer diameter!\n";
+
+
+
+	// Constants
+	public static final int GRID_CELLS = 512;   // Grid cells across the outer diameter
+	private static final int CACHE_SIZE = 16;   // Fields kept for reuse
+
+
+
+	// Shared cache of fields, built outside its lock
+	private static final SharedCache<List<Double>, BurnbackField> cache =
+		new SharedCache<List<Double>, BurnbackField>(CACHE_SIZE);
+
+
+
+	// Fields
+	private final int numPoints;
+	private final double pointLength;
+	private final double pointWidth;
+	private double initialInnerDiameter;   // Diameter of the circle in the unburned core
+	private double burnedWeb;              // Web distance burned so far
+	private BurnbackField field;           // Found on first use
+
+	// Geometry of the last web distance measured
+	private double measuredWeb = Double.NaN;
+	private double portArea;
+	private double perimeter;
+
+
+
+	/**
+	 * StarGrain Constructor
+	 *
+	 * Purpose: Initializes and creates a StarGrain by invoking the Grain
+	 * 		super-constructor, then checks the points of the star.
+	 *
+	 * 		Requirements:
+	 * 		- There MUST be at least one point.
+	 * 		- Point length MUST NOT be negative.
+	 * 		- Point width MUST be positive and less than the outer diameter.
+	 * 		- The tips of the points MUST lie inside the outer diameter.
+	**/
+
+	public StarGrain (double length, double outerDiameter, double innerDiameter, int numBurningEnds,
+					  int numPoints, double pointLength, double pointWidth)
+	{
+		super(GrainType.Star, length, outerDiameter, innerDiameter, numBurningEnds);
+
+		if (numPoints < 1)
+			throw new IllegalArgumentException(POINTS_ERR_MSG);
+		if (pointLength < 0)
+			throw new IllegalArgumentException(POINT_LENGTH_ERR_MSG);
+		if (pointWidth <= 0 || pointWidth >= outerDiameter)
+			throw new IllegalArgumentException(POINT_WIDTH_ERR_MSG);
+		if (innerDiameter + 2 * pointLength >= outerDiameter)
+			throw new IllegalArgumentException(POINT_TIP_ERR_MSG);
+
+		this.numPoints            = numPoints;
+		this.pointLength          = pointLength;
+		this.pointWidth           = pointWidth;
+		this.initialInnerDiameter = innerDiameter;
+	} // StarGrain Constructor
+
+
+
+	/**
+	 * StarGrain Constructor (StarGrain)
+	 *
+	 * Purpose: Creates a copy of the given star grain in its current state,
+	 * 		sharing its field.
+	**/
+
+	private StarGrain (StarGrain other)
+	{
+		this(other.initialLength, other.outerDiameter, other.initialInnerDiameter, other.numBurningEnds,
+			 other.numPoints, other.pointLength, other.pointWidth);
+		this.field = other.field;
+		copyStateFrom(other);
+	} // StarGrain Constructor (StarGrain)
+
+
+
+	/**
+	 * getNumPoints() / getPointLength() / getPointWidth()
+	 *
+	 * Purpose: Return the number of points of the star, how far their tips
+	 * 		reach beyond the circle of the unburned core, and the width of
+	 * 		their bases.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: The number of points, or a length.
+	**/
+
+	public int getNumPoints ()
+	{
+		return numPoints;
+	} // getNumPoints()
+
+	public double getPointLength ()
+	{
+		return pointLength;
+	} // getPointLength()
+
+	public double getPointWidth ()
+	{
+		return pointWidth;
+	} // getPointWidth()
+
+
+
+	/**
+	 * getShapeParameters()
+	 *
+	 * Purpose: Returns the number of points, point length, and point width.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double[]. The parameters of the star.
+	**/
+
+	@Override
+	public double[] getShapeParameters ()
+	{
+		return new double[] {numPoints, pointLength, pointWidth};
+	} // getShapeParameters()
+
+
+
+	/**
+	 * setInnerDiameter() / setOuterDiameter()
+	 *
+	 * Purpose: Change the diameter of the circle in the unburned core, or
+	 * 		the outer diameter. Either makes a new star shape, so the grain
+	 * 		is set back to unburned.
+	 *
+	 * Parameters:
+	 * 		double newDiameter -- New diameter to set.
+	 *
+	 * Returns: void.
+	**/
+
+	@Override
+	public void setInnerDiameter (double newInnerDiameter)
+	{
+		super.setInnerDiameter(newInnerDiameter);
+		initialInnerDiameter = newInnerDiameter;
+		resetShape();
+	} // setInnerDiameter()
+
+	@Override
+	public void setOuterDiameter (double newOuterDiameter)
+	{
+		super.setOuterDiameter(newOuterDiameter);
+		innerDiameter = initialInnerDiameter;
+		resetShape();
+	} // setOuterDiameter()
+
+
+
+	/**
+	 * getVolume()
+	 *
+	 * Purpose: Uses the current values of the grain properties to calculate
+	 * 		and return the volume of the grain.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The volume of the grain.
+	**/
+
+	@Override
+	public double getVolume ()
+	{
+		return length * getPropellantArea();
+	} // getVolume()
+
+
+
+	/**
+	 * getBurnArea()
+	 *
+	 * Purpose: Uses the current values of the grain properties to calculate
+	 * 		and return the burnable surface area of the grain: the burning
+	 * 		perimeter of the core along the length, plus the burning ends.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The burnable surface area of the grain.
+	**/
+
+	@Override
+	public double getBurnArea ()
+	{
+		if (isBurnedOut())
+			return 0;
+
+		measure();
+		double surfaceArea = perimeter * length + numBurningEnds * getPropellantArea();
+		return Math.max(surfaceArea, 0);
+	} // getBurnArea()
+
+
+
+	/**
+	 * updateGeometry()
+	 *
+	 * Purpose: Regresses the core and ends of the grain by the distance
+	 * 		burned at the given burn rate in the given change in time.
+	 *
+	 * 		The overall change in volume is returned.
+	 *
+	 * Parameters:
+	 * 		double burnRate -- Burn rate affecting the grain.
+	 * 		double deltaTime -- Change in time.
+	 *
+	 * Returns: double. The change in volume after calculations.
+	**/
+
+	@Override
+	public double updateGeometry (double burnRate, double deltaTime)
+	{
+		double initialVolume = getVolume();
+
+		// Regress the ends, ensure the length never becomes negative
+		length = length - numBurningEnds * burnRate * deltaTime;
+		length = Math.max(length, 0);
+
+		// Regress the core, up to the whole web
+		double web = getField().getWeb();
+		burnedWeb = Math.min(burnedWeb + burnRate * deltaTime, web);
+
+		// A step that ends on burnout can leave a rounding error sized sliver
+		if (web - burnedWeb < WEB_TOLERANCE)
+			burnedWeb = web;
+		innerDiameter = Math.min(initialInnerDiameter + 2 * burnedWeb, outerDiameter);
+		if (burnedWeb == web)
+			innerDiameter = outerDiameter;
+
+		double newVolume = getVolume();
+
+		// Error check for negative volume change, volume should expand
+		if (newVolume > initialVolume)
+			throw new ArithmeticException(NEGATIVE_VOLUME_ERR_MSG);
+		if (isBurnedOut())
+			this.isBurning = false;
+
+		return (initialVolume - newVolume);
+	} // updateGeometry()
+
+
+
+	/**
+	 * getCurrentInnerFlowArea()
+	 *
+	 * Purpose: Returns the area of the port, the inner flow area of the
+	 * 		grain, in the grains standard unit.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The inner flow area of the grain.
+	**/
+
+	@Override
+	public double getCurrentInnerFlowArea ()
+	{
+		if (isBurnedOut())
+			return getField().getTotalArea();
+
+		measure();
+		return portArea;
+	} // getCurrentInnerFlowArea()
+
+
+
+	/**
+	 * getCurrentInnerFlowVolume()
+	 *
+	 * Purpose: Returns the volume of the port along the grain, in the grains
+	 * 		standard unit.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The inner flow volume of the grain.
+	**/
+
+	@Override
+	public double getCurrentInnerFlowVolume ()
+	{
+		return this.getCurrentInnerFlowArea() * this.length;
+	} // getCurrentInnerFlowVolume()
+
+
+
+	/**
+	 * getRemainingWeb()
+	 *
+	 * Purpose: Returns how far the core can still regress before the whole
+	 * 		cross-section has burned.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The remaining web of the grain.
+	**/
+
+	@Override
+	public double getRemainingWeb ()
+	{
+		return Math.max(getField().getWeb() - burnedWeb, 0);
+	} // getRemainingWeb()
+
+
+
+	/**
+	 * getBurnedWeb()
+	 *
+	 * Purpose: Returns the web distance the core has regressed so far.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The web burned.
+	**/
+
+	public double getBurnedWeb ()
+	{
+		return burnedWeb;
+	} // getBurnedWeb()
+
+
+
+	/**
+	 * copyStateFrom()
+	 *
+	 * Purpose: Copies the geometry and burn state of another grain, and the
+	 * 		web it has burned if it is a star grain.
+	 *
+	 * Parameters:
+	 * 		Grain other -- Grain to copy the state from.
+	 *
+	 * Returns: void.
+	**/
+
+	@Override
+	public void copyStateFrom (Grain other)
+	{
+		super.copyStateFrom(other);
+		if (other instanceof StarGrain)
+			this.burnedWeb = ((StarGrain) other).burnedWeb;
+	} // copyStateFrom()
+
+
+
+	/**
+	 * clone()
+	 *
+	 * Purpose: Creates and returns a copy of this StarGrain in its current
+	 * 		state. Unlike a new grain of the current dimensions, the copy
+	 * 		keeps the star shape burned so far.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: Grain. A new StarGrain object that represents a copy of this
+	 * 		StarGrain.
+	**/
+
+	public Grain clone ()
+	{
+		return new StarGrain(this);
+	} // clone()
+
+
+
+	/**
+	 * getField()
+	 *
+	 * Purpose: Returns the distance field of the star, from the shared
+	 * 		cache or found now. Safe to call from many threads: fields for
+	 * 		different shapes are found at the same time, and threads asking
+	 * 		for a field being found wait for it.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: BurnbackField. The field of the star shape.
+	**/
+
+	public BurnbackField getField ()
+	{
+		BurnbackField found = field;
+		if (found != null)
+			return found;
+
+		final StarPort port = new StarPort(initialInnerDiameter / 2, numPoints, pointLength, pointWidth);
+		final double diameter = outerDiameter;
+		List<Double> key = Arrays.asList(outerDiameter, initialInnerDiameter, (double) numPoints, pointLength, pointWidth);
+		found = cache.get(key, new Callable<BurnbackField>()
+		{
+			public BurnbackField call ()
+			{
+				return new BurnbackField(port, diameter, GRID_CELLS);
+			} // call()
+		});
+
+		field = found;
+		return found;
+	} // getField()
+
+
+
+	// Whether the whole cross-section has burned
+	private boolean isBurnedOut ()
+	{
+		return burnedWeb >= getField().getWeb();
+	} // isBurnedOut()
+
+
+
+	// Area of the cross-section still holding propellant
+	private double getPropellantArea ()
+	{
+		if (isBurnedOut())
+			return 0;
+
+		measure();
+		return Math.max(getField().getTotalArea() - portArea, 0);
+	} // getPropellantArea()
+
+
+
+	// Measures the port at the web burned, unless it was measured there last
+	private void measure ()
+	{
+		if (burnedWeb == measuredWeb)
+			return;
+
+		BurnbackField found = getField();
+		portArea    = found.getPortArea(burnedWeb);
+		perimeter   = found.getPerimeter(burnedWeb);
+		measuredWeb = burnedWeb;
+	} // measure()
+
+
+
+	// Drops the field and burned web after the shape changes
+	private void resetShape ()
+	{
+		field       = null;
+		burnedWeb   = 0;
+		measuredWeb = Double.NaN;
+	} // resetShape()
+
+
+
+	/**
+	 * StarPort
+	 *
+	 * Purpose: The unburned core of a star grain: a circle with triangular
+	 * 		points around it.
+	**/
+
+	private static class StarPort implements BurnbackField.PortShape
+	{
+		private final double radius;
+		private final double tipRadius;
+		private final double points[][];   // [point] { tip x, tip y, base 1 x, y, base 2 x, y }
+
+		StarPort (double radius, int numPoints, double pointLength, double pointWidth)
+		{
+			this.radius    = radius;
+			this.tipRadius = radius + pointLength;
+			points = new double[numPoints][];
+			for (int i = 0; i < numPoints; i++)
+			{
+				double angle = 2 * Math.PI * i / numPoints;
+				double cos = Math.cos(angle);
+				double sin = Math.sin(angle);
+				double half = pointWidth / 2;
+				points[i] = new double[] {tipRadius * cos, tipRadius * sin, -half * sin, half * cos, half * sin, -half * cos};
+			}
+		} // StarPort Constructor
+
+		@Override
+		public boolean contains (double x, double y)
+		{
+			if (x * x + y * y <= radius * radius)
+				return true;
+
+			for (double point[] : points)
+				if (inTriangle(point, x, y))
+					return true;
+
+			return false;
+		} // contains()
+
+		@Override
+		public double distance (double x, double y, double closest[])
+		{
+			double fromAxis = Math.hypot(x, y);
+			double segment[] = new double[2];
+
+			if (contains(x, y))
+			{
+				// Deepest inside any one part of the port
+				double depth = radius - fromAxis;
+				for (double point[] : points)
+					if (inTriangle(point, x, y))
+						depth = Math.max(depth, triangleDistance(point, x, y, segment));
+				return depth;
+			}
+
+			// Outside every part, the closest part holds the closest edge point
+			double best = fromAxis - radius;
+			closest[0] = x * radius / fromAxis;
+			closest[1] = y * radius / fromAxis;
+			for (double point[] : points)
+			{
+				double toPoint = triangleDistance(point, x, y, segment);
+				if (toPoint < best)
+				{
+					best = toPoint;
+					closest[0] = segment[0];
+					closest[1] = segment[1];
+				}
+			}
+
+			return best;
+		} // distance()
+
+		// Whether a point lies in a triangle, on the inner side of all three edges
+		private static boolean inTriangle (double point[], double x, double y)
+		{
+			boolean first  = cross(point[0], point[1], point[2], point[3], x, y) >= 0;
+			boolean second = cross(point[2], point[3], point[4], point[5], x, y) >= 0;
+			boolean third  = cross(point[4], point[5], point[0], point[1], x, y) >= 0;
+			return first == second && second == third;
+		} // inTriangle()
+
+		private static double cross (double ax, double ay, double bx, double by, double x, double y)
+		{
+			return (bx - ax) * (y - ay) - (by - ay) * (x - ax);
+		} // cross()
+
+		// Distance to the nearest edge of a triangle, with the closest point
+		private static double triangleDistance (double point[], double x, double y, double closest[])
+		{
+			double best = Double.POSITIVE_INFINITY;
+			double bestX = 0;
+			double bestY = 0;
+			for (int edge = 0; edge < 3; edge++)
+			{
+				double ax = point[2 * edge];
+				double ay = point[2 * edge + 1];
+				double bx = point[(2 * edge + 2) % 6];
+				double by = point[(2 * edge + 3) % 6];
+
+				double dx = bx - ax;
+				double dy = by - ay;
+				double along = ((x - ax) * dx + (y - ay) * dy) / (dx * dx + dy * dy);
+				along = Math.max(0, Math.min(1, along));
+				double nearX = ax + along * dx;
+				double nearY = ay + along * dy;
+				double toEdge = Math.hypot(x - nearX, y - nearY);
+				if (toEdge < best)
+				{
+					best  = toEdge;
+					bestX = nearX;
+					bestY = nearY;
+				}
+			}
+
+			closest[0] = bestX;
+			closest[1] = bestY;
+			return best;
+		} // triangleDistance()
+	} // class StarPort
+
+} // class StarGrain
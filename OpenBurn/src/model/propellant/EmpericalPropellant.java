@@ -8,11 +8,11 @@ package model.propellant;
 public class EmpericalPropellant extends Propellant {
 	
 	private double Kn;
-	private double p_slope;
-	private double p_intercept;
-	private double br_slope;
-	private double br_intercept;
-	private double density;
+	private final double p_slope;
+	private final double p_intercept;
+	private final double br_slope;
+	private final double br_intercept;
+	private final double density;
 	
 	public EmpericalPropellant(double p_slope, double p_intercept, double br_slope, double br_intercept, double density)
 	{
@@ -56,9 +56,58 @@ public class EmpericalPropellant extends Propellant {
 	public double getBurnRate() {
 		return (br_slope*Kn) + br_intercept;
 	}
+	
+	/**
+	 * getChamberPressure(double kn)
+	 * 
+	 * Purpose: calculates and returns the case pressure for the given Kn,
+	 * 		without storing it.
+	 * 
+	 * Returns: double. The chamber pressure for the Kn.
+	**/
+	public double getChamberPressure(double kn) {
+		return (p_slope*kn) + p_intercept;
+	}
+	
+	/**
+	 * getBurnRate(double kn, double pressure)
+	 * 
+	 * Purpose: calculates and returns the burn rate for the given Kn, without
+	 * 		storing it. The emperical fit depends on Kn, not on pressure.
+	 * 
+	 * Returns: double. The burn rate for the Kn.
+	**/
+	public double getBurnRate(double kn, double pressure) {
+		return (br_slope*kn) + br_intercept;
+	}
 
 	public double getPropellantDensity() {
 		return this.density;
 	}
+	
+	/**
+	 * createVariant()
+	 * 
+	 * Purpose: Creates a copy with the burn rate fit and density scaled.
+	 * 		The emperical fit has no pressure exponent, so exponentOffset
+	 * 		is ignored.
+	 * 
+	 * Returns: Propellant. A new EmpericalPropellant.
+	**/
+	public Propellant createVariant(double burnRateFactor, double exponentOffset, double densityFactor) {
+		return new EmpericalPropellant(p_slope, p_intercept, br_slope * burnRateFactor,
+									   br_intercept * burnRateFactor, density * densityFactor);
+	}
+	
+	/**
+	 * getModelParameters()
+	 * 
+	 * Purpose: Returns the pressure fit, burn rate fit, and density.
+	 * 
+	 * Returns: double[]. p_slope, p_intercept, br_slope, br_intercept, density.
+	**/
+	public double[] getModelParameters() {
+		return new double[] {p_slope, p_intercept, br_slope, br_intercept, density};
+	}
 
 }
@@ -0,0 +1,73 @@
+package model.propellant;
+
+/**
+ * OperatingPoint.java
+ *
+ * Purpose: Holds the chamber pressure and burn rate a propellant produces at
+ * 		one Kn, as returned by Propellant.evaluate(). It can not be changed
+ * 		once created, so it can be shared between threads.
+**/
+
+public final class OperatingPoint
+{
+	private final double kn;
+	private final double chamberPressure;
+	private final double burnRate;
+
+
+
+	/**
+	 * OperatingPoint Constructor
+	 *
+	 * Purpose: Creates an operating point from the given values.
+	**/
+	public OperatingPoint(double kn, double chamberPressure, double burnRate)
+	{
+		this.kn = kn;
+		this.chamberPressure = chamberPressure;
+		this.burnRate = burnRate;
+	}//OperatingPoint Constructor
+
+	/**
+	 * getKn()
+	 *
+	 * Purpose: Returns the Kn of the operating point.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The Kn.
+	**/
+	public double getKn()
+	{
+		return kn;
+	}//getKn()
+
+	/**
+	 * getChamberPressure()
+	 *
+	 * Purpose: Returns the chamber pressure at the Kn.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The chamber pressure.
+	**/
+	public double getChamberPressure()
+	{
+		return chamberPressure;
+	}//getChamberPressure()
+
+	/**
+	 * getBurnRate()
+	 *
+	 * Purpose: Returns the burn rate at the Kn.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: double. The burn rate.
+	**/
+	public double getBurnRate()
+	{
+		return burnRate;
+	}//getBurnRate()
+
+}//OperatingPoint
@@ -1,8 +1,81 @@
 package model.propellant;
 
 public abstract class Propellant {
+	// NOTE: setKn() stores the Kn in the propellant, so the three methods below
+	// 		can not be used by simulations running at the same time. Use
+	// 		getChamberPressure(kn) and getBurnRate(kn, pressure), or evaluate(kn).
 	abstract public void setKn(double Kn);
 	abstract public double getChamberPressure();
 	abstract public double getBurnRate();
 	abstract public double getPropellantDensity();
+	
+	/**
+	 * getChamberPressure(double kn)
+	 * 
+	 * Purpose: Calculates the chamber pressure for the given Kn without
+	 * 		changing the propellant, so it is safe to call from many threads.
+	 * 
+	 * Parameters: double -- the kn at one instant of time.
+	 * 
+	 * Returns: double. The chamber pressure for the Kn.
+	**/
+	abstract public double getChamberPressure(double kn);
+	
+	/**
+	 * getBurnRate(double kn, double pressure)
+	 * 
+	 * Purpose: Calculates the burn rate for the given Kn and the chamber
+	 * 		pressure returned by getChamberPressure(kn). Models use whichever
+	 * 		of the two they depend on, so the pressure is not calculated twice.
+	 * 		Does not change the propellant.
+	 * 
+	 * Parameters: double -- the kn at one instant of time.
+	 * 			   double -- the chamber pressure at the same instant.
+	 * 
+	 * Returns: double. The burn rate for the Kn.
+	**/
+	abstract public double getBurnRate(double kn, double pressure);
+	
+	/**
+	 * evaluate(double kn)
+	 * 
+	 * Purpose: Calculates the chamber pressure and burn rate for the given
+	 * 		Kn together, without changing the propellant.
+	 * 
+	 * Parameters: double -- the kn at one instant of time.
+	 * 
+	 * Returns: OperatingPoint. The Kn, pressure, and burn rate.
+	**/
+	public OperatingPoint evaluate(double kn) {
+		double pressure = getChamberPressure(kn);
+		return new OperatingPoint(kn, pressure, getBurnRate(kn, pressure));
+	}
+	
+	/**
+	 * createVariant()
+	 * 
+	 * Purpose: Returns a new propellant like this one with its burn rate
+	 * 		scaled, its burn rate pressure exponent shifted, and its density
+	 * 		scaled. Used to model batch to batch propellant variation.
+	 * 		Models without a pressure exponent ignore exponentOffset.
+	 * 
+	 * Parameters: double -- factor to scale the burn rate by.
+	 * 			   double -- amount to add to the burn rate pressure exponent.
+	 * 			   double -- factor to scale the density by.
+	 * 
+	 * Returns: Propellant. The new propellant.
+	**/
+	abstract public Propellant createVariant(double burnRateFactor, double exponentOffset, double densityFactor);
+	
+	/**
+	 * getModelParameters()
+	 * 
+	 * Purpose: Returns every coefficient that defines the propellant, in a
+	 * 		fixed order for each class. Two propellants of the same class with
+	 * 		the same parameters always give the same pressure and burn rate,
+	 * 		so the parameters can be used to recognize a propellant again.
+	 * 
+	 * Returns: double[]. A new array with the coefficients of the model.
+	**/
+	abstract public double[] getModelParameters();
 }
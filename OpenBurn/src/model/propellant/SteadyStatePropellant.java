@@ -10,10 +10,10 @@ package model.propellant;
 
 public class SteadyStatePropellant extends Propellant
 {
-	private double burnRateCoefficient; // a
-	private double burnRateExponent; // n
-	private double density; // rho
-	private double Cstar;
+	private final double burnRateCoefficient; // a
+	private final double burnRateExponent; // n
+	private final double density; // rho
+	private final double Cstar;
 	private double pressure;
 	
 	
@@ -62,6 +62,40 @@ public class SteadyStatePropellant extends Propellant
 	}//burnRateFromPressure()
 
 	
+	/**
+	 * getChamberPressure(double kn)
+	 * 
+	 * Purpose: calculates and returns the case pressure for the given Kn,
+	 * 		without storing it.
+	 * 
+	 * Parameters: double -- the kn at one instant of time.
+	 * 
+	 * Returns: double. The chamber pressure for the Kn.
+	**/
+	public double getChamberPressure(double kn)
+	{
+		//p = (Kn * a * rho * C* )^(1/(1-n))
+		double exponent = 1.0 / (1.0 - burnRateExponent);
+		return Math.pow(kn * burnRateCoefficient * density * Cstar, exponent);
+	}//getChamberPressure()
+	
+	/**
+	 * getBurnRate(double kn, double pressure)
+	 * 
+	 * Purpose: calculates and returns the burn rate for the given pressure,
+	 * 		without storing it.
+	 * 
+	 * Parameters: double -- the kn at one instant of time.
+	 * 			   double -- the pressure at the same instant.
+	 * 
+	 * Returns: double. The burn rate for the pressure.
+	**/
+	public double getBurnRate(double kn, double pressure)
+	{
+		// r = a * p^n
+		return burnRateCoefficient * Math.pow(pressure, burnRateExponent);
+	}//getBurnRate()
+	
 	/**
 	 * getPropellantDensity()
 	 * 
@@ -89,9 +123,39 @@ public class SteadyStatePropellant extends Propellant
 	 */
 	public void setKn(double Kn) 
 	{
-	    double exponent = 1.0 / (1.0 - burnRateExponent);
-	    double p1 = Kn * burnRateCoefficient * density * Cstar;
-	    pressure =  Math.pow(p1, exponent);
+	    pressure = getChamberPressure(Kn);
 	}
 	
+	/**
+	 * createVariant()
+	 * 
+	 * Purpose: Creates a copy with the burn rate coefficient and density
+	 * 		scaled and the burn rate exponent shifted.
+	 * 
+	 * Parameters: double -- factor to scale the burn rate coefficient by.
+	 * 			   double -- amount to add to the burn rate exponent.
+	 * 			   double -- factor to scale the density by.
+	 * 
+	 * Returns: Propellant. A new SteadyStatePropellant.
+	**/
+	public Propellant createVariant(double burnRateFactor, double exponentOffset, double densityFactor)
+	{
+		return new SteadyStatePropellant(burnRateCoefficient * burnRateFactor, burnRateExponent + exponentOffset,
+										 density * densityFactor, Cstar);
+	}//createVariant()
+	
+	/**
+	 * getModelParameters()
+	 * 
+	 * Purpose: Returns the burn rate law, density, and characteristic velocity.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: double[]. a, n, rho, and C*.
+	**/
+	public double[] getModelParameters()
+	{
+		return new double[] {burnRateCoefficient, burnRateExponent, density, Cstar};
+	}//getModelParameters()
+	
 }//Propellant
@@ -0,0 +1,153 @@
+package view;
+
+import java.nio.ByteOrder;
+
+import model.calculations.SimulationResultStore;
+
+/**
+ * BinaryResultsFormat.java
+ *
+ * Purpose: Describes the OpenBurn binary results format (.obr), a compact
+ * 		columnar alternative to CSV, shared by BinaryResultsWriter and
+ * 		BinaryResultsReader.
+ *
+ * 		All numbers are little endian. A file is a header, then blocks:
+ * 			Header -- Magic number, version, channel count, rows per block,
+ * 				then for every channel its name, its unit, its type (double
+ * 				or float), and its compression (none or deflate). Strings are
+ * 				an int length followed by UTF-8 bytes. The header is padded
+ * 				to a multiple of 8 bytes.
+ * 			Block -- Number of rows, then for every channel the number of
+ * 				bytes of its column followed by the column itself, padded to
+ * 				a multiple of 8 bytes so mapped double columns are aligned.
+ *
+ * 		Blocks are written as a simulation runs, so a file can be streamed
+ * 		and a file cut short still holds every complete block.
+ *
+ * 		Channels follow the column order of SimulationResultStore, with the
+ * 		per-grain columns split into one channel per grain.
+**/
+
+public final class BinaryResultsFormat
+{
+	// Format constants
+	public static final String EXTENSION    = ".obr";
+	public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+	static final int MAGIC                  = 0x4F425243;   // "OBRC"
+	static final int VERSION                = 1;
+	static final int ALIGNMENT              = 8;
+
+
+
+	// Channel types
+	public static final byte TYPE_DOUBLE = 0;
+	public static final byte TYPE_FLOAT  = 1;
+
+
+
+	// Channel compressions
+	public static final byte COMPRESSION_NONE    = 0;
+	public static final byte COMPRESSION_DEFLATE = 1;
+
+
+
+	// Names and units of the scalar columns, in store column order
+	private static final String SCALAR_NAMES[] = { "Time", "Pressure", "Thrust", "KN", "Burn Area", "Burn Rate",
+												   "Mass Generated Overall", "L Star", "Mass of the System",
+												   "Center of Gravity", "CG" };
+	private static final String SCALAR_UNITS[] = { "s", "psi", "lbf", "", "in^2", "in/s",
+												   "lbm", "in", "lbm",
+												   "in", "in" };
+
+
+
+	// Names and units of the per-grain columns, followed by the grain index
+	private static final String GRAIN_NAMES[] = { "Mass Generated by grain ", "Port to Throat by port ",
+												  "Mass Flow per grain " };
+	private static final String GRAIN_UNITS[] = { "lbm", "", "lbm/in^2" };
+
+
+
+	// Not meant to be created
+	private BinaryResultsFormat ()
+	{
+	} // BinaryResultsFormat Constructor
+
+
+
+	/**
+	 * getChannelNames() / getChannelUnits()
+	 *
+	 * Purpose: Return the name or unit of every channel of a motor with the
+	 * 		given number of grains, in the order they are written.
+	 *
+	 * Parameters:
+	 * 		int grainCount -- Number of grains in the motor.
+	 *
+	 * Returns: String[]. One name or unit per channel.
+	**/
+
+	public static String[] getChannelNames (int grainCount)
+	{
+		return buildChannels(grainCount, SCALAR_NAMES, GRAIN_NAMES, true);
+	} // getChannelNames()
+
+	public static String[] getChannelUnits (int grainCount)
+	{
+		return buildChannels(grainCount, SCALAR_UNITS, GRAIN_UNITS, false);
+	} // getChannelUnits()
+
+
+
+	/**
+	 * getChannelCount()
+	 *
+	 * Purpose: Returns the number of channels of a motor with the given
+	 * 		number of grains.
+	 *
+	 * Parameters:
+	 * 		int grainCount -- Number of grains in the motor.
+	 *
+	 * Returns: int. The number of channels.
+	**/
+
+	public static int getChannelCount (int grainCount)
+	{
+		int channels = 0;
+		for (int i = 0; i < SimulationResultStore.COLUMN_COUNT; i++)
+			channels += SimulationResultStore.getColumnWidth(i, grainCount);
+
+		return channels;
+	} // getChannelCount()
+
+
+
+	// Expands the scalar and per-grain labels into one label per channel
+	private static String[] buildChannels (int grainCount, String scalars[], String grains[], boolean numbered)
+	{
+		String channels[] = new String[getChannelCount(grainCount)];
+		int channel = 0;
+		for (int i = 0; i < SimulationResultStore.COLUMN_COUNT; i++)
+		{
+			int width = SimulationResultStore.getColumnWidth(i, grainCount);
+			for (int j = 0; j < width; j++)
+			{
+				if (i < scalars.length)
+					channels[channel++] = scalars[i];
+				else
+					channels[channel++] = grains[i - scalars.length] + (numbered ? String.valueOf(j) : "");
+			}
+		}
+
+		return channels;
+	} // buildChannels()
+
+
+
+	// Rounds a byte count up to the alignment
+	static int align (int bytes)
+	{
+		return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+	} // align()
+
+} // class BinaryResultsFormat
@@ -0,0 +1,503 @@
+package view;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import model.calculations.SimulationResultStore;
+
+/**
+ * BinaryResultsReader.java
+ *
+ * Purpose: Reads files in the OpenBurn binary results format described by
+ * 		BinaryResultsFormat.
+ *
+ * 		The whole file is memory mapped when it is opened, and only the
+ * 		header and the lengths of the blocks are read. Channels stored as
+ * 		doubles without compression are returned as views of the mapped
+ * 		file, without copying. Other channels are decoded when asked for.
+ *
+ * 		A file cut short while it was written is read up to its last
+ * 		complete block.
+**/
+
+public class BinaryResultsReader implements Closeable
+{
+	// Error messages
+	private static final String FORMAT_ERR_MSG  = "ERROR: File is not in the OpenBurn binary results format!\n";
+	private static final String SIZE_ERR_MSG    = "ERROR: File is too large to map!\n";
+	private static final String CHANNEL_ERR_MSG = "ERROR: Channels do not match a simulation of any grain count!\n";
+	private static final String DATA_ERR_MSG    = "ERROR: Compressed column is damaged!\n";
+
+
+
+	// Constants
+	private static final int FIXED_CHANNELS = 13;   // Scalar columns and the nozzle flow areas
+	private static final int GRAIN_CHANNELS = 3;    // Per-grain channels for each grain
+
+
+
+	// Fields
+	private final FileChannel channel;
+	private final MappedByteBuffer file;
+	private final int blockRows;
+	private final String names[];
+	private final String units[];
+	private final byte types[];
+	private final byte compressions[];
+	private final List<int[]> blocks = new ArrayList<int[]>();   // Per block: rows, then offset of each channel
+	private long rowCount;
+
+
+
+	/**
+	 * BinaryResultsReader Constructor
+	 *
+	 * Purpose: Opens and maps the given file and reads its header and the
+	 * 		positions of its blocks.
+	 *
+	 * Throws: IOException if the file can not be read, is too large to map,
+	 * 		or is not in the format.
+	**/
+
+	public BinaryResultsReader (File path) throws IOException
+	{
+		channel = FileChannel.open(path.toPath(), StandardOpenOption.READ);
+		try
+		{
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException(SIZE_ERR_MSG);
+
+			file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			file.order(BinaryResultsFormat.BYTE_ORDER);
+
+			if (file.remaining() < 4 * Integer.BYTES || file.getInt() != BinaryResultsFormat.MAGIC
+					|| file.getInt() != BinaryResultsFormat.VERSION)
+				throw new IOException(FORMAT_ERR_MSG);
+
+			int channels = file.getInt();
+			blockRows = file.getInt();
+			if (channels < 1 || blockRows < 1)
+				throw new IOException(FORMAT_ERR_MSG);
+
+			names        = new String[channels];
+			units        = new String[channels];
+			types        = new byte[channels];
+			compressions = new byte[channels];
+			for (int i = 0; i < channels; i++)
+			{
+				names[i]        = readString();
+				units[i]        = readString();
+				types[i]        = file.get();
+				compressions[i] = file.get();
+			}
+
+			file.position(BinaryResultsFormat.align(file.position()));
+			readBlocks();
+		}
+		catch (RuntimeException e)
+		{
+			// A header cut short runs past the end of the buffer
+			channel.close();
+			throw new IOException(FORMAT_ERR_MSG, e);
+		}
+		catch (IOException e)
+		{
+			channel.close();
+			throw e;
+		}
+	} // BinaryResultsReader Constructor
+
+
+
+	/**
+	 * getRowCount() / getBlockCount() / getBlockRowCount()
+	 *
+	 * Purpose: Return the number of rows in the file, the number of blocks,
+	 * 		and the number of rows in one block.
+	 *
+	 * Parameters:
+	 * 		int block -- Index of the block.
+	 *
+	 * Returns: The number of rows or blocks.
+	**/
+
+	public long getRowCount ()
+	{
+		return rowCount;
+	} // getRowCount()
+
+	public int getBlockCount ()
+	{
+		return blocks.size();
+	} // getBlockCount()
+
+	public int getBlockRowCount (int block)
+	{
+		return blocks.get(block)[0];
+	} // getBlockRowCount()
+
+
+
+	/**
+	 * getChannelCount() / getChannelName() / getChannelUnit()
+	 *
+	 * Purpose: Return the number of channels, and the name and unit of one.
+	 *
+	 * Parameters:
+	 * 		int index -- Index of the channel.
+	 *
+	 * Returns: The number of channels, or the name or unit.
+	**/
+
+	public int getChannelCount ()
+	{
+		return names.length;
+	} // getChannelCount()
+
+	public String getChannelName (int index)
+	{
+		return names[index];
+	} // getChannelName()
+
+	public String getChannelUnit (int index)
+	{
+		return units[index];
+	} // getChannelUnit()
+
+
+
+	/**
+	 * findChannel()
+	 *
+	 * Purpose: Finds a channel by name.
+	 *
+	 * Parameters:
+	 * 		String name -- Name of the channel.
+	 *
+	 * Returns: int. Index of the channel, or -1 if there is none.
+	**/
+
+	public int findChannel (String name)
+	{
+		for (int i = 0; i < names.length; i++)
+			if (names[i].equals(name))
+				return i;
+
+		return -1;
+	} // findChannel()
+
+
+
+	/**
+	 * isZeroCopy()
+	 *
+	 * Purpose: Checks if a channel is stored as doubles without compression,
+	 * 		so getBlockColumn() returns views of the mapped file for it.
+	 *
+	 * Parameters:
+	 * 		int index -- Index of the channel.
+	 *
+	 * Returns: boolean. True if the channel is read without copying.
+	**/
+
+	public boolean isZeroCopy (int index)
+	{
+		return types[index] == BinaryResultsFormat.TYPE_DOUBLE
+				&& compressions[index] == BinaryResultsFormat.COMPRESSION_NONE;
+	} // isZeroCopy()
+
+
+
+	/**
+	 * getBlockColumn()
+	 *
+	 * Purpose: Returns the values of one channel in one block. For channels
+	 * 		read without copying this is a read-only view of the mapped file,
+	 * 		otherwise the values are decoded into a new buffer.
+	 *
+	 * Parameters:
+	 * 		int block -- Index of the block.
+	 * 		int index -- Index of the channel.
+	 *
+	 * Returns: DoubleBuffer. One value per row of the block.
+	 *
+	 * Throws: IllegalStateException if a compressed column is damaged.
+	**/
+
+	public DoubleBuffer getBlockColumn (int block, int index)
+	{
+		int rows = getBlockRowCount(block);
+		ByteBuffer column = slice(block, index);
+		if (isZeroCopy(index))
+			return column.asDoubleBuffer();
+
+		double values[] = new double[rows];
+		decode(column, index, values, 0, rows);
+		return DoubleBuffer.wrap(values);
+	} // getBlockColumn()
+
+
+
+	/**
+	 * readColumn()
+	 *
+	 * Purpose: Copies every value of one channel into a new array.
+	 *
+	 * Parameters:
+	 * 		int index -- Index of the channel.
+	 *
+	 * Returns: double[]. One value per row of the file.
+	**/
+
+	public double[] readColumn (int index)
+	{
+		double values[] = new double[(int) rowCount];
+		readChannel(index, values, 0, 1);
+		return values;
+	} // readColumn()
+
+
+
+	/**
+	 * toStore()
+	 *
+	 * Purpose: Reads the whole file into a SimulationResultStore, so results
+	 * 		saved by OpenBurn can be shown in a GraphView or exported again.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: SimulationResultStore. A store holding every row of the file.
+	 *
+	 * Throws: IllegalStateException if the channels are not the ones written
+	 * 		for a simulation.
+	**/
+
+	public SimulationResultStore toStore ()
+	{
+		int grainCount = (names.length - FIXED_CHANNELS) / GRAIN_CHANNELS;
+		if (grainCount < 1 || Arrays.equals(names, BinaryResultsFormat.getChannelNames(grainCount)) == false)
+			throw new IllegalStateException(CHANNEL_ERR_MSG);
+
+		int rows = (int) rowCount;
+		double columns[][] = new double[SimulationResultStore.COLUMN_COUNT][];
+		int channel = 0;
+		for (int i = 0; i < columns.length; i++)
+		{
+			int width = SimulationResultStore.getColumnWidth(i, grainCount);
+			columns[i] = new double[Math.max(rows, 1) * width];
+			for (int j = 0; j < width; j++)
+				readChannel(channel++, columns[i], j, width);
+		}
+
+		return SimulationResultStore.fromColumns(grainCount, rows, columns);
+	} // toStore()
+
+
+
+	/**
+	 * close()
+	 *
+	 * Purpose: Closes the file. Views already returned stay readable until
+	 * 		they are no longer used.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	@Override
+	public void close () throws IOException
+	{
+		channel.close();
+	} // close()
+
+
+
+	/**
+	 * readChannel()
+	 *
+	 * Purpose: Copies every value of one channel into an array, one value
+	 * 		every stride entries, starting at the given offset.
+	 *
+	 * Parameters:
+	 * 		int index -- Index of the channel.
+	 * 		double[] target -- Array to copy into.
+	 * 		int offset -- Index of the first value in the array.
+	 * 		int stride -- Distance between values in the array.
+	 *
+	 * Returns: void.
+	**/
+
+	private void readChannel (int index, double target[], int offset, int stride)
+	{
+		double values[] = (stride == 1) ? target : new double[blockRows];
+		int row = 0;
+		for (int block = 0; block < blocks.size(); block++)
+		{
+			int rows = getBlockRowCount(block);
+			ByteBuffer column = slice(block, index);
+			if (stride == 1)
+				decode(column, index, target, offset + row, rows);
+			else
+			{
+				decode(column, index, values, 0, rows);
+				for (int i = 0; i < rows; i++)
+					target[(row + i) * stride + offset] = values[i];
+			}
+			row += rows;
+		}
+	} // readChannel()
+
+
+
+	/**
+	 * decode()
+	 *
+	 * Purpose: Decodes the values of one column into an array.
+	 *
+	 * Parameters:
+	 * 		ByteBuffer column -- The stored column.
+	 * 		int index -- Index of the channel, for its encoding.
+	 * 		double[] target -- Array to decode into.
+	 * 		int offset -- Index of the first value in the array.
+	 * 		int rows -- Number of values.
+	 *
+	 * Returns: void.
+	**/
+
+	private void decode (ByteBuffer column, int index, double target[], int offset, int rows)
+	{
+		boolean floats = types[index] == BinaryResultsFormat.TYPE_FLOAT;
+		if (compressions[index] == BinaryResultsFormat.COMPRESSION_DEFLATE)
+			column = inflate(column, rows * (floats ? Float.BYTES : Double.BYTES));
+
+		if (floats == false)
+		{
+			column.asDoubleBuffer().get(target, offset, rows);
+			return;
+		}
+
+		FloatBuffer values = column.asFloatBuffer();
+		for (int i = 0; i < rows; i++)
+			target[offset + i] = values.get(i);
+	} // decode()
+
+
+
+	// Decompresses a column into a new buffer of the given size
+	private static ByteBuffer inflate (ByteBuffer column, int size)
+	{
+		byte input[] = new byte[column.remaining()];
+		column.get(input);
+		byte output[] = new byte[size];
+
+		Inflater inflater = new Inflater();
+		try
+		{
+			inflater.setInput(input);
+			int read = 0;
+			while (read < size && inflater.finished() == false)
+			{
+				int count = inflater.inflate(output, read, size - read);
+				if (count == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+					break;
+				read += count;
+			}
+			if (read != size)
+				throw new IllegalStateException(DATA_ERR_MSG);
+		}
+		catch (DataFormatException e)
+		{
+			throw new IllegalStateException(DATA_ERR_MSG, e);
+		}
+		finally
+		{
+			inflater.end();
+		}
+
+		return ByteBuffer.wrap(output).order(BinaryResultsFormat.BYTE_ORDER);
+	} // inflate()
+
+
+
+	// Returns a view of the stored bytes of one column of one block
+	private ByteBuffer slice (int block, int index)
+	{
+		int position = blocks.get(block)[index + 1];
+		ByteBuffer column = file.duplicate();
+		column.limit(position + (int) file.getLong(position - Long.BYTES));
+		column.position(position);
+		return column.slice().order(BinaryResultsFormat.BYTE_ORDER);
+	} // slice()
+
+
+
+	/**
+	 * readBlocks()
+	 *
+	 * Purpose: Walks the blocks after the header, keeping the row count of
+	 * 		each and the position of each column. Stops at the end of the
+	 * 		file, or at a block cut short.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	private void readBlocks () throws IOException
+	{
+		int position = file.position();
+		while (file.limit() - position >= Long.BYTES)
+		{
+			long rows = file.getLong(position);
+			if (rows < 1 || rows > blockRows)
+				throw new IOException(FORMAT_ERR_MSG);
+
+			int block[] = new int[names.length + 1];
+			block[0] = (int) rows;
+			long next = position + Long.BYTES;
+			for (int i = 0; i < names.length; i++)
+			{
+				if (file.limit() - next < Long.BYTES)
+					return;
+
+				long length = file.getLong((int) next);
+				if (length < 0 || length > file.limit())
+					return;
+
+				block[i + 1] = (int) next + Long.BYTES;
+				next += Long.BYTES + BinaryResultsFormat.align((int) length);
+				if (next > file.limit())
+					return;
+			}
+
+			blocks.add(block);
+			rowCount += rows;
+			position = (int) next;
+		}
+	} // readBlocks()
+
+
+
+	// Reads an int length and that many bytes of UTF-8
+	private String readString ()
+	{
+		byte bytes[] = new byte[file.getInt()];
+		file.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	} // readString()
+
+} // class BinaryResultsReader
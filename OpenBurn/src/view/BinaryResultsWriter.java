@@ -0,0 +1,525 @@
+package view;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import model.calculations.SimulationListener;
+import model.calculations.SimulationResultStore;
+import model.calculations.SimulationResults;
+
+/**
+ * BinaryResultsWriter.java
+ *
+ * Purpose: Writes simulation results in the OpenBurn binary results format
+ * 		described by BinaryResultsFormat.
+ *
+ * 		The writer is a SimulationListener, so a simulation can be streamed
+ * 		straight to a file: steps are collected into a block of columns and
+ * 		each full block is written out, so memory use does not grow with the
+ * 		length of the simulation. Stored results can be written with write().
+ *
+ * 		Every channel is written as doubles without compression unless
+ * 		setEncoding() is called before the first step.
+**/
+
+public class BinaryResultsWriter implements SimulationListener, Closeable
+{
+	// Error messages
+	private static final String GRAIN_COUNT_ERR_MSG = "ERROR: Grain count must be positive!\n";
+	private static final String BLOCK_ERR_MSG       = "ERROR: Rows per block must be positive!\n";
+	private static final String ENCODING_ERR_MSG    = "ERROR: Encoding can only be set before the first step!\n";
+	private static final String TYPE_ERR_MSG        = "ERROR: Unknown channel type or compression!\n";
+	private static final String CLOSED_ERR_MSG      = "ERROR: Writer is closed!\n";
+
+
+
+	// Constants
+	public static final int DEFAULT_BLOCK_ROWS = 4096;
+	private static final int HEADER_INTS       = 4;   // Magic, version, channels, rows per block
+
+
+
+	// Fields
+	private final FileChannel out;
+	private final int grainCount;
+	private final int blockRows;
+	private final byte types[];
+	private final byte compressions[];
+	private final double block[][];   // One column per channel
+	private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+	private ByteBuffer buffer;
+	private byte compressed[];
+	private int rows;
+	private long rowsWritten;
+	private boolean headerWritten;
+	private boolean closed;
+
+
+
+	/**
+	 * BinaryResultsWriter Constructor
+	 *
+	 * Purpose: Creates a writer for a motor with the given number of grains,
+	 * 		writing blocks of the default size to the given file.
+	**/
+
+	public BinaryResultsWriter (File file, int grainCount) throws IOException
+	{
+		this(file, grainCount, DEFAULT_BLOCK_ROWS);
+	} // BinaryResultsWriter Constructor
+
+
+
+	/**
+	 * BinaryResultsWriter Constructor
+	 *
+	 * Purpose: Creates a writer for a motor with the given number of grains,
+	 * 		writing blocks of the given number of rows to the given file.
+	**/
+
+	public BinaryResultsWriter (File file, int grainCount, int blockRows) throws IOException
+	{
+		if (grainCount < 1)
+			throw new IllegalArgumentException(GRAIN_COUNT_ERR_MSG);
+		if (blockRows < 1)
+			throw new IllegalArgumentException(BLOCK_ERR_MSG);
+
+		int channels = BinaryResultsFormat.getChannelCount(grainCount);
+		this.grainCount   = grainCount;
+		this.blockRows    = blockRows;
+		this.types        = new byte[channels];
+		this.compressions = new byte[channels];
+		this.block        = new double[channels][blockRows];
+		this.buffer       = ByteBuffer.allocate(Long.BYTES * (blockRows + 1)).order(BinaryResultsFormat.BYTE_ORDER);
+		this.out          = new FileOutputStream(file).getChannel();
+	} // BinaryResultsWriter Constructor
+
+
+
+	/**
+	 * write()
+	 *
+	 * Purpose: Writes stored results to the given file, as doubles without
+	 * 		compression.
+	 *
+	 * Parameters:
+	 * 		SimulationResultStore results -- Results to write.
+	 * 		File file -- File to write to.
+	 *
+	 * Returns: void.
+	**/
+
+	public static void write (SimulationResultStore results, File file) throws IOException
+	{
+		try (BinaryResultsWriter writer = new BinaryResultsWriter(file, results.getGrainCount()))
+		{
+			writer.append(results);
+		}
+	} // write()
+
+
+
+	/**
+	 * setEncoding()
+	 *
+	 * Purpose: Sets how one channel, or every channel, is written. Floats
+	 * 		halve the size of a channel at the cost of precision, and deflate
+	 * 		compression suits channels that change slowly or not at all.
+	 *
+	 * Parameters:
+	 * 		int channel -- Index of the channel, as in getChannelNames().
+	 * 		byte type -- BinaryResultsFormat.TYPE_DOUBLE or TYPE_FLOAT.
+	 * 		byte compression -- BinaryResultsFormat.COMPRESSION_NONE or
+	 * 			COMPRESSION_DEFLATE.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setEncoding (int channel, byte type, byte compression)
+	{
+		if (headerWritten)
+			throw new IllegalStateException(ENCODING_ERR_MSG);
+		if (type != BinaryResultsFormat.TYPE_DOUBLE && type != BinaryResultsFormat.TYPE_FLOAT)
+			throw new IllegalArgumentException(TYPE_ERR_MSG);
+		if (compression != BinaryResultsFormat.COMPRESSION_NONE && compression != BinaryResultsFormat.COMPRESSION_DEFLATE)
+			throw new IllegalArgumentException(TYPE_ERR_MSG);
+
+		types[channel]        = type;
+		compressions[channel] = compression;
+	} // setEncoding()
+
+	public void setEncoding (byte type, byte compression)
+	{
+		for (int i = 0; i < types.length; i++)
+			setEncoding(i, type, compression);
+	} // setEncoding()
+
+
+
+	/**
+	 * stepCompleted()
+	 *
+	 * Purpose: Adds one step to the current block, writing the block out once
+	 * 		it is full. Per-grain arrays that are shorter than the channels of
+	 * 		the motor (or null) are padded with zeros.
+	 *
+	 * Parameters:
+	 * 		SimulationResults results -- Results for one step of a simulation.
+	 *
+	 * Returns: void.
+	 *
+	 * Throws: UncheckedIOException if the block can not be written.
+	**/
+
+	@Override
+	public void stepCompleted (SimulationResults results)
+	{
+		checkOpen();
+
+		int row = rows;
+		block[0][row]  = results.getTime();
+		block[1][row]  = results.getChamberPressure();
+		block[2][row]  = results.getThrust();
+		block[3][row]  = results.getKn();
+		block[4][row]  = results.getBurnArea();
+		block[5][row]  = results.getBurnRate();
+		block[6][row]  = results.getMassGeneratedOverall();
+		block[7][row]  = results.getLStar();
+		block[8][row]  = results.getSystemMass();
+		block[9][row]  = results.getSystemCenterOfGravity();
+		block[10][row] = results.getCg();
+
+		int channel = 11;
+		channel = copyRow(results.getMassGeneratedPerGrain(), channel, grainCount, row);
+		channel = copyRow(results.getPortToThroat(), channel, grainCount, row);
+		copyRow(results.getMassFlowPerAreaGrain(), channel, block.length - channel, row);
+
+		rows++;
+		if (rows == blockRows)
+			flushBlock();
+	} // stepCompleted()
+
+
+
+	/**
+	 * simulationFinished()
+	 *
+	 * Purpose: Writes out the steps of the last, partly filled, block. The
+	 * 		writer must still be closed.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	 *
+	 * Throws: UncheckedIOException if the block can not be written.
+	**/
+
+	@Override
+	public void simulationFinished ()
+	{
+		checkOpen();
+		if (rows > 0 || headerWritten == false)
+			flushBlock();
+	} // simulationFinished()
+
+
+
+	/**
+	 * append()
+	 *
+	 * Purpose: Adds every row of the given store, copying whole columns at a
+	 * 		time.
+	 *
+	 * Parameters:
+	 * 		SimulationResultStore results -- Results of a motor with the same
+	 * 			number of grains as the writer.
+	 *
+	 * Returns: void.
+	**/
+
+	public void append (SimulationResultStore results) throws IOException
+	{
+		checkOpen();
+		if (results.getGrainCount() != grainCount)
+			throw new IllegalArgumentException(GRAIN_COUNT_ERR_MSG);
+
+		double columns[][] = results.getColumns();
+		int row = 0;
+		while (row < results.size())
+		{
+			int count = Math.min(blockRows - rows, results.size() - row);
+			int channel = 0;
+			for (int i = 0; i < columns.length; i++)
+			{
+				int width = SimulationResultStore.getColumnWidth(i, grainCount);
+				for (int j = 0; j < width; j++, channel++)
+					for (int k = 0; k < count; k++)
+						block[channel][rows + k] = columns[i][(row + k) * width + j];
+			}
+
+			rows += count;
+			row += count;
+			if (rows == blockRows)
+				writeBlock();
+		}
+	} // append()
+
+
+
+	/**
+	 * getRowCount()
+	 *
+	 * Purpose: Returns the number of rows added so far.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: long. The number of rows.
+	**/
+
+	public long getRowCount ()
+	{
+		return rowsWritten + rows;
+	} // getRowCount()
+
+
+
+	/**
+	 * close()
+	 *
+	 * Purpose: Writes out any steps still held and closes the file.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	@Override
+	public void close () throws IOException
+	{
+		if (closed)
+			return;
+
+		try
+		{
+			if (rows > 0 || headerWritten == false)
+				writeBlock();
+		}
+		finally
+		{
+			closed = true;
+			deflater.end();
+			out.close();
+		}
+	} // close()
+
+
+
+	// Copies a per-grain array into consecutive channels, padding with zeros
+	private int copyRow (double source[], int channel, int width, int row)
+	{
+		for (int i = 0; i < width; i++)
+			block[channel + i][row] = (source != null && i < source.length) ? source[i] : 0.0;
+
+		return channel + width;
+	} // copyRow()
+
+
+
+	// Writes the current block for a listener, which can not throw IOException
+	private void flushBlock ()
+	{
+		try
+		{
+			writeBlock();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	} // flushBlock()
+
+
+
+	/**
+	 * writeBlock()
+	 *
+	 * Purpose: Writes the header if it has not been written, then the rows
+	 * 		held in the block, and empties the block.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	private void writeBlock () throws IOException
+	{
+		if (headerWritten == false)
+			writeHeader();
+		if (rows == 0)
+			return;
+
+		buffer.clear();
+		buffer.putLong(rows);
+		writeBuffer();
+
+		for (int channel = 0; channel < block.length; channel++)
+			writeColumn(channel);
+
+		rowsWritten += rows;
+		rows = 0;
+	} // writeBlock()
+
+
+
+	/**
+	 * writeColumn()
+	 *
+	 * Purpose: Encodes the rows of one channel and writes them, preceded by
+	 * 		their length in bytes and padded to the alignment.
+	 *
+	 * Parameters:
+	 * 		int channel -- Channel to write.
+	 *
+	 * Returns: void.
+	**/
+
+	private void writeColumn (int channel) throws IOException
+	{
+		// Encode the raw column after room for its length
+		buffer.clear();
+		buffer.position(Long.BYTES);
+		if (types[channel] == BinaryResultsFormat.TYPE_FLOAT)
+			for (int i = 0; i < rows; i++)
+				buffer.putFloat((float) block[channel][i]);
+		else
+			buffer.asDoubleBuffer().put(block[channel], 0, rows);
+		int length = (types[channel] == BinaryResultsFormat.TYPE_FLOAT) ? rows * Float.BYTES : rows * Double.BYTES;
+
+		if (compressions[channel] == BinaryResultsFormat.COMPRESSION_DEFLATE)
+		{
+			length = deflate(buffer.array(), Long.BYTES, length);
+			buffer.position(Long.BYTES);
+			buffer.put(compressed, 0, length);
+		}
+
+		buffer.putLong(0, length);
+		buffer.position(Long.BYTES + length);
+		while (buffer.position() % BinaryResultsFormat.ALIGNMENT != 0)
+			buffer.put((byte) 0);
+		writeBuffer();
+	} // writeColumn()
+
+
+
+	/**
+	 * deflate()
+	 *
+	 * Purpose: Compresses bytes into the compressed array, growing it if
+	 * 		needed, and makes sure the buffer can hold the result.
+	 *
+	 * Parameters:
+	 * 		byte[] input -- Array holding the bytes.
+	 * 		int offset -- Index of the first byte.
+	 * 		int length -- Number of bytes.
+	 *
+	 * Returns: int. The number of compressed bytes.
+	**/
+
+	private int deflate (byte input[], int offset, int length)
+	{
+		if (compressed == null || compressed.length < length + 64)
+			compressed = new byte[length + 64];
+
+		deflater.reset();
+		deflater.setInput(input, offset, length);
+		deflater.finish();
+		int size = 0;
+		while (deflater.finished() == false)
+		{
+			if (size == compressed.length)
+				compressed = Arrays.copyOf(compressed, compressed.length * 2);
+			size += deflater.deflate(compressed, size, compressed.length - size);
+		}
+
+		if (buffer.capacity() < Long.BYTES + BinaryResultsFormat.align(size))
+			buffer = ByteBuffer.allocate(Long.BYTES + BinaryResultsFormat.align(size)).order(BinaryResultsFormat.BYTE_ORDER);
+
+		return size;
+	} // deflate()
+
+
+
+	/**
+	 * writeHeader()
+	 *
+	 * Purpose: Writes the header of the file, describing every channel.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	private void writeHeader () throws IOException
+	{
+		String names[] = BinaryResultsFormat.getChannelNames(grainCount);
+		String units[] = BinaryResultsFormat.getChannelUnits(grainCount);
+
+		int size = HEADER_INTS * Integer.BYTES;
+		for (int i = 0; i < names.length; i++)
+			size += 2 * Integer.BYTES + utf8(names[i]).length + utf8(units[i]).length + 2;
+
+		ByteBuffer header = ByteBuffer.allocate(BinaryResultsFormat.align(size)).order(BinaryResultsFormat.BYTE_ORDER);
+		header.putInt(BinaryResultsFormat.MAGIC);
+		header.putInt(BinaryResultsFormat.VERSION);
+		header.putInt(names.length);
+		header.putInt(blockRows);
+		for (int i = 0; i < names.length; i++)
+		{
+			header.putInt(utf8(names[i]).length).put(utf8(names[i]));
+			header.putInt(utf8(units[i]).length).put(utf8(units[i]));
+			header.put(types[i]).put(compressions[i]);
+		}
+
+		header.position(header.capacity());
+		header.flip();
+		while (header.hasRemaining())
+			out.write(header);
+		headerWritten = true;
+	} // writeHeader()
+
+
+
+	// Writes the buffer from its start to its position
+	private void writeBuffer () throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())
+			out.write(buffer);
+	} // writeBuffer()
+
+
+
+	// Throws if the writer was closed
+	private void checkOpen ()
+	{
+		if (closed)
+			throw new IllegalStateException(CLOSED_ERR_MSG);
+	} // checkOpen()
+
+
+
+	// Encodes a string as UTF-8
+	private static byte[] utf8 (String value)
+	{
+		return value.getBytes(StandardCharsets.UTF_8);
+	} // utf8()
+
+} // class BinaryResultsWriter
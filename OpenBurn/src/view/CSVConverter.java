@@ -6,6 +6,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.util.List;
 
+import model.calculations.SimulationResultStore;
 import model.calculations.SimulationResults;
 
 /**
@@ -44,37 +45,34 @@ public class CSVConverter
 	
 	public static void writeResultsArr (List<SimulationResults> theResults, File file)
 	{
-		// Create the directory to send the results file to
-		// Throw exception if directory was not created
-		//File resultsDir = new File(RESULTS_DIRECTORY);
-		//if (!resultsDir.exists())
-		//	if (resultsDir.mkdir() == false)
-		//		throw new RuntimeException(DIR_ERROR_MSG);
-		
-		// Create the file writer
-		BufferedWriter fileWriter = null;
-		try {
-			fileWriter = new BufferedWriter(new FileWriter(file));
-		} catch (IOException e1) {
-			e1.printStackTrace();
-		}
-		
-		// Go through entire array and build the string to write to file
-		StringBuilder sb = new StringBuilder();
-		sb.append(theResults.get(0).getLabels());
-		for (Object element : theResults)
-		{
-			sb.append(element.toString());
-			sb.append("\n");   // Append a comma to separate into different cells
-		}
-
-		// Write the built up string to the CSV file, and close the file
-		try {
-			fileWriter.write(sb.toString());
-			fileWriter.close();
+		writeResultsArr(SimulationResultStore.fromList(theResults), file);
+	} // writeResultsArr()
+	
+	
+	
+	/**
+	 * writeResultsArr()
+	 * 
+	 * Purpose: Writes the results in the given store to the specified file
+	 * 		in the form of a CSV file, in the same order as
+	 * 		SimulationResults.toString(). Rows are streamed through a
+	 * 		CSVWriter, so memory use does not grow with the number of rows.
+	 *     
+	 * Parameters:
+	 * 		SimulationResultStore theResults -- Simulation results to write
+	 * 			to the CSV file.
+	 * 		File file -- File to write to.
+	 * 
+	 * Returns: void.
+	**/
+	
+	public static void writeResultsArr (SimulationResultStore theResults, File file)
+	{
+		try (CSVWriter writer = new CSVWriter(file, theResults.getGrainCount())) {
+			writer.append(theResults);
 		} catch (IOException e) {
 			e.printStackTrace();
-		}	
+		}
 	} // writeResultsArr()
 	
 	
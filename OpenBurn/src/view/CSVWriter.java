@@ -0,0 +1,420 @@
+package view;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import model.calculations.SimulationListener;
+import model.calculations.SimulationResultStore;
+import model.calculations.SimulationResults;
+
+/**
+ * CSVWriter.java
+ *
+ * Purpose: Writes simulation results to a CSV file one row at a time, with
+ * 		the labels and column order of SimulationResults.getLabels().
+ *
+ * 		Values are formatted straight into one reusable byte buffer, which is
+ * 		written to the file whenever it fills, so memory use stays the same
+ * 		no matter how many rows are written. The writer is a
+ * 		SimulationListener, so a simulation can be streamed to a file without
+ * 		being stored first.
+ *
+ * 		By default every column is written with full precision: the shortest
+ * 		decimal that reads back as the same double, laid out as
+ * 		Double.toString() does. setColumns() picks and orders columns, and
+ * 		setPrecision() rounds values to a number of significant digits. Both
+ * 		are formatted by a NumberFormatter without allocating any objects.
+**/
+
+public class CSVWriter implements SimulationListener, Closeable
+{
+	// Error messages
+	private static final String GRAIN_COUNT_ERR_MSG = "ERROR: Grain count must be positive!\n";
+	private static final String COLUMN_ERR_MSG      = "ERROR: Column does not exist!\n";
+	private static final String PRECISION_ERR_MSG   = "ERROR: Precision must be from 1 to 15 digits, or FULL_PRECISION!\n";
+	private static final String STARTED_ERR_MSG     = "ERROR: Columns and precision can only be set before the first row!\n";
+	private static final String CLOSED_ERR_MSG      = "ERROR: Writer is closed!\n";
+
+
+
+	// Constants
+	public static final int FULL_PRECISION   = 0;
+	private static final int MAX_PRECISION   = 15;
+	private static final int BUFFER_BYTES    = 64 * 1024;
+	private static final int MAX_VALUE_BYTES = 32;     // Longest formatted value, with its separator
+	private static final byte COMMA          = ',';
+	private static final byte NEW_LINE       = '\n';
+
+
+
+	// Fields
+	private final FileChannel out;
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+	private final int grainCount;
+	private final String labels[];
+	private final double row[];             // Every column of the current row
+	private final NumberFormatter formatter = new NumberFormatter();
+	private int columns[];                  // Columns to write, in order
+	private int precision = FULL_PRECISION;
+	private long rowsWritten;
+	private boolean headerWritten;
+	private boolean closed;
+
+
+
+	/**
+	 * CSVWriter Constructor
+	 *
+	 * Purpose: Creates a writer for a motor with the given number of grains,
+	 * 		writing every column with full precision to the given file.
+	**/
+
+	public CSVWriter (File file, int grainCount) throws IOException
+	{
+		if (grainCount < 1)
+			throw new IllegalArgumentException(GRAIN_COUNT_ERR_MSG);
+
+		this.grainCount = grainCount;
+		this.labels     = SimulationResults.getLabelArray(grainCount);
+		this.row        = new double[labels.length];
+		this.columns    = new int[labels.length];
+		for (int i = 0; i < columns.length; i++)
+			columns[i] = i;
+
+		this.out = new FileOutputStream(file).getChannel();
+	} // CSVWriter Constructor
+
+
+
+	/**
+	 * setColumns()
+	 *
+	 * Purpose: Picks the columns to write, in the order they are given,
+	 * 		by their index or label in SimulationResults.getLabelArray().
+	 *
+	 * Parameters:
+	 * 		int... indexes / String... names -- Columns to write.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setColumns (int... indexes)
+	{
+		checkNotStarted();
+		for (int index : indexes)
+			if (index < 0 || index >= labels.length)
+				throw new IllegalArgumentException(COLUMN_ERR_MSG);
+
+		columns = indexes.clone();
+	} // setColumns()
+
+	public void setColumns (String... names)
+	{
+		int indexes[] = new int[names.length];
+		for (int i = 0; i < names.length; i++)
+		{
+			indexes[i] = -1;
+			for (int j = 0; j < labels.length; j++)
+				if (labels[j].equals(names[i]))
+					indexes[i] = j;
+		}
+
+		setColumns(indexes);
+	} // setColumns()
+
+
+
+	/**
+	 * setPrecision()
+	 *
+	 * Purpose: Sets the number of significant digits values are rounded to,
+	 * 		or FULL_PRECISION to write the shortest decimal that reads back as
+	 * 		the same value.
+	 *
+	 * Parameters:
+	 * 		int significantDigits -- Digits to keep, from 1 to 15.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setPrecision (int significantDigits)
+	{
+		checkNotStarted();
+		if (significantDigits < FULL_PRECISION || significantDigits > MAX_PRECISION)
+			throw new IllegalArgumentException(PRECISION_ERR_MSG);
+
+		precision = significantDigits;
+	} // setPrecision()
+
+
+
+	/**
+	 * stepCompleted()
+	 *
+	 * Purpose: Writes one step as a row. Per-grain arrays that are shorter
+	 * 		than the columns of the motor (or null) are padded with zeros.
+	 *
+	 * Parameters:
+	 * 		SimulationResults results -- Results for one step of a simulation.
+	 *
+	 * Returns: void.
+	 *
+	 * Throws: UncheckedIOException if the row can not be written.
+	**/
+
+	@Override
+	public void stepCompleted (SimulationResults results)
+	{
+		int column = 0;
+		row[column++] = results.getTime();
+		row[column++] = results.getChamberPressure();
+		row[column++] = results.getMassGeneratedOverall();
+		column = copyValues(results.getMassGeneratedPerGrain(), column, grainCount);
+		column = copyValues(results.getPortToThroat(), column, grainCount);
+		column = copyValues(results.getMassFlowPerAreaGrain(), column, grainCount + 2);
+		row[column++] = results.getBurnArea();
+		row[column++] = results.getBurnRate();
+		row[column++] = results.getKn();
+		row[column++] = results.getLStar();
+		row[column++] = results.getSystemMass();
+		row[column++] = results.getSystemCenterOfGravity();
+
+		try
+		{
+			writeRow();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	} // stepCompleted()
+
+
+
+	/**
+	 * simulationFinished()
+	 *
+	 * Purpose: Writes out the rows held in the buffer. The writer must still
+	 * 		be closed.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	 *
+	 * Throws: UncheckedIOException if the rows can not be written.
+	**/
+
+	@Override
+	public void simulationFinished ()
+	{
+		try
+		{
+			flush();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	} // simulationFinished()
+
+
+
+	/**
+	 * append()
+	 *
+	 * Purpose: Writes every row of the given store, reading values straight
+	 * 		from its columns.
+	 *
+	 * Parameters:
+	 * 		SimulationResultStore results -- Results of a motor with the same
+	 * 			number of grains as the writer.
+	 *
+	 * Returns: void.
+	**/
+
+	public void append (SimulationResultStore results) throws IOException
+	{
+		if (results.getGrainCount() != grainCount)
+			throw new IllegalArgumentException(GRAIN_COUNT_ERR_MSG);
+
+		for (int r = 0; r < results.size(); r++)
+		{
+			int column = 0;
+			row[column++] = results.getTimeColumn()[r];
+			row[column++] = results.getChamberPressureColumn()[r];
+			row[column++] = results.getMassGeneratedOverallColumn()[r];
+			for (int i = 0; i < grainCount; i++)
+				row[column++] = results.getMassGeneratedPerGrain(r, i);
+			for (int i = 0; i < grainCount; i++)
+				row[column++] = results.getPortToThroat(r, i);
+			for (int i = 0; i < results.getMassFlowPerAreaWidth(); i++)
+				row[column++] = results.getMassFlowPerAreaGrain(r, i);
+			row[column++] = results.getBurnAreaColumn()[r];
+			row[column++] = results.getBurnRateColumn()[r];
+			row[column++] = results.getKnColumn()[r];
+			row[column++] = results.getLStarColumn()[r];
+			row[column++] = results.getSystemMassColumn()[r];
+			row[column++] = results.getSystemCenterOfGravityColumn()[r];
+
+			writeRow();
+		}
+	} // append()
+
+
+
+	/**
+	 * getRowCount()
+	 *
+	 * Purpose: Returns the number of rows written so far, not counting the
+	 * 		labels.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: long. The number of rows.
+	**/
+
+	public long getRowCount ()
+	{
+		return rowsWritten;
+	} // getRowCount()
+
+
+
+	/**
+	 * close()
+	 *
+	 * Purpose: Writes out the rows held in the buffer, and the labels if no
+	 * 		row was written, then closes the file.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	@Override
+	public void close () throws IOException
+	{
+		if (closed)
+			return;
+
+		try
+		{
+			flush();
+		}
+		finally
+		{
+			closed = true;
+			out.close();
+		}
+	} // close()
+
+
+
+	// Copies per-grain values into the row, padding with zeros
+	private int copyValues (double source[], int column, int width)
+	{
+		for (int i = 0; i < width; i++)
+			row[column + i] = (source != null && i < source.length) ? source[i] : 0.0;
+
+		return column + width;
+	} // copyValues()
+
+
+
+	/**
+	 * writeRow()
+	 *
+	 * Purpose: Formats the chosen columns of the current row into the
+	 * 		buffer, writing the buffer out whenever it is nearly full.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	private void writeRow () throws IOException
+	{
+		checkOpen();
+		if (headerWritten == false)
+			writeHeader();
+
+		for (int i = 0; i < columns.length; i++)
+		{
+			if (buffer.remaining() < MAX_VALUE_BYTES)
+				writeBuffer();
+
+			if (precision == FULL_PRECISION)
+				formatter.formatShortest(row[columns[i]]).putTo(buffer);
+			else
+				formatter.formatSignificant(row[columns[i]], precision).putTo(buffer);
+			buffer.put((i == columns.length - 1) ? NEW_LINE : COMMA);
+		}
+
+		rowsWritten++;
+	} // writeRow()
+
+
+
+	// Writes the labels of the chosen columns
+	private void writeHeader () throws IOException
+	{
+		headerWritten = true;
+		for (int i = 0; i < columns.length; i++)
+		{
+			byte label[] = labels[columns[i]].getBytes(StandardCharsets.UTF_8);
+			if (buffer.remaining() < label.length + 1)
+				writeBuffer();
+
+			buffer.put(label);
+			buffer.put((i == columns.length - 1) ? NEW_LINE : COMMA);
+		}
+	} // writeHeader()
+
+
+
+	// Writes the labels if no row was written, then empties the buffer
+	private void flush () throws IOException
+	{
+		checkOpen();
+		if (headerWritten == false)
+			writeHeader();
+
+		writeBuffer();
+	} // flush()
+
+
+
+	// Writes the buffer to the file and empties it
+	private void writeBuffer () throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())
+			out.write(buffer);
+		buffer.clear();
+	} // writeBuffer()
+
+
+
+	// Throws if the writer was closed
+	private void checkOpen ()
+	{
+		if (closed)
+			throw new IllegalStateException(CLOSED_ERR_MSG);
+	} // checkOpen()
+
+
+
+	// Throws if a row was already written
+	private void checkNotStarted ()
+	{
+		if (headerWritten)
+			throw new IllegalStateException(STARTED_ERR_MSG);
+	} // checkNotStarted()
+
+} // class CSVWriter
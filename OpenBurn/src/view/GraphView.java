@@ -1,25 +1,31 @@
 package view;
 
+import java.util.ArrayList;
 import java.util.List;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
-import javafx.scene.chart.NumberAxis;
-import javafx.scene.chart.ScatterChart;
-import javafx.scene.chart.XYChart;
-import javafx.scene.chart.XYChart.Series;
 import javafx.scene.control.RadioButton;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
+import model.calculations.SimulationResultStore;
 import model.calculations.SimulationResults;
 import model.calculations.SimulationSummary;
 
 /**
  * GraphView.java
  * 
- * Purpose: A wrapper class for the ScatterChart used in the application.
+ * Purpose: A wrapper class for the plot used in the application.
  * 		This class will allow the user to more easily create an empty
- * 		ScatterChart and add data sets to it.
+ * 		plot and add data sets to it. The plot is a PlotCanvas, which
+ * 		draws the columns of the results directly, so long runs and
+ * 		several overlaid runs stay fast.
+ * 
+ * 		A simulation that is still running is shown as a live data set,
+ * 		started with startLiveData(), grown a batch of steps at a time
+ * 		with appendLiveData(), and ended with finishLiveData() or
+ * 		removeLiveData(). A quick, coarse run may be shown in it with
+ * 		previewLiveData() while the full run is computed.
 **/
 
 public class GraphView extends Pane
@@ -45,8 +51,7 @@ public class GraphView extends Pane
 	
 	
 	// Components
-	@SuppressWarnings("rawtypes")
-	private ScatterChart chart;
+	private PlotCanvas chart;
 	private RadioButton thrustToggle;
 	private RadioButton pressureToggle;
 	private ImageView logo;
@@ -55,8 +60,11 @@ public class GraphView extends Pane
 	
 	// Fields
 	private String legendName;
-	private List<SimulationResults> simResults;
+	private SimulationResultStore simResults;
 	private SimulationSummary summary;
+	private final List<String> legendNames = new ArrayList<String>();
+	private final List<SimulationResultStore> shownResults = new ArrayList<SimulationResultStore>();
+	private final List<PlotCanvas.DataSet> shownSets = new ArrayList<PlotCanvas.DataSet>();
 	
 	
 	
@@ -64,22 +72,15 @@ public class GraphView extends Pane
 	 * GraphView Constructor (String, String, String)
 	 * 
 	 * Purpose: Takes in names for the x-axis, y-axis, and chart, then
-	 * 		creates an empty ScatterChart that the user can access.
+	 * 		creates an empty plot that the user can access.
 	**/
 	
-	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public GraphView (String chartName, String xAxisName, String yAxisName)
 	{
-		// Create and name the x-axis
-		NumberAxis xAxis = new NumberAxis();
-		xAxis.setLabel(xAxisName + " " + SECONDS);
-		
-		// Create and name the y-axis
-		NumberAxis yAxis = new NumberAxis();
-		yAxis.setLabel(yAxisName + " " + POUNDS_FORCE);
-		
-		// Create and name the ScatterChart
-		chart = new ScatterChart(xAxis, yAxis);
+		// Create and name the plot and its axes
+		chart = new PlotCanvas();
+		chart.setXLabel(xAxisName + " " + SECONDS);
+		chart.setYLabel(yAxisName + " " + POUNDS_FORCE);
 	    chart.setTitle(chartName);
 	    this.getChildren().add(chart);
 	    
@@ -140,14 +141,10 @@ public class GraphView extends Pane
 		    	thrustToggle.setSelected(true);
 		    	pressureToggle.setSelected(false);
 		    	chart.setTitle(THRUST_LABEL + VERSUS_LABEL + TIME_LABEL);
-		    	chart.getYAxis().setLabel(THRUST_LABEL + " " + POUNDS_FORCE);
+		    	chart.setYLabel(THRUST_LABEL + " " + POUNDS_FORCE);
 		    	
-		    	// Clear current data in the graph and add new data
-		    	if (simResults != null)
-		    	{
-		    		chart.getData().clear();
-		    		addData(legendName, simResults);
-		    	}
+		    	// Draw every shown run again with the new data
+		    	showAgain();
 		    }
 		});
 		
@@ -166,32 +163,96 @@ public class GraphView extends Pane
 		    	thrustToggle.setSelected(false);
 		    	pressureToggle.setSelected(true);
 		    	chart.setTitle(PRESSURE_LABEL + VERSUS_LABEL + TIME_LABEL);
-		    	chart.getYAxis().setLabel(PRESSURE_LABEL + " " + LBS_SQUARE_IN);
+		    	chart.setYLabel(PRESSURE_LABEL + " " + LBS_SQUARE_IN);
 		    	
-		    	// Clear current data in the graph and add new data
-		    	if (simResults != null)
-		    	{
-		    		chart.getData().clear();
-		    		addData(legendName, simResults);
-		    	}
+		    	// Draw every shown run again with the new data
+		    	showAgain();
 		    }
 		});
 	} // addDataToggle()
 	
 	
 	
+	/**
+	 * showAgain()
+	 * 
+	 * Purpose: Clears the plot and adds every shown run again, so they are
+	 * 		drawn with the data of the toggle that is on.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: void.
+	**/
+	
+	private void showAgain ()
+	{
+		List<String> names = new ArrayList<String>(legendNames);
+		List<SimulationResultStore> results = new ArrayList<SimulationResultStore>(shownResults);
+		clearData();
+		for (int i = 0; i < names.size(); i++)
+			addData(names.get(i), results.get(i));
+	} // showAgain()
+	
+	
+	
+	/**
+	 * clearData()
+	 * 
+	 * Purpose: Removes every data set from the plot. The most recent
+	 * 		results are still returned by getData().
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: void.
+	**/
+	
+	public void clearData ()
+	{
+		chart.clear();
+		legendNames.clear();
+		shownResults.clear();
+		shownSets.clear();
+	} // clearData()
+	
+	
+	
+	/**
+	 * removeLastData()
+	 * 
+	 * Purpose: Removes the run most recently added to the plot, so a newer
+	 * 		run can take its place. getData() then returns the run before it.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: void.
+	**/
+	
+	public void removeLastData ()
+	{
+		if (shownResults.isEmpty())
+			return;
+		
+		int last = shownResults.size() - 1;
+		chart.removeDataSet(shownSets.remove(last));
+		legendNames.remove(last);
+		shownResults.remove(last);
+		simResults = last > 0 ? shownResults.get(last - 1) : null;
+		legendName = last > 0 ? legendNames.get(last - 1) : null;
+	} // removeLastData()
+	
+	
+	
 	/**
 	 * getChart()
 	 * 
-	 * Purpose: Returns the ScatterChart contained within this GraphView.
+	 * Purpose: Returns the PlotCanvas contained within this GraphView.
 	 * 
 	 * Parameters: None.
 	 * 
-	 * Returns: ScatterChart. The chart contained within this wrapper.
+	 * Returns: PlotCanvas. The plot contained within this wrapper.
 	**/
 	
-	@SuppressWarnings("rawtypes")
-	public ScatterChart getChart ()
+	public PlotCanvas getChart ()
 	{
 		return chart;
 	} // getChart()
@@ -199,13 +260,20 @@ public class GraphView extends Pane
 	
 	
 	/**
+	 * getData()
 	 * 
+	 * Purpose: Returns the simulation results most recently added to
+	 * 		the chart.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: SimulationResultStore. The most recent simulation results.
 	**/
 	
-	public List<SimulationResults> getData ()
+	public SimulationResultStore getData ()
 	{
 		return simResults;
-	} // 
+	} // getData()
 	
 	
 	
@@ -223,21 +291,165 @@ public class GraphView extends Pane
 	**/
 	
 	public void addData (String legendName, List<SimulationResults> simResults)
+	{
+		addData(legendName, SimulationResultStore.fromList(simResults));
+	} // addData()
+	
+	
+	
+	/**
+	 * addData()
+	 * 
+	 * Purpose: Takes in the given simulation data set and adds data
+	 * 		depending on which toggle is on.
+	 * 
+	 * Parameters:
+	 * 		String legendName -- Name of the data set on the legend.
+	 * 		SimulationResultStore simResults -- Simulation data to add.
+	 * 
+	 * Returns: void.
+	**/
+	
+	public void addData (String legendName, SimulationResultStore simResults)
 	{
 		// Set data and legend name
 		this.legendName = legendName;
 		this.simResults = simResults;
+		legendNames.add(legendName);
+		shownResults.add(simResults);
 		
 		// Add thrust data
 		if (thrustToggle.isSelected())
-			addThrustVsTimeDataSet(legendName, this.simResults);
+			shownSets.add(addThrustVsTimeDataSet(legendName, this.simResults));
 		// Add pressure data
-		else if (pressureToggle.isSelected())
-			addPressureVsTimeDataSet(legendName, this.simResults);
+		else
+			shownSets.add(addPressureVsTimeDataSet(legendName, this.simResults));
 	} // addData()
 	
 	
 	
+	/**
+	 * startLiveData()
+	 * 
+	 * Purpose: Adds an empty data set to the plot for a simulation that
+	 * 		is still running.
+	 * 
+	 * Parameters:
+	 * 		String legendName -- Name of the data set on the legend until
+	 * 			the simulation finishes.
+	 * 
+	 * Returns: PlotCanvas.DataSet. The live data set.
+	**/
+	
+	public PlotCanvas.DataSet startLiveData (String legendName)
+	{
+		return chart.addDataSet(legendName);
+	} // startLiveData()
+	
+	
+	
+	/**
+	 * appendLiveData()
+	 * 
+	 * Purpose: Adds a batch of steps to a live data set, thrust or
+	 * 		pressure depending on which toggle is on.
+	 * 
+	 * Parameters:
+	 * 		PlotCanvas.DataSet dataSet -- Set from startLiveData().
+	 * 		double time[] -- Time of each step.
+	 * 		double thrust[] -- Thrust of each step.
+	 * 		double pressure[] -- Chamber pressure of each step.
+	 * 
+	 * Returns: void.
+	**/
+	
+	public void appendLiveData (PlotCanvas.DataSet dataSet, double time[], double thrust[], double pressure[])
+	{
+		chart.appendData(dataSet, time, pressureToggle.isSelected() ? pressure : thrust);
+	} // appendLiveData()
+	
+	
+	
+	/**
+	 * finishLiveData()
+	 * 
+	 * Purpose: Ends a live data set once its simulation is done. Its
+	 * 		points are replaced by the columns of the results, which are
+	 * 		shared instead of copied, and it is given its legend name. If
+	 * 		the set was cleared from the plot, the results are added anew.
+	 * 
+	 * Parameters:
+	 * 		PlotCanvas.DataSet dataSet -- Set from startLiveData().
+	 * 		String legendName -- Name of the data set on the legend.
+	 * 		SimulationResultStore simResults -- Results of the simulation.
+	 * 
+	 * Returns: void.
+	**/
+	
+	public void finishLiveData (PlotCanvas.DataSet dataSet, String legendName, SimulationResultStore simResults)
+	{
+		if (chart.contains(dataSet) == false)
+		{
+			addData(legendName, simResults);
+			return;
+		}
+		
+		this.legendName = legendName;
+		this.simResults = simResults;
+		legendNames.add(legendName);
+		shownResults.add(simResults);
+		shownSets.add(dataSet);
+		double values[] = pressureToggle.isSelected() ? simResults.getChamberPressureColumn() : simResults.getThrustColumn();
+		chart.replaceData(dataSet, legendName, simResults.getTimeColumn(), values, simResults.size());
+	} // finishLiveData()
+	
+	
+	
+	/**
+	 * previewLiveData()
+	 * 
+	 * Purpose: Replaces the points of a live data set with the results of
+	 * 		a coarse run of the same motor, shown until the full run is
+	 * 		finished with finishLiveData(). The set keeps its legend name
+	 * 		and is not counted as a shown run.
+	 * 
+	 * Parameters:
+	 * 		PlotCanvas.DataSet dataSet -- Set from startLiveData().
+	 * 		SimulationResultStore preview -- Results of the coarse run.
+	 * 
+	 * Returns: void.
+	**/
+	
+	public void previewLiveData (PlotCanvas.DataSet dataSet, SimulationResultStore preview)
+	{
+		if (chart.contains(dataSet) == false)
+			return;
+		
+		double values[] = pressureToggle.isSelected() ? preview.getChamberPressureColumn() : preview.getThrustColumn();
+		chart.replaceData(dataSet, dataSet.getName(), preview.getTimeColumn(), values, preview.size());
+	} // previewLiveData()
+	
+	
+	
+	/**
+	 * removeLiveData()
+	 * 
+	 * Purpose: Removes a live data set from the plot, when its simulation
+	 * 		is cancelled or fails.
+	 * 
+	 * Parameters:
+	 * 		PlotCanvas.DataSet dataSet -- Set from startLiveData().
+	 * 
+	 * Returns: void.
+	**/
+	
+	public void removeLiveData (PlotCanvas.DataSet dataSet)
+	{
+		chart.removeDataSet(dataSet);
+	} // removeLiveData()
+	
+	
+	
 	/**
 	 * addThrustVsTimeDataSet()
 	 * 
@@ -250,24 +462,15 @@ public class GraphView extends Pane
 	 * Parameters:
 	 * 		String legendName -- The displayed name for new data
 	 * 			set in the legend.
-	 * 		List<SimulationResults> results -- List of results from
-	 * 			a simulation.
+	 * 		SimulationResultStore results -- Results from a simulation.
 	 * 
-	 * Returns: void.
+	 * Returns: PlotCanvas.DataSet. The data set added.
 	**/
 	
-	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private void addThrustVsTimeDataSet (String legendName, List<SimulationResults> results)
+	private PlotCanvas.DataSet addThrustVsTimeDataSet (String legendName, SimulationResultStore results)
 	{
-		Series<Double, Double> dataSeries = new Series<Double, Double>();
-		dataSeries.setName(legendName);
-		
-		// Adds thrust vs. time data from the simulation results to the data series
-		for (SimulationResults currentResults: results)
-			dataSeries.getData().add(new XYChart.Data(currentResults.getTime(), currentResults.getThrust()));
-		
-		// Add the data series to the chart
-		chart.getData().addAll(dataSeries);
+		// The columns of the results are drawn as they are, without copying
+		return chart.addDataSet(legendName, results.getTimeColumn(), results.getThrustColumn(), results.size());
 	} // addThrustVsTimeDataSet()
 	
 	
@@ -284,24 +487,15 @@ public class GraphView extends Pane
 	 * Parameters:
 	 * 		String legendName -- The displayed name for new data
 	 * 			set in the legend.
-	 * 		List<SimulationResults> results -- List of results from
-	 * 			a simulation.
+	 * 		SimulationResultStore results -- Results from a simulation.
 	 * 
-	 * Returns: void.
+	 * Returns: PlotCanvas.DataSet. The data set added.
 	**/
 	
-	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private void addPressureVsTimeDataSet (String legendName, List<SimulationResults> results)
+	private PlotCanvas.DataSet addPressureVsTimeDataSet (String legendName, SimulationResultStore results)
 	{
-		Series<Double, Double> dataSeries = new Series<Double, Double>();
-		dataSeries.setName(legendName);
-		
-		// Adds thrust vs. time data from the simulation results to the data series
-		for (SimulationResults currentResults: results)
-			dataSeries.getData().add(new XYChart.Data(currentResults.getTime(), currentResults.getChamberPressure()));
-		
-		// Add the data series to the chart
-		chart.getData().addAll(dataSeries);
+		// The columns of the results are drawn as they are, without copying
+		return chart.addDataSet(legendName, results.getTimeColumn(), results.getChamberPressureColumn(), results.size());
 	} // addPressureVsTimeDataSet()
 	
 } // class GraphView
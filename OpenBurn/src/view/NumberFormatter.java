@@ -0,0 +1,596 @@
+package view;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * NumberFormatter.java
+ *
+ * Purpose: Formats doubles as text for the exporters without allocating any
+ * 		objects per number. A formatter holds the characters of the last value
+ * 		it formatted, which are then appended to a StringBuilder, Writer or
+ * 		ByteBuffer. A formatter is not thread safe; each exporter keeps its own.
+ *
+ * 		formatShortest() writes the fewest digits that still read back as the
+ * 		same double, laid out as Double.toString() does. The digits come from
+ * 		the Schubfach algorithm of R. Giulietti, "The Schubfach way to render
+ * 		doubles" (2021), using a table of 126 bit powers of ten built once
+ * 		when the class loads.
+ *
+ * 		formatFixed() and formatSignificant() round those shortest digits half
+ * 		up, which is what String.format("%.2f") does, but always with a '.'
+ * 		for the decimal point whatever the default locale is.
+**/
+
+public class NumberFormatter
+{
+	// Error messages
+	private static final String DECIMALS_ERR_MSG = "ERROR: Decimal places must be from 0 to 20!\n";
+	private static final String DIGITS_ERR_MSG   = "ERROR: Significant digits must be from 1 to 17!\n";
+
+
+
+	// Constants
+	public static final int MAX_DECIMALS     = 20;
+	public static final int MAX_DIGITS       = 17;    // Enough to tell any two doubles apart
+	private static final int MAX_CHARS       = 340;   // Longest fixed value: sign, 309 digits, point and decimals
+	private static final int LONG_DIGITS     = 19;    // Digits of the largest long
+	private static final int PLAIN_MIN_EXP   = -3;    // Range Double.toString() writes without an exponent
+	private static final int PLAIN_MAX_EXP   = 6;
+	private static final String NAN          = "NaN";
+	private static final String INFINITY     = "Infinity";
+
+
+
+	// Constants of the double format and of the algorithm
+	private static final int P          = 53;                  // Significand bits, with the hidden bit
+	private static final int Q_MIN      = -1074;               // Exponent of the smallest subnormal
+	private static final int BQ_MASK    = 0x7FF;
+	private static final long T_MASK    = (1L << (P - 1)) - 1;
+	private static final long C_MIN     = 1L << (P - 1);
+	private static final long C_TINY    = 3;                   // Subnormal significands below this need an extra digit
+	private static final int K_MIN      = -324;
+	private static final int K_MAX      = 292;
+	private static final long MASK_63   = (1L << 63) - 1;
+
+
+
+	// 10^-k as a 126 bit value split in two 63 bit halves, for K_MIN <= k <= K_MAX
+	private static final long G1[] = new long[K_MAX - K_MIN + 1];
+	private static final long G0[] = new long[K_MAX - K_MIN + 1];
+
+	static
+	{
+		BigInteger mask = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+		for (int k = K_MIN; k <= K_MAX; k++)
+		{
+			// beta = 10^-k * 2^-r, with 2^125 <= beta < 2^126
+			int r = flog2pow10(-k) - 125;
+			BigInteger beta;
+			if (k <= 0)
+			{
+				BigInteger power = BigInteger.TEN.pow(-k);
+				beta = (r >= 0) ? power.shiftRight(r) : power.shiftLeft(-r);
+			}
+			else
+				beta = BigInteger.ONE.shiftLeft(-r).divide(BigInteger.TEN.pow(k));
+
+			BigInteger g = beta.add(BigInteger.ONE);
+			G1[k - K_MIN] = g.shiftRight(63).longValue();
+			G0[k - K_MIN] = g.and(mask).longValue();
+		}
+	}
+
+
+
+	// Fields
+	private final char chars[] = new char[MAX_CHARS];
+	private final byte digits[] = new byte[LONG_DIGITS];
+	private int length;
+	private int digitCount;      // Significant digits held, without trailing zeros
+	private int pointExponent;   // The value is 0.digits * 10^pointExponent
+
+
+
+	/**
+	 * formatShortest()
+	 *
+	 * Purpose: Formats the shortest decimal that reads back as the given
+	 * 		value, as Double.toString() lays it out: plainly from 0.001 up to
+	 * 		10^7, with an exponent otherwise, always with a digit after the
+	 * 		point.
+	 *
+	 * Parameters:
+	 * 		double value -- Value to format.
+	 *
+	 * Returns: NumberFormatter. This formatter, holding the characters.
+	**/
+
+	public NumberFormatter formatShortest (double value)
+	{
+		length = 0;
+		if (formatSpecial(value))
+			return this;
+
+		if (value < 0 || (value == 0 && 1 / value < 0))
+			chars[length++] = '-';
+		if (value == 0)
+		{
+			putChars("0.0");
+			return this;
+		}
+
+		toDecimal(value);
+		int exponent = pointExponent - 1;
+		if (exponent >= PLAIN_MIN_EXP && exponent <= PLAIN_MAX_EXP)
+			putPlain(pointExponent, true);
+		else
+		{
+			putPlain(1, true);
+			putExponent(exponent);
+		}
+
+		return this;
+	} // formatShortest()
+
+
+
+	/**
+	 * formatFixed()
+	 *
+	 * Purpose: Formats a value with a fixed number of decimal places, as
+	 * 		String.format("%.Nf") does, rounding half up.
+	 *
+	 * Parameters:
+	 * 		double value -- Value to format.
+	 * 		int decimals -- Decimal places, from 0 to MAX_DECIMALS.
+	 *
+	 * Returns: NumberFormatter. This formatter, holding the characters.
+	**/
+
+	public NumberFormatter formatFixed (double value, int decimals)
+	{
+		if (decimals < 0 || decimals > MAX_DECIMALS)
+			throw new IllegalArgumentException(DECIMALS_ERR_MSG);
+
+		length = 0;
+		if (formatSpecial(value))
+			return this;
+
+		if (Double.compare(value, 0.0) < 0)
+			chars[length++] = '-';
+		if (value == 0)
+			digitCount = pointExponent = 0;
+		else
+		{
+			toDecimal(value);
+			roundDigits(pointExponent + decimals);
+		}
+
+		// Integer part, then exactly the asked for decimal places
+		if (pointExponent <= 0)
+			chars[length++] = '0';
+		for (int i = 0; i < pointExponent; i++)
+			chars[length++] = digitChar(i);
+		if (decimals > 0)
+		{
+			chars[length++] = '.';
+			for (int i = pointExponent; i < pointExponent + decimals; i++)
+				chars[length++] = digitChar(i);
+		}
+
+		return this;
+	} // formatFixed()
+
+
+
+	/**
+	 * formatSignificant()
+	 *
+	 * Purpose: Formats a value rounded half up to a number of significant
+	 * 		digits, without trailing zeros or a trailing point. It switches to
+	 * 		an exponent in the same places as formatShortest().
+	 *
+	 * Parameters:
+	 * 		double value -- Value to format.
+	 * 		int significantDigits -- Digits to keep, from 1 to MAX_DIGITS.
+	 *
+	 * Returns: NumberFormatter. This formatter, holding the characters.
+	**/
+
+	public NumberFormatter formatSignificant (double value, int significantDigits)
+	{
+		if (significantDigits < 1 || significantDigits > MAX_DIGITS)
+			throw new IllegalArgumentException(DIGITS_ERR_MSG);
+
+		length = 0;
+		if (formatSpecial(value))
+			return this;
+
+		if (value == 0)
+		{
+			chars[length++] = '0';
+			return this;
+		}
+		if (value < 0)
+			chars[length++] = '-';
+
+		toDecimal(value);
+		roundDigits(significantDigits);
+		int exponent = pointExponent - 1;
+		if (exponent >= PLAIN_MIN_EXP && exponent <= PLAIN_MAX_EXP)
+			putPlain(pointExponent, false);
+		else
+		{
+			putPlain(1, false);
+			putExponent(exponent);
+		}
+
+		return this;
+	} // formatSignificant()
+
+
+
+	/**
+	 * length()
+	 *
+	 * Purpose: Returns the number of characters of the last value formatted.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: int. The number of characters.
+	**/
+
+	public int length ()
+	{
+		return length;
+	} // length()
+
+
+
+	/**
+	 * appendTo() / writeTo() / putTo()
+	 *
+	 * Purpose: Copies the characters of the last value formatted to a
+	 * 		StringBuilder, a Writer, or a ByteBuffer as ASCII bytes.
+	 *
+	 * Parameters:
+	 * 		StringBuilder builder / Writer writer / ByteBuffer buffer --
+	 * 			Where the characters go.
+	 *
+	 * Returns: void.
+	**/
+
+	public void appendTo (StringBuilder builder)
+	{
+		builder.append(chars, 0, length);
+	} // appendTo()
+
+	public void writeTo (Writer writer) throws IOException
+	{
+		writer.write(chars, 0, length);
+	} // writeTo()
+
+	public void putTo (ByteBuffer buffer)
+	{
+		for (int i = 0; i < length; i++)
+			buffer.put((byte) chars[i]);
+	} // putTo()
+
+
+
+	/**
+	 * toString()
+	 *
+	 * Purpose: Returns the last value formatted as a new String.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: String. The formatted value.
+	**/
+
+	@Override
+	public String toString ()
+	{
+		return new String(chars, 0, length);
+	} // toString()
+
+
+
+	// Writes NaN or an infinity the way Double.toString() does
+	private boolean formatSpecial (double value)
+	{
+		if (Double.isNaN(value))
+			putChars(NAN);
+		else if (Double.isInfinite(value))
+		{
+			if (value < 0)
+				chars[length++] = '-';
+			putChars(INFINITY);
+		}
+		else
+			return false;
+
+		return true;
+	} // formatSpecial()
+
+
+
+	/**
+	 * toDecimal()
+	 *
+	 * Purpose: Finds the shortest decimal that rounds to the magnitude of
+	 * 		the given finite, nonzero value, and keeps its digits. This follows
+	 * 		the Schubfach paper: the value and the halfway points to its
+	 * 		neighbours are scaled by a power of ten, and the shortest decimal
+	 * 		between the halfway points is taken, closest to the value on ties.
+	 *
+	 * Parameters:
+	 * 		double value -- Value to convert.
+	 *
+	 * Returns: void.
+	**/
+
+	private void toDecimal (double value)
+	{
+		long bits = Double.doubleToRawLongBits(value);
+		long t = bits & T_MASK;
+		int bq = (int) (bits >>> (P - 1)) & BQ_MASK;
+
+		if (bq == 0)
+		{
+			// Subnormal
+			if (t < C_TINY)
+				toDecimal(Q_MIN, 10 * t, -1);
+			else
+				toDecimal(Q_MIN, t, 0);
+			return;
+		}
+
+		// Normal. Integers below 2^53 are their own shortest decimal
+		int mq = -Q_MIN + 1 - bq;
+		long c = C_MIN | t;
+		if (0 < mq && mq < P)
+		{
+			long f = c >> mq;
+			if (f << mq == c)
+			{
+				setDigits(f, 0);
+				return;
+			}
+		}
+		toDecimal(-mq, c, 0);
+	} // toDecimal()
+
+	// Finds the shortest decimal for the value c * 2^q
+	private void toDecimal (int q, long c, int dk)
+	{
+		int out = (int) c & 0x1;
+		long cb = c << 2;
+		long cbr = cb + 2;
+		long cbl;
+		int k;
+
+		// The gap below a power of two is half the gap above it
+		if (c != C_MIN || q == Q_MIN)
+		{
+			cbl = cb - 2;
+			k = flog10pow2(q);
+		}
+		else
+		{
+			cbl = cb - 1;
+			k = flog10threeQuartersPow2(q);
+		}
+		int h = q + flog2pow10(-k) + 2;
+
+		long g1 = G1[k - K_MIN];
+		long g0 = G0[k - K_MIN];
+		long vb = roundOdd(g1, g0, cb << h);
+		long vbl = roundOdd(g1, g0, cbl << h);
+		long vbr = roundOdd(g1, g0, cbr << h);
+
+		// Try a decimal one digit shorter first
+		long s = vb >> 2;
+		if (s >= 100)
+		{
+			long sp10 = 10 * multiplyHigh(s, 115_292_150_460_684_698L << 4);
+			long tp10 = sp10 + 10;
+			boolean upin = vbl + out <= sp10 << 2;
+			boolean wpin = (tp10 << 2) + out <= vbr;
+			if (upin != wpin)
+			{
+				setDigits(upin ? sp10 : tp10, k);
+				return;
+			}
+		}
+
+		// Otherwise the closer of the two decimals around the value
+		long t = s + 1;
+		boolean uin = vbl + out <= s << 2;
+		boolean win = (t << 2) + out <= vbr;
+		if (uin != win)
+		{
+			setDigits(uin ? s : t, k + dk);
+			return;
+		}
+		long cmp = vb - (s + t << 1);
+		setDigits((cmp < 0 || cmp == 0 && (s & 0x1) == 0) ? s : t, k + dk);
+	} // toDecimal()
+
+
+
+	// Keeps the digits of f * 10^e, without trailing zeros
+	private void setDigits (long f, int e)
+	{
+		int start = digits.length;
+		for (; f > Integer.MAX_VALUE; f /= 10)
+			digits[--start] = (byte) ('0' + f % 10);
+		for (int i = (int) f; i != 0; i /= 10)
+			digits[--start] = (byte) ('0' + i % 10);
+
+		digitCount = digits.length - start;
+		System.arraycopy(digits, start, digits, 0, digitCount);
+		pointExponent = e + digitCount;
+		while (digits[digitCount - 1] == '0')
+			digitCount--;
+	} // setDigits()
+
+
+
+	/**
+	 * roundDigits()
+	 *
+	 * Purpose: Rounds the digits held half up, keeping at most the given
+	 * 		number of them. Rounding can carry into a new leading digit, and
+	 * 		can leave no digits at all when the value rounds to zero.
+	 *
+	 * Parameters:
+	 * 		int keep -- Number of leading digits to keep.
+	 *
+	 * Returns: void.
+	**/
+
+	private void roundDigits (int keep)
+	{
+		if (keep >= digitCount)
+			return;
+		if (keep < 0)
+		{
+			digitCount = pointExponent = 0;
+			return;
+		}
+
+		boolean up = digits[keep] >= '5';
+		digitCount = keep;
+		if (up)
+		{
+			while (digitCount > 0 && digits[digitCount - 1] == '9')
+				digitCount--;
+			if (digitCount == 0)
+			{
+				digits[digitCount++] = '1';
+				pointExponent++;
+			}
+			else
+				digits[digitCount - 1]++;
+		}
+		while (digitCount > 0 && digits[digitCount - 1] == '0')
+			digitCount--;
+		if (digitCount == 0)
+			pointExponent = 0;
+	} // roundDigits()
+
+
+
+	// Writes the digits with the point after the given number of them
+	private void putPlain (int integerDigits, boolean pointZero)
+	{
+		if (integerDigits <= 0)
+		{
+			chars[length++] = '0';
+			chars[length++] = '.';
+			for (int i = integerDigits; i < 0; i++)
+				chars[length++] = '0';
+		}
+		else
+		{
+			for (int i = 0; i < integerDigits; i++)
+				chars[length++] = digitChar(i);
+			if (digitCount > integerDigits || pointZero)
+				chars[length++] = '.';
+		}
+
+		for (int i = Math.max(integerDigits, 0); i < digitCount; i++)
+			chars[length++] = (char) digits[i];
+		if (pointZero && digitCount <= integerDigits)
+			chars[length++] = '0';
+	} // putPlain()
+
+
+
+	// Writes an exponent of at most three digits
+	private void putExponent (int exponent)
+	{
+		chars[length++] = 'E';
+		if (exponent < 0)
+		{
+			chars[length++] = '-';
+			exponent = -exponent;
+		}
+		if (exponent >= 100)
+			chars[length++] = (char) ('0' + exponent / 100);
+		if (exponent >= 10)
+			chars[length++] = (char) ('0' + exponent / 10 % 10);
+		chars[length++] = (char) ('0' + exponent % 10);
+	} // putExponent()
+
+
+
+	// Returns the digit at an index, or a zero outside the held digits
+	private char digitChar (int index)
+	{
+		return (index >= 0 && index < digitCount) ? (char) digits[index] : '0';
+	} // digitChar()
+
+
+
+	// Writes a string of characters
+	private void putChars (String value)
+	{
+		for (int i = 0; i < value.length(); i++)
+			chars[length++] = value.charAt(i);
+	} // putChars()
+
+
+
+	// Rounds g * cp / 2^127 to odd, where g = g1 * 2^63 + g0
+	private static long roundOdd (long g1, long g0, long cp)
+	{
+		long x1 = multiplyHigh(g0, cp);
+		long y0 = g1 * cp;
+		long y1 = multiplyHigh(g1, cp);
+		long z = (y0 >>> 1) + x1;
+		long vbp = y1 + (z >>> 63);
+		return vbp | (z & MASK_63) + MASK_63 >>> 63;
+	} // roundOdd()
+
+
+
+	// The high 64 bits of the 128 bit product of two longs
+	private static long multiplyHigh (long x, long y)
+	{
+		long x1 = x >> 32;
+		long x2 = x & 0xFFFFFFFFL;
+		long y1 = y >> 32;
+		long y2 = y & 0xFFFFFFFFL;
+		long z2 = x2 * y2;
+		long t = x1 * y2 + (z2 >>> 32);
+		long z1 = (t & 0xFFFFFFFFL) + x2 * y1;
+		long z0 = t >> 32;
+		return x1 * y1 + z0 + (z1 >> 32);
+	} // multiplyHigh()
+
+
+
+	// floor(e * log10(2)), for |e| <= 5456721
+	private static int flog10pow2 (int e)
+	{
+		return (int) (e * 661_971_961_083L >> 41);
+	} // flog10pow2()
+
+	// floor(e * log10(2) + log10(3/4)), for |e| <= 2114145
+	private static int flog10threeQuartersPow2 (int e)
+	{
+		return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+	} // flog10threeQuartersPow2()
+
+	// floor(e * log2(10)), for |e| <= 1838394
+	private static int flog2pow10 (int e)
+	{
+		return (int) (e * 913_124_641_741L >> 38);
+	} // flog2pow10()
+
+} // class NumberFormatter
@@ -0,0 +1,997 @@
+package view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.event.EventHandler;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * PlotCanvas.java
+ *
+ * Purpose: Draws line plots of simulation data straight onto a Canvas,
+ * 		from primitive arrays of x and y values, instead of creating a
+ * 		chart node for every point. Several data sets can be overlaid,
+ * 		each with its own color and an entry in the legend.
+ *
+ * 		Each line is decimated to the visible x range at one column per
+ * 		pixel by a SeriesDecimator, which keeps the lowest and highest
+ * 		point of every column. A frame costs the same for a thousand or
+ * 		millions of points, peaks are never lost, and zooming in brings
+ * 		back every point. Drawing is done at most once a frame, however
+ * 		many changes are made.
+ *
+ * 		Scroll to zoom around the mouse (hold Control to zoom time only),
+ * 		drag to pan, and double click to fit every data set again. Moving
+ * 		the mouse over the plot shows the value of every data set at that
+ * 		x, drawn on a separate layer so the data is not drawn again.
+**/
+
+public class PlotCanvas extends Pane
+{
+	// Constants
+	private static final double LEFT_MARGIN   = 70;
+	private static final double RIGHT_MARGIN  = 20;
+	private static final double TOP_MARGIN    = 35;
+	private static final double BOTTOM_MARGIN = 50;
+	private static final double TICK_SPACING  = 80;     // Fewest pixels between ticks
+	private static final double TICK_LENGTH   = 5;
+	private static final double LINE_WIDTH    = 1.5;
+	private static final double HEADROOM      = 1.05;   // Space above the highest value when fitted
+	private static final double ZOOM_STEP     = 1.1;    // Zoom for one notch of the scroll wheel
+	private static final double SCROLL_NOTCH  = 40;     // Scroll delta of one notch
+	private static final double LEGEND_ROW    = 18;
+	private static final double LEGEND_SWATCH = 20;
+	private static final double MARKER_RADIUS = 3;
+	private static final int LABEL_DIGITS     = 6;
+	private static final int READOUT_DIGITS   = 5;
+	private static final Color AXIS_COLOR     = Color.web("#404040");
+	private static final Color GRID_COLOR     = Color.web("#e4e4e4");
+	private static final Color BOX_COLOR      = Color.web("#ffffff", 0.85);
+	private static final Color COLORS[]       = { Color.web("#f3622d"), Color.web("#fba71b"), Color.web("#57b757"),
+												  Color.web("#41a9c9"), Color.web("#4258c9"), Color.web("#9a42c8"),
+												  Color.web("#c84164"), Color.web("#888888") };
+
+
+
+	// Components
+	private final Canvas plotLayer  = new Canvas();
+	private final Canvas hoverLayer = new Canvas();
+
+
+
+	// Fields
+	private final List<DataSet> dataSets = new ArrayList<DataSet>();
+	private final SimpleIntegerProperty dataSetCount = new SimpleIntegerProperty();
+	private final NumberFormatter formatter = new NumberFormatter();
+	private String title  = "";
+	private String xLabel = "";
+	private String yLabel = "";
+	private int nextColor;
+
+
+
+	// Visible range, and the plot area it is drawn in
+	private double viewMinX = 0;
+	private double viewMaxX = 1;
+	private double viewMinY = 0;
+	private double viewMaxY = 1;
+	private boolean fitted = true;   // False once the user pans or zooms
+	private double plotLeft;
+	private double plotRight;
+	private double plotTop;
+	private double plotBottom;
+
+
+
+	// Interaction state
+	private boolean plotDirty;
+	private boolean hoverDirty;
+	private double hoverX = Double.NaN;
+	private double hoverY = Double.NaN;
+	private double dragX;
+	private double dragY;
+
+
+
+	// Buffers for the points of a polyline, reused by every draw
+	private double xPixels[] = new double[0];
+	private double yPixels[] = new double[0];
+
+
+
+	/**
+	 * DataSet
+	 *
+	 * Purpose: One line of the plot, with its name and color. Created by
+	 * 		addDataSet() and changed only through the PlotCanvas.
+	**/
+
+	public static class DataSet
+	{
+		// Fields
+		private String name;
+		private final Color color;
+		private double x[];
+		private double y[];
+		private int size;
+		private boolean owned;   // False while the arrays belong to the caller
+		private final SeriesDecimator decimator;
+		private double minX = Double.POSITIVE_INFINITY;
+		private double maxX = Double.NEGATIVE_INFINITY;
+		private double minY = Double.POSITIVE_INFINITY;
+		private double maxY = Double.NEGATIVE_INFINITY;
+
+
+
+		private DataSet (String name, Color color, double x[], double y[], int size, boolean owned)
+		{
+			this.name  = name;
+			this.color = color;
+			this.x     = x;
+			this.y     = y;
+			this.size  = size;
+			this.owned = owned;
+			this.decimator = new SeriesDecimator(x, y, size);
+			extendBounds(0, size);
+		} // DataSet Constructor
+
+
+
+		// Grows the bounds of the set to cover the given points
+		private void extendBounds (int from, int to)
+		{
+			if (from == to)
+				return;
+
+			minX = Math.min(minX, x[from]);
+			maxX = Math.max(maxX, x[to - 1]);
+			for (int i = from; i < to; i++)
+			{
+				minY = Math.min(minY, y[i]);
+				maxY = Math.max(maxY, y[i]);
+			}
+		} // extendBounds()
+
+
+
+		/**
+		 * getName() / getSize()
+		 *
+		 * Purpose: Return the name of the set in the legend, and how
+		 * 		many points it has.
+		 *
+		 * Parameters: None.
+		 *
+		 * Returns: The name, or the number of points.
+		**/
+
+		public String getName ()
+		{
+			return name;
+		} // getName()
+
+		public int getSize ()
+		{
+			return size;
+		} // getSize()
+
+	} // class DataSet
+
+
+
+	/**
+	 * PlotCanvas Constructor
+	 *
+	 * Purpose: Creates an empty plot, which redraws itself once a frame
+	 * 		whenever something has changed.
+	**/
+
+	public PlotCanvas ()
+	{
+		getChildren().addAll(plotLayer, hoverLayer);
+		addMouseHandlers();
+
+		new AnimationTimer()
+		{
+			@Override
+			public void handle (long now)
+			{
+				if (plotDirty)
+				{
+					plotDirty = false;
+					drawPlot();
+				}
+				if (hoverDirty)
+				{
+					hoverDirty = false;
+					drawHover();
+				}
+			}
+		}.start();
+	} // PlotCanvas Constructor
+
+
+
+	/**
+	 * setTitle() / setXLabel() / setYLabel()
+	 *
+	 * Purpose: Set the title above the plot and the labels of its axes.
+	 *
+	 * Parameters:
+	 * 		String text -- The text to show.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setTitle (String text)
+	{
+		title = text;
+		requestDraw();
+	} // setTitle()
+
+	public void setXLabel (String text)
+	{
+		xLabel = text;
+		requestDraw();
+	} // setXLabel()
+
+	public void setYLabel (String text)
+	{
+		yLabel = text;
+		requestDraw();
+	} // setYLabel()
+
+
+
+	/**
+	 * addDataSet()
+	 *
+	 * Purpose: Adds a line for the first size points of the given arrays.
+	 * 		The arrays are not copied, and must not change while they are
+	 * 		shown. The x values must not decrease.
+	 *
+	 * Parameters:
+	 * 		String name -- Name of the line in the legend.
+	 * 		double x[] -- X value of each point.
+	 * 		double y[] -- Y value of each point.
+	 * 		int size -- How many points of the arrays to draw.
+	 *
+	 * Returns: DataSet. The new line.
+	**/
+
+	public DataSet addDataSet (String name, double x[], double y[], int size)
+	{
+		DataSet dataSet = new DataSet(name, COLORS[nextColor++ % COLORS.length], x, y, size, false);
+		dataSets.add(dataSet);
+		dataSetCount.set(dataSets.size());
+		dataChanged();
+		return dataSet;
+	} // addDataSet()
+
+
+
+	/**
+	 * addDataSet()
+	 *
+	 * Purpose: Adds an empty line, which points are then added to with
+	 * 		appendData(), for example while a simulation runs.
+	 *
+	 * Parameters:
+	 * 		String name -- Name of the line in the legend.
+	 *
+	 * Returns: DataSet. The new line.
+	**/
+
+	public DataSet addDataSet (String name)
+	{
+		DataSet dataSet = new DataSet(name, COLORS[nextColor++ % COLORS.length], new double[0], new double[0], 0, true);
+		dataSets.add(dataSet);
+		dataSetCount.set(dataSets.size());
+		dataChanged();
+		return dataSet;
+	} // addDataSet()
+
+
+
+	/**
+	 * appendData()
+	 *
+	 * Purpose: Adds points to the end of a line. The arrays are copied.
+	 *
+	 * Parameters:
+	 * 		DataSet dataSet -- The line to add to.
+	 * 		double x[] -- X value of each point, after the last one.
+	 * 		double y[] -- Y value of each point.
+	 *
+	 * Returns: void.
+	**/
+
+	public void appendData (DataSet dataSet, double x[], double y[])
+	{
+		int size = dataSet.size + x.length;
+		if (dataSet.owned == false || size > dataSet.x.length)
+		{
+			// Grow by half, so adding a batch at a time stays linear
+			int capacity = Math.max(size, dataSet.x.length + (dataSet.x.length >> 1));
+			dataSet.x = Arrays.copyOf(dataSet.x, capacity);
+			dataSet.y = Arrays.copyOf(dataSet.y, capacity);
+			dataSet.owned = true;
+		}
+
+		System.arraycopy(x, 0, dataSet.x, dataSet.size, x.length);
+		System.arraycopy(y, 0, dataSet.y, dataSet.size, y.length);
+		dataSet.size = size;
+		dataSet.decimator.append(dataSet.x, dataSet.y, size);
+		dataSet.extendBounds(size - x.length, size);
+		dataChanged();
+	} // appendData()
+
+
+
+	/**
+	 * replaceData()
+	 *
+	 * Purpose: Gives a line new points and a new name, keeping its color
+	 * 		and place in the legend. The arrays are not copied, as with
+	 * 		addDataSet().
+	 *
+	 * Parameters:
+	 * 		DataSet dataSet -- The line to change.
+	 * 		String name -- Name of the line in the legend.
+	 * 		double x[] -- X value of each point.
+	 * 		double y[] -- Y value of each point.
+	 * 		int size -- How many points of the arrays to draw.
+	 *
+	 * Returns: void.
+	**/
+
+	public void replaceData (DataSet dataSet, String name, double x[], double y[], int size)
+	{
+		dataSet.name  = name;
+		dataSet.x     = x;
+		dataSet.y     = y;
+		dataSet.size  = size;
+		dataSet.owned = false;
+		dataSet.minX  = Double.POSITIVE_INFINITY;
+		dataSet.maxX  = Double.NEGATIVE_INFINITY;
+		dataSet.minY  = Double.POSITIVE_INFINITY;
+		dataSet.maxY  = Double.NEGATIVE_INFINITY;
+		dataSet.decimator.reset(x, y, size);
+		dataSet.extendBounds(0, size);
+		dataChanged();
+	} // replaceData()
+
+
+
+	/**
+	 * setName()
+	 *
+	 * Purpose: Changes the name of a line in the legend.
+	 *
+	 * Parameters:
+	 * 		DataSet dataSet -- The line to rename.
+	 * 		String name -- The new name.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setName (DataSet dataSet, String name)
+	{
+		dataSet.name = name;
+		requestDraw();
+	} // setName()
+
+
+
+	/**
+	 * removeDataSet() / clear()
+	 *
+	 * Purpose: Remove one line, or every line, from the plot.
+	 *
+	 * Parameters:
+	 * 		DataSet dataSet -- The line to remove.
+	 *
+	 * Returns: void.
+	**/
+
+	public void removeDataSet (DataSet dataSet)
+	{
+		if (dataSets.remove(dataSet))
+		{
+			dataSetCount.set(dataSets.size());
+			dataChanged();
+		}
+	} // removeDataSet()
+
+	public void clear ()
+	{
+		dataSets.clear();
+		dataSetCount.set(0);
+		nextColor = 0;
+		fitted = true;
+		dataChanged();
+	} // clear()
+
+
+
+	/**
+	 * contains()
+	 *
+	 * Purpose: Returns whether a line is still on the plot.
+	 *
+	 * Parameters:
+	 * 		DataSet dataSet -- The line to look for.
+	 *
+	 * Returns: boolean. True if the line is shown.
+	**/
+
+	public boolean contains (DataSet dataSet)
+	{
+		return dataSets.contains(dataSet);
+	} // contains()
+
+
+
+	/**
+	 * dataSetCountProperty()
+	 *
+	 * Purpose: Returns the number of lines on the plot, as a property that
+	 * 		controls can be bound to.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: ReadOnlyIntegerProperty. The number of lines.
+	**/
+
+	public ReadOnlyIntegerProperty dataSetCountProperty ()
+	{
+		return dataSetCount;
+	} // dataSetCountProperty()
+
+
+
+	/**
+	 * fitView()
+	 *
+	 * Purpose: Shows every point of every line, from zero or the lowest
+	 * 		value up to just above the highest value. The view keeps fitting
+	 * 		new data until the user pans or zooms.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	public void fitView ()
+	{
+		double minX = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double minY = 0;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for (DataSet dataSet : dataSets)
+		{
+			minX = Math.min(minX, dataSet.minX);
+			maxX = Math.max(maxX, dataSet.maxX);
+			minY = Math.min(minY, dataSet.minY);
+			maxY = Math.max(maxY, dataSet.maxY);
+		}
+
+		// Keep a usable range when there is no data, or only one point
+		if (minX >= maxX)
+		{
+			minX = minX > maxX ? 0 : minX - 0.5;
+			maxX = minX + 1;
+		}
+		if (minY >= maxY)
+			maxY = minY + 1;
+
+		viewMinX = minX;
+		viewMaxX = maxX;
+		viewMinY = minY;
+		viewMaxY = maxY + (maxY - minY) * (HEADROOM - 1);
+		fitted = true;
+		requestDraw();
+	} // fitView()
+
+
+
+	// Called when lines change, fitting them if the user has not zoomed
+	private void dataChanged ()
+	{
+		if (fitted)
+			fitView();
+		else
+			requestDraw();
+	} // dataChanged()
+
+
+
+	// Marks both layers to be drawn at the next frame
+	private void requestDraw ()
+	{
+		plotDirty  = true;
+		hoverDirty = true;
+	} // requestDraw()
+
+
+
+	/**
+	 * layoutChildren()
+	 *
+	 * Purpose: Sizes both canvas layers to the pane.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	@Override
+	protected void layoutChildren ()
+	{
+		super.layoutChildren();
+		if (plotLayer.getWidth() != getWidth() || plotLayer.getHeight() != getHeight())
+		{
+			plotLayer.setWidth(getWidth());
+			plotLayer.setHeight(getHeight());
+			hoverLayer.setWidth(getWidth());
+			hoverLayer.setHeight(getHeight());
+			requestDraw();
+		}
+	} // layoutChildren()
+
+
+
+	/**
+	 * drawPlot()
+	 *
+	 * Purpose: Draws the title, axes, grid, lines, and legend.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	private void drawPlot ()
+	{
+		GraphicsContext gc = plotLayer.getGraphicsContext2D();
+		double width  = plotLayer.getWidth();
+		double height = plotLayer.getHeight();
+		plotLeft   = LEFT_MARGIN;
+		plotRight  = Math.max(width - RIGHT_MARGIN, plotLeft + 1);
+		plotTop    = TOP_MARGIN;
+		plotBottom = Math.max(height - BOTTOM_MARGIN, plotTop + 1);
+
+		gc.clearRect(0, 0, width, height);
+		gc.setFill(AXIS_COLOR);
+		gc.setTextAlign(TextAlignment.CENTER);
+		gc.setTextBaseline(VPos.CENTER);
+		gc.fillText(title, (plotLeft + plotRight) / 2, TOP_MARGIN / 2);
+
+		drawAxes(gc);
+
+		// Lines are clipped to the plot area
+		gc.save();
+		gc.beginPath();
+		gc.rect(plotLeft, plotTop, plotRight - plotLeft, plotBottom - plotTop);
+		gc.clip();
+		gc.setLineWidth(LINE_WIDTH);
+		for (DataSet dataSet : dataSets)
+			drawDataSet(gc, dataSet);
+		gc.restore();
+
+		drawLegend(gc);
+	} // drawPlot()
+
+
+
+	// Draws the grid lines, tick labels, and axis labels
+	private void drawAxes (GraphicsContext gc)
+	{
+		gc.setLineWidth(1);
+
+		// X axis
+		double step = tickStep(viewMaxX - viewMinX, (plotRight - plotLeft) / TICK_SPACING);
+		gc.setTextAlign(TextAlignment.CENTER);
+		gc.setTextBaseline(VPos.TOP);
+		for (long k = (long) Math.ceil(viewMinX / step); Double.isInfinite(step) == false && k * step <= viewMaxX; k++)
+		{
+			double px = Math.round(toPixelX(k * step)) + 0.5;
+			gc.setStroke(GRID_COLOR);
+			gc.strokeLine(px, plotTop, px, plotBottom);
+			gc.setStroke(AXIS_COLOR);
+			gc.strokeLine(px, plotBottom, px, plotBottom + TICK_LENGTH);
+			gc.fillText(formatter.formatSignificant(k * step, LABEL_DIGITS).toString(), px, plotBottom + TICK_LENGTH + 2);
+		}
+		gc.fillText(xLabel, (plotLeft + plotRight) / 2, plotBottom + BOTTOM_MARGIN / 2);
+
+		// Y axis
+		step = tickStep(viewMaxY - viewMinY, (plotBottom - plotTop) / TICK_SPACING);
+		gc.setTextAlign(TextAlignment.RIGHT);
+		gc.setTextBaseline(VPos.CENTER);
+		for (long k = (long) Math.ceil(viewMinY / step); Double.isInfinite(step) == false && k * step <= viewMaxY; k++)
+		{
+			double py = Math.round(toPixelY(k * step)) + 0.5;
+			gc.setStroke(GRID_COLOR);
+			gc.strokeLine(plotLeft, py, plotRight, py);
+			gc.setStroke(AXIS_COLOR);
+			gc.strokeLine(plotLeft - TICK_LENGTH, py, plotLeft, py);
+			gc.fillText(formatter.formatSignificant(k * step, LABEL_DIGITS).toString(), plotLeft - TICK_LENGTH - 2, py);
+		}
+
+		// The y label reads upwards along the axis
+		gc.save();
+		gc.translate(LEFT_MARGIN / 4, (plotTop + plotBottom) / 2);
+		gc.rotate(-90);
+		gc.setTextAlign(TextAlignment.CENTER);
+		gc.fillText(yLabel, 0, 0);
+		gc.restore();
+
+		gc.setStroke(AXIS_COLOR);
+		gc.strokeRect(plotLeft + 0.5, plotTop + 0.5, plotRight - plotLeft, plotBottom - plotTop);
+	} // drawAxes()
+
+
+
+	/**
+	 * tickStep()
+	 *
+	 * Purpose: Picks the distance between ticks: 1, 2, or 5 times a power
+	 * 		of ten, giving at most about the given number of ticks.
+	 *
+	 * Parameters:
+	 * 		double range -- Size of the visible range.
+	 * 		double ticks -- Most ticks wanted.
+	 *
+	 * Returns: double. Distance between ticks, or infinity if the range
+	 * 		is too small to hold any.
+	**/
+
+	private static double tickStep (double range, double ticks)
+	{
+		double rough = range / Math.max(ticks, 1);
+		if (rough > 0 == false || Double.isInfinite(rough))
+			return Double.POSITIVE_INFINITY;
+		double magnitude = Math.pow(10, Math.floor(Math.log10(rough)));
+		double residual = rough / magnitude;
+
+		if (residual > 5)
+			return 10 * magnitude;
+		else if (residual > 2)
+			return 5 * magnitude;
+		else if (residual > 1)
+			return 2 * magnitude;
+		return magnitude;
+	} // tickStep()
+
+
+
+	/**
+	 * drawDataSet()
+	 *
+	 * Purpose: Draws the visible part of a line as one polyline, through
+	 * 		the points its decimator picks for one column per pixel.
+	 *
+	 * Parameters:
+	 * 		GraphicsContext gc -- Context of the plot layer.
+	 * 		DataSet dataSet -- The line to draw.
+	 *
+	 * Returns: void.
+	**/
+
+	private void drawDataSet (GraphicsContext gc, DataSet dataSet)
+	{
+		int columns = Math.max((int) Math.ceil(plotRight - plotLeft), 1);
+		if (SeriesDecimator.maxPoints(columns) > xPixels.length)
+		{
+			xPixels = new double[SeriesDecimator.maxPoints(columns)];
+			yPixels = new double[SeriesDecimator.maxPoints(columns)];
+		}
+
+		// Decimate in data values, then turn the points into pixels in place
+		int count = dataSet.decimator.decimate(viewMinX, viewMaxX, columns, xPixels, yPixels);
+		double scaleX = (plotRight - plotLeft) / (viewMaxX - viewMinX);
+		double scaleY = (plotBottom - plotTop) / (viewMaxY - viewMinY);
+		for (int i = 0; i < count; i++)
+		{
+			xPixels[i] = plotLeft + (xPixels[i] - viewMinX) * scaleX;
+			yPixels[i] = plotBottom - (yPixels[i] - viewMinY) * scaleY;
+		}
+
+		gc.setStroke(dataSet.color);
+		gc.strokePolyline(xPixels, yPixels, count);
+	} // drawDataSet()
+
+
+
+	// Draws the name and color of every line in the top right corner
+	private void drawLegend (GraphicsContext gc)
+	{
+		if (dataSets.isEmpty())
+			return;
+
+		double textWidth = 0;
+		for (DataSet dataSet : dataSets)
+			textWidth = Math.max(textWidth, textWidth(gc, dataSet.name));
+		double boxWidth  = LEGEND_SWATCH + textWidth + 15;
+		double boxHeight = dataSets.size() * LEGEND_ROW + 6;
+		double boxX = plotRight - boxWidth - 8;
+		double boxY = plotTop + 8;
+
+		gc.setFill(BOX_COLOR);
+		gc.fillRect(boxX, boxY, boxWidth, boxHeight);
+		gc.setStroke(GRID_COLOR);
+		gc.setLineWidth(1);
+		gc.strokeRect(boxX, boxY, boxWidth, boxHeight);
+
+		gc.setTextAlign(TextAlignment.LEFT);
+		gc.setTextBaseline(VPos.CENTER);
+		gc.setLineWidth(3);
+		for (int i = 0; i < dataSets.size(); i++)
+		{
+			DataSet dataSet = dataSets.get(i);
+			double rowY = boxY + 3 + (i + 0.5) * LEGEND_ROW;
+			gc.setStroke(dataSet.color);
+			gc.strokeLine(boxX + 5, rowY, boxX + 5 + LEGEND_SWATCH - 5, rowY);
+			gc.setFill(AXIS_COLOR);
+			gc.fillText(dataSet.name, boxX + 5 + LEGEND_SWATCH, rowY);
+		}
+	} // drawLegend()
+
+
+
+	// Measures text in the font of the given context
+	private static double textWidth (GraphicsContext gc, String text)
+	{
+		Text measure = new Text(text);
+		measure.setFont(gc.getFont());
+		return measure.getLayoutBounds().getWidth();
+	} // textWidth()
+
+
+
+	/**
+	 * drawHover()
+	 *
+	 * Purpose: Draws a line at the x under the mouse, a marker on every
+	 * 		line at the nearest point, and a box with their values.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	private void drawHover ()
+	{
+		GraphicsContext gc = hoverLayer.getGraphicsContext2D();
+		gc.clearRect(0, 0, hoverLayer.getWidth(), hoverLayer.getHeight());
+		if (Double.isNaN(hoverX) || hoverX < plotLeft || hoverX > plotRight || hoverY < plotTop || hoverY > plotBottom
+			|| dataSets.isEmpty())
+			return;
+
+		double x = toDataX(hoverX);
+		gc.setStroke(AXIS_COLOR);
+		gc.setLineWidth(1);
+		gc.strokeLine(Math.round(hoverX) + 0.5, plotTop, Math.round(hoverX) + 0.5, plotBottom);
+
+		List<String> lines = new ArrayList<String>();
+		lines.add(xLabel + ": " + formatter.formatSignificant(x, READOUT_DIGITS));
+		for (DataSet dataSet : dataSets)
+		{
+			int index = nearestIndex(dataSet, x);
+			if (index < 0)
+				continue;
+
+			double px = toPixelX(dataSet.x[index]);
+			double py = toPixelY(dataSet.y[index]);
+			gc.setFill(dataSet.color);
+			gc.fillOval(px - MARKER_RADIUS, py - MARKER_RADIUS, 2 * MARKER_RADIUS, 2 * MARKER_RADIUS);
+			lines.add(dataSet.name + ": " + formatter.formatSignificant(dataSet.y[index], READOUT_DIGITS));
+		}
+
+		// Keep the box inside the plot
+		double textWidth = 0;
+		for (String line : lines)
+			textWidth = Math.max(textWidth, textWidth(gc, line));
+		double boxWidth  = textWidth + 12;
+		double boxHeight = lines.size() * LEGEND_ROW + 6;
+		double boxX = hoverX + 12 + boxWidth > plotRight ? hoverX - 12 - boxWidth : hoverX + 12;
+		double boxY = Math.min(hoverY + 12, plotBottom - boxHeight);
+
+		gc.setFill(BOX_COLOR);
+		gc.fillRect(boxX, boxY, boxWidth, boxHeight);
+		gc.setStroke(GRID_COLOR);
+		gc.strokeRect(boxX, boxY, boxWidth, boxHeight);
+		gc.setFill(AXIS_COLOR);
+		gc.setTextAlign(TextAlignment.LEFT);
+		gc.setTextBaseline(VPos.CENTER);
+		for (int i = 0; i < lines.size(); i++)
+			gc.fillText(lines.get(i), boxX + 6, boxY + 3 + (i + 0.5) * LEGEND_ROW);
+	} // drawHover()
+
+
+
+	/**
+	 * lowerBound() / nearestIndex()
+	 *
+	 * Purpose: Find the first point whose x is at least the given value,
+	 * 		and the point of a line whose x is closest to the given value,
+	 * 		by binary search.
+	 *
+	 * Parameters:
+	 * 		double x[] / DataSet dataSet -- Points to search.
+	 * 		int size -- How many of the points are used.
+	 * 		double value -- X value to look for.
+	 *
+	 * Returns: int. The index found, size if every x is smaller, or -1 if
+	 * 		the line has no points.
+	**/
+
+	private static int lowerBound (double x[], int size, double value)
+	{
+		int low = 0;
+		int high = size;
+		while (low < high)
+		{
+			int middle = (low + high) >>> 1;
+			if (x[middle] < value)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	} // lowerBound()
+
+	private static int nearestIndex (DataSet dataSet, double value)
+	{
+		if (dataSet.size == 0)
+			return -1;
+
+		int index = lowerBound(dataSet.x, dataSet.size, value);
+		if (index == dataSet.size || (index > 0 && value - dataSet.x[index - 1] < dataSet.x[index] - value))
+			index--;
+		return index;
+	} // nearestIndex()
+
+
+
+	// Convert between data values and pixels of the plot area
+	private double toPixelX (double x)
+	{
+		return plotLeft + (x - viewMinX) * (plotRight - plotLeft) / (viewMaxX - viewMinX);
+	} // toPixelX()
+
+	private double toPixelY (double y)
+	{
+		return plotBottom - (y - viewMinY) * (plotBottom - plotTop) / (viewMaxY - viewMinY);
+	} // toPixelY()
+
+	private double toDataX (double px)
+	{
+		return viewMinX + (px - plotLeft) * (viewMaxX - viewMinX) / (plotRight - plotLeft);
+	} // toDataX()
+
+	private double toDataY (double py)
+	{
+		return viewMinY + (plotBottom - py) * (viewMaxY - viewMinY) / (plotBottom - plotTop);
+	} // toDataY()
+
+
+
+	/**
+	 * zoom()
+	 *
+	 * Purpose: Scales the visible range around the given pixel, which stays
+	 * 		over the same value.
+	 *
+	 * Parameters:
+	 * 		double px -- X pixel to zoom around.
+	 * 		double py -- Y pixel to zoom around.
+	 * 		double factor -- New size of the range over the old, so less
+	 * 			than one zooms in.
+	 * 		boolean xOnly -- True to leave the y range alone.
+	 *
+	 * Returns: void.
+	**/
+
+	private void zoom (double px, double py, double factor, boolean xOnly)
+	{
+		double x = toDataX(px);
+		viewMinX = x - (x - viewMinX) * factor;
+		viewMaxX = x + (viewMaxX - x) * factor;
+		if (xOnly == false)
+		{
+			double y = toDataY(py);
+			viewMinY = y - (y - viewMinY) * factor;
+			viewMaxY = y + (viewMaxY - y) * factor;
+		}
+		fitted = false;
+		requestDraw();
+	} // zoom()
+
+
+
+	// Adds zoom, pan, fit, and hover to the mouse
+	private void addMouseHandlers ()
+	{
+		setOnScroll(new EventHandler<ScrollEvent> ()
+		{
+			@Override public void handle (ScrollEvent e)
+			{
+				if (e.getDeltaY() != 0)
+					zoom(e.getX(), e.getY(), Math.pow(ZOOM_STEP, -e.getDeltaY() / SCROLL_NOTCH), e.isControlDown());
+				e.consume();
+			}
+		});
+
+		setOnMousePressed(new EventHandler<MouseEvent> ()
+		{
+			@Override public void handle (MouseEvent e)
+			{
+				dragX = e.getX();
+				dragY = e.getY();
+			}
+		});
+
+		setOnMouseDragged(new EventHandler<MouseEvent> ()
+		{
+			@Override public void handle (MouseEvent e)
+			{
+				// Move the range so the value under the mouse follows it
+				double dx = (e.getX() - dragX) * (viewMaxX - viewMinX) / (plotRight - plotLeft);
+				double dy = (e.getY() - dragY) * (viewMaxY - viewMinY) / (plotBottom - plotTop);
+				viewMinX -= dx;
+				viewMaxX -= dx;
+				viewMinY += dy;
+				viewMaxY += dy;
+				dragX = e.getX();
+				dragY = e.getY();
+				hoverX = e.getX();
+				hoverY = e.getY();
+				fitted = false;
+				requestDraw();
+			}
+		});
+
+		setOnMouseClicked(new EventHandler<MouseEvent> ()
+		{
+			@Override public void handle (MouseEvent e)
+			{
+				if (e.getClickCount() == 2)
+					fitView();
+			}
+		});
+
+		setOnMouseMoved(new EventHandler<MouseEvent> ()
+		{
+			@Override public void handle (MouseEvent e)
+			{
+				hoverX = e.getX();
+				hoverY = e.getY();
+				hoverDirty = true;
+			}
+		});
+
+		setOnMouseExited(new EventHandler<MouseEvent> ()
+		{
+			@Override public void handle (MouseEvent e)
+			{
+				hoverX = Double.NaN;
+				hoverDirty = true;
+			}
+		});
+	} // addMouseHandlers()
+
+} // class PlotCanvas
@@ -5,6 +5,7 @@ import controller.LengthUnitsSelector;
 import controller.NumberTextField;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.BooleanBinding;
+import javafx.beans.property.BooleanProperty;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.scene.control.RadioButton;
@@ -421,6 +422,24 @@ public class PropellantInputView extends Pane
 	
 	
 	
+	/**
+	 * steadyStateSelectedProperty()
+	 * 
+	 * Purpose: Returns the selected property of the Steady-State toggle,
+	 * 		which changes whenever the propellant model is switched.
+	 * 
+	 * Parameters: None.
+	 * 
+	 * Returns: BooleanProperty. True while the steady-state model is used.
+	**/
+	
+	public BooleanProperty steadyStateSelectedProperty ()
+	{
+		return steadyStateCheck.selectedProperty();
+	} // steadyStateSelectedProperty()
+	
+	
+	
 	/**
 	 * getBurnRateCoefficientInput()
 	 * 
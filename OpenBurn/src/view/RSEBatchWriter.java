@@ -0,0 +1,353 @@
+package view;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.SimulationResultStore;
+import model.calculations.SimulationSummary;
+
+/**
+ * RSEBatchWriter.java
+ *
+ * Purpose: Writes the simulations of many motors into one RockSim engine
+ * 		database file, as one <engine> each in a single <engine-list>, for
+ * 		exporting a whole catalog of variants at once.
+ *
+ * 		Each added motor is formatted into text by RSEGenerator on a pool of
+ * 		worker threads, while one writer thread writes the finished engines
+ * 		to the file in the order they were added. Only a few engines per
+ * 		worker are held at a time: add() waits while the writer catches up,
+ * 		so memory use stays bounded however many motors are written.
+ *
+ * 		setTargetPoints() decimates the <eng-data> points of every engine to
+ * 		a fixed count, keeping the first and last points and peak thrust.
+**/
+
+public class RSEBatchWriter implements Closeable
+{
+	// Error messages
+	private static final String THREADS_ERR_MSG = "ERROR: Thread count must be positive!\n";
+	private static final String POINTS_ERR_MSG  = "ERROR: Target points must be at least 3, or ALL_POINTS!\n";
+	private static final String CLOSED_ERR_MSG  = "ERROR: Writer is closed!\n";
+
+
+
+	// Constants
+	public static final int ALL_POINTS             = 0;
+	private static final int PENDING_PER_THREAD    = 2;   // Engines queued per worker before add() waits
+	private static final Future<String> END_OF_LIST = CompletableFuture.completedFuture(null);
+
+
+
+	// Fields
+	private final Writer out;
+	private final String teamName;
+	private final ExecutorService workers;
+	private final BlockingQueue<Future<String>> pending;
+	private final Thread writerThread;
+	private final ThreadLocal<NumberFormatter> formatters;
+	private volatile IOException failure;
+	private int targetPoints = ALL_POINTS;
+	private int engineCount;
+	private boolean closed;
+
+
+
+	/**
+	 * RSEBatchWriter Constructor
+	 *
+	 * Purpose: Creates a writer for the given file, formatting on one
+	 * 		worker thread per core.
+	**/
+
+	public RSEBatchWriter (File file, String teamName) throws IOException
+	{
+		this(file, teamName, Runtime.getRuntime().availableProcessors());
+	} // RSEBatchWriter Constructor
+
+
+
+	/**
+	 * RSEBatchWriter Constructor
+	 *
+	 * Purpose: Creates a writer for the given file, formatting on the given
+	 * 		number of worker threads. Every engine has the given team name as
+	 * 		its manufacturer.
+	**/
+
+	public RSEBatchWriter (File file, String teamName, int threads) throws IOException
+	{
+		if (threads < 1)
+			throw new IllegalArgumentException(THREADS_ERR_MSG);
+
+		this.teamName   = teamName;
+		this.pending    = new ArrayBlockingQueue<Future<String>>(threads * PENDING_PER_THREAD);
+		this.formatters = new ThreadLocal<NumberFormatter>()
+		{
+			@Override
+			protected NumberFormatter initialValue ()
+			{
+				return new NumberFormatter();
+			}
+		};
+
+		// Daemon threads, so a writer that is never closed does not keep the program running
+		ThreadFactory daemons = new ThreadFactory()
+		{
+			@Override
+			public Thread newThread (Runnable task)
+			{
+				Thread thread = new Thread(task, "RSE formatter");
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+
+		this.out     = new BufferedWriter(new FileWriter(file));
+		this.workers = Executors.newFixedThreadPool(threads, daemons);
+
+		this.writerThread = new Thread(new Runnable()
+		{
+			@Override
+			public void run ()
+			{
+				writeEngines();
+			}
+		}, "RSE writer");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	} // RSEBatchWriter Constructor
+
+
+
+	/**
+	 * setTargetPoints()
+	 *
+	 * Purpose: Sets how many <eng-data> points engines added from now on
+	 * 		keep. Engines with fewer points keep them all.
+	 *
+	 * Parameters:
+	 * 		int targetPoints -- Points to keep, at least 3, or ALL_POINTS.
+	 *
+	 * Returns: void.
+	**/
+
+	public void setTargetPoints (int targetPoints)
+	{
+		if (targetPoints != ALL_POINTS && targetPoints < RSEGenerator.MIN_POINTS)
+			throw new IllegalArgumentException(POINTS_ERR_MSG);
+
+		this.targetPoints = targetPoints;
+	} // setTargetPoints()
+
+
+
+	/**
+	 * add()
+	 *
+	 * Purpose: Adds the engine of one motor to the file. It is formatted on
+	 * 		a worker thread, so the results, case, summary and nozzle must not
+	 * 		change afterwards. Waits while too many engines are queued.
+	 *
+	 * Parameters:
+	 * 		SimulationResultStore results -- Results of the simulation.
+	 * 		Case theCase -- Case of the motor.
+	 * 		SimulationSummary summary -- Summary of the simulation.
+	 * 		Nozzle nozzle -- Nozzle of the motor.
+	 *
+	 * Returns: void.
+	 *
+	 * Throws: IOException if an earlier engine could not be formatted or
+	 * 		written.
+	**/
+
+	public void add (SimulationResultStore results, Case theCase, SimulationSummary summary, Nozzle nozzle) throws IOException
+	{
+		if (closed)
+			throw new IllegalStateException(CLOSED_ERR_MSG);
+		checkFailure();
+
+		final RSEGenerator engine = new RSEGenerator(teamName, results, theCase, summary, nozzle);
+		final int points = targetPoints;
+		Future<String> text = workers.submit(new Callable<String>()
+		{
+			@Override
+			public String call ()
+			{
+				StringBuilder builder = new StringBuilder();
+				engine.appendEngine(builder, formatters.get(), points);
+				return builder.toString();
+			}
+		});
+
+		enqueue(text);
+		engineCount++;
+	} // add()
+
+
+
+	/**
+	 * getEngineCount()
+	 *
+	 * Purpose: Returns the number of engines added so far.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: int. The number of engines.
+	**/
+
+	public int getEngineCount ()
+	{
+		return engineCount;
+	} // getEngineCount()
+
+
+
+	/**
+	 * close()
+	 *
+	 * Purpose: Waits for every added engine to be written, ends the engine
+	 * 		list, and closes the file and the threads.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	 *
+	 * Throws: IOException if any engine could not be formatted or written.
+	**/
+
+	@Override
+	public void close () throws IOException
+	{
+		if (closed)
+			return;
+
+		closed = true;
+		try
+		{
+			enqueue(END_OF_LIST);
+			writerThread.join();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+		finally
+		{
+			workers.shutdown();
+			out.close();
+		}
+
+		checkFailure();
+	} // close()
+
+
+
+	/**
+	 * writeEngines()
+	 *
+	 * Purpose: Run by the writer thread. Writes the start of the database,
+	 * 		each engine as it is finished in the order added, then the end of
+	 * 		the database. After a failure the rest are still taken from the
+	 * 		queue, but not written, so add() never waits forever.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	private void writeEngines ()
+	{
+		write(RSEGenerator.DATABASE_START);
+		try
+		{
+			for (Future<String> next = pending.take(); next != END_OF_LIST; next = pending.take())
+			{
+				try
+				{
+					write(next.get());
+				}
+				catch (ExecutionException e)
+				{
+					fail(new IOException(e.getCause()));
+				}
+			}
+		}
+		catch (InterruptedException e)
+		{
+			fail(new InterruptedIOException());
+			return;
+		}
+		write(RSEGenerator.DATABASE_END);
+	} // writeEngines()
+
+
+
+	// Writes text to the file, unless something has already failed
+	private void write (String text)
+	{
+		if (failure != null)
+			return;
+
+		try
+		{
+			out.write(text);
+		}
+		catch (IOException e)
+		{
+			fail(e);
+		}
+	} // write()
+
+
+
+	// Queues an engine for the writer thread, waiting while the queue is full
+	private void enqueue (Future<String> engine) throws InterruptedIOException
+	{
+		try
+		{
+			pending.put(engine);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+	} // enqueue()
+
+
+
+	// Keeps the first failure
+	private void fail (IOException e)
+	{
+		if (failure == null)
+			failure = e;
+	} // fail()
+
+
+
+	// Throws the first failure, if there was one
+	private void checkFailure () throws IOException
+	{
+		if (failure != null)
+			throw failure;
+	} // checkFailure()
+
+} // class RSEBatchWriter
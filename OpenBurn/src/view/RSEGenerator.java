@@ -1,14 +1,14 @@
-
 package view;
 
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.List;
 
 import model.Case;
 import model.calculations.SimulationSummary;
 import model.Nozzle;
+import model.calculations.SimulationResultStore;
 import model.calculations.SimulationResults;
 
 import model.unitConversion.*;
@@ -16,25 +16,38 @@ import model.unitConversion.*;
 /**
  * RSEGenerator.java
  * 
- * Purpose:
+ * Purpose: Writes the simulation of one motor as an <engine> of a RockSim
+ * engine database. RSEBatchWriter uses appendEngine() to put many motors in
+ * one file.
  **/
 
 public class RSEGenerator {
+	// Start and end of an engine database, around the engines
+	static final String DATABASE_START = "<engine-database>\n  <engine-list>\n";
+	static final String DATABASE_END = "</engine-list>\n</engine-database>\n";
+
+	// Fewest <eng-data> points a decimated engine keeps: first, peak and last
+	static final int MIN_POINTS = 3;
+
 	/**
 	 * RSEGenerator Constructor
 	 * 
 	 * Purpose:
 	 **/
 
-
 	private String teamName;
-	private List<SimulationResults> results;
+	private SimulationResultStore results;
 	private Case theCase;
 	private SimulationSummary classifier;
 	private Nozzle theNozzle;
 
 	public RSEGenerator(String teamName, List<SimulationResults> simResults, Case theCase, SimulationSummary summary,
 			Nozzle theNozzle) {
+		this(teamName, SimulationResultStore.fromList(simResults), theCase, summary, theNozzle);
+	}
+
+	public RSEGenerator(String teamName, SimulationResultStore simResults, Case theCase, SimulationSummary summary,
+			Nozzle theNozzle) {
 		this.teamName = teamName;
 		this.results = simResults;
 		this.theCase = theCase;
@@ -43,12 +56,63 @@ public class RSEGenerator {
 	}
 
 	public void generateRSEToFile(File file) {
+		try {
+			writeRSE(file);
+		} catch (IOException e) {
+
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * writeRSE()
+	 * 
+	 * Purpose: Writes the engine database to the given file, throwing if it
+	 * can not be written, for callers that report errors themselves.
+	 * 
+	 * NOTE: Lines always end with \n and decimals always use '.', whatever
+	 * the platform and default locale, so the file matches the engines
+	 * RSEBatchWriter writes.
+	 * 
+	 * Parameters: File file -- File to write to.
+	 * 
+	 * Returns: void.
+	 **/
+
+	public void writeRSE(File file) throws IOException {
+		StringBuilder builder = new StringBuilder(DATABASE_START);
+		appendEngine(builder, new NumberFormatter(), 0);
+		builder.append(DATABASE_END);
+
+		PrintWriter printWriter = new PrintWriter(file);
+		printWriter.append(builder);
+		printWriter.close();
+		if (printWriter.checkError()) {
+			throw new IOException(file.getPath());
+		}
+	}
+
+	/**
+	 * appendEngine()
+	 * 
+	 * Purpose: Appends the <engine> element of the motor, formatting every
+	 * value with the given formatter. With a target point count, the
+	 * <eng-data> points are decimated to that many.
+	 * 
+	 * Parameters: StringBuilder out -- Where the element goes. NumberFormatter
+	 * formatter -- Formatter to use, not shared with other threads. int
+	 * targetPoints -- Points to keep, at least MIN_POINTS, or 0 for all.
+	 * 
+	 * Returns: void.
+	 **/
+
+	void appendEngine(StringBuilder out, NumberFormatter formatter, int targetPoints) {
 		String classification = classifier.getClassification();
 		double isp = classifier.ISP();
 		double massFrac = classifier.getMassFrac();
 		double diameter = UnitConverter.unitLengthConverter(theCase.getDiameter(), LengthUnits.INCHES,
 				LengthUnits.MILLIMETERS);
-		double mass = UnitConverter.convertMassFromInternal(results.get(0).getSystemMass(), MassUnits.GRAMS);
+		double mass = UnitConverter.convertMassFromInternal(results.getSystemMassColumn()[0], MassUnits.GRAMS);
 		double burnTime = classifier.getBurnTime();
 		double throatDiameter = UnitConverter.unitLengthConverter(theNozzle.getThroatDiameter(), LengthUnits.INCHES,
 				LengthUnits.MILLIMETERS);
@@ -61,63 +125,113 @@ public class RSEGenerator {
 				ForceUnits.NEWTONS);
 		// reloadable =0; //0;
 
-		try {
-			PrintWriter printWriter = new PrintWriter(file);
-
-			// Header stuff
-
-			printWriter.println("<engine-database>");
-			printWriter.println("  <engine-list>");
-
-			// Engine data
-			printWriter.format("    <engine  mfg=\"%s\" ", teamName);
-			printWriter.format("code=\"%s\" ", classification);
-			printWriter.print("Type=\"reloadable\" "); // Hard coded
-			printWriter.format("dia=\"%.1f\" ", diameter);
-			printWriter.format("len=\"%.1f\"\n", length);
-			printWriter.format("initWt=\"%.1f\" ", mass);
-			printWriter.format("propWt=\"%.2f\" ", mass - caseMass);
-			printWriter.println("delays=\"" + 1000 + "\" auto-calc-mass=\"1\"");// Defaults
-			printWriter.print("auto-calc-cg=\"1\" ");
-			printWriter.format("avgThrust=\"%.2f\" ", averageThrust); // mean
-			printWriter.print("peakThrust=\"" + results.get(0).getThrust() + "\" "); // max
-			printWriter.println("throatDia=\"" + throatDiameter + "\"");
-			printWriter.format("exitDia=\"%.1f\" ", exitDiameter);
-			printWriter.format("Itot=\"%.1f.\" ", impulse);
-			printWriter.format("burn-time=\"%.2f\" ", burnTime); // +time(length(time))+
+		// Engine data
+		out.append("    <engine  mfg=\"").append(teamName).append("\" ");
+		out.append("code=\"").append(classification).append("\" ");
+		out.append("Type=\"reloadable\" "); // Hard coded
+		appendAttribute(out, formatter, "dia", diameter, 1);
+		out.append("len=\"");
+		formatter.formatFixed(length, 1).appendTo(out);
+		out.append("\"\n");
+		appendAttribute(out, formatter, "initWt", mass, 1);
+		appendAttribute(out, formatter, "propWt", mass - caseMass, 2);
+		out.append("delays=\"" + 1000 + "\" auto-calc-mass=\"1\"\n");// Defaults
+		out.append("auto-calc-cg=\"1\" ");
+		appendAttribute(out, formatter, "avgThrust", averageThrust, 2); // mean
+		out.append("peakThrust=\""); // max
+		formatter.formatShortest(results.getThrustColumn()[0]).appendTo(out);
+		out.append("\" throatDia=\"");
+		formatter.formatShortest(throatDiameter).appendTo(out);
+		out.append("\"\n");
+		appendAttribute(out, formatter, "exitDia", exitDiameter, 1);
+		out.append("Itot=\"");
+		formatter.formatFixed(impulse, 1).appendTo(out);
+		out.append(".\" ");
+		appendAttribute(out, formatter, "burn-time", burnTime, 2); // +time(length(time))+
 																	// original
 																	// code
-			printWriter.format("massFrac=\"%.2f\" ", massFrac);
-			printWriter.format("Isp=\"%.2f\" \n", isp);
-			printWriter
-					.println("tDiv=\"20\" tStep=\"-1.\" tFix=\"1\" FDiv=\"20\" FStep=\"-1.\" FFix=\"1\" mDiv=\"10\""); // All
-																														// hard
-																														// coded
-																														// values
-			printWriter.println("mStep=\"-1.\" mFix=\"1\" cgDiv=\"10\" cgStep=\"-1.\" cgFix=\"1\">");
-			printWriter.println("    <data>");
-
-			// Time dependant data
-			for (int i = 0; i < results.size(); i++) {
-				printWriter.print("      <eng-data  ");
-				printWriter.format("t=\"%.3f\" ", results.get(i).getTime());
-				printWriter.format("f=\"%.2f\" ",
-						UnitConverter.convertForceFromInternal(results.get(i).getThrust(), ForceUnits.NEWTONS));
-				printWriter.format("m=\"%.2f\" ", UnitConverter
-						.convertMassFromInternal(results.get(i).getSystemMass() - theCase.getCaseMass(), MassUnits.GRAMS));
-				printWriter.format("cg=\"%.0f\"/>\n", UnitConverter.unitLengthConverter(results.get(i).getCg(),
-						LengthUnits.INCHES, LengthUnits.MILLIMETERS));
-			}
+		appendAttribute(out, formatter, "massFrac", massFrac, 2);
+		appendAttribute(out, formatter, "Isp", isp, 2);
+		out.append("\n");
+		out.append("tDiv=\"20\" tStep=\"-1.\" tFix=\"1\" FDiv=\"20\" FStep=\"-1.\" FFix=\"1\" mDiv=\"10\"\n"); // All
+																												// hard
+																												// coded
+																												// values
+		out.append("mStep=\"-1.\" mFix=\"1\" cgDiv=\"10\" cgStep=\"-1.\" cgFix=\"1\">\n");
+		out.append("    <data>\n");
+
+		// Time dependant data
+		double[] time = results.getTimeColumn();
+		double[] thrust = results.getThrustColumn();
+		double[] systemMass = results.getSystemMassColumn();
+		double[] cg = results.getCgColumn();
+		int[] rows = selectRows(thrust, results.size(), targetPoints);
+		int points = (rows == null) ? results.size() : rows.length;
+		for (int j = 0; j < points; j++) {
+			int i = (rows == null) ? j : rows[j];
+			out.append("      <eng-data  ");
+			appendAttribute(out, formatter, "t", time[i], 3);
+			appendAttribute(out, formatter, "f",
+					UnitConverter.convertForceFromInternal(thrust[i], ForceUnits.NEWTONS), 2);
+			appendAttribute(out, formatter, "m", UnitConverter
+					.convertMassFromInternal(systemMass[i] - theCase.getCaseMass(), MassUnits.GRAMS), 2);
+			out.append("cg=\"");
+			formatter.formatFixed(UnitConverter.unitLengthConverter(cg[i], LengthUnits.INCHES,
+					LengthUnits.MILLIMETERS), 0).appendTo(out);
+			out.append("\"/>\n");
+		}
 
-			// File close and cleanup
-			printWriter.println("    </data>");
-			printWriter.println("  </engine>");
-			printWriter.println("</engine-list>");
-			printWriter.println("</engine-database>");
-			printWriter.close();
-		} catch (FileNotFoundException e) {
+		out.append("    </data>\n");
+		out.append("  </engine>\n");
+	}
 
-			e.printStackTrace();
+	/**
+	 * appendAttribute()
+	 * 
+	 * Purpose: Appends name="value" and a space, with the value rounded to
+	 * the given decimal places as %.Nf would, but without a String per value.
+	 **/
+
+	private static void appendAttribute(StringBuilder out, NumberFormatter formatter, String name, double value,
+			int decimals) {
+		out.append(name).append("=\"");
+		formatter.formatFixed(value, decimals).appendTo(out);
+		out.append("\" ");
+	}
+
+	/**
+	 * selectRows()
+	 * 
+	 * Purpose: Picks evenly spaced rows to keep when decimating, always
+	 * keeping the first and last rows, and the row of peak thrust in place of
+	 * the picked row nearest to it.
+	 * 
+	 * Returns: int[]. The rows in order, or null to keep every row.
+	 **/
+
+	private static int[] selectRows(double[] thrust, int size, int targetPoints) {
+		if (targetPoints <= 0 || size <= targetPoints) {
+			return null;
 		}
+
+		int[] rows = new int[targetPoints];
+		double spacing = (size - 1.0) / (targetPoints - 1);
+		for (int j = 0; j < targetPoints; j++) {
+			rows[j] = (int) Math.round(j * spacing);
+		}
+
+		int peak = 0;
+		for (int i = 1; i < size; i++) {
+			if (thrust[i] > thrust[peak]) {
+				peak = i;
+			}
+		}
+		int nearest = (int) Math.round(peak / spacing);
+		nearest = Math.max(1, Math.min(targetPoints - 2, nearest));
+		if (rows[nearest - 1] < peak && peak < rows[nearest + 1]) {
+			rows[nearest] = peak;
+		}
+
+		return rows;
 	}
 }
\ No newline at end of file
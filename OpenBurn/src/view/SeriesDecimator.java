@@ -0,0 +1,332 @@
+package view;
+
+/**
+ * SeriesDecimator.java
+ *
+ * Purpose: Picks the points of a line worth drawing at a given width, so a
+ * 		plot costs the same however many points the line holds. The visible
+ * 		x range is split into one column per pixel, and each column keeps
+ * 		its first, lowest, highest, and last point, in order. Every peak and
+ * 		valley is kept, so the maximum thrust and pressure are never lost,
+ * 		and zooming in shows every point once columns hold fewer than four.
+ *
+ * 		The lowest and highest point of a range are found from a pyramid
+ * 		of block minimums and maximums: level k holds, for every block of
+ * 		2^k points, the index of its lowest and highest point. Any range is
+ * 		covered by O(log n) blocks, so decimating costs O(columns * log n)
+ * 		and the pyramid takes two ints per point.
+ *
+ * 		Points may be added to the end of the line. They are searched one by
+ * 		one until there are as many new points as built ones, then the
+ * 		pyramid is built again, which keeps adding points linear.
+ *
+ * 		NOTE: The x values must not decrease.
+**/
+
+public class SeriesDecimator
+{
+	// Constants
+	public static final int POINTS_PER_COLUMN = 4;      // First, lowest, highest, and last
+	private static final int MIN_UNBUILT      = 4096;   // Points left unbuilt before building again
+
+
+
+	// Fields
+	private double x[];
+	private double y[];
+	private int size;
+	private int builtSize;
+	private int minIndex[][];   // [level - 1][block], index of the lowest point of the block
+	private int maxIndex[][];   // [level - 1][block], index of the highest point of the block
+
+
+
+	/**
+	 * SeriesDecimator Constructor
+	 *
+	 * Purpose: Creates a decimator for the first size points of the given
+	 * 		arrays. The pyramid is built on the first decimate().
+	**/
+
+	public SeriesDecimator (double x[], double y[], int size)
+	{
+		reset(x, y, size);
+	} // SeriesDecimator Constructor
+
+
+
+	/**
+	 * reset()
+	 *
+	 * Purpose: Replaces the line, throwing away the pyramid.
+	 *
+	 * Parameters:
+	 * 		double x[] -- X value of each point.
+	 * 		double y[] -- Y value of each point.
+	 * 		int size -- How many points of the arrays are used.
+	 *
+	 * Returns: void.
+	**/
+
+	public void reset (double x[], double y[], int size)
+	{
+		this.x    = x;
+		this.y    = y;
+		this.size = size;
+		builtSize = 0;
+		minIndex  = new int[0][];
+		maxIndex  = new int[0][];
+	} // reset()
+
+
+
+	/**
+	 * append()
+	 *
+	 * Purpose: Tells the decimator that points were added to the end of the
+	 * 		line. The arrays may have been copied to grow, but the points
+	 * 		already there must be unchanged.
+	 *
+	 * Parameters:
+	 * 		double x[] -- X value of each point.
+	 * 		double y[] -- Y value of each point.
+	 * 		int size -- How many points of the arrays are used now.
+	 *
+	 * Returns: void.
+	**/
+
+	public void append (double x[], double y[], int size)
+	{
+		this.x    = x;
+		this.y    = y;
+		this.size = size;
+	} // append()
+
+
+
+	/**
+	 * decimate()
+	 *
+	 * Purpose: Picks the points to draw for the x range from minX to maxX
+	 * 		split into the given number of columns. The point just before
+	 * 		and just after the range are added too, so a line drawn through
+	 * 		the points reaches the edges of the range.
+	 *
+	 * Parameters:
+	 * 		double minX -- Smallest visible x.
+	 * 		double maxX -- Largest visible x.
+	 * 		int columns -- Number of columns, usually the width in pixels.
+	 * 		double outX[] -- Receives the x of each point picked. Must hold
+	 * 			at least maxPoints(columns).
+	 * 		double outY[] -- Receives the y of each point picked.
+	 *
+	 * Returns: int. The number of points picked, in order of x.
+	**/
+
+	public int decimate (double minX, double maxX, int columns, double outX[], double outY[])
+	{
+		// Build again once the points added since the last build are many
+		if (size - builtSize > Math.max(builtSize, MIN_UNBUILT))
+			build();
+
+		int count = 0;
+		int start = lowerBound(minX);
+		int end = upperBound(maxX);
+		if (start > 0)
+		{
+			outX[count] = x[start - 1];
+			outY[count] = y[start - 1];
+			count++;
+		}
+
+		double columnWidth = (maxX - minX) / columns;
+		int first = start;
+		for (int column = 0; column < columns && first < end; column++)
+		{
+			int last = column == columns - 1 ? end : Math.min(lowerBound(minX + (column + 1) * columnWidth), end);
+			if (last <= first)
+				continue;
+
+			// First, lowest, highest, and last in index order, each once
+			int low = rangeIndex(first, last, false);
+			int high = rangeIndex(first, last, true);
+			int middle1 = Math.min(low, high);
+			int middle2 = Math.max(low, high);
+			count = addPoint(first, count, outX, outY);
+			if (middle1 != first)
+				count = addPoint(middle1, count, outX, outY);
+			if (middle2 != middle1 && middle2 != last - 1)
+				count = addPoint(middle2, count, outX, outY);
+			if (last - 1 != first && last - 1 != middle1)
+				count = addPoint(last - 1, count, outX, outY);
+
+			first = last;
+		}
+
+		if (end < size)
+			count = addPoint(end, count, outX, outY);
+
+		return count;
+	} // decimate()
+
+
+
+	/**
+	 * maxPoints()
+	 *
+	 * Purpose: Returns the most points decimate() picks for the given
+	 * 		number of columns, to size its output arrays.
+	 *
+	 * Parameters:
+	 * 		int columns -- Number of columns.
+	 *
+	 * Returns: int. The most points picked.
+	**/
+
+	public static int maxPoints (int columns)
+	{
+		return columns * POINTS_PER_COLUMN + 2;
+	} // maxPoints()
+
+
+
+	// Copies a point to the output
+	private int addPoint (int index, int count, double outX[], double outY[])
+	{
+		outX[count] = x[index];
+		outY[count] = y[index];
+		return count + 1;
+	} // addPoint()
+
+
+
+	// Index of the first point whose x is at least, or more than, the given value
+	private int lowerBound (double value)
+	{
+		int low = 0;
+		int high = size;
+		while (low < high)
+		{
+			int middle = (low + high) >>> 1;
+			if (x[middle] < value)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	} // lowerBound()
+
+	private int upperBound (double value)
+	{
+		int low = 0;
+		int high = size;
+		while (low < high)
+		{
+			int middle = (low + high) >>> 1;
+			if (x[middle] <= value)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	} // upperBound()
+
+
+
+	/**
+	 * rangeIndex()
+	 *
+	 * Purpose: Returns the index of the lowest or highest point from first
+	 * 		up to but not including last. The range is covered by the largest
+	 * 		aligned blocks of the pyramid that fit in it, and points past the
+	 * 		built part are checked one by one.
+	 *
+	 * Parameters:
+	 * 		int first -- First index of the range.
+	 * 		int last -- Index just past the range.
+	 * 		boolean highest -- True for the highest point, false for the
+	 * 			lowest.
+	 *
+	 * Returns: int. Index of the point found.
+	**/
+
+	private int rangeIndex (int first, int last, boolean highest)
+	{
+		int best = first;
+		int built = Math.min(last, builtSize);
+		int i = first;
+		while (i < last)
+		{
+			// Largest block that starts at i and ends inside the built range:
+			// its size divides i and fits in what is left
+			int level = 0;
+			if (i < built)
+				level = Math.min(Math.min(Integer.numberOfTrailingZeros(i), 31 - Integer.numberOfLeadingZeros(built - i)),
+								 minIndex.length);
+
+			int candidate;
+			if (level == 0)
+				candidate = i;
+			else
+				candidate = highest ? maxIndex[level - 1][i >> level] : minIndex[level - 1][i >> level];
+
+			if (highest ? y[candidate] > y[best] : y[candidate] < y[best])
+				best = candidate;
+			i += 1 << level;
+		}
+		return best;
+	} // rangeIndex()
+
+
+
+	/**
+	 * build()
+	 *
+	 * Purpose: Builds the pyramid for every point of the line. Level one
+	 * 		compares pairs of points, and each level above compares pairs of
+	 * 		blocks of the level below.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: void.
+	**/
+
+	private void build ()
+	{
+		int levels = 0;
+		while ((size >> (levels + 1)) > 0)
+			levels++;
+
+		minIndex = new int[levels][];
+		maxIndex = new int[levels][];
+		for (int level = 1; level <= levels; level++)
+		{
+			int blocks = size >> level;
+			int mins[] = new int[blocks];
+			int maxes[] = new int[blocks];
+			for (int block = 0; block < blocks; block++)
+			{
+				// The two halves of the block, from the points or the level below
+				int lowA, lowB, highA, highB;
+				if (level == 1)
+				{
+					lowA = highA = 2 * block;
+					lowB = highB = 2 * block + 1;
+				}
+				else
+				{
+					lowA  = minIndex[level - 2][2 * block];
+					lowB  = minIndex[level - 2][2 * block + 1];
+					highA = maxIndex[level - 2][2 * block];
+					highB = maxIndex[level - 2][2 * block + 1];
+				}
+				mins[block]  = y[lowB] < y[lowA] ? lowB : lowA;
+				maxes[block] = y[highB] > y[highA] ? highB : highA;
+			}
+			minIndex[level - 1] = mins;
+			maxIndex[level - 1] = maxes;
+		}
+		builtSize = size;
+	} // build()
+
+} // class SeriesDecimator
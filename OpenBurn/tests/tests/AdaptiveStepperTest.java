@@ -0,0 +1,100 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.AdaptiveStepper;
+import model.calculations.RocketMath;
+import model.calculations.SimulationResultStore;
+import model.calculations.SimulationSummary;
+import model.propellant.Propellant;
+
+/**
+ * AdaptiveStepperTest.java
+ *
+ * Purpose: Contains unit testing for AdaptiveStepper, comparing it with the
+ * 		fixed change in time simulation of the same motor.
+**/
+
+public class AdaptiveStepperTest
+{
+	// Constants
+	private static final double DELTA_TIME           = 0.001;
+	private static final double REFERENCE_DELTA_TIME = 0.00001;
+	private static final double ADAPTIVE_TOLERANCE   = 0.001;
+	private static final double BURN_TIME_TOLERANCE  = 0.005;   // seconds
+	private static final int ROW_RATIO               = 10;      // fewest fixed rows per adaptive row
+
+
+
+	// Fields, the BATES motor from input.txt
+	private Nozzle nozzle;
+	private Case motorCase;
+	private Propellant propellant;
+
+
+
+	@Before
+	public void setUp ()
+	{
+		nozzle     = MotorFixtures.nozzle(5);
+		motorCase  = MotorFixtures.motorCase();
+		propellant = MotorFixtures.propellant();
+	} // setUp()
+
+
+
+	@Test
+	public void testFewerStepsAtEqualAccuracy ()
+	{
+		// A 10 microsecond fixed step stands in for the exact impulse
+		SimulationResultStore reference = RocketMath.simulateToStore(MotorFixtures.batesGrains(), REFERENCE_DELTA_TIME,
+																	 nozzle, motorCase, propellant);
+		SimulationResultStore fixed = RocketMath.simulateToStore(MotorFixtures.batesGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+		AdaptiveStepper stepper = new AdaptiveStepper(MotorFixtures.batesGrains(), nozzle, motorCase, propellant,
+													  ADAPTIVE_TOLERANCE, DELTA_TIME / 100, DELTA_TIME * 100);
+		SimulationResultStore adaptive = new SimulationResultStore(5);
+		stepper.run(DELTA_TIME, adaptive);
+
+		SimulationSummary referenceSummary = new SimulationSummary(reference, motorCase);
+		SimulationSummary fixedSummary = new SimulationSummary(fixed, motorCase);
+		SimulationSummary adaptiveSummary = new SimulationSummary(adaptive, motorCase);
+		double fixedError = Math.abs(fixedSummary.getImpulse() - referenceSummary.getImpulse());
+		double adaptiveError = Math.abs(adaptiveSummary.getImpulse() - referenceSummary.getImpulse());
+
+		// At least as accurate, with far fewer rows and geometry updates (two per midpoint step)
+		assertTrue(adaptiveError <= fixedError);
+		assertTrue(adaptive.size() * ROW_RATIO < fixed.size());
+		assertTrue(2 * (stepper.getAcceptedSteps() + stepper.getRejectedSteps()) * ROW_RATIO < fixed.size());
+		assertEquals(adaptiveSummary.getBurnTime(), fixedSummary.getBurnTime(), BURN_TIME_TOLERANCE);
+	} // testFewerStepsAtEqualAccuracy()
+
+
+
+	@Test
+	public void testTimeIncreases ()
+	{
+		AdaptiveStepper stepper = new AdaptiveStepper(MotorFixtures.batesGrains(), nozzle, motorCase, propellant,
+													  ADAPTIVE_TOLERANCE, DELTA_TIME / 100, DELTA_TIME * 100);
+		SimulationResultStore store = new SimulationResultStore(5);
+		stepper.run(DELTA_TIME, store);
+
+		double time[] = store.getTimeColumn();
+		for (int i = 1; i < store.size(); i++)
+			assertTrue(time[i] > time[i - 1]);
+		assertEquals(store.size(), 1 + stepper.getAcceptedSteps());
+	} // testTimeIncreases()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testRejectsBadTolerance ()
+	{
+		new AdaptiveStepper(MotorFixtures.batesGrains(), nozzle, motorCase, propellant, 0, DELTA_TIME, DELTA_TIME);
+	} // testRejectsBadTolerance()
+
+} // test AdaptiveStepperTest
@@ -0,0 +1,174 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import controller.BatchRunner;
+import controller.MotorResult;
+
+/**
+ * BatchRunnerTest.java
+ *
+ * Purpose: Contains unit testing for BatchRunner, checking the outputs of a
+ * 		run, its summary table, and that a bad motor fails alone.
+**/
+
+public class BatchRunnerTest
+{
+	// Constants
+	private static final String BATES = "name = bates\n"
+									  + "density = 0.061546\n"
+									  + "pressure-slope = 2.725060\n"
+									  + "pressure-intercept = -236.099212\n"
+									  + "burn-rate-slope = 0.000366\n"
+									  + "burn-rate-intercept = 0.083967\n"
+									  + "grain = 3.35 1.6 6 2\n"
+									  + "grain = 3.35 1.7 6 2\n"
+									  + "nozzle = 0.95 2.5 2.35 1.5\n"
+									  + "time-step = 0.01\n"
+									  + "case = 11.41 39.3701 1\n";
+
+
+
+	// Fields
+	private File inputDirectory;
+	private File outputDirectory;
+
+
+
+	@Before
+	public void setUp () throws IOException
+	{
+		inputDirectory  = Files.createTempDirectory("motors").toFile();
+		outputDirectory = new File(inputDirectory, "out");
+	} // setUp()
+
+
+
+	@After
+	public void tearDown ()
+	{
+		for (File file : outputDirectory.listFiles())
+			file.delete();
+		outputDirectory.delete();
+		for (File file : inputDirectory.listFiles())
+			file.delete();
+		inputDirectory.delete();
+	} // tearDown()
+
+
+
+	// Helper to write a motor definition file
+	private void writeMotor (String fileName, String text) throws IOException
+	{
+		Files.write(new File(inputDirectory, fileName).toPath(), text.getBytes(StandardCharsets.UTF_8));
+	} // writeMotor()
+
+
+
+	@Test
+	public void testRunWritesOutputs () throws IOException
+	{
+		writeMotor("a.motor", BATES);
+		writeMotor("b.motor", BATES.replace("0.95", "1.0"));
+		writeMotor("c.txt", "2\n0.06\n");
+		writeMotor("notes.md", "Not a motor");
+
+		List<File> files = BatchRunner.findMotorFiles(Arrays.asList(inputDirectory.getPath()));
+		assertEquals(files.size(), 3);
+
+		BatchRunner runner = new BatchRunner(outputDirectory, 2);
+		List<MotorResult> results = runner.run(files);
+
+		// Names are unique in file order, and the bad motor fails alone
+		assertEquals(results.get(0).getName(), "bates");
+		assertEquals(results.get(1).getName(), "bates-2");
+		assertTrue(results.get(0).succeeded());
+		assertTrue(results.get(1).succeeded());
+		assertFalse(results.get(2).succeeded());
+		assertEquals(BatchRunner.getExitCode(results), BatchRunner.MOTORS_FAILED);
+		assertFalse(results.get(0).getSummary().getImpulse() == results.get(1).getSummary().getImpulse());
+
+		for (String name : new String[] { "bates", "bates-2" })
+		{
+			assertTrue(new File(outputDirectory, name + BatchRunner.CSV_EXTENSION).isFile());
+			assertTrue(new File(outputDirectory, name + BatchRunner.RSE_EXTENSION).isFile());
+			assertTrue(new File(outputDirectory, name + BatchRunner.SUMMARY_EXTENSION).isFile());
+		}
+
+		List<String> table = Files.readAllLines(new File(outputDirectory, BatchRunner.SUMMARY_FILE).toPath());
+		assertEquals(table.size(), 4);
+		assertTrue(table.get(1).startsWith("bates,ok," + results.get(0).getSummary().getClassification() + ","));
+		assertTrue(table.get(3).startsWith("c.txt,FAILED,"));
+	} // testRunWritesOutputs()
+
+
+
+	@Test
+	public void testChosenOutputsOnly () throws IOException
+	{
+		writeMotor("a.motor", BATES);
+
+		BatchRunner runner = new BatchRunner(outputDirectory, 1);
+		runner.setOutputs(false, false, true);
+		List<MotorResult> results = runner.run(BatchRunner.findMotorFiles(Arrays.asList(inputDirectory.getPath())));
+
+		assertEquals(BatchRunner.getExitCode(results), BatchRunner.SUCCESS);
+		assertEquals(outputDirectory.list().length, 2);
+		assertTrue(new File(outputDirectory, "bates" + BatchRunner.SUMMARY_EXTENSION).isFile());
+	} // testChosenOutputsOnly()
+
+
+
+	@Test
+	public void testMotorNamedSummary () throws IOException
+	{
+		writeMotor("a.motor", BATES.replace("name = bates", "name = summary"));
+		writeMotor("b.motor", BATES.replace("name = bates", "name = Summary"));
+
+		BatchRunner runner = new BatchRunner(outputDirectory, 1);
+		List<MotorResult> results = runner.run(BatchRunner.findMotorFiles(Arrays.asList(inputDirectory.getPath())));
+
+		// The summary table keeps its name, and names differing in case are unique
+		assertEquals(results.get(0).getName(), "summary-2");
+		assertEquals(results.get(1).getName(), "Summary-3");
+		assertTrue(new File(outputDirectory, "summary-2" + BatchRunner.CSV_EXTENSION).isFile());
+		List<String> table = Files.readAllLines(new File(outputDirectory, BatchRunner.SUMMARY_FILE).toPath());
+		assertEquals(table.size(), 3);
+		assertTrue(table.get(1).startsWith("summary-2,ok,"));
+	} // testMotorNamedSummary()
+
+
+
+	@Test (timeout = 60000)
+	public void testMotorWithoutThrustFails () throws IOException
+	{
+		// The throat is too large for the propellant to hold any pressure
+		writeMotor("a.motor", BATES);
+		writeMotor("b.motor", BATES.replace("name = bates", "name = open")
+								   .replace("grain = 3.35 1.7 6 2\n", "")
+								   .replace("0.95 2.5 2.35", "3.0 3.2 3.3"));
+		writeMotor("c.motor", BATES.replace("0.95", "1.0"));
+
+		BatchRunner runner = new BatchRunner(outputDirectory, 2);
+		List<MotorResult> results = runner.run(BatchRunner.findMotorFiles(Arrays.asList(inputDirectory.getPath())));
+
+		assertTrue(results.get(0).succeeded());
+		assertFalse(results.get(1).succeeded());
+		assertTrue(results.get(2).succeeded());
+		assertEquals(BatchRunner.getExitCode(results), BatchRunner.MOTORS_FAILED);
+		List<String> table = Files.readAllLines(new File(outputDirectory, BatchRunner.SUMMARY_FILE).toPath());
+		assertTrue(table.get(2).startsWith("open,FAILED,"));
+	} // testMotorWithoutThrustFails()
+
+} // test BatchRunnerTest
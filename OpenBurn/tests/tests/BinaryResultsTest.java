@@ -0,0 +1,186 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.RocketMath;
+import model.calculations.SimulationResultStore;
+import model.propellant.Propellant;
+import view.BinaryResultsFormat;
+import view.BinaryResultsReader;
+import view.BinaryResultsWriter;
+
+/**
+ * BinaryResultsTest.java
+ *
+ * Purpose: Contains unit testing for BinaryResultsWriter and
+ * 		BinaryResultsReader, checking that results read back match the
+ * 		results written, for every encoding.
+**/
+
+public class BinaryResultsTest
+{
+	// Constants
+	private static final double DELTA_TIME = 0.01;
+	private static final int BLOCK_ROWS    = 64;
+
+
+
+	// Fields
+	private Nozzle nozzle;
+	private Case motorCase;
+	private Propellant propellant;
+	private SimulationResultStore results;
+	private File file;
+
+
+
+	@Before
+	public void setUp () throws IOException
+	{
+		nozzle     = MotorFixtures.nozzle(2);
+		motorCase  = MotorFixtures.motorCase();
+		propellant = MotorFixtures.propellant();
+		results    = RocketMath.simulateToStore(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+		file       = File.createTempFile("openburn", BinaryResultsFormat.EXTENSION);
+	} // setUp()
+
+
+
+	@After
+	public void tearDown ()
+	{
+		file.delete();
+	} // tearDown()
+
+
+
+	// Helper to check every value of a store against the simulated results
+	private void assertSameValues (SimulationResultStore read, double tolerance)
+	{
+		assertEquals(read.size(), results.size());
+		assertEquals(read.getGrainCount(), results.getGrainCount());
+		for (int i = 0; i < SimulationResultStore.COLUMN_COUNT; i++)
+		{
+			int values = results.size() * SimulationResultStore.getColumnWidth(i, results.getGrainCount());
+			for (int j = 0; j < values; j++)
+				assertEquals(read.getColumns()[i][j], results.getColumns()[i][j],
+							 Math.abs(results.getColumns()[i][j]) * tolerance);
+		}
+	} // assertSameValues()
+
+
+
+	@Test
+	public void testStoredResultsRoundTrip () throws IOException
+	{
+		BinaryResultsWriter.write(results, file);
+
+		BinaryResultsReader reader = new BinaryResultsReader(file);
+		assertEquals(reader.getRowCount(), results.size());
+		assertEquals(reader.getChannelCount(), BinaryResultsFormat.getChannelCount(2));
+		assertEquals(reader.getChannelName(2), "Thrust");
+		assertEquals(reader.getChannelUnit(1), "psi");
+		assertEquals(reader.findChannel("Port to Throat by port 1"), 11 + 2 + 1);
+		assertTrue(reader.isZeroCopy(0));
+		assertSameValues(reader.toStore(), 0.0);
+		reader.close();
+	} // testStoredResultsRoundTrip()
+
+
+
+	@Test
+	public void testStreamedBlocksMatchStore () throws IOException
+	{
+		BinaryResultsWriter writer = new BinaryResultsWriter(file, 2, BLOCK_ROWS);
+		RocketMath.simulate(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant, writer);
+		writer.close();
+
+		BinaryResultsReader reader = new BinaryResultsReader(file);
+		assertEquals(reader.getBlockCount(), (results.size() + BLOCK_ROWS - 1) / BLOCK_ROWS);
+		DoubleBuffer thrust = reader.getBlockColumn(1, reader.findChannel("Thrust"));
+		assertEquals(thrust.remaining(), BLOCK_ROWS);
+		assertEquals(thrust.get(0), results.getThrustColumn()[BLOCK_ROWS], 0.0);
+		assertSameValues(reader.toStore(), 0.0);
+		reader.close();
+	} // testStreamedBlocksMatchStore()
+
+
+
+	@Test
+	public void testCompressedAndFloatChannels () throws IOException
+	{
+		BinaryResultsWriter writer = new BinaryResultsWriter(file, 2, BLOCK_ROWS);
+		writer.setEncoding(BinaryResultsFormat.TYPE_DOUBLE, BinaryResultsFormat.COMPRESSION_DEFLATE);
+		writer.setEncoding(2, BinaryResultsFormat.TYPE_FLOAT, BinaryResultsFormat.COMPRESSION_NONE);
+		writer.append(results);
+		writer.close();
+
+		BinaryResultsReader reader = new BinaryResultsReader(file);
+		assertFalse(reader.isZeroCopy(0));
+		double thrust[] = reader.readColumn(2);
+		for (int i = 0; i < results.size(); i++)
+			assertEquals(thrust[i], results.getThrustColumn()[i], Math.abs(results.getThrustColumn()[i]) * 1e-6);
+		assertArrayEquals(reader.readColumn(0), Arrays.copyOf(results.getTimeColumn(), results.size()), 0.0);
+		reader.close();
+	} // testCompressedAndFloatChannels()
+
+
+
+	@Test
+	public void testFileCutShortKeepsCompleteBlocks () throws IOException
+	{
+		BinaryResultsWriter writer = new BinaryResultsWriter(file, 2, BLOCK_ROWS);
+		writer.append(results);
+		writer.close();
+
+		RandomAccessFile cut = new RandomAccessFile(file, "rw");
+		cut.setLength(cut.length() - 100);
+		cut.close();
+
+		BinaryResultsReader reader = new BinaryResultsReader(file);
+		assertEquals(reader.getRowCount(), (results.size() - 1) / BLOCK_ROWS * BLOCK_ROWS);
+		reader.close();
+	} // testFileCutShortKeepsCompleteBlocks()
+
+
+
+	@Test (expected = IllegalStateException.class)
+	public void testEncodingAfterFirstBlock () throws IOException
+	{
+		BinaryResultsWriter writer = new BinaryResultsWriter(file, 2, BLOCK_ROWS);
+		try
+		{
+			writer.append(results);
+			writer.setEncoding(BinaryResultsFormat.TYPE_FLOAT, BinaryResultsFormat.COMPRESSION_NONE);
+		}
+		finally
+		{
+			writer.close();
+		}
+	} // testEncodingAfterFirstBlock()
+
+
+
+	@Test (expected = IOException.class)
+	public void testNotBinaryResults () throws IOException
+	{
+		RandomAccessFile other = new RandomAccessFile(file, "rw");
+		other.writeBytes("Time (seconds),Pressure (psi)\n");
+		other.close();
+
+		new BinaryResultsReader(file);
+	} // testNotBinaryResults()
+
+} // test BinaryResultsTest
@@ -0,0 +1,142 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.BurnbackTable;
+import model.calculations.RocketMath;
+import model.calculations.SimulationSummary;
+import model.grains.CylindricalGrain;
+import model.grains.Grain;
+import model.propellant.Propellant;
+
+/**
+ * BurnbackTableTest.java
+ *
+ * Purpose: Contains unit testing for BurnbackTable, checking it against a
+ * 		stepped simulation with a small change in time.
+**/
+
+public class BurnbackTableTest
+{
+	// Tolerance constant for double testing
+	private static final double TOLERANCE = 0.0001;
+
+
+
+	// Constants
+	private static final double REFERENCE_DELTA_TIME = 0.0001;
+	private static final double IMPULSE_TOLERANCE    = 0.002;   // Relative
+	private static final double BURN_TIME_TOLERANCE  = 0.005;   // seconds
+
+
+
+	// Fields
+	private List<Grain> grains;
+	private Nozzle nozzle;
+	private Case motorCase;
+	private Propellant propellant;
+
+
+
+	@Before
+	public void setUp ()
+	{
+		grains = new ArrayList<Grain>();
+		grains.add(new CylindricalGrain(12.0, 3.387, 1.5, 2));
+		grains.add(new CylindricalGrain(6.0, 3.35, 1.6, 2));
+		grains.add(new CylindricalGrain(6.0, 3.35, 1.7, 2));
+		nozzle     = MotorFixtures.nozzle(3);
+		motorCase  = MotorFixtures.motorCase();
+		propellant = MotorFixtures.propellant();
+	} // setUp()
+
+
+
+	@Test
+	public void testMatchesSteppedSimulation ()
+	{
+		SimulationSummary burnback = new SimulationSummary(RocketMath.simulateBurnback(grains, nozzle, motorCase, propellant), motorCase);
+		SimulationSummary stepped = new SimulationSummary(
+				RocketMath.simulateToStore(grains, REFERENCE_DELTA_TIME, nozzle, motorCase, propellant), motorCase);
+
+		assertEquals(burnback.getImpulse(), stepped.getImpulse(), stepped.getImpulse() * IMPULSE_TOLERANCE);
+		assertEquals(burnback.getBurnTime(), stepped.getBurnTime(), BURN_TIME_TOLERANCE);
+		assertEquals(burnback.getmaxPressure(), stepped.getmaxPressure(), stepped.getmaxPressure() * IMPULSE_TOLERANCE);
+	} // testMatchesSteppedSimulation()
+
+
+
+	@Test
+	public void testNodesIncludeEveryBurnout ()
+	{
+		BurnbackTable table = new BurnbackTable(grains, 10);
+
+		assertEquals(table.getWeb(0), 0.0, 0.0);
+		assertEquals(table.getWeb(table.getNodeCount() - 1), grains.get(0).getRemainingWeb(), TOLERANCE);
+		for (Grain grain : grains)
+		{
+			boolean found = false;
+			for (int node = 0; node < table.getNodeCount(); node++)
+				found |= table.getWeb(node) == grain.getRemainingWeb();
+			assertTrue(found);
+		}
+	} // testNodesIncludeEveryBurnout()
+
+
+
+	@Test
+	public void testTableIsShared ()
+	{
+		List<Grain> same = new ArrayList<Grain>();
+		for (Grain grain : grains)
+			same.add(grain.clone());
+
+		assertSame(BurnbackTable.forGrains(grains), BurnbackTable.forGrains(same));
+
+		same.set(0, new CylindricalGrain(12.0, 3.387, 1.4, 2));
+		assertNotSame(BurnbackTable.forGrains(grains), BurnbackTable.forGrains(same));
+	} // testTableIsShared()
+
+
+
+	@Test
+	public void testGrainsAreNotChanged ()
+	{
+		RocketMath.simulateBurnback(grains, nozzle, motorCase, propellant);
+
+		assertEquals(grains.get(0).getInnerDiameter(), 1.5, 0.0);
+		assertEquals(grains.get(0).getLength(), 12.0, 0.0);
+		assertTrue(grains.get(2).isBurning());
+	} // testGrainsAreNotChanged()
+
+
+
+	@Test
+	public void testPropellantsShareTable ()
+	{
+		Propellant faster = propellant.createVariant(1.1, 0.0, 1.0);
+		SimulationSummary burnback = new SimulationSummary(RocketMath.simulateBurnback(grains, nozzle, motorCase, faster), motorCase);
+		SimulationSummary stepped = new SimulationSummary(
+				RocketMath.simulateToStore(grains, REFERENCE_DELTA_TIME, nozzle, motorCase, faster), motorCase);
+
+		assertEquals(burnback.getImpulse(), stepped.getImpulse(), stepped.getImpulse() * IMPULSE_TOLERANCE);
+		assertEquals(burnback.getBurnTime(), stepped.getBurnTime(), BURN_TIME_TOLERANCE);
+	} // testPropellantsShareTable()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testInvalidSegments ()
+	{
+		new BurnbackTable(grains, 0);
+	} // testInvalidSegments()
+
+} // test BurnbackTableTest
@@ -0,0 +1,165 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.RocketMath;
+import model.calculations.SimulationResultStore;
+import model.calculations.SimulationResults;
+import model.propellant.Propellant;
+import view.CSVConverter;
+import view.CSVWriter;
+
+/**
+ * CSVWriterTest.java
+ *
+ * Purpose: Contains unit testing for CSVWriter, checking its output against
+ * 		the row strings of SimulationResults, and its rounding.
+**/
+
+public class CSVWriterTest
+{
+	// Constants
+	private static final double DELTA_TIME = 0.01;
+	private static final String TIME_LABEL = "Time (seconds)";
+
+
+
+	// Fields
+	private Nozzle nozzle;
+	private Case motorCase;
+	private Propellant propellant;
+	private File file;
+
+
+
+	@Before
+	public void setUp () throws IOException
+	{
+		nozzle     = MotorFixtures.nozzle(2);
+		motorCase  = MotorFixtures.motorCase();
+		propellant = MotorFixtures.propellant();
+		file       = File.createTempFile("openburn", ".csv");
+	} // setUp()
+
+
+
+	@After
+	public void tearDown ()
+	{
+		file.delete();
+	} // tearDown()
+
+
+
+	// Helper to read the written file
+	private String readFile () throws IOException
+	{
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	} // readFile()
+
+
+
+	// Helper to write times through a one column writer with the given precision
+	private String writeTimes (int precision, double... times) throws IOException
+	{
+		CSVWriter writer = new CSVWriter(file, 1);
+		writer.setColumns(TIME_LABEL);
+		writer.setPrecision(precision);
+
+		SimulationResults step = new SimulationResults();
+		for (double time : times)
+		{
+			step.setTime(time);
+			writer.stepCompleted(step);
+		}
+		writer.close();
+
+		return readFile();
+	} // writeTimes()
+
+
+
+	@Test
+	public void testMatchesResultStrings () throws IOException
+	{
+		SimulationResultStore results = RocketMath.simulateToStore(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+		StringBuilder expected = new StringBuilder(results.getResults(0).getLabels());
+		for (int i = 0; i < results.size(); i++)
+			expected.append(results.getResults(i).toString()).append("\n");
+
+		CSVConverter.writeResultsArr(results, file);
+		assertEquals(readFile(), expected.toString());
+
+		CSVWriter writer = new CSVWriter(file, 2);
+		RocketMath.simulate(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant, writer);
+		writer.close();
+		assertEquals(writer.getRowCount(), results.size());
+		assertEquals(readFile(), expected.toString());
+	} // testMatchesResultStrings()
+
+
+
+	@Test
+	public void testChosenColumns () throws IOException
+	{
+		SimulationResultStore results = RocketMath.simulateToStore(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+		CSVWriter writer = new CSVWriter(file, 2);
+		writer.setColumns("Pressure (psi)", TIME_LABEL);
+		writer.append(results);
+		writer.close();
+
+		String lines[] = readFile().split("\n");
+		assertEquals(lines.length, results.size() + 1);
+		assertEquals(lines[0], "Pressure (psi)," + TIME_LABEL);
+		assertEquals(lines[5], results.getChamberPressureColumn()[4] + "," + results.getTimeColumn()[4]);
+	} // testChosenColumns()
+
+
+
+	@Test
+	public void testRoundedValues () throws IOException
+	{
+		assertEquals(writeTimes(4, 0.0, 1234.5678, 0.000123456, 12345678.9, -2.5, 1.0, 0.0125),
+					 TIME_LABEL + "\n0\n1235\n1.235E-4\n1.235E7\n-2.5\n1\n0.0125\n");
+		assertEquals(writeTimes(3, 9.99999, 999.6, 0.00999999),
+					 TIME_LABEL + "\n10\n1000\n0.01\n");
+	} // testRoundedValues()
+
+
+
+	@Test
+	public void testEmptyWriterHasLabels () throws IOException
+	{
+		new CSVWriter(file, 1).close();
+
+		assertEquals(readFile(), String.join(",", SimulationResults.getLabelArray(1)) + "\n");
+	} // testEmptyWriterHasLabels()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testUnknownColumn () throws IOException
+	{
+		CSVWriter writer = new CSVWriter(file, 1);
+		try
+		{
+			writer.setColumns("Not a column");
+		}
+		finally
+		{
+			writer.close();
+		}
+	} // testUnknownColumn()
+
+} // test CSVWriterTest
@@ -0,0 +1,250 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.DiskSimulationCache;
+import model.calculations.ParameterSpace;
+import model.calculations.ParameterSweep;
+import model.calculations.RocketMath;
+import model.calculations.SimulationCache;
+import model.calculations.SimulationResultStore;
+import model.calculations.SweepResult;
+import model.grains.CylindricalGrain;
+import model.grains.Grain;
+import model.propellant.Propellant;
+
+/**
+ * DiskSimulationCacheTest.java
+ *
+ * Purpose: Contains unit testing for DiskSimulationCache, checking that
+ * 		results read back from disk match the results written, across
+ * 		sessions and through SimulationCache and ParameterSweep.
+**/
+
+public class DiskSimulationCacheTest
+{
+	// Constants
+	private static final double DELTA_TIME = 0.01;
+	private static final long MEMORY_BUDGET = 64L * 1024 * 1024;
+
+
+
+	// Fields
+	private Nozzle nozzle;
+	private Case motorCase;
+	private Propellant propellant;
+	private File directory;
+
+
+
+	@Before
+	public void setUp () throws IOException
+	{
+		nozzle     = MotorFixtures.nozzle(2);
+		motorCase  = MotorFixtures.motorCase();
+		propellant = MotorFixtures.propellant();
+		directory  = Files.createTempDirectory("openburn-cache").toFile();
+	} // setUp()
+
+
+
+	@After
+	public void tearDown ()
+	{
+		for (File file : directory.listFiles())
+			file.delete();
+		directory.delete();
+	} // tearDown()
+
+
+
+	// Helper to key the test motor with the given change in time
+	private String createKey (double deltaTime)
+	{
+		return SimulationCache.createKey(MotorFixtures.twoGrains(), deltaTime, nozzle, motorCase, propellant);
+	} // createKey()
+
+
+
+	@Test
+	public void testResultsSurviveReopening () throws IOException
+	{
+		SimulationResultStore written = RocketMath.simulateToStore(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+		DiskSimulationCache cache = new DiskSimulationCache(directory);
+		cache.put(createKey(DELTA_TIME), written);
+		cache.close();
+
+		cache = new DiskSimulationCache(directory);
+		SimulationResultStore read = cache.get(createKey(DELTA_TIME));
+		assertEquals(cache.size(), 1);
+		assertNull(cache.get(createKey(DELTA_TIME / 2)));
+		assertEquals(cache.getHitCount(), 1);
+		assertEquals(cache.getMissCount(), 1);
+		cache.close();
+
+		assertEquals(read.size(), written.size());
+		assertEquals(read.getGrainCount(), written.getGrainCount());
+		for (int i = 0; i < SimulationResultStore.COLUMN_COUNT; i++)
+		{
+			int values = written.size() * SimulationResultStore.getColumnWidth(i, written.getGrainCount());
+			for (int j = 0; j < values; j++)
+				assertEquals(read.getColumns()[i][j], written.getColumns()[i][j], 0.0);
+		}
+	} // testResultsSurviveReopening()
+
+
+
+	@Test
+	public void testOtherCacheSeesNewResults () throws IOException
+	{
+		DiskSimulationCache first = new DiskSimulationCache(directory);
+		DiskSimulationCache second = new DiskSimulationCache(directory);
+		SimulationResultStore written = RocketMath.simulateToStore(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+
+		first.put(createKey(DELTA_TIME), written);
+		second.put(createKey(DELTA_TIME), written);   // Already kept, not written again
+
+		assertEquals(second.get(createKey(DELTA_TIME)), written);
+		assertEquals(new File(directory, "index.bin").length(), 16 + 48);
+		first.close();
+		second.close();
+	} // testOtherCacheSeesNewResults()
+
+
+
+	@Test
+	public void testPartialEntryIsIgnored () throws IOException
+	{
+		DiskSimulationCache cache = new DiskSimulationCache(directory);
+		cache.put(createKey(DELTA_TIME), RocketMath.simulateToStore(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant));
+		cache.close();
+
+		// A write cut short leaves part of an entry at the end of the index
+		FileOutputStream index = new FileOutputStream(new File(directory, "index.bin"), true);
+		index.write(new byte[20]);
+		index.close();
+
+		cache = new DiskSimulationCache(directory);
+		assertEquals(cache.size(), 1);
+		assertNotNull(cache.get(createKey(DELTA_TIME)));
+		cache.close();
+	} // testPartialEntryIsIgnored()
+
+
+
+	@Test
+	public void testSimulationCacheReadsDisk () throws IOException
+	{
+		DiskSimulationCache disk = new DiskSimulationCache(directory);
+		SimulationResultStore first = new SimulationCache(MEMORY_BUDGET, disk).simulate(MotorFixtures.twoGrains(), DELTA_TIME,
+				nozzle, motorCase, propellant);
+		SimulationResultStore second = new SimulationCache(MEMORY_BUDGET, disk).simulate(MotorFixtures.twoGrains(), DELTA_TIME,
+				nozzle, motorCase, propellant);
+
+		assertNotSame(first, second);
+		assertEquals(first, second);
+		assertEquals(disk.getHitCount(), 1);
+		assertEquals(disk.getMissCount(), 1);
+		disk.close();
+	} // testSimulationCacheReadsDisk()
+
+
+
+	@Test
+	public void testRepeatedSweepReadsDisk () throws IOException
+	{
+		Grain template = new CylindricalGrain(6.0, 3.35, 1.7, 2);
+		ParameterSpace space = new ParameterSpace(template, 2, nozzle, motorCase, propellant);
+		space.setThroatDiameters(0.9, 0.95);
+		space.setCoreDiameters(1.6, 1.7);
+		ForkJoinPool pool = new ForkJoinPool(2);
+		DiskSimulationCache disk = new DiskSimulationCache(directory);
+
+		List<SweepResult> uncached = new ParameterSweep(DELTA_TIME, pool).run(space);
+		new ParameterSweep(DELTA_TIME, pool, disk).run(space);
+		List<SweepResult> cached = new ParameterSweep(DELTA_TIME, pool, disk).run(space);
+		pool.shutdown();
+
+		assertEquals(disk.getHitCount(), space.size());
+		assertEquals(disk.getMissCount(), space.size());
+		for (int i = 0; i < space.size(); i++)
+			assertEquals(cached.get(i).getSummary().getImpulse(), uncached.get(i).getSummary().getImpulse(), 0.0);
+		disk.close();
+	} // testRepeatedSweepReadsDisk()
+
+
+
+	@Test
+	public void testCompactionKeepsNewest () throws IOException
+	{
+		SimulationResultStore written = RocketMath.simulateToStore(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+		DiskSimulationCache sizer = new DiskSimulationCache(directory);
+		sizer.put(createKey(1), written);
+		sizer.close();
+		long record = new File(directory, "results.bin").length() - 8;
+
+		// Room for four records, so the fifth compacts down to the newest two
+		DiskSimulationCache cache = new DiskSimulationCache(directory, 8 + 4 * record);
+		DiskSimulationCache other = new DiskSimulationCache(directory, 8 + 4 * record);
+		for (int i = 2; i <= 5; i++)
+			cache.put(createKey(i), written);
+
+		assertEquals(cache.size(), 2);
+		assertEquals(new File(directory, "results.bin").length(), 8 + 2 * record);
+		assertEquals(new File(directory, "index.bin").length(), 16 + 2 * 48);
+		for (int i = 1; i <= 3; i++)
+			assertNull(other.get(createKey(i)));
+		assertEquals(other.get(createKey(4)), written);
+		assertEquals(other.get(createKey(5)), written);
+
+		// Records added after compacting are found by both caches
+		other.put(createKey(6), written);
+		assertEquals(cache.get(createKey(6)), written);
+		assertEquals(cache.get(createKey(4)), written);
+		cache.close();
+		other.close();
+	} // testCompactionKeepsNewest()
+
+
+
+	@Test
+	public void testOlderFormatIsCleared () throws IOException
+	{
+		// Header of an index written by the first version of the cache
+		FileOutputStream index = new FileOutputStream(new File(directory, "index.bin"));
+		index.write(new byte[] { 0x58, 0x49, 0x42, 0x4F, 1, 0, 0, 0 });
+		index.close();
+
+		DiskSimulationCache cache = new DiskSimulationCache(directory);
+		assertEquals(cache.size(), 0);
+		cache.put(createKey(DELTA_TIME), RocketMath.simulateToStore(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant));
+		assertNotNull(cache.get(createKey(DELTA_TIME)));
+		cache.close();
+	} // testOlderFormatIsCleared()
+
+
+
+	@Test (expected = IOException.class)
+	public void testUnknownFormat () throws IOException
+	{
+		FileOutputStream index = new FileOutputStream(new File(directory, "index.bin"));
+		index.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		index.close();
+
+		new DiskSimulationCache(directory);
+	} // testUnknownFormat()
+
+} // test DiskSimulationCacheTest
@@ -0,0 +1,159 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.RocketMath;
+import model.calculations.SimulationSummary;
+import model.grains.CylindricalGrain;
+import model.grains.Grain;
+import model.grains.GrainStack;
+import model.propellant.Propellant;
+
+/**
+ * GrainStackTest.java
+ *
+ * Purpose: Contains unit testing for GrainStack, checking its sums against
+ * 		the grains it holds.
+**/
+
+public class GrainStackTest
+{
+	// Tolerance constant for double testing
+	private static final double TOLERANCE = 0.0000001;
+
+
+
+	// Constants
+	private static final int SEGMENTS = 100;
+
+
+
+	// Fields
+	private List<Grain> grains;
+
+
+
+	@Before
+	public void setUp ()
+	{
+		grains = new ArrayList<Grain>();
+		grains.add(new CylindricalGrain(12.0, 3.387, 1.5, 2));
+		grains.add(new CylindricalGrain(6.0, 3.35, 1.6, 2));
+		grains.add(new CylindricalGrain(6.0, 3.35, 1.7, 1));
+	} // setUp()
+
+
+
+	// Helper to check the sums of a stack against its grains
+	private void assertSums (GrainStack stack)
+	{
+		double burnArea = 0;
+		double volume = 0;
+		double minimumWeb = Double.POSITIVE_INFINITY;
+		for (Grain grain : stack)
+		{
+			burnArea += grain.getBurnArea();
+			volume += grain.getVolume();
+			if (grain.isBurning())
+				minimumWeb = Math.min(minimumWeb, grain.getRemainingWeb());
+		}
+
+		assertEquals(stack.getBurnArea(), burnArea, TOLERANCE);
+		assertEquals(stack.getVolume(), volume, TOLERANCE);
+		assertEquals(stack.getMinimumRemainingWeb(), minimumWeb, TOLERANCE);
+	} // assertSums()
+
+
+
+	@Test
+	public void testSumsMatchGrains ()
+	{
+		GrainStack stack = new GrainStack(new LinkedList<Grain>(grains));
+
+		assertEquals(stack.size(), grains.size());
+		assertSame(stack.get(1), grains.get(1));
+		assertEquals(stack.getBurningCount(), 3);
+		assertSums(stack);
+	} // testSumsMatchGrains()
+
+
+
+	@Test
+	public void testRegressUpdatesSums ()
+	{
+		GrainStack stack = new GrainStack(grains);
+		double volumeBefore = stack.getVolume();
+		double volumeChange[] = new double[stack.size()];
+
+		double change = stack.regress(0.4, 2.2, volumeChange);
+
+		assertEquals(stack.getVolume(), volumeBefore - change, TOLERANCE);
+		assertEquals(volumeChange[0] + volumeChange[1] + volumeChange[2], change, TOLERANCE);
+		assertEquals(stack.getBurningCount(), 1);
+		assertTrue(stack.isBurning());
+		assertSums(stack);
+	} // testRegressUpdatesSums()
+
+
+
+	@Test
+	public void testRefreshAfterDirectChange ()
+	{
+		GrainStack stack = new GrainStack(grains);
+		grains.get(0).updateGeometry(0.1, 1.0);
+		stack.refresh();
+		assertSums(stack);
+
+		stack.set(2, new CylindricalGrain(6.0, 3.35, 3.0, 2));
+		assertSums(stack);
+	} // testRefreshAfterDirectChange()
+
+
+
+	@Test
+	public void testLinkedListSimulatesLikeArrayList ()
+	{
+		List<Grain> linked = new LinkedList<Grain>();
+		List<Grain> array = new ArrayList<Grain>();
+		for (int i = 0; i < SEGMENTS; i++)
+		{
+			linked.add(new CylindricalGrain(0.5, 3.35, 1.6 + i * 0.001, 0));
+			array.add(new CylindricalGrain(0.5, 3.35, 1.6 + i * 0.001, 0));
+		}
+		Nozzle nozzle = MotorFixtures.nozzle(SEGMENTS);
+		Case motorCase = MotorFixtures.motorCase();
+		Propellant propellant = MotorFixtures.propellant();
+
+		SimulationSummary fromLinked = new SimulationSummary(RocketMath.simulateToStore(linked, 0.01, nozzle, motorCase, propellant), motorCase);
+		SimulationSummary fromArray = new SimulationSummary(RocketMath.simulateToStore(array, 0.01, nozzle, motorCase, propellant), motorCase);
+
+		assertEquals(fromLinked.getImpulse(), fromArray.getImpulse(), 0.0);
+		assertEquals(fromLinked.getBurnTime(), fromArray.getBurnTime(), 0.0);
+	} // testLinkedListSimulatesLikeArrayList()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testEmptyStack ()
+	{
+		new GrainStack(new ArrayList<Grain>());
+	} // testEmptyStack()
+
+
+
+	@Test (expected = UnsupportedOperationException.class)
+	public void testSizeIsFixed ()
+	{
+		new GrainStack(grains).add(new CylindricalGrain(6.0, 3.35, 1.6, 2));
+	} // testSizeIsFixed()
+
+} // test GrainStackTest
@@ -0,0 +1,158 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.DispersionModel;
+import model.calculations.DispersionResult;
+import model.calculations.MonteCarloRunner;
+import model.calculations.RocketMath;
+import model.calculations.SimulationResultStore;
+import model.calculations.SimulationResults;
+import model.calculations.SimulationSummary;
+import model.grains.Grain;
+import model.propellant.Propellant;
+
+/**
+ * MonteCarloRunnerTest.java
+ *
+ * Purpose: Contains unit testing for MonteCarloRunner and DispersionResult.
+**/
+
+public class MonteCarloRunnerTest
+{
+	// Tolerance constant for double testing
+	private static final double TOLERANCE = 0.0001;
+
+
+
+	// Constants
+	private static final double DELTA_TIME = 0.01;
+	private static final int RUNS          = 64;
+	private static final long SEED         = 7;
+	private static final int THREADS       = 4;
+
+
+
+	// Fields
+	private List<Grain> grains;
+	private Nozzle nozzle;
+	private Case motorCase;
+	private Propellant propellant;
+	private ForkJoinPool pool;
+
+
+
+	@Before
+	public void setUp ()
+	{
+		grains     = MotorFixtures.twoGrains();
+		nozzle     = MotorFixtures.nozzle(2);
+		motorCase  = MotorFixtures.motorCase();
+		propellant = MotorFixtures.propellant();
+		pool       = new ForkJoinPool(THREADS);
+	} // setUp()
+
+
+
+	@After
+	public void tearDown ()
+	{
+		pool.shutdown();
+	} // tearDown()
+
+
+
+	@Test
+	public void testZeroToleranceMatchesNominal ()
+	{
+		DispersionResult result = new MonteCarloRunner(grains, nozzle, motorCase, propellant, new DispersionModel(), pool)
+				.run(RUNS, SEED, DELTA_TIME);
+		SimulationSummary nominal = new SimulationSummary(RocketMath.simulateToStore(grains, DELTA_TIME, nozzle, motorCase, propellant), motorCase);
+
+		assertEquals(result.getRunCount(), RUNS);
+		assertEquals(result.getImpulse().getMin(), nominal.getImpulse(), TOLERANCE);
+		assertEquals(result.getImpulse().getMax(), nominal.getImpulse(), TOLERANCE);
+		assertEquals(result.getBurnTime().getQuantile(0.5), nominal.getBurnTime(), TOLERANCE);
+	} // testZeroToleranceMatchesNominal()
+
+
+
+	@Test
+	public void testEnvelopesAreOrdered ()
+	{
+		DispersionModel dispersion = new DispersionModel();
+		dispersion.setGrainTolerances(0.005, 0.002, 0.01);
+		dispersion.setNozzleTolerances(0.01, 0.01);
+		dispersion.setPropellantTolerances(0.03, 0.0, 0.01);
+		DispersionResult result = new MonteCarloRunner(grains, nozzle, motorCase, propellant, dispersion, pool)
+				.run(RUNS, SEED, DELTA_TIME);
+
+		double low[] = result.getThrustEnvelope(0.05);
+		double high[] = result.getThrustEnvelope(0.95);
+		assertEquals(low.length, result.getTimes().length);
+		for (int i = 0; i < low.length; i++)
+			assertTrue(low[i] <= high[i]);
+
+		assertTrue(result.getImpulse().getMax() > result.getImpulse().getMin());
+		assertEquals(high[high.length - 1], 0.0, TOLERANCE);
+	} // testEnvelopesAreOrdered()
+
+
+
+	@Test
+	public void testSameSeedSameResult ()
+	{
+		DispersionModel dispersion = new DispersionModel();
+		dispersion.setPropellantTolerances(0.05, 0.0, 0.0);
+
+		DispersionResult parallel = new MonteCarloRunner(grains, nozzle, motorCase, propellant, dispersion, pool)
+				.run(RUNS, SEED, DELTA_TIME);
+		ForkJoinPool single = new ForkJoinPool(1);
+		DispersionResult sequential = new MonteCarloRunner(grains, nozzle, motorCase, propellant, dispersion, single)
+				.run(RUNS, SEED, DELTA_TIME);
+		single.shutdown();
+
+		assertEquals(parallel.getImpulse().getQuantile(0.5), sequential.getImpulse().getQuantile(0.5), 0.0);
+		assertEquals(parallel.getMaxPressure().getMax(), sequential.getMaxPressure().getMax(), 0.0);
+	} // testSameSeedSameResult()
+
+
+
+	@Test
+	public void testGridIsZeroAfterBurnout ()
+	{
+		// Rows every 0.01 s up to 0.255 s, a grid every 0.1 s up to 0.3 s
+		SimulationResultStore store = new SimulationResultStore(1);
+		for (int i = 0; i < 26; i++)
+		{
+			SimulationResults step = new SimulationResults();
+			step.setTime(i * 0.01 + 0.005);
+			step.setThrust(100);
+			step.setChamberPressure(500);
+			step.setMassGeneratedPerGrain(new double[] {0.0});
+			step.setPortToThroat(new double[] {2.0});
+			step.setMassFlowPerAreaGrain(new double[] {1.0});
+			store.append(step);
+		}
+
+		DispersionResult result = new DispersionResult(0.1, 0.01);
+		result.addRun(store, new SimulationSummary(store, motorCase));
+		double thrust[] = result.getThrustEnvelope(0.5);
+		double pressure[] = result.getPressureEnvelope(0.5);
+
+		assertEquals(thrust.length, 4);
+		assertEquals(thrust[2], 100.0, 1.0);
+		assertEquals(thrust[3], 0.0, 0.0);
+		assertEquals(pressure[3], 0.0, 0.0);
+	} // testGridIsZeroAfterBurnout()
+
+} // test MonteCarloRunnerTest
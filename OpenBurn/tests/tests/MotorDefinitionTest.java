@@ -0,0 +1,160 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import controller.MotorDefinition;
+import model.Nozzle;
+import model.grains.Grain;
+import model.grains.GrainType;
+import model.grains.StarGrain;
+
+/**
+ * MotorDefinitionTest.java
+ *
+ * Purpose: Contains unit testing for MotorDefinition, reading motors in both
+ * 		formats and rejecting invalid ones.
+**/
+
+public class MotorDefinitionTest
+{
+	// Constants
+	private static final double DELTA = 1e-12;
+	private static final String PROMPTED = "2\n0.061546\n2.725060\n-236.099212\n0.000366\n0.083967\n\n"
+										 + "3.35\n1.6\n6\n2\n\n3.35\n1.7\n6\n2\n\n0.95\n2.5\n2.35\n1.5\n0.01\n\n"
+										 + "11.41\n39.3701\n1\n";
+	private static final String KEYED    = "# Two grain BATES\n"
+										 + "name = bates-2\n"
+										 + "density = 0.061546\n"
+										 + "pressure-slope = 2.725060\n"
+										 + "pressure-intercept = -236.099212\n"
+										 + "burn-rate-slope = 0.000366\n"
+										 + "burn-rate-intercept = 0.083967\n"
+										 + "grain = 3.35 1.6 6 2\n"
+										 + "grain = 3.35 1.7 6 2   # Aft grain\n"
+										 + "nozzle = 0.95 2.5 2.35 1.5\n"
+										 + "time-step = 0.01\n"
+										 + "case = 11.41 39.3701 1\n";
+
+
+
+	// Fields
+	private File file;
+
+
+
+	@Before
+	public void setUp () throws IOException
+	{
+		file = File.createTempFile("motor", ".txt");
+	} // setUp()
+
+
+
+	@After
+	public void tearDown ()
+	{
+		file.delete();
+	} // tearDown()
+
+
+
+	// Helper to parse a definition from text
+	private MotorDefinition parse (String text) throws IOException
+	{
+		Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+		return MotorDefinition.parse(file);
+	} // parse()
+
+
+
+	// Helper to check a definition against the two grain BATES motor
+	private static void assertBates (MotorDefinition motor)
+	{
+		List<Grain> grains = motor.createGrains();
+		assertEquals(grains.size(), 2);
+		assertEquals(grains.get(1).getInnerDiameter(), 1.7, DELTA);
+		assertEquals(grains.get(1).getLength(), 6.0, DELTA);
+
+		Nozzle nozzle = motor.createNozzle();
+		assertEquals(nozzle.getThroatDiameter(), 0.95, DELTA);
+		assertEquals(motor.createCase().getCaseMass(), 11.41, DELTA);
+		assertEquals(motor.getDeltaTime(), 0.01, DELTA);
+	} // assertBates()
+
+
+
+	@Test
+	public void testPromptedFormat () throws IOException
+	{
+		MotorDefinition motor = parse(PROMPTED);
+		assertBates(motor);
+		assertEquals(motor.getName(), file.getName().substring(0, file.getName().length() - 4));
+
+		assertEquals(parse(PROMPTED + "\nnamed\n").getName(), "named");
+	} // testPromptedFormat()
+
+
+
+	@Test
+	public void testKeyedFormat () throws IOException
+	{
+		MotorDefinition motor = parse(KEYED);
+		assertBates(motor);
+		assertEquals(motor.getName(), "bates-2");
+	} // testKeyedFormat()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testMissingValues () throws IOException
+	{
+		parse(PROMPTED.substring(0, PROMPTED.length() - 2));
+	} // testMissingValues()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testCoreLargerThanGrain () throws IOException
+	{
+		parse(KEYED.replace("3.35 1.7 6 2", "1.7 3.35 6 2"));
+	} // testCoreLargerThanGrain()
+
+
+
+	@Test
+	public void testStarGrain () throws IOException
+	{
+		MotorDefinition motor = parse(KEYED.replace("grain = 3.35 1.6 6 2", "star-grain = 3.35 1 6 2 6 0.5 0.4"));
+		List<Grain> grains = motor.createGrains();
+		assertEquals(grains.get(0).getType(), GrainType.Star);
+		assertEquals(((StarGrain) grains.get(0)).getNumPoints(), 6);
+		assertEquals(grains.get(1).getType(), GrainType.Cylindrical);
+	} // testStarGrain()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testStarPointsOutsideGrain () throws IOException
+	{
+		parse(KEYED.replace("grain = 3.35 1.6 6 2", "star-grain = 3.35 1 6 2 6 1.5 0.4"));
+	} // testStarPointsOutsideGrain()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testUnknownKey () throws IOException
+	{
+		parse(KEYED + "throat = 0.9\n");
+	} // testUnknownKey()
+
+} // test MotorDefinitionTest
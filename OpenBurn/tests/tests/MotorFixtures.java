@@ -0,0 +1,207 @@
+package tests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Case;
+import model.Nozzle;
+import model.grains.CylindricalGrain;
+import model.grains.Grain;
+import model.propellant.EmpericalPropellant;
+import model.propellant.Propellant;
+
+/**
+ * MotorFixtures.java
+ *
+ * Purpose: Builds the motors shared by the unit tests, all from the BATES
+ * 		motor in OpenBurn/input.txt. Every method returns new objects, so a
+ * 		test may regress or change them freely.
+ *
+ * 		The benchmarks use them too, so results from different runs and
+ * 		releases measure the same inputs. Larger motors are made by stacking
+ * 		the 6 inch grain and scaling the throat so the initial Kn, and
+ * 		therefore the pressure, stays near the BATES motor.
+**/
+
+public final class MotorFixtures
+{
+	// BATES nozzle and case from input.txt
+	private static final double THROAT_DIAMETER   = 0.95;
+	private static final double ENTRANCE_DIAMETER = 2.5;
+	private static final double EXIT_DIAMETER     = 2.35;
+	private static final double CF                = 1.5;
+	private static final int BATES_GRAIN_COUNT    = 5;
+
+
+
+	// Private constructor, only static methods
+	private MotorFixtures ()
+	{
+	} // MotorFixtures Constructor
+
+
+
+	/**
+	 * twoGrains()
+	 *
+	 * Purpose: Returns the two 6 inch grains nearest the nozzle of the
+	 * 		BATES motor, the small motor most tests simulate.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: List<Grain>. The two grains.
+	**/
+
+	public static List<Grain> twoGrains ()
+	{
+		List<Grain> grains = new ArrayList<Grain>();
+		grains.add(new CylindricalGrain(6.0, 3.35, 1.6, 2));
+		grains.add(new CylindricalGrain(6.0, 3.35, 1.7, 2));
+		return grains;
+	} // twoGrains()
+
+
+
+	/**
+	 * batesGrains()
+	 *
+	 * Purpose: Returns the five grains of the BATES motor in input.txt.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: List<Grain>. The five grains.
+	**/
+
+	public static List<Grain> batesGrains ()
+	{
+		List<Grain> grains = new ArrayList<Grain>();
+		grains.add(new CylindricalGrain(12.0, 3.387, 1.5, 2));
+		grains.add(new CylindricalGrain(6.0, 3.387, 1.59, 2));
+		grains.add(new CylindricalGrain(6.0, 3.35, 1.6, 2));
+		grains.add(new CylindricalGrain(6.0, 3.35, 1.685, 2));
+		grains.add(new CylindricalGrain(6.0, 3.35, 1.7, 2));
+		return grains;
+	} // batesGrains()
+
+
+
+	/**
+	 * stackedGrains()
+	 *
+	 * Purpose: Returns a motor of the given number of 6 inch BATES grains,
+	 * 		with a slightly larger core toward the nozzle as in input.txt.
+	 *
+	 * Parameters:
+	 * 		int grainCount -- Number of grains.
+	 *
+	 * Returns: List<Grain>. The grains of the motor.
+	**/
+
+	public static List<Grain> stackedGrains (int grainCount)
+	{
+		List<Grain> grains = new ArrayList<Grain>();
+		for (int i = 0; i < grainCount; i++)
+			grains.add(new CylindricalGrain(6.0, 3.35, 1.6 + 0.1 * i / grainCount, 2));
+
+		return grains;
+	} // stackedGrains()
+
+
+
+	/**
+	 * copy()
+	 *
+	 * Purpose: Returns clones of the given grains, so a benchmark can
+	 * 		simulate the same motor again after a simulation regressed it.
+	 *
+	 * Parameters:
+	 * 		List<Grain> grains -- Grains to copy.
+	 *
+	 * Returns: List<Grain>. New grains with the same geometry.
+	**/
+
+	public static List<Grain> copy (List<Grain> grains)
+	{
+		List<Grain> copies = new ArrayList<Grain>(grains.size());
+		for (Grain grain : grains)
+			copies.add(grain.clone());
+
+		return copies;
+	} // copy()
+
+
+
+	/**
+	 * nozzle()
+	 *
+	 * Purpose: Returns the BATES nozzle for the given number of grains.
+	 *
+	 * Parameters:
+	 * 		int grainCount -- Number of grains in the motor.
+	 *
+	 * Returns: Nozzle. The nozzle.
+	**/
+
+	public static Nozzle nozzle (int grainCount)
+	{
+		return new Nozzle(THROAT_DIAMETER, ENTRANCE_DIAMETER, EXIT_DIAMETER, CF, grainCount);
+	} // nozzle()
+
+
+
+	/**
+	 * scaledNozzle()
+	 *
+	 * Purpose: Returns the BATES nozzle for a stacked motor. The throat area
+	 * 		grows with the number of grains, so every motor burns near the
+	 * 		pressure of the five grain BATES motor.
+	 *
+	 * Parameters:
+	 * 		int grainCount -- Number of grains in the motor.
+	 *
+	 * Returns: Nozzle. The nozzle of the motor.
+	**/
+
+	public static Nozzle scaledNozzle (int grainCount)
+	{
+		double throat = THROAT_DIAMETER * Math.sqrt(grainCount / (double) BATES_GRAIN_COUNT);
+		double scale = Math.max(1, throat / THROAT_DIAMETER);
+
+		return new Nozzle(throat, ENTRANCE_DIAMETER * scale, EXIT_DIAMETER * scale, CF, grainCount);
+	} // scaledNozzle()
+
+
+
+	/**
+	 * motorCase()
+	 *
+	 * Purpose: Returns the BATES case.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: Case. The case.
+	**/
+
+	public static Case motorCase ()
+	{
+		return new Case(11.41, 39.3701, 1.0);
+	} // motorCase()
+
+
+
+	/**
+	 * propellant()
+	 *
+	 * Purpose: Returns the BATES propellant.
+	 *
+	 * Parameters: None.
+	 *
+	 * Returns: Propellant. The propellant.
+	**/
+
+	public static Propellant propellant ()
+	{
+		return new EmpericalPropellant(2.725060, -236.099212, 0.000366, 0.083967, 0.061546);
+	} // propellant()
+
+} // class MotorFixtures
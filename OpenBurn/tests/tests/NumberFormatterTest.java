@@ -0,0 +1,131 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import view.NumberFormatter;
+
+/**
+ * NumberFormatterTest.java
+ *
+ * Purpose: Contains unit testing for NumberFormatter, checking that shortest
+ * 		values read back exactly, and fixed values match String.format().
+**/
+
+public class NumberFormatterTest
+{
+	// Constants
+	private static final int RANDOM_VALUES = 100000;
+	private static final long SEED         = 17;
+
+
+
+	// Fields
+	private NumberFormatter formatter;
+	private Random random;
+
+
+
+	@Before
+	public void setUp ()
+	{
+		formatter = new NumberFormatter();
+		random    = new Random(SEED);
+	} // setUp()
+
+
+
+	@Test
+	public void testShortestLayout ()
+	{
+		assertEquals(formatter.formatShortest(1.0).toString(), "1.0");
+		assertEquals(formatter.formatShortest(-0.0).toString(), "-0.0");
+		assertEquals(formatter.formatShortest(0.001).toString(), "0.001");
+		assertEquals(formatter.formatShortest(9.9e-4).toString(), "9.9E-4");
+		assertEquals(formatter.formatShortest(9999999.0).toString(), "9999999.0");
+		assertEquals(formatter.formatShortest(1e7).toString(), "1.0E7");
+		assertEquals(formatter.formatShortest(123.456).toString(), "123.456");
+		assertEquals(formatter.formatShortest(Double.MAX_VALUE).toString(), "1.7976931348623157E308");
+		assertEquals(formatter.formatShortest(Double.MIN_VALUE).toString(), "4.9E-324");
+		assertEquals(formatter.formatShortest(Double.NaN).toString(), "NaN");
+		assertEquals(formatter.formatShortest(Double.NEGATIVE_INFINITY).toString(), "-Infinity");
+	} // testShortestLayout()
+
+
+
+	@Test
+	public void testShortestReadsBack ()
+	{
+		for (int i = 0; i < RANDOM_VALUES; i++)
+		{
+			double value = Double.longBitsToDouble(random.nextLong());
+			if (Double.isNaN(value))
+				continue;
+
+			String text = formatter.formatShortest(value).toString();
+			assertEquals(Double.parseDouble(text), value, 0.0);
+			assertTrue(text.length() <= Double.toString(value).length());
+		}
+	} // testShortestReadsBack()
+
+
+
+	@Test
+	public void testFixedMatchesFormat ()
+	{
+		assertEquals(formatter.formatFixed(0.125, 2).toString(), "0.13");
+		assertEquals(formatter.formatFixed(-0.001, 2).toString(), "-0.00");
+		assertEquals(formatter.formatFixed(9.9996, 3).toString(), "10.000");
+		assertEquals(formatter.formatFixed(0.5, 0).toString(), "1");
+		assertEquals(formatter.formatFixed(1e20, 1).toString(), "100000000000000000000.0");
+
+		for (int i = 0; i < RANDOM_VALUES; i++)
+		{
+			double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12) - 4);
+			int decimals = random.nextInt(5);
+			assertEquals(formatter.formatFixed(value, decimals).toString(),
+						 String.format(Locale.ROOT, "%." + decimals + "f", value));
+		}
+	} // testFixedMatchesFormat()
+
+
+
+	@Test
+	public void testSignificant ()
+	{
+		assertEquals(formatter.formatSignificant(1234.5678, 4).toString(), "1235");
+		assertEquals(formatter.formatSignificant(0.000123456, 4).toString(), "1.235E-4");
+		assertEquals(formatter.formatSignificant(99999999.0, 2).toString(), "1E8");
+		assertEquals(formatter.formatSignificant(-0.0125, 6).toString(), "-0.0125");
+	} // testSignificant()
+
+
+
+	@Test
+	public void testCopies ()
+	{
+		StringBuilder builder = new StringBuilder("t=");
+		formatter.formatFixed(2.5, 1).appendTo(builder);
+		assertEquals(builder.toString(), "t=2.5");
+
+		ByteBuffer buffer = ByteBuffer.allocate(formatter.formatShortest(-2.5e-10).length());
+		formatter.putTo(buffer);
+		assertEquals(new String(buffer.array(), StandardCharsets.US_ASCII), "-2.5E-10");
+	} // testCopies()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testTooManyDecimals ()
+	{
+		formatter.formatFixed(1.0, NumberFormatter.MAX_DECIMALS + 1);
+	} // testTooManyDecimals()
+
+} // test NumberFormatterTest
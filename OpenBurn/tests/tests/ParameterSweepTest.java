@@ -0,0 +1,127 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.calculations.ParameterSpace;
+import model.calculations.ParameterSweep;
+import model.calculations.RocketMath;
+import model.calculations.SimulationSummary;
+import model.calculations.SweepResult;
+import model.grains.CylindricalGrain;
+import model.grains.Grain;
+import model.propellant.EmpericalPropellant;
+import model.propellant.Propellant;
+
+/**
+ * ParameterSweepTest.java
+ *
+ * Purpose: Contains unit testing for ParameterSpace and ParameterSweep.
+**/
+
+public class ParameterSweepTest
+{
+	// Tolerance constant for double testing
+	private static final double TOLERANCE = 0.0001;
+
+
+
+	// Constants
+	private static final double DELTA_TIME = 0.01;
+	private static final int THREADS       = 4;
+
+
+
+	// Fields
+	private Grain template;
+	private Propellant propellant;
+	private ParameterSpace space;
+	private ForkJoinPool pool;
+
+
+
+	@Before
+	public void setUp ()
+	{
+		template   = new CylindricalGrain(6.0, 3.35, 1.7, 2);
+		propellant = MotorFixtures.propellant();
+		space      = new ParameterSpace(template, 5, MotorFixtures.nozzle(5), MotorFixtures.motorCase(), propellant);
+		space.setThroatDiameters(0.9, 0.95, 1.0);
+		space.setGrainCounts(4, 5);
+		space.setCoreDiameters(1.6, 1.7);
+		space.setPropellants(propellant, new EmpericalPropellant(2.725060, -236.099212, 0.0004, 0.08, 0.061546));
+		pool = new ForkJoinPool(THREADS);
+	} // setUp()
+
+
+
+	@After
+	public void tearDown ()
+	{
+		pool.shutdown();
+	} // tearDown()
+
+
+
+	@Test
+	public void testEveryCaseIsSimulated ()
+	{
+		List<SweepResult> results = new ParameterSweep(DELTA_TIME, pool).run(space);
+
+		assertEquals(space.size(), 24);
+		assertEquals(results.size(), 24);
+		for (int i = 0; i < results.size(); i++)
+		{
+			assertEquals(results.get(i).getCaseIndex(), i);
+			assertTrue(results.get(i).getSummary().getImpulse() > 0);
+		}
+	} // testEveryCaseIsSimulated()
+
+
+
+	@Test
+	public void testCaseMatchesSingleSimulation ()
+	{
+		List<SweepResult> results = new ParameterSweep(DELTA_TIME, pool).run(space);
+		int index = 13;
+		SweepResult result = results.get(index);
+
+		SimulationSummary expected = new SimulationSummary(RocketMath.simulateToStore(space.createGrains(index), DELTA_TIME,
+																					  space.createNozzle(index), space.getCase(),
+																					  space.getPropellant(index)), space.getCase());
+
+		assertEquals(result.getThroatDiameter(), 0.95, TOLERANCE);
+		assertEquals(result.getGrainCount(), 5);
+		assertEquals(result.getCoreDiameter(), 1.6, TOLERANCE);
+		assertEquals(result.getPropellantIndex(), 1);
+		assertEquals(result.getSummary().getImpulse(), expected.getImpulse(), TOLERANCE);
+		assertEquals(result.getSummary().getBurnTime(), expected.getBurnTime(), TOLERANCE);
+	} // testCaseMatchesSingleSimulation()
+
+
+
+	@Test
+	public void testTemplateIsNotChanged ()
+	{
+		new ParameterSweep(DELTA_TIME, pool).run(space);
+
+		assertEquals(template.getInnerDiameter(), 1.7, TOLERANCE);
+		assertTrue(template.isBurning());
+		assertEquals(space.createGrains(0).get(0).getInnerDiameter(), 1.6, TOLERANCE);
+	} // testTemplateIsNotChanged()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testCoreLargerThanGrain ()
+	{
+		space.setCoreDiameters(1.7, 3.5);
+	} // testCoreLargerThanGrain()
+
+} // test ParameterSweepTest
@@ -0,0 +1,72 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import model.propellant.EmpericalPropellant;
+import model.propellant.OperatingPoint;
+import model.propellant.Propellant;
+import model.propellant.SteadyStatePropellant;
+
+/**
+ * PropellantTest.java
+ *
+ * Purpose: Contains unit testing for the stateless propellant evaluation,
+ * 		checking it against the older setKn() path.
+**/
+
+public class PropellantTest
+{
+	// Tolerance constant for double testing
+	private static final double TOLERANCE = 0.0001;
+
+
+
+	// Constants
+	private static final double KN       = 250.0;
+	private static final double OTHER_KN = 300.0;
+
+
+
+	@Test
+	public void testEmpericalMatchesSetKn ()
+	{
+		Propellant propellant = new EmpericalPropellant(2.725060, -236.099212, 0.000366, 0.083967, 0.061546);
+		OperatingPoint point = propellant.evaluate(KN);
+
+		propellant.setKn(KN);
+		assertEquals(point.getKn(), KN, TOLERANCE);
+		assertEquals(point.getChamberPressure(), propellant.getChamberPressure(), TOLERANCE);
+		assertEquals(point.getBurnRate(), propellant.getBurnRate(), TOLERANCE);
+	} // testEmpericalMatchesSetKn()
+
+
+
+	@Test
+	public void testSteadyStateMatchesSetKn ()
+	{
+		Propellant propellant = new SteadyStatePropellant(0.0001, 0.3, 0.06, 50000);
+		OperatingPoint point = propellant.evaluate(KN);
+
+		propellant.setKn(KN);
+		assertEquals(point.getChamberPressure(), propellant.getChamberPressure(), TOLERANCE);
+		assertEquals(point.getBurnRate(), propellant.getBurnRate(), TOLERANCE);
+	} // testSteadyStateMatchesSetKn()
+
+
+
+	@Test
+	public void testEvaluateDoesNotChangePropellant ()
+	{
+		Propellant propellant = new EmpericalPropellant(2.725060, -236.099212, 0.000366, 0.083967, 0.061546);
+		propellant.setKn(KN);
+		double pressure = propellant.getChamberPressure();
+
+		propellant.evaluate(OTHER_KN);
+		propellant.getChamberPressure(OTHER_KN);
+
+		assertEquals(propellant.getChamberPressure(), pressure, TOLERANCE);
+	} // testEvaluateDoesNotChangePropellant()
+
+} // test PropellantTest
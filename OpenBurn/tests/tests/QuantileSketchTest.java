@@ -0,0 +1,105 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import model.calculations.QuantileSketch;
+
+/**
+ * QuantileSketchTest.java
+ *
+ * Purpose: Contains unit testing for QuantileSketch, checking its quantiles
+ * 		against the exact quantiles of the same values.
+**/
+
+public class QuantileSketchTest
+{
+	// Constants
+	private static final double ACCURACY = 0.01;
+	private static final int VALUES      = 10000;
+	private static final long SEED       = 42;
+
+
+
+	// Helper to check an estimate against the exact quantile of sorted values
+	private void assertQuantile (QuantileSketch sketch, double sorted[], double quantile)
+	{
+		double exact = sorted[(int) (quantile * (sorted.length - 1))];
+		assertEquals(sketch.getQuantile(quantile), exact, Math.abs(exact) * ACCURACY + 1e-9);
+	} // assertQuantile()
+
+
+
+	@Test
+	public void testQuantilesWithinAccuracy ()
+	{
+		QuantileSketch sketch = new QuantileSketch(ACCURACY);
+		double values[] = new double[VALUES];
+		Random random = new Random(SEED);
+		for (int i = 0; i < VALUES; i++)
+		{
+			values[i] = Math.exp(random.nextGaussian() * 2);
+			sketch.add(values[i]);
+		}
+		Arrays.sort(values);
+
+		assertEquals(sketch.getCount(), VALUES);
+		assertQuantile(sketch, values, 0.0);
+		assertQuantile(sketch, values, 0.05);
+		assertQuantile(sketch, values, 0.5);
+		assertQuantile(sketch, values, 0.95);
+		assertQuantile(sketch, values, 1.0);
+	} // testQuantilesWithinAccuracy()
+
+
+
+	@Test
+	public void testNegativeAndZeroValues ()
+	{
+		QuantileSketch sketch = new QuantileSketch(ACCURACY);
+		double values[] = {-100, -10, -1, 0, 0, 1, 10, 100, 1000};
+		for (double value : values)
+			sketch.add(value);
+
+		assertQuantile(sketch, values, 0.0);
+		assertQuantile(sketch, values, 0.25);
+		assertQuantile(sketch, values, 0.5);
+		assertQuantile(sketch, values, 0.75);
+		assertQuantile(sketch, values, 1.0);
+	} // testNegativeAndZeroValues()
+
+
+
+	@Test
+	public void testMergeMatchesSingleSketch ()
+	{
+		QuantileSketch whole = new QuantileSketch(ACCURACY);
+		QuantileSketch first = new QuantileSketch(ACCURACY);
+		QuantileSketch second = new QuantileSketch(ACCURACY);
+		Random random = new Random(SEED);
+		for (int i = 0; i < VALUES; i++)
+		{
+			double value = random.nextDouble() * 1000;
+			whole.add(value);
+			(i % 2 == 0 ? first : second).add(value);
+		}
+		first.merge(second);
+
+		assertEquals(first.getCount(), whole.getCount());
+		assertEquals(first.getQuantile(0.1), whole.getQuantile(0.1), 0.0);
+		assertEquals(first.getQuantile(0.9), whole.getQuantile(0.9), 0.0);
+	} // testMergeMatchesSingleSketch()
+
+
+
+	@Test (expected = IllegalStateException.class)
+	public void testEmptySketch ()
+	{
+		new QuantileSketch(ACCURACY).getQuantile(0.5);
+	} // testEmptySketch()
+
+} // test QuantileSketchTest
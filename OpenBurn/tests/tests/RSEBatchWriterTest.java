@@ -0,0 +1,194 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.RocketMath;
+import model.calculations.SimulationResultStore;
+import model.calculations.SimulationSummary;
+import model.propellant.Propellant;
+import view.RSEBatchWriter;
+import view.RSEGenerator;
+
+/**
+ * RSEBatchWriterTest.java
+ *
+ * Purpose: Contains unit testing for RSEBatchWriter, checking its engines
+ * 		against single RSEGenerator files, their order, and decimation.
+**/
+
+public class RSEBatchWriterTest
+{
+	// Constants
+	private static final double DELTA_TIME         = 0.01;
+	private static final String TEAM_NAME          = "OpenBurn";
+	private static final String DATABASE_START     = "<engine-database>\n  <engine-list>\n";
+	private static final String DATABASE_END       = "</engine-list>\n</engine-database>\n";
+	private static final double THROAT_DIAMETERS[] = { 0.9, 0.95, 1.0 };
+
+
+
+	// Fields
+	private Case motorCase;
+	private Propellant propellant;
+	private File file;
+	private File singleFile;
+
+
+
+	@Before
+	public void setUp () throws IOException
+	{
+		motorCase  = MotorFixtures.motorCase();
+		propellant = MotorFixtures.propellant();
+		file       = File.createTempFile("openburn", ".rse");
+		singleFile = File.createTempFile("openburn", ".rse");
+	} // setUp()
+
+
+
+	@After
+	public void tearDown ()
+	{
+		file.delete();
+		singleFile.delete();
+	} // tearDown()
+
+
+
+	// Helper to read a written file
+	private static String readFile (File file) throws IOException
+	{
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	} // readFile()
+
+
+
+	// Helper to simulate a BATES motor with the given throat
+	private SimulationResultStore simulate (Nozzle nozzle)
+	{
+		return RocketMath.simulateToStore(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+	} // simulate()
+
+
+
+	// Helper to count the occurrences of some text
+	private static int count (String text, String part)
+	{
+		int found = 0;
+		for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1))
+			found++;
+		return found;
+	} // count()
+
+
+
+	@Test
+	public void testEnginesMatchSingleFiles () throws IOException
+	{
+		StringBuilder expected = new StringBuilder(DATABASE_START);
+		RSEBatchWriter writer = new RSEBatchWriter(file, TEAM_NAME, 2);
+		for (double throat : THROAT_DIAMETERS)
+		{
+			Nozzle nozzle = new Nozzle(throat, 2.5, 2.35, 1.5, 2);
+			SimulationResultStore results = simulate(nozzle);
+			SimulationSummary summary = new SimulationSummary(results, motorCase);
+			writer.add(results, motorCase, summary, nozzle);
+
+			new RSEGenerator(TEAM_NAME, results, motorCase, summary, nozzle).generateRSEToFile(singleFile);
+			String single = readFile(singleFile);
+			expected.append(single, DATABASE_START.length(), single.length() - DATABASE_END.length());
+		}
+		writer.close();
+		expected.append(DATABASE_END);
+
+		assertEquals(writer.getEngineCount(), THROAT_DIAMETERS.length);
+		assertEquals(readFile(file), expected.toString());
+	} // testEnginesMatchSingleFiles()
+
+
+
+	@Test
+	public void testSameOnEveryLocale () throws IOException
+	{
+		Nozzle nozzle = MotorFixtures.nozzle(2);
+		SimulationResultStore results = simulate(nozzle);
+		SimulationSummary summary = new SimulationSummary(results, motorCase);
+		RSEGenerator generator = new RSEGenerator(TEAM_NAME, results, motorCase, summary, nozzle);
+
+		Locale locale = Locale.getDefault();
+		try
+		{
+			Locale.setDefault(Locale.US);
+			generator.writeRSE(singleFile);
+			String us = readFile(singleFile);
+
+			// German writes decimals with a comma, and must not change the file
+			Locale.setDefault(Locale.GERMANY);
+			generator.writeRSE(singleFile);
+			assertEquals(readFile(singleFile), us);
+			assertFalse(us.contains("\r"));
+		}
+		finally
+		{
+			Locale.setDefault(locale);
+		}
+	} // testSameOnEveryLocale()
+
+
+
+	@Test
+	public void testDecimatedPoints () throws IOException
+	{
+		Nozzle nozzle = MotorFixtures.nozzle(2);
+		SimulationResultStore results = simulate(nozzle);
+		SimulationSummary summary = new SimulationSummary(results, motorCase);
+		new RSEGenerator(TEAM_NAME, results, motorCase, summary, nozzle).generateRSEToFile(singleFile);
+		String lines[] = readFile(singleFile).split("\n");
+
+		RSEBatchWriter writer = new RSEBatchWriter(file, TEAM_NAME, 1);
+		writer.setTargetPoints(50);
+		writer.add(results, motorCase, summary, nozzle);
+		writer.close();
+
+		// First, last and peak thrust points are kept
+		String text = readFile(file);
+		int peak = 0;
+		for (int i = 1; i < results.size(); i++)
+			if (results.getThrustColumn()[i] > results.getThrustColumn()[peak])
+				peak = i;
+		int firstPoint = 9;
+		assertEquals(count(text, "<eng-data"), 50);
+		assertTrue(text.contains(lines[firstPoint] + "\n"));
+		assertTrue(text.contains(lines[firstPoint + peak] + "\n"));
+		assertTrue(text.contains(lines[firstPoint + results.size() - 1] + "\n"));
+	} // testDecimatedPoints()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testTooFewTargetPoints () throws IOException
+	{
+		RSEBatchWriter writer = new RSEBatchWriter(file, TEAM_NAME, 1);
+		try
+		{
+			writer.setTargetPoints(2);
+		}
+		finally
+		{
+			writer.close();
+		}
+	} // testTooFewTargetPoints()
+
+} // test RSEBatchWriterTest
@@ -0,0 +1,145 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import view.SeriesDecimator;
+
+/**
+ * SeriesDecimatorTest.java
+ *
+ * Purpose: Contains unit testing for SeriesDecimator, checking every column
+ * 		against the lowest and highest points found by a plain search, and
+ * 		that peaks survive any zoom.
+**/
+
+public class SeriesDecimatorTest
+{
+	// Constants
+	private static final int POINTS  = 100000;
+	private static final int COLUMNS = 700;
+	private static final long SEED   = 42;
+
+
+
+	// Fields
+	private final double x[] = new double[POINTS];
+	private final double y[] = new double[POINTS];
+	private final double outX[] = new double[SeriesDecimator.maxPoints(COLUMNS)];
+	private final double outY[] = new double[SeriesDecimator.maxPoints(COLUMNS)];
+
+
+
+	// Helper to fill the line with a noisy burn, with uneven steps and one spike
+	private void fillLine ()
+	{
+		Random random = new Random(SEED);
+		double time = 0;
+		for (int i = 0; i < POINTS; i++)
+		{
+			time += 1e-5 * (0.5 + random.nextDouble());
+			x[i] = time;
+			y[i] = 100 * Math.sin(time) + random.nextGaussian();
+		}
+		y[POINTS / 3] = 1000;
+	} // fillLine()
+
+
+
+	// Helper to check each column of a decimation against a plain search
+	private void assertColumns (SeriesDecimator decimator, int size, double minX, double maxX)
+	{
+		int count = decimator.decimate(minX, maxX, COLUMNS, outX, outY);
+		assertTrue(count <= SeriesDecimator.maxPoints(COLUMNS));
+		for (int i = 1; i < count; i++)
+			assertTrue(outX[i] >= outX[i - 1]);
+
+		double picked[] = Arrays.copyOf(outY, count);
+		double width = (maxX - minX) / COLUMNS;
+		int first = 0;
+		while (first < size && x[first] < minX)
+			first++;
+		for (int column = 0; column < COLUMNS; column++)
+		{
+			double end = column == COLUMNS - 1 ? maxX : minX + (column + 1) * width;
+			double low = Double.POSITIVE_INFINITY;
+			double high = Double.NEGATIVE_INFINITY;
+			for (; first < size && (x[first] < end || (column == COLUMNS - 1 && x[first] <= end)); first++)
+			{
+				low = Math.min(low, y[first]);
+				high = Math.max(high, y[first]);
+			}
+
+			if (low <= high)
+			{
+				assertTrue(contains(picked, low));
+				assertTrue(contains(picked, high));
+			}
+		}
+	} // assertColumns()
+
+	private static boolean contains (double values[], double value)
+	{
+		for (double v : values)
+			if (v == value)
+				return true;
+		return false;
+	} // contains()
+
+
+
+	@Test
+	public void testColumnsKeepExtremes ()
+	{
+		fillLine();
+		SeriesDecimator decimator = new SeriesDecimator(x, y, POINTS);
+
+		assertColumns(decimator, POINTS, x[0], x[POINTS - 1]);
+		assertColumns(decimator, POINTS, x[1234], x[5678]);
+		assertColumns(decimator, POINTS, x[POINTS / 3] - 0.01, x[POINTS / 3] + 0.3);
+
+		// The spike is kept however far out the view is
+		int count = decimator.decimate(x[0] - 10, x[POINTS - 1] + 10, COLUMNS, outX, outY);
+		assertTrue(contains(Arrays.copyOf(outY, count), 1000));
+	} // testColumnsKeepExtremes()
+
+
+
+	@Test
+	public void testZoomedInKeepsEveryPoint ()
+	{
+		fillLine();
+		SeriesDecimator decimator = new SeriesDecimator(x, y, POINTS);
+
+		// Fewer points than columns, plus the points on either side
+		int count = decimator.decimate(x[5000], x[5099], COLUMNS, outX, outY);
+		assertEquals(count, 102);
+		assertEquals(outX[0], x[4999], 0);
+		assertEquals(outX[101], x[5100], 0);
+	} // testZoomedInKeepsEveryPoint()
+
+
+
+	@Test
+	public void testAppendedPoints ()
+	{
+		fillLine();
+		SeriesDecimator decimator = new SeriesDecimator(x, y, 0);
+
+		// Grow the line in uneven batches, decimating between them
+		int size = 0;
+		Random random = new Random(SEED);
+		while (size < POINTS)
+		{
+			size = Math.min(POINTS, size + 1 + random.nextInt(9000));
+			decimator.append(x, y, size);
+			assertColumns(decimator, size, x[0], x[size - 1]);
+		}
+		assertColumns(decimator, POINTS, x[777], x[POINTS - 777]);
+	} // testAppendedPoints()
+
+} // test SeriesDecimatorTest
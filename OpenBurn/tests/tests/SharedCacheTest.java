@@ -0,0 +1,146 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import model.SharedCache;
+
+/**
+ * SharedCacheTest.java
+ *
+ * Purpose: Contains unit testing for SharedCache, checking that values are
+ * 		built once per key and that builds do not wait on each other.
+**/
+
+public class SharedCacheTest
+{
+	// Constants
+	private static final long TIMEOUT_SECONDS = 10;
+
+
+
+	// Helper builder that counts its builds and returns a fixed value
+	private static Callable<String> counting (final AtomicInteger builds, final String value)
+	{
+		return new Callable<String>()
+		{
+			public String call ()
+			{
+				builds.incrementAndGet();
+				return value;
+			} // call()
+		};
+	} // counting()
+
+
+
+	@Test
+	public void testBuiltOncePerKey ()
+	{
+		SharedCache<Integer, String> cache = new SharedCache<Integer, String>(4);
+		AtomicInteger builds = new AtomicInteger();
+
+		String first = cache.get(1, counting(builds, new String("one")));
+		assertSame(cache.get(1, counting(builds, "other")), first);
+		assertEquals(builds.get(), 1);
+		assertEquals(cache.size(), 1);
+	} // testBuiltOncePerKey()
+
+
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted ()
+	{
+		SharedCache<Integer, String> cache = new SharedCache<Integer, String>(2);
+		AtomicInteger builds = new AtomicInteger();
+
+		cache.get(1, counting(builds, "one"));
+		cache.get(2, counting(builds, "two"));
+		cache.get(1, counting(builds, "one"));
+		cache.get(3, counting(builds, "three"));
+		assertEquals(cache.size(), 2);
+
+		cache.get(1, counting(builds, "one"));
+		assertEquals(builds.get(), 3);
+		cache.get(2, counting(builds, "two"));
+		assertEquals(builds.get(), 4);
+	} // testLeastRecentlyUsedIsEvicted()
+
+
+
+	@Test
+	public void testFailedBuildIsNotKept ()
+	{
+		SharedCache<Integer, String> cache = new SharedCache<Integer, String>(4);
+		try
+		{
+			cache.get(1, new Callable<String>()
+			{
+				public String call ()
+				{
+					throw new IllegalArgumentException();
+				} // call()
+			});
+			fail();
+		}
+		catch (IllegalArgumentException e)
+		{
+			assertEquals(cache.size(), 0);
+		}
+
+		assertEquals(cache.get(1, counting(new AtomicInteger(), "one")), "one");
+	} // testFailedBuildIsNotKept()
+
+
+
+	@Test
+	public void testBuildsRunTogether () throws Exception
+	{
+		// Each build waits for the other to start, which never happens if
+		// builds hold the lock
+		final SharedCache<Integer, String> cache = new SharedCache<Integer, String>(4);
+		final CountDownLatch started = new CountDownLatch(2);
+		ExecutorService threads = Executors.newFixedThreadPool(2);
+		try
+		{
+			Future<?> results[] = new Future<?>[2];
+			for (int i = 0; i < 2; i++)
+			{
+				final int key = i;
+				results[i] = threads.submit(new Callable<String>()
+				{
+					public String call () throws Exception
+					{
+						return cache.get(key, new Callable<String>()
+						{
+							public String call () throws Exception
+							{
+								started.countDown();
+								if (started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS) == false)
+									throw new IllegalStateException();
+								return "built";
+							} // call()
+						});
+					} // call()
+				});
+			}
+
+			for (Future<?> result : results)
+				assertEquals(result.get(), "built");
+		}
+		finally
+		{
+			threads.shutdown();
+		}
+	} // testBuildsRunTogether()
+
+} // test SharedCacheTest
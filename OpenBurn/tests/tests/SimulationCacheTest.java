@@ -0,0 +1,204 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.RocketMath;
+import model.calculations.SimulationCache;
+import model.calculations.SimulationListener;
+import model.calculations.SimulationResultStore;
+import model.calculations.SimulationResults;
+import model.grains.Grain;
+import model.propellant.Propellant;
+import model.propellant.SteadyStatePropellant;
+
+/**
+ * SimulationCacheTest.java
+ *
+ * Purpose: Contains unit testing for SimulationCache, checking keys, hits,
+ * 		and eviction under a memory budget.
+**/
+
+public class SimulationCacheTest
+{
+	// Constants
+	private static final double DELTA_TIME = 0.01;
+	private static final long LARGE_BUDGET = 64L * 1024 * 1024;
+
+
+
+	// Fields
+	private Nozzle nozzle;
+	private Case motorCase;
+	private Propellant propellant;
+
+
+
+	@Before
+	public void setUp ()
+	{
+		nozzle     = MotorFixtures.nozzle(2);
+		motorCase  = MotorFixtures.motorCase();
+		propellant = MotorFixtures.propellant();
+	} // setUp()
+
+
+
+	@Test
+	public void testSameMotorHits ()
+	{
+		SimulationCache cache = new SimulationCache(LARGE_BUDGET);
+		SimulationResultStore first = cache.simulate(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+		SimulationResultStore second = cache.simulate(MotorFixtures.twoGrains(), DELTA_TIME,
+				MotorFixtures.nozzle(2), MotorFixtures.motorCase(), MotorFixtures.propellant());
+
+		assertSame(first, second);
+		assertEquals(cache.getMissCount(), 1);
+		assertEquals(cache.getHitCount(), 1);
+		assertEquals(cache.size(), 1);
+		assertEquals(cache.getMemoryUsage(), first.estimateMemoryUsage());
+	} // testSameMotorHits()
+
+
+
+	@Test
+	public void testGrainsAreNotChanged ()
+	{
+		List<Grain> grains = MotorFixtures.twoGrains();
+		new SimulationCache(LARGE_BUDGET).simulate(grains, DELTA_TIME, nozzle, motorCase, propellant);
+
+		assertEquals(grains.get(0).getInnerDiameter(), 1.6, 0.0);
+		assertEquals(grains.get(1).getLength(), 6.0, 0.0);
+	} // testGrainsAreNotChanged()
+
+
+
+	@Test
+	public void testListenerHearsSimulatedSteps ()
+	{
+		SimulationCache cache = new SimulationCache(LARGE_BUDGET);
+		SimulationResultStore heard = new SimulationResultStore(2);
+		SimulationResultStore first = cache.simulate(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant, heard);
+
+		assertEquals(heard, first);
+		assertEquals(first, RocketMath.simulateToStore(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant));
+
+		// Nothing is heard when the results are cached
+		SimulationResultStore second = new SimulationResultStore(2);
+		assertSame(cache.simulate(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant, second), first);
+		assertEquals(second.size(), 0);
+	} // testListenerHearsSimulatedSteps()
+
+
+
+	@Test
+	public void testStoppedSimulationIsNotKept ()
+	{
+		SimulationCache cache = new SimulationCache(LARGE_BUDGET);
+		SimulationListener cancel = new SimulationListener()
+		{
+			public void stepCompleted (SimulationResults results)
+			{
+				if (results.getTime() > 0.5)
+					throw new CancellationException();
+			} // stepCompleted()
+
+			public void simulationFinished ()
+			{
+			} // simulationFinished()
+		};
+
+		try
+		{
+			cache.simulate(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant, cancel);
+			fail();
+		}
+		catch (CancellationException e)
+		{
+			assertEquals(cache.size(), 0);
+		}
+	} // testStoppedSimulationIsNotKept()
+
+
+
+	@Test
+	public void testKeyCoversInputs ()
+	{
+		String key = SimulationCache.createKey(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+		Propellant steadyState = new SteadyStatePropellant(0.0665, 0.319, 0.06, 4890.0);
+		List<Grain> reordered = MotorFixtures.twoGrains();
+		reordered.add(reordered.remove(0));
+
+		assertEquals(key.length(), 64);
+		assertEquals(key, SimulationCache.createKey(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant));
+		assertFalse(key.equals(SimulationCache.createKey(MotorFixtures.twoGrains(), DELTA_TIME / 2, nozzle, motorCase, propellant)));
+		assertFalse(key.equals(SimulationCache.createKey(reordered, DELTA_TIME, nozzle, motorCase, propellant)));
+		assertFalse(key.equals(SimulationCache.createKey(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, steadyState)));
+		assertFalse(key.equals(SimulationCache.createKey(MotorFixtures.twoGrains(), DELTA_TIME,
+				new Nozzle(0.9, 2.5, 2.35, 1.5, 2), motorCase, propellant)));
+	} // testKeyCoversInputs()
+
+
+
+	@Test
+	public void testContainsDoesNotCount ()
+	{
+		SimulationCache cache = new SimulationCache(LARGE_BUDGET);
+		String key = SimulationCache.createKey(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+		assertFalse(cache.contains(key));
+
+		cache.simulate(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+		assertTrue(cache.contains(key));
+		assertFalse(cache.contains(SimulationCache.createKey(MotorFixtures.twoGrains(), DELTA_TIME * 10, nozzle, motorCase, propellant)));
+		assertEquals(cache.getHitCount(), 0);
+		assertEquals(cache.getMissCount(), 1);
+	} // testContainsDoesNotCount()
+
+
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted ()
+	{
+		long bytes = new SimulationCache(LARGE_BUDGET).simulate(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant)
+				.estimateMemoryUsage();
+		SimulationCache cache = new SimulationCache(bytes * 5 / 2);
+
+		SimulationResultStore first = cache.simulate(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+		cache.simulate(MotorFixtures.twoGrains(), DELTA_TIME * 1.001, nozzle, motorCase, propellant);
+		cache.simulate(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+		cache.simulate(MotorFixtures.twoGrains(), DELTA_TIME * 1.002, nozzle, motorCase, propellant);
+
+		assertEquals(cache.getEvictionCount(), 1);
+		assertEquals(cache.size(), 2);
+		assertTrue(cache.getMemoryUsage() <= cache.getMaxBytes());
+		assertSame(first, cache.simulate(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant));
+	} // testLeastRecentlyUsedIsEvicted()
+
+
+
+	@Test
+	public void testTooLargeIsNotKept ()
+	{
+		SimulationCache cache = new SimulationCache(1);
+		cache.simulate(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+
+		assertEquals(cache.size(), 0);
+		assertEquals(cache.getMemoryUsage(), 0);
+	} // testTooLargeIsNotKept()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNoBudget ()
+	{
+		new SimulationCache(0);
+	} // testNoBudget()
+
+} // test SimulationCacheTest
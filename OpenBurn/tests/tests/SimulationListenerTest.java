@@ -0,0 +1,145 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.AdaptiveStepper;
+import model.calculations.RocketMath;
+import model.calculations.SimulationListener;
+import model.calculations.SimulationListenerGroup;
+import model.calculations.SimulationResultStore;
+import model.calculations.SimulationResults;
+import model.propellant.Propellant;
+
+/**
+ * SimulationListenerTest.java
+ *
+ * Purpose: Contains unit testing for streaming simulations through a
+ * 		SimulationListener, checking them against the stored results.
+**/
+
+public class SimulationListenerTest
+{
+	// Constants
+	private static final double DELTA_TIME = 0.01;
+	private static final double TOLERANCE  = 0.001;   // Relative, for adaptive steps
+
+
+
+	// Fields
+	private Nozzle nozzle;
+	private Case motorCase;
+	private Propellant propellant;
+
+
+
+	// Listener that keeps only a count, the peak pressure, and the last time
+	private static class CountingListener implements SimulationListener
+	{
+		int steps;
+		int finished;
+		double maxPressure;
+		double lastTime = -1;
+		boolean inOrder = true;
+
+		@Override
+		public void stepCompleted (SimulationResults results)
+		{
+			inOrder &= results.getTime() > lastTime;
+			lastTime = results.getTime();
+			maxPressure = Math.max(maxPressure, results.getChamberPressure());
+			steps++;
+		} // stepCompleted()
+
+		@Override
+		public void simulationFinished ()
+		{
+			finished++;
+		} // simulationFinished()
+	} // class CountingListener
+
+
+
+	@Before
+	public void setUp ()
+	{
+		nozzle     = MotorFixtures.nozzle(2);
+		motorCase  = MotorFixtures.motorCase();
+		propellant = MotorFixtures.propellant();
+	} // setUp()
+
+
+
+	// Helper to find the peak pressure of stored results
+	private double maxPressure (SimulationResultStore store)
+	{
+		double max = 0;
+		for (int i = 0; i < store.size(); i++)
+			max = Math.max(max, store.getChamberPressureColumn()[i]);
+		return max;
+	} // maxPressure()
+
+
+
+	@Test
+	public void testStreamMatchesStore ()
+	{
+		CountingListener listener = new CountingListener();
+		RocketMath.simulate(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant, listener);
+		SimulationResultStore store = RocketMath.simulateToStore(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+
+		assertEquals(listener.steps, store.size());
+		assertEquals(listener.finished, 1);
+		assertTrue(listener.inOrder);
+		assertEquals(listener.maxPressure, maxPressure(store), 0.0);
+		assertEquals(listener.lastTime, store.getTimeColumn()[store.size() - 1], 0.0);
+	} // testStreamMatchesStore()
+
+
+
+	@Test
+	public void testAdaptiveStreamHasOnlyAcceptedSteps ()
+	{
+		CountingListener listener = new CountingListener();
+		SimulationResultStore streamed = new SimulationResultStore(2);
+		AdaptiveStepper stepper = new AdaptiveStepper(MotorFixtures.twoGrains(), nozzle, motorCase, propellant, TOLERANCE,
+													  DELTA_TIME / 1000, DELTA_TIME * 100);
+		stepper.run(DELTA_TIME, new SimulationListenerGroup(streamed, listener));
+		SimulationResultStore stored = RocketMath.simulateAdaptive(MotorFixtures.twoGrains(), DELTA_TIME, TOLERANCE, nozzle, motorCase, propellant);
+
+		assertTrue(stepper.getRejectedSteps() > 0);
+		assertTrue(listener.inOrder);
+		assertEquals(listener.finished, 1);
+		assertEquals(listener.steps, streamed.size());
+		assertEquals(streamed.size(), stored.size());
+		assertEquals(streamed.getThrustColumn()[streamed.size() / 2], stored.getThrustColumn()[stored.size() / 2], 0.0);
+	} // testAdaptiveStreamHasOnlyAcceptedSteps()
+
+
+
+	@Test
+	public void testCopiedRowReusesArrays ()
+	{
+		SimulationResultStore store = RocketMath.simulateToStore(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant);
+		SimulationResults row = store.getResults(1);
+		double portToThroat[] = row.getPortToThroat();
+
+		store.getResults(2, row);
+
+		assertSame(row.getPortToThroat(), portToThroat);
+		assertEquals(row, store.getResults(2));
+	} // testCopiedRowReusesArrays()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNullListener ()
+	{
+		new SimulationListenerGroup(new CountingListener(), null);
+	} // testNullListener()
+
+} // test SimulationListenerTest
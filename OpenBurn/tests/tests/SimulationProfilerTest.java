@@ -0,0 +1,101 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import model.calculations.RocketMath;
+import model.calculations.SimulationPhase;
+import model.calculations.SimulationProfiler;
+import model.calculations.SimulationResultStore;
+import model.grains.Grain;
+
+/**
+ * SimulationProfilerTest.java
+ *
+ * Purpose: Contains unit testing for SimulationProfiler, checking that every
+ * 		phase of every step is counted and that profiling does not change
+ * 		the results.
+**/
+
+public class SimulationProfilerTest
+{
+	// Constants
+	private static final double DELTA_TIME = 0.001;
+
+
+
+	// Helper to simulate the two grain BATES motor
+	private SimulationResultStore simulate (SimulationProfiler profiler)
+	{
+		List<Grain> grains = MotorFixtures.twoGrains();
+		SimulationResultStore store = new SimulationResultStore(grains.size());
+		RocketMath.simulate(grains, DELTA_TIME, MotorFixtures.nozzle(2), MotorFixtures.motorCase(),
+							MotorFixtures.propellant(), store, profiler);
+		return store;
+	} // simulate()
+
+
+
+	@Test
+	public void testEveryPhaseCounted ()
+	{
+		SimulationProfiler profiler = new SimulationProfiler();
+		SimulationResultStore profiled = simulate(profiler);
+		SimulationResultStore plain    = simulate(null);
+
+		// The first row is from initialize(), which is not a step
+		long steps = profiled.size() - 1;
+		assertEquals(profiler.getStepCount(), steps);
+		long total = 0;
+		for (SimulationPhase phase : SimulationPhase.values())
+		{
+			assertEquals(profiler.getCalls(phase), steps);
+			assertTrue(profiler.getQuantileNanos(phase, 0.5) <= profiler.getQuantileNanos(phase, 0.99));
+			total += profiler.getTotalNanos(phase);
+		}
+		assertEquals(profiler.getTotalNanos(), total);
+
+		// Timing the phases does not change the results
+		assertEquals(profiled.size(), plain.size());
+		assertArrayEquals(profiled.getThrustColumn(), plain.getThrustColumn(), 0);
+	} // testEveryPhaseCounted()
+
+
+
+	@Test
+	public void testMergeAndReset ()
+	{
+		SimulationProfiler first = new SimulationProfiler();
+		SimulationProfiler second = new SimulationProfiler();
+		simulate(first);
+		simulate(second);
+
+		long steps = first.getStepCount();
+		first.merge(second);
+		assertEquals(first.getCalls(SimulationPhase.CALCULATE_THRUST), steps + second.getStepCount());
+
+		first.reset();
+		assertEquals(first.getStepCount(), 0);
+		assertEquals(first.getTotalNanos(), 0);
+		assertEquals(first.getQuantileNanos(SimulationPhase.REGRESS_GRAINS, 0.5), 0.0, 0);
+	} // testMergeAndReset()
+
+
+
+	@Test
+	public void testReport ()
+	{
+		SimulationProfiler profiler = new SimulationProfiler();
+		simulate(profiler);
+
+		String lines[] = profiler.getReport().split("\\r?\\n");
+		assertEquals(lines.length, SimulationPhase.values().length + 2);
+		assertTrue(lines[0].startsWith(profiler.getStepCount() + " steps"));
+		assertTrue(lines[2].startsWith("generateGeometry "));
+		assertTrue(lines[lines.length - 1].startsWith("calculateThrust "));
+	} // testReport()
+
+} // test SimulationProfilerTest
@@ -0,0 +1,114 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import model.calculations.SimulationResultStore;
+import model.calculations.SimulationResults;
+
+/**
+ * SimulationResultStoreTest.java
+ *
+ * Purpose: Contains unit testing for SimulationResultStore.
+**/
+
+public class SimulationResultStoreTest
+{
+	// Tolerance constant for double testing
+	private static final double TOLERANCE = 0.0001;
+
+
+
+	// Helper to build one step of results for a two grain motor
+	private SimulationResults createStep (double time)
+	{
+		SimulationResults step = new SimulationResults();
+		step.setTime(time);
+		step.setThrust(time * 10);
+		step.setChamberPressure(time * 100);
+		step.setMassGeneratedPerGrain(new double[] {time, time + 1});
+		step.setPortToThroat(new double[] {2.0, 3.0});
+		step.setMassFlowPerAreaGrain(new double[] {1.0, 2.0, 3.0, 4.0});
+		return step;
+	} // createStep()
+
+
+
+	@Test
+	public void testAppendGrowsPastInitialCapacity ()
+	{
+		SimulationResultStore store = new SimulationResultStore(2, 1);
+		for (int i = 0; i < 100; i++)
+			store.append(createStep(i));
+
+		assertEquals(store.size(), 100);
+		assertEquals(store.getTimeColumn()[99], 99.0, TOLERANCE);
+		assertEquals(store.getThrustColumn()[50], 500.0, TOLERANCE);
+		assertEquals(store.getMassGeneratedPerGrain(75, 1), 76.0, TOLERANCE);
+	} // testAppendGrowsPastInitialCapacity()
+
+
+
+	@Test
+	public void testShortPerGrainArraysArePadded ()
+	{
+		SimulationResultStore store = new SimulationResultStore(2);
+		SimulationResults step = createStep(1.0);
+		step.setMassFlowPerAreaGrain(new double[] {5.0, 6.0});
+		store.append(step);
+
+		assertEquals(store.getMassFlowPerAreaWidth(), 4);
+		assertEquals(store.getMassFlowPerAreaGrain(0, 1), 6.0, TOLERANCE);
+		assertEquals(store.getMassFlowPerAreaGrain(0, 3), 0.0, TOLERANCE);
+	} // testShortPerGrainArraysArePadded()
+
+
+
+	@Test
+	public void testListViewMatchesColumns ()
+	{
+		SimulationResultStore store = new SimulationResultStore(2);
+		store.append(createStep(0.5));
+		store.append(createStep(1.5));
+
+		List<SimulationResults> view = store.asList();
+		assertEquals(view.size(), 2);
+		assertEquals(view.get(1).getChamberPressure(), 150.0, TOLERANCE);
+		assertEquals(view.get(1).getPortToThroat()[1], 3.0, TOLERANCE);
+		assertEquals(SimulationResultStore.fromList(view), store);
+	} // testListViewMatchesColumns()
+
+
+
+	@Test
+	public void testEqualsMatchesHashCode ()
+	{
+		SimulationResultStore store = new SimulationResultStore(2);
+		SimulationResults step = createStep(0.5);
+		step.setThrust(Double.NaN);
+		store.append(step);
+		assertEquals(store, SimulationResultStore.fromList(store.asList()));
+
+		SimulationResultStore positive = new SimulationResultStore(2);
+		SimulationResultStore negative = new SimulationResultStore(2);
+		step.setThrust(0.0);
+		positive.append(step);
+		step.setThrust(-0.0);
+		negative.append(step);
+		assertFalse(positive.equals(negative));
+		assertFalse(positive.hashCode() == negative.hashCode());
+	} // testEqualsMatchesHashCode()
+
+
+
+	@Test (expected = IndexOutOfBoundsException.class)
+	public void testRowOutOfBounds ()
+	{
+		SimulationResultStore store = new SimulationResultStore(2);
+		store.getResults(0);
+	} // testRowOutOfBounds()
+
+} // test SimulationResultStoreTest
@@ -0,0 +1,145 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.RocketMath;
+import model.calculations.SimulationResultStore;
+import model.calculations.SimulationResults;
+import model.calculations.SimulationStepper;
+import model.grains.CylindricalGrain;
+import model.grains.Grain;
+import model.propellant.Propellant;
+
+/**
+ * SimulationStepperTest.java
+ *
+ * Purpose: Contains unit testing for SimulationStepper, including a check
+ * 		that stepping the simulation does not allocate.
+**/
+
+public class SimulationStepperTest
+{
+	// Tolerance constant for double testing
+	private static final double TOLERANCE = 0.0001;
+
+
+
+	// Constants
+	private static final double DELTA_TIME          = 0.00001;
+	private static final int WARM_UP_STEPS          = 20000;
+	private static final int MEASURED_STEPS         = 20000;
+	private static final long ALLOCATION_LIMIT      = 1024;   // bytes, covers the measurement itself
+	private static final double BURN_TIME_TOLERANCE = 0.001;   // seconds
+
+
+
+	// Fields, the BATES motor from input.txt
+	private Nozzle nozzle;
+	private Case motorCase;
+	private Propellant propellant;
+
+
+
+	@Before
+	public void setUp ()
+	{
+		nozzle     = MotorFixtures.nozzle(5);
+		motorCase  = MotorFixtures.motorCase();
+		propellant = MotorFixtures.propellant();
+	} // setUp()
+
+
+
+	@Test
+	public void testStepDoesNotAllocate ()
+	{
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+
+		SimulationStepper stepper = new SimulationStepper(MotorFixtures.batesGrains(), nozzle, motorCase, propellant);
+		stepper.initialize();
+
+		// Let the JIT compile the step before measuring
+		for (int i = 0; i < WARM_UP_STEPS; i++)
+			stepper.step(DELTA_TIME);
+
+		long before = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < MEASURED_STEPS; i++)
+			stepper.step(DELTA_TIME);
+		long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+		assertTrue(stepper.isRunning());
+		assertTrue("Stepping allocated " + allocated + " bytes", allocated < ALLOCATION_LIMIT);
+	} // testStepDoesNotAllocate()
+
+
+
+	@Test
+	public void testStepReusesResults ()
+	{
+		SimulationStepper stepper = new SimulationStepper(MotorFixtures.batesGrains(), nozzle, motorCase, propellant);
+		SimulationResults first = stepper.initialize();
+		SimulationResults second = stepper.step(0.01);
+
+		assertSame(first, second);
+		assertSame(first.getMassGeneratedPerGrain(), stepper.step(0.01).getMassGeneratedPerGrain());
+	} // testStepReusesResults()
+
+
+
+	@Test
+	public void testStepperMatchesListResults ()
+	{
+		SimulationResultStore store = new SimulationResultStore(5);
+		new SimulationStepper(MotorFixtures.batesGrains(), nozzle, motorCase, propellant).run(0.01, store);
+		List<SimulationResults> list = RocketMath.simulate(MotorFixtures.batesGrains(), 0.01, nozzle, motorCase, propellant);
+
+		assertEquals(store.size(), list.size());
+		int last = store.size() - 1;
+		assertEquals(store.getThrustColumn()[last], list.get(last).getThrust(), TOLERANCE);
+		assertEquals(store.getSystemMassColumn()[last], list.get(last).getSystemMass(), TOLERANCE);
+	} // testStepperMatchesListResults()
+
+
+
+	@Test
+	public void testStepEndsAtBurnout ()
+	{
+		List<Grain> grains = new ArrayList<Grain>();
+		grains.add(new CylindricalGrain(6.0, 3.35, 1.7, 2));
+		SimulationStepper stepper = new SimulationStepper(grains, nozzle, motorCase, propellant);
+		stepper.initialize();
+
+		// One very long step stops exactly when the web is gone
+		double burnRate = stepper.step(100.0).getBurnRate();
+		Grain grain = stepper.getGrains().get(0);
+
+		assertFalse(stepper.isRunning());
+		assertEquals(stepper.getTime(), (3.35 - 1.7) / 2 / burnRate, TOLERANCE);
+		assertEquals(grain.getBurnoutTime(), stepper.getTime(), TOLERANCE);
+		assertEquals(grain.getRemainingWeb(), 0.0, TOLERANCE);
+	} // testStepEndsAtBurnout()
+
+
+
+	@Test
+	public void testBurnTimeDoesNotDependOnDeltaTime ()
+	{
+		SimulationResultStore fine = RocketMath.simulateToStore(MotorFixtures.batesGrains(), 0.001, nozzle, motorCase, propellant);
+		SimulationResultStore coarse = RocketMath.simulateToStore(MotorFixtures.batesGrains(), 0.01, nozzle, motorCase, propellant);
+
+		double fineBurnTime = fine.getTimeColumn()[fine.size() - 1];
+		double coarseBurnTime = coarse.getTimeColumn()[coarse.size() - 1];
+		assertEquals(coarseBurnTime, fineBurnTime, BURN_TIME_TOLERANCE);
+	} // testBurnTimeDoesNotDependOnDeltaTime()
+
+} // test SimulationStepperTest
@@ -0,0 +1,112 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.AdaptiveStepper;
+import model.calculations.RocketMath;
+import model.calculations.SimulationSummary;
+import model.calculations.SimulationSummaryAccumulator;
+import model.propellant.Propellant;
+
+/**
+ * SimulationSummaryAccumulatorTest.java
+ *
+ * Purpose: Contains unit testing for SimulationSummaryAccumulator, checking
+ * 		streamed summaries against summaries of the stored results.
+**/
+
+public class SimulationSummaryAccumulatorTest
+{
+	// Tolerance constant for double testing
+	private static final double TOLERANCE = 0.0001;
+
+
+
+	// Constants
+	private static final double DELTA_TIME = 0.01;
+
+
+
+	// Fields
+	private Nozzle nozzle;
+	private Case motorCase;
+	private Propellant propellant;
+
+
+
+	@Before
+	public void setUp ()
+	{
+		nozzle     = MotorFixtures.nozzle(2);
+		motorCase  = MotorFixtures.motorCase();
+		propellant = MotorFixtures.propellant();
+	} // setUp()
+
+
+
+	@Test
+	public void testVariableSteps ()
+	{
+		SimulationSummaryAccumulator steps = new SimulationSummaryAccumulator();
+		steps.add(0.0, 0.0, 0.0, 12.0);
+		steps.add(1.0, 10.0, 5.0, 11.5);
+		steps.add(3.0, 20.0, 8.0, 11.0);
+
+		assertEquals(steps.getStepCount(), 3);
+		assertEquals(steps.getImpulse(), 10.0 + 40.0, TOLERANCE);
+		assertEquals(steps.getAverageThrust(), 50.0 / 3.0, TOLERANCE);
+		assertEquals(steps.getMaxThrust(), 20.0, TOLERANCE);
+		assertEquals(steps.getMaxPressure(), 8.0, TOLERANCE);
+		assertEquals(steps.getEndTime(), 3.0, TOLERANCE);
+		assertEquals(steps.getInitialMass(), 12.0, TOLERANCE);
+	} // testVariableSteps()
+
+
+
+	@Test
+	public void testStreamedMatchesStored ()
+	{
+		SimulationSummaryAccumulator steps = new SimulationSummaryAccumulator();
+		RocketMath.simulate(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant, steps);
+		SimulationSummary streamed = steps.toSummary(motorCase);
+		SimulationSummary stored = new SimulationSummary(
+				RocketMath.simulateToStore(MotorFixtures.twoGrains(), DELTA_TIME, nozzle, motorCase, propellant), motorCase);
+
+		assertEquals(streamed.getImpulse(), stored.getImpulse(), 0.0);
+		assertEquals(streamed.getaverageThrust(), stored.getaverageThrust(), 0.0);
+		assertEquals(streamed.getMaxThrust(), stored.getMaxThrust(), 0.0);
+		assertEquals(streamed.getmaxPressure(), stored.getmaxPressure(), 0.0);
+		assertEquals(streamed.getBurnTime(), stored.getBurnTime(), 0.0);
+		assertEquals(streamed.ISP(), stored.ISP(), 0.0);
+		assertEquals(streamed.getClassification(), stored.getClassification());
+	} // testStreamedMatchesStored()
+
+
+
+	@Test
+	public void testAdaptiveStepsMatchFixedSteps ()
+	{
+		SimulationSummaryAccumulator steps = new SimulationSummaryAccumulator();
+		new AdaptiveStepper(MotorFixtures.twoGrains(), nozzle, motorCase, propellant, 0.001, DELTA_TIME / 1000, DELTA_TIME * 100)
+				.run(DELTA_TIME, steps);
+		SimulationSummary fixed = new SimulationSummary(
+				RocketMath.simulateToStore(MotorFixtures.twoGrains(), DELTA_TIME / 10, nozzle, motorCase, propellant), motorCase);
+
+		assertEquals(steps.getImpulse(), fixed.getImpulse(), fixed.getImpulse() * 0.001);
+		assertEquals(steps.getEndTime(), fixed.getBurnTime(), 0.001);
+	} // testAdaptiveStepsMatchFixedSteps()
+
+
+
+	@Test (expected = IllegalStateException.class)
+	public void testEmptyAccumulator ()
+	{
+		new SimulationSummaryAccumulator().toSummary(motorCase);
+	} // testEmptyAccumulator()
+
+} // test SimulationSummaryAccumulatorTest
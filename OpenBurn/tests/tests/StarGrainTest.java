@@ -0,0 +1,237 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import model.Case;
+import model.Nozzle;
+import model.calculations.RocketMath;
+import model.calculations.SimulationCache;
+import model.calculations.SimulationResultStore;
+import model.grains.CylindricalGrain;
+import model.grains.Grain;
+import model.grains.GrainFactory;
+import model.grains.GrainType;
+import model.grains.StarGrain;
+import model.propellant.Propellant;
+
+/**
+ * StarGrainTest.java
+ *
+ * Purpose: Contains unit testing for StarGrain, checking its geometry
+ * 		against a cylindrical grain and against itself as it burns.
+**/
+
+public class StarGrainTest
+{
+	// Constants
+	private static final double RELATIVE_TOLERANCE = 0.01;
+	private static final double BURN_RATE          = 0.1;
+	private static final double DELTA_TIME         = 0.05;
+	private static final double BUILD_MILLIS       = 500;
+
+
+
+	// Star with no points, a plain circular core
+	private StarGrain createRound ()
+	{
+		return new StarGrain(6.0, 3.35, 1.6, 2, 6, 0.0, 0.5);
+	} // createRound()
+
+	private StarGrain createStar ()
+	{
+		return new StarGrain(6.0, 3.35, 1.0, 2, 6, 0.5, 0.4);
+	} // createStar()
+
+
+
+	@Test
+	public void testRoundStarMatchesCylindrical ()
+	{
+		StarGrain star = createRound();
+		Grain cylinder = new CylindricalGrain(6.0, 3.35, 1.6, 2);
+
+		// The last cell before the wall is only resolved to within a cell
+		assertEquals(star.getRemainingWeb(), cylinder.getRemainingWeb(), 1e-6);
+		while (cylinder.getRemainingWeb() > 2 * star.getField().getSpacing())
+		{
+			assertEquals(star.getVolume(), cylinder.getVolume(), cylinder.getVolume() * RELATIVE_TOLERANCE);
+			assertEquals(star.getBurnArea(), cylinder.getBurnArea(), cylinder.getBurnArea() * RELATIVE_TOLERANCE);
+			assertEquals(star.getCurrentInnerFlowArea(), cylinder.getCurrentInnerFlowArea(),
+						 cylinder.getCurrentInnerFlowArea() * RELATIVE_TOLERANCE);
+
+			star.updateGeometry(BURN_RATE, DELTA_TIME);
+			cylinder.updateGeometry(BURN_RATE, DELTA_TIME);
+		}
+	} // testRoundStarMatchesCylindrical()
+
+
+
+	@Test
+	public void testBurnAreaIsVolumeChange ()
+	{
+		StarGrain star = createStar();
+		double step = 0.002;
+		while (star.getRemainingWeb() > 0.05)
+		{
+			// Volume burned over a small step is the burn area times the step
+			double area = star.getBurnArea();
+			double change = star.updateGeometry(step / DELTA_TIME, DELTA_TIME);
+			assertEquals(change / step, area, area * 0.03);
+
+			star.updateGeometry(BURN_RATE, DELTA_TIME);
+		}
+	} // testBurnAreaIsVolumeChange()
+
+
+
+	@Test
+	public void testBurnsOut ()
+	{
+		StarGrain star = createStar();
+		double initialPort = star.getCurrentInnerFlowArea();
+		int steps = 0;
+		while (star.isBurning())
+		{
+			star.updateGeometry(BURN_RATE, DELTA_TIME);
+			steps++;
+			assertTrue(steps < 1000);
+		}
+
+		assertEquals(star.getVolume(), 0.0, 1e-9);
+		assertEquals(star.getBurnArea(), 0.0, 0.0);
+		assertEquals(star.getRemainingWeb(), 0.0, 0.0);
+		assertEquals(star.getInnerDiameter(), star.getOuterDiameter(), 0.0);
+		assertTrue(star.getCurrentInnerFlowArea() > initialPort);
+	} // testBurnsOut()
+
+
+
+	@Test
+	public void testPointsAddBurnArea ()
+	{
+		StarGrain star = createStar();
+		Grain cylinder = new CylindricalGrain(6.0, 3.35, 1.0, 2);
+
+		assertTrue(star.getBurnArea() > cylinder.getBurnArea());
+		assertTrue(star.getVolume() < cylinder.getVolume());
+		assertTrue(star.getRemainingWeb() < cylinder.getRemainingWeb());
+	} // testPointsAddBurnArea()
+
+
+
+	@Test
+	public void testCloneKeepsBurnedWeb ()
+	{
+		StarGrain star = createStar();
+		star.updateGeometry(BURN_RATE, DELTA_TIME * 4);
+		StarGrain copy = (StarGrain) star.clone();
+
+		assertEquals(copy.getBurnedWeb(), star.getBurnedWeb(), 0.0);
+		assertEquals(copy.getBurnArea(), star.getBurnArea(), 0.0);
+		assertSame(copy.getField(), star.getField());
+
+		StarGrain fresh = createStar();
+		fresh.copyStateFrom(star);
+		assertEquals(fresh.getVolume(), star.getVolume(), 0.0);
+	} // testCloneKeepsBurnedWeb()
+
+
+
+	@Test
+	public void testSameShapeSharesField ()
+	{
+		assertSame(createStar().getField(), createStar().getField());
+		assertNotSame(createStar().getField(), createRound().getField());
+	} // testSameShapeSharesField()
+
+
+
+	@Test
+	public void testFieldBuildTime ()
+	{
+		// Shapes no other test uses, so neither field is cached. The first
+		// build pays for compiling the passes, so only the second is timed.
+		new StarGrain(6.0, 3.35, 1.1, 2, 5, 0.45, 0.35).getField();
+		long start = System.nanoTime();
+		StarGrain star = new StarGrain(6.0, 3.35, 1.2, 2, 5, 0.45, 0.35);
+		star.getField();
+		double millis = (System.nanoTime() - start) / 1e6;
+
+		assertEquals(star.getField().getNodeCount(), StarGrain.GRID_CELLS + 1);
+		assertTrue("Field took " + millis + " ms to build", millis < BUILD_MILLIS);
+	} // testFieldBuildTime()
+
+
+
+	@Test
+	public void testFactory ()
+	{
+		Grain defaults = GrainFactory.createGrain(GrainType.Star, 6.0, 3.35, 1.0, 2);
+		Grain shaped = GrainFactory.createGrain(GrainType.Star, 6.0, 3.35, 1.0, 2, createStar().getShapeParameters());
+
+		assertTrue(defaults instanceof StarGrain);
+		assertEquals(shaped.getBurnArea(), createStar().getBurnArea(), 0.0);
+		assertEquals(GrainFactory.createGrain(GrainType.Cylindrical, 6.0, 3.35, 1.0, 2, new double[0]).getType(),
+					 GrainType.Cylindrical);
+	} // testFactory()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testFactoryWrongShapeParameters ()
+	{
+		GrainFactory.createGrain(GrainType.Star, 6.0, 3.35, 1.0, 2, new double[] {6});
+	} // testFactoryWrongShapeParameters()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNoPointsConstructorException ()
+	{
+		new StarGrain(6.0, 3.35, 1.0, 2, 0, 0.5, 0.4);
+	} // testNoPointsConstructorException()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testTipOutsideConstructorException ()
+	{
+		new StarGrain(6.0, 3.35, 1.0, 2, 6, 1.2, 0.4);
+	} // testTipOutsideConstructorException()
+
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNoWidthConstructorException ()
+	{
+		new StarGrain(6.0, 3.35, 1.0, 2, 6, 0.5, 0.0);
+	} // testNoWidthConstructorException()
+
+
+
+	@Test
+	public void testSimulation ()
+	{
+		Nozzle nozzle = MotorFixtures.nozzle(2);
+		Case motorCase = MotorFixtures.motorCase();
+		Propellant propellant = MotorFixtures.propellant();
+		List<Grain> stars = new ArrayList<Grain>();
+		stars.add(createStar());
+		stars.add(createStar());
+		List<Grain> round = new ArrayList<Grain>();
+		round.add(createRound());
+		round.add(new StarGrain(6.0, 3.35, 1.6, 2, 6, 0.0, 0.5));
+
+		SimulationResultStore store = RocketMath.simulateToStore(stars, 0.01, nozzle, motorCase, propellant);
+		assertTrue(store.size() > 10);
+		assertTrue(store.getThrustColumn()[store.size() / 2] > 0);
+		assertFalse(SimulationCache.createKey(stars, 0.01, nozzle, motorCase, propellant)
+					.equals(SimulationCache.createKey(round, 0.01, nozzle, motorCase, propellant)));
+	} // testSimulation()
+
+} // test StarGrainTest